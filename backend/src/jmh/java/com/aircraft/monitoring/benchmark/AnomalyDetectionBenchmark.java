@@ -0,0 +1,56 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.service.AnomalyDetectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sample anomaly detection with the built-in rules.
+ *
+ * Anomalous samples also go through event publishing; the samples cycle through
+ * the same timestamps, so most events are suppressed by the rate limit, as for
+ * an aircraft with a persistent anomaly.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyDetectionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean anomalous;
+
+    private AnomalyDetectionService anomalyDetectionService;
+    private AircraftData[] samples;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        anomalyDetectionService = BenchmarkFixtures.anomalyDetectionService();
+        samples = BenchmarkFixtures.samples(anomalous);
+    }
+
+    @Benchmark
+    public AircraftData detectAnomalies() {
+        AircraftData data = samples[next];
+        next = (next + 1) & (BenchmarkFixtures.SAMPLE_COUNT - 1);
+        return anomalyDetectionService.detectAnomalies(data);
+    }
+}
@@ -0,0 +1,205 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AircraftState;
+import com.aircraft.monitoring.service.AnomalyDetectionService;
+import com.aircraft.monitoring.service.AnomalyEventService;
+import com.aircraft.monitoring.service.ClientSession;
+import com.aircraft.monitoring.service.CorrelationAnomalyDetector;
+import com.aircraft.monitoring.service.DataSimulationService;
+import com.aircraft.monitoring.service.PipelineMetrics;
+import com.aircraft.monitoring.service.SseService;
+import com.aircraft.monitoring.service.StatisticalAnomalyDetector;
+import com.aircraft.monitoring.service.TelemetryHistoryService;
+import com.aircraft.monitoring.service.TelemetryJournalService;
+import com.aircraft.monitoring.service.TelemetryPipeline;
+import com.aircraft.monitoring.service.TelemetryRollupService;
+import com.aircraft.monitoring.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Services and inputs for the benchmarks, wired by hand instead of starting the
+ * Spring context, so only the measured code runs.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class BenchmarkFixtures {
+
+    /** Samples per input set; a power of two so benchmarks can cycle with a mask */
+    static final int SAMPLE_COUNT = 1024;
+
+    private static final int AIRCRAFT_COUNT = 16;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Object mapper configured like the one Spring Boot injects
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * Pipeline metrics recording into an in-memory registry, so instrumentation cost is included
+     */
+    static PipelineMetrics pipelineMetrics() {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        pipelineMetrics.init();
+        return pipelineMetrics;
+    }
+
+    /**
+     * Anomaly detection with the built-in rules, the default statistical and correlation
+     * detectors and an event service without sinks
+     */
+    static AnomalyDetectionService anomalyDetectionService() {
+        AnomalyEventService anomalyEventService = new AnomalyEventService();
+        ReflectionTestUtils.setField(anomalyEventService, "sinks", List.of());
+        ReflectionTestUtils.setField(anomalyEventService, "minIntervalMillis", 30_000L);
+
+        AnomalyDetectionService anomalyDetectionService = new AnomalyDetectionService();
+        ReflectionTestUtils.setField(anomalyDetectionService, "anomalyEventService", anomalyEventService);
+        ReflectionTestUtils.setField(anomalyDetectionService, "pipelineMetrics", pipelineMetrics());
+        ReflectionTestUtils.setField(anomalyDetectionService, "statisticalAnomalyDetector", statisticalAnomalyDetector());
+        ReflectionTestUtils.setField(anomalyDetectionService, "correlationAnomalyDetector", correlationAnomalyDetector());
+        return anomalyDetectionService;
+    }
+
+    /**
+     * Statistical detector with the default settings
+     */
+    static StatisticalAnomalyDetector statisticalAnomalyDetector() {
+        StatisticalAnomalyDetector statisticalAnomalyDetector = new StatisticalAnomalyDetector();
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "enabled", true);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "alpha", 0.05);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "zThreshold", 4.0);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "rateThreshold", 6.0);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "warmupSamples", 30);
+        return statisticalAnomalyDetector;
+    }
+
+    /**
+     * Correlation detector with the default settings
+     */
+    static CorrelationAnomalyDetector correlationAnomalyDetector() {
+        CorrelationAnomalyDetector correlationAnomalyDetector = new CorrelationAnomalyDetector();
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "enabled", true);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "alpha", 0.02);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "residualThreshold", 4.0);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "warmupSamples", 50);
+        return correlationAnomalyDetector;
+    }
+    
+    /**
+     * WebSocket service with the default queue settings; call {@link WebSocketService#shutdown()} when done
+     */
+    static WebSocketService webSocketService() {
+        return webSocketService(false);
+    }
+    
+    /**
+     * WebSocket service that sends on virtual threads if requested and supported by the runtime
+     */
+    static WebSocketService webSocketService(boolean virtualThreads) {
+        WebSocketService webSocketService = new WebSocketService();
+        ReflectionTestUtils.setField(webSocketService, "objectMapper", objectMapper());
+        ReflectionTestUtils.setField(webSocketService, "pipelineMetrics", pipelineMetrics());
+        ReflectionTestUtils.setField(webSocketService, "sseService", sseService());
+        ReflectionTestUtils.setField(webSocketService, "queueCapacity", 256);
+        ReflectionTestUtils.setField(webSocketService, "overflowPolicy", ClientSession.OverflowPolicy.DROP_OLDEST);
+        ReflectionTestUtils.setField(webSocketService, "sendThreads", 0);
+        ReflectionTestUtils.setField(webSocketService, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(webSocketService, "keyframeInterval", 30);
+        ReflectionTestUtils.setField(webSocketService, "conflationFlushIntervalMs", 100L);
+        webSocketService.init();
+        return webSocketService;
+    }
+
+    /**
+     * Server-sent events service with the default settings and no open streams
+     */
+    static SseService sseService() {
+        SseService sseService = new SseService();
+        ReflectionTestUtils.setField(sseService, "replayCapacity", 512);
+        ReflectionTestUtils.setField(sseService, "queueCapacity", 256);
+        ReflectionTestUtils.setField(sseService, "sendThreads", 2);
+        ReflectionTestUtils.setField(sseService, "heartbeatIntervalMs", 15_000L);
+        ReflectionTestUtils.setField(sseService, "timeoutMs", 0L);
+        sseService.init();
+        return sseService;
+    }
+    
+    /**
+     * Staged pipeline with the default ring, recording into in-memory history and
+     * rollups; the journal is disabled. Call {@link TelemetryPipeline#shutdown()} when done.
+     */
+    static TelemetryPipeline telemetryPipeline(int partitions) {
+        TelemetryHistoryService telemetryHistoryService = new TelemetryHistoryService();
+        ReflectionTestUtils.setField(telemetryHistoryService, "retentionMinutes", 10);
+        ReflectionTestUtils.setField(telemetryHistoryService, "sampleIntervalMs", 2000L);
+        telemetryHistoryService.init();
+
+        TelemetryRollupService telemetryRollupService = new TelemetryRollupService();
+        ReflectionTestUtils.setField(telemetryRollupService, "enabled", true);
+        ReflectionTestUtils.setField(telemetryRollupService, "secondRetentionMinutes", 10L);
+        ReflectionTestUtils.setField(telemetryRollupService, "tenSecondRetentionMinutes", 120L);
+        ReflectionTestUtils.setField(telemetryRollupService, "minuteRetentionMinutes", 1440L);
+        ReflectionTestUtils.setField(telemetryRollupService, "tenMinuteRetentionMinutes", 10080L);
+        ReflectionTestUtils.setField(telemetryRollupService, "maxPoints", 2000);
+        telemetryRollupService.init();
+
+        TelemetryJournalService telemetryJournalService = new TelemetryJournalService();
+        ReflectionTestUtils.setField(telemetryJournalService, "enabled", false);
+
+        TelemetryPipeline telemetryPipeline = new TelemetryPipeline();
+        ReflectionTestUtils.setField(telemetryPipeline, "anomalyDetectionService", anomalyDetectionService());
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryHistoryService", telemetryHistoryService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryRollupService", telemetryRollupService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryJournalService", telemetryJournalService);
+        ReflectionTestUtils.setField(telemetryPipeline, "pipelineMetrics", pipelineMetrics());
+        ReflectionTestUtils.setField(telemetryPipeline, "enabled", true);
+        ReflectionTestUtils.setField(telemetryPipeline, "ringSize", 16384);
+        ReflectionTestUtils.setField(telemetryPipeline, "partitions", partitions);
+        ReflectionTestUtils.setField(telemetryPipeline, "overflowPolicy", TelemetryPipeline.OverflowPolicy.BLOCK);
+        telemetryPipeline.init();
+        return telemetryPipeline;
+    }
+    
+    /**
+     * Creates simulated samples of a small fleet, two seconds apart per aircraft
+     *
+     * @param anomalous Whether every sample breaches the engine temperature limit
+     * @return {@link #SAMPLE_COUNT} samples
+     */
+    static AircraftData[] samples(boolean anomalous) {
+        DataSimulationService simulation = new DataSimulationService();
+        SplittableRandom random = new SplittableRandom(42);
+        AircraftState[] states = new AircraftState[AIRCRAFT_COUNT];
+        for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+            states[i] = new AircraftState(String.format("N%05d", i), random.split());
+            states[i].setAircraftType("B737");
+        }
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AircraftData[] samples = new AircraftData[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            AircraftState state = states[i % AIRCRAFT_COUNT];
+            LocalDateTime timestamp = start.plusSeconds(2L * (i / AIRCRAFT_COUNT));
+            samples[i] = simulation.generateSample(state, new AircraftData(state.getTailNumber(), timestamp));
+            if (anomalous) {
+                samples[i].setEngineTemperature(250.0);
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,71 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.service.BinaryTelemetryEncoder;
+import com.aircraft.monitoring.service.WebSocketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of one sample to N connected sessions through
+ * {@link WebSocketService#broadcastAircraftData(AircraftData)}.
+ *
+ * Measures the broadcasting thread: serialization, routing and enqueueing. The
+ * sessions discard what the send threads hand them; with the default
+ * DROP_OLDEST policy the queues stay bounded when sending falls behind.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int sessions;
+
+    @Param({"false", "true"})
+    public boolean binary;
+
+    private WebSocketService webSocketService;
+    private AircraftData[] samples;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        webSocketService = BenchmarkFixtures.webSocketService();
+        for (int i = 0; i < sessions; i++) {
+            webSocketService.afterConnectionEstablished(
+                    new NullWebSocketSession("session-" + i, binary ? BinaryTelemetryEncoder.SUBPROTOCOL : null));
+        }
+        samples = BenchmarkFixtures.samples(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        webSocketService.shutdown();
+    }
+
+    @Benchmark
+    public void broadcastAircraftData() {
+        AircraftData data = samples[next];
+        next = (next + 1) & (BenchmarkFixtures.SAMPLE_COUNT - 1);
+        webSocketService.broadcastAircraftData(data);
+    }
+}
@@ -0,0 +1,52 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AircraftState;
+import com.aircraft.monitoring.service.DataSimulationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating one simulated sample, the part of
+ * {@link DataSimulationService#generateAircraftData()} before detection, history,
+ * journal and broadcast, which have their own benchmarks or do I/O.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSimulationBenchmark {
+
+    private DataSimulationService simulation;
+    private AircraftState state;
+
+    @Setup
+    public void setUp() {
+        simulation = new DataSimulationService();
+        state = new AircraftState("N12345", new SplittableRandom(42));
+        state.setAircraftType("B737");
+    }
+
+    @Benchmark
+    public AircraftData generateSample() {
+        return simulation.generateSample(state, new AircraftData(state.getTailNumber(), LocalDateTime.now(ZoneOffset.UTC)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.aircraft.monitoring.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open WebSocket session that discards sent messages.
+ *
+ * A plain implementation instead of a mocking library, so the benchmarks do not
+ * measure invocation recording. Optionally blocks for a fixed time per message,
+ * like a write to a slow client, and reports each delivered message.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class NullWebSocketSession implements WebSocketSession {
+
+    private final String id;
+    private final String acceptedProtocol;
+    private final long sendDelayMillis;
+    private final Runnable onSend;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile boolean open = true;
+
+    NullWebSocketSession(String id, String acceptedProtocol) {
+        this(id, acceptedProtocol, 0, null);
+    }
+
+    /**
+     * @param sendDelayMillis Time each sendMessage call blocks
+     * @param onSend Called after each message, or null
+     */
+    NullWebSocketSession(String id, String acceptedProtocol, long sendDelayMillis, Runnable onSend) {
+        this.id = id;
+        this.acceptedProtocol = acceptedProtocol;
+        this.sendDelayMillis = sendDelayMillis;
+        this.onSend = onSend;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public URI getUri() {
+        return null;
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return HttpHeaders.EMPTY;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return acceptedProtocol;
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return List.of();
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (sendDelayMillis > 0) {
+            try {
+                Thread.sleep(sendDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        if (onSend != null) {
+            onSend.run();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        open = false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.SensorGroup;
+import com.aircraft.monitoring.service.BinaryTelemetryEncoder;
+import com.aircraft.monitoring.service.TelemetryJsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of one aircraft data message as done once per sample by
+ * {@code WebSocketService.broadcastAircraftData}: the JSON message written by the
+ * {@link TelemetryJsonWriter}, for all sensor groups and for the engine group only,
+ * the same message built from {@link ObjectMapper} output and string concatenation
+ * as before, and the binary frame for comparison. Run with {@code -prof gc} to
+ * compare the allocation per message.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private BinaryTelemetryEncoder binaryEncoder;
+    private AircraftData[] samples;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        binaryEncoder = new BinaryTelemetryEncoder(30);
+        samples = BenchmarkFixtures.samples(false);
+    }
+
+    @Benchmark
+    public String jsonWriterMessage() {
+        return TelemetryJsonWriter.acquire().beginObject()
+                .name("type").value("aircraft_data")
+                .name("data").aircraftData(nextSample(), SensorGroup.ALL)
+                .endObject().toString();
+    }
+
+    @Benchmark
+    public String jsonWriterEngineMessage() {
+        return TelemetryJsonWriter.acquire().beginObject()
+                .name("type").value("aircraft_data")
+                .name("data").aircraftData(nextSample(), SensorGroup.ENGINE.bit())
+                .endObject().toString();
+    }
+
+    @Benchmark
+    public String objectMapperMessage() throws JsonProcessingException {
+        return "{\"type\":\"aircraft_data\",\"data\":" + objectMapper.writeValueAsString(nextSample()) + "}";
+    }
+
+    @Benchmark
+    public byte[] binaryFrame() {
+        return binaryEncoder.encode(nextSample());
+    }
+
+    private AircraftData nextSample() {
+        AircraftData data = samples[next];
+        next = (next + 1) & (BenchmarkFixtures.SAMPLE_COUNT - 1);
+        return data;
+    }
+}
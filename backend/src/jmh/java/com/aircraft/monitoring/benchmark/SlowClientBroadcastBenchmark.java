@@ -0,0 +1,96 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.service.WebSocketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivery of one sample to many slow clients on platform or virtual send threads.
+ *
+ * Each session blocks for a millisecond per message, like a write to a client on
+ * a congested link. An operation broadcasts a sample and waits until every
+ * session has received it, so the score is the time to reach all clients rather
+ * than the time to enqueue. Platform threads are limited to the send pool size,
+ * virtual threads block independently.
+ *
+ * Only platform threads are measured by default, so the benchmark runs on the
+ * default Java 17 build. The virtual executor needs Java 21; compare both with
+ * {@code mvn -Pjava21,benchmarks test-compile exec:exec -Djmh.args="SlowClient -p executor=platform,virtual"}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SlowClientBroadcastBenchmark {
+
+    private static final long SEND_DELAY_MILLIS = 1;
+
+    // "platform" or "virtual"
+    @Param({"platform"})
+    public String executor;
+
+    @Param({"100", "1000", "10000"})
+    public int sessions;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private WebSocketService webSocketService;
+    private AircraftData[] samples;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean virtualThreads = "virtual".equals(executor);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version());
+        }
+
+        webSocketService = BenchmarkFixtures.webSocketService(virtualThreads);
+        for (int i = 0; i < sessions; i++) {
+            webSocketService.afterConnectionEstablished(new NullWebSocketSession(
+                    "session-" + i, null, SEND_DELAY_MILLIS, delivered::incrementAndGet));
+        }
+        // Every session first gets the welcome message
+        awaitDelivered(sessions);
+        samples = BenchmarkFixtures.samples(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        webSocketService.shutdown();
+    }
+
+    @Benchmark
+    public void broadcastToSlowClients() {
+        long target = delivered.get() + sessions;
+        AircraftData data = samples[next];
+        next = (next + 1) & (BenchmarkFixtures.SAMPLE_COUNT - 1);
+        webSocketService.broadcastAircraftData(data);
+        awaitDelivered(target);
+    }
+
+    private void awaitDelivered(long target) {
+        while (delivered.get() < target) {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.service.TelemetryPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of the staged pipeline from publishing to the completed record stage.
+ *
+ * Each operation publishes a batch of pre-generated samples and waits until all
+ * of them are recorded, so the score is samples per microsecond through detection
+ * and recording on the given number of partitions. Generation is left
+ * out; see {@link DataSimulationBenchmark}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryPipelineBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    private final TelemetryPipeline.Sink sink = (data, key) -> {
+    };
+    private TelemetryPipeline telemetryPipeline;
+    private AircraftData[] samples;
+
+    @Setup
+    public void setUp() {
+        telemetryPipeline = BenchmarkFixtures.telemetryPipeline(partitions);
+        samples = BenchmarkFixtures.samples(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        telemetryPipeline.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkFixtures.SAMPLE_COUNT)
+    public void publishBatch() {
+        for (AircraftData sample : samples) {
+            int key = sample.getTailNumber().hashCode();
+            long sequence = telemetryPipeline.claim(key);
+            TelemetryPipeline.copy(sample, telemetryPipeline.get(key, sequence));
+            telemetryPipeline.publish(key, sequence, sink);
+        }
+        long published = telemetryPipeline.getPublishedCount();
+        while (telemetryPipeline.getRecordedCount() < published) {
+            LockSupport.parkNanos(1_000);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.aircraft.monitoring.benchmark;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.TelemetryRecord;
+import com.aircraft.monitoring.service.TelemetryPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping the latest sample of an aircraft, as the fleet simulation does once per
+ * sample: copying into a bean per aircraft, and encoding into a {@link TelemetryRecord}
+ * of one shared buffer. Reading a record back into a reused bean is measured too.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryRecordBenchmark {
+
+    private AircraftData[] samples;
+    private AircraftData[] beans;
+    private ByteBuffer records;
+    private TelemetryRecord record;
+    private AircraftData target;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        samples = BenchmarkFixtures.samples(true);
+        beans = new AircraftData[BenchmarkFixtures.SAMPLE_COUNT];
+        records = TelemetryRecord.allocate(BenchmarkFixtures.SAMPLE_COUNT);
+        record = new TelemetryRecord();
+        target = new AircraftData();
+        for (int i = 0; i < BenchmarkFixtures.SAMPLE_COUNT; i++) {
+            beans[i] = TelemetryPipeline.copy(samples[i], new AircraftData());
+            record.wrap(records, i).readFrom(samples[i]);
+        }
+    }
+
+    @Benchmark
+    public AircraftData copyToBean() {
+        int index = nextIndex();
+        return TelemetryPipeline.copy(samples[index], beans[index]);
+    }
+
+    @Benchmark
+    public TelemetryRecord encodeRecord() {
+        int index = nextIndex();
+        return record.wrap(records, index).readFrom(samples[index]);
+    }
+
+    @Benchmark
+    public AircraftData decodeRecord() {
+        return record.wrap(records, nextIndex()).writeTo(target);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (next + 1) & (BenchmarkFixtures.SAMPLE_COUNT - 1);
+        return index;
+    }
+}
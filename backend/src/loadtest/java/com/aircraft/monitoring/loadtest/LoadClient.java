@@ -0,0 +1,122 @@
+package com.aircraft.monitoring.loadtest;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * One simulated dashboard of the load test.
+ *
+ * Records a hash of the sample and the receive time of every aircraft data
+ * message. The end-to-end latency, from {@code AircraftData.timestamp} to the
+ * moment the message is handed to this handler, is resolved against the
+ * {@link SampleTracker} when a window is evaluated. Sample timestamps are local
+ * times, so the receive time is taken the same way and both are compared as
+ * local epoch values.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class LoadClient extends TextWebSocketHandler {
+
+    private static final String DATA_PREFIX = "{\"type\":\"aircraft_data\",\"data\":";
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    // Guarded by this: sample hash and receive time in microseconds, in pairs
+    private long[] received = new long[512];
+    private int count = 0;
+
+    private volatile WebSocketSession session;
+    private volatile boolean closed = false;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        this.session = session;
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        long receivedMicros = toEpochMicros(LocalDateTime.now(ZoneOffset.UTC));
+        String payload = message.getPayload();
+        if (payload.startsWith(DATA_PREFIX) && payload.endsWith("}")) {
+            record(SampleTracker.hash(payload, DATA_PREFIX.length(), payload.length() - 1), receivedMicros);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        closed = true;
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        closed = true;
+    }
+
+    private synchronized void record(long sampleHash, long receivedMicros) {
+        if (count + 2 > received.length) {
+            received = Arrays.copyOf(received, received.length * 2);
+        }
+        received[count++] = sampleHash;
+        received[count++] = receivedMicros;
+    }
+
+    /**
+     * Whether the connection is established and not closed
+     */
+    boolean isOpen() {
+        WebSocketSession current = session;
+        return current != null && !closed && current.isOpen();
+    }
+
+    /**
+     * Forgets the messages received so far
+     */
+    synchronized void reset() {
+        count = 0;
+    }
+
+    /**
+     * Adds the latencies of the samples generated in (fromMicros, toMicros]
+     *
+     * @param counts Incremented by the number of such samples received (index 0)
+     *               and of messages whose sample is unknown to the tracker (index 1)
+     */
+    synchronized void collect(long fromMicros, long toMicros, SampleTracker tracker,
+                              LongStream.Builder latencies, long[] counts) {
+        for (int i = 0; i < count; i += 2) {
+            Long sampleMicros = tracker.getSampleMicros(received[i]);
+            if (sampleMicros == null) {
+                counts[1]++;
+            } else if (sampleMicros > fromMicros && sampleMicros <= toMicros) {
+                latencies.add(received[i + 1] - sampleMicros);
+                counts[0]++;
+            }
+        }
+    }
+
+    void close() {
+        WebSocketSession current = session;
+        if (current != null && current.isOpen()) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    /**
+     * Converts a local timestamp to microseconds since the local epoch
+     */
+    static long toEpochMicros(LocalDateTime timestamp) {
+        return timestamp.toLocalDate().toEpochDay() * MICROS_PER_DAY + timestamp.toLocalTime().toNanoOfDay() / 1000;
+    }
+}
@@ -0,0 +1,120 @@
+package com.aircraft.monitoring.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CPU and garbage collection counters of the load test process at one point in time.
+ *
+ * Server and clients share the JVM, so thread CPU time is split by thread name:
+ * the WebSocket and SockJS client threads and the load test's own threads count
+ * as client, every other thread as server. Process CPU also includes the JIT and
+ * garbage collector threads, which belong to neither.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class ResourceUsage {
+
+    private static final String[] CLIENT_THREAD_PREFIXES = {"WebSocketClient-", "SockJsClient-", "loadtest-", "main"};
+
+    private final long wallNanos;
+    private final long processCpuNanos;
+    private final long serverCpuNanos;
+    private final long clientCpuNanos;
+    private final long gcCount;
+    private final long gcMillis;
+
+    private ResourceUsage(long wallNanos, long processCpuNanos, long serverCpuNanos, long clientCpuNanos,
+                          long gcCount, long gcMillis) {
+        this.wallNanos = wallNanos;
+        this.processCpuNanos = processCpuNanos;
+        this.serverCpuNanos = serverCpuNanos;
+        this.clientCpuNanos = clientCpuNanos;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    /**
+     * Reads the current counters
+     */
+    static ResourceUsage take() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long serverCpu = 0;
+        long clientCpu = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info == null) {
+                continue;
+            }
+            long cpu = threads.getThreadCpuTime(info.getThreadId());
+            if (cpu < 0) {
+                continue;
+            }
+            if (isClientThread(info.getThreadName())) {
+                clientCpu += cpu;
+            } else {
+                serverCpu += cpu;
+            }
+        }
+
+        long processCpu = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os.getProcessCpuTime()
+                : -1;
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        return new ResourceUsage(System.nanoTime(), processCpu, serverCpu, clientCpu, gcCount, gcMillis);
+    }
+
+    private static boolean isClientThread(String name) {
+        for (String prefix : CLIENT_THREAD_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Describes the usage since an earlier reading: CPU in cores, GC, and the current heap
+     */
+    Map<String, Object> since(ResourceUsage start) {
+        double wall = Math.max(1, wallNanos - start.wallNanos);
+
+        Map<String, Object> cpu = new LinkedHashMap<>();
+        cpu.put("processCores", processCpuNanos >= 0 ? round((processCpuNanos - start.processCpuNanos) / wall) : null);
+        // Threads that ended in between are missing from both readings
+        cpu.put("serverThreadCores", round(Math.max(0, serverCpuNanos - start.serverCpuNanos) / wall));
+        cpu.put("clientThreadCores", round(Math.max(0, clientCpuNanos - start.clientCpuNanos) / wall));
+        cpu.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        MemoryUsage heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("usedMb", heapUsage.getUsed() / (1024 * 1024));
+        heap.put("committedMb", heapUsage.getCommitted() / (1024 * 1024));
+        heap.put("maxMb", heapUsage.getMax() >= 0 ? heapUsage.getMax() / (1024 * 1024) : null);
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", gcCount - start.gcCount);
+        gc.put("timeMs", gcMillis - start.gcMillis);
+
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("cpu", cpu);
+        usage.put("heap", heap);
+        usage.put("gc", gc);
+        return usage;
+    }
+
+    static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
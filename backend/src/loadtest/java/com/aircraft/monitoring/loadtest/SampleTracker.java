@@ -0,0 +1,77 @@
+package com.aircraft.monitoring.loadtest;
+
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.aircraft.monitoring.service.DataSnapshotService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Precise generation times of the published samples, keyed by a hash of their JSON.
+ *
+ * {@code AircraftData.timestamp} is serialized with second precision, too coarse
+ * for latencies. The published snapshot holds the full timestamp and the same JSON
+ * that is broadcast as the {@code data} of an aircraft data message, so clients
+ * only hash what they receive and the times are looked up when a window is
+ * evaluated. Snapshots are polled every millisecond, far below the sample interval.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class SampleTracker {
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Long, Long> sampleMicros = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * Starts recording the snapshots published from now on
+     */
+    SampleTracker(DataSnapshotService dataSnapshotService) {
+        Thread thread = new Thread(() -> {
+            long lastSequence = -1;
+            while (running) {
+                DataSnapshot snapshot = dataSnapshotService.getSnapshot();
+                if (snapshot != null && snapshot.getSequence() != lastSequence) {
+                    lastSequence = snapshot.getSequence();
+                    String json = new String(snapshot.getJson(), StandardCharsets.UTF_8);
+                    sampleMicros.put(hash(json, 0, json.length()),
+                            LoadClient.toEpochMicros(snapshot.getData().getTimestamp()));
+                }
+                LockSupport.parkNanos(POLL_NANOS);
+            }
+        }, "loadtest-samples");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the generation time of a sample
+     *
+     * @param hash Hash of the sample JSON, see {@link #hash}
+     * @return Local epoch microseconds, or null if the sample is unknown
+     */
+    Long getSampleMicros(long hash) {
+        return sampleMicros.get(hash);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a range of characters
+     */
+    static long hash(CharSequence text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
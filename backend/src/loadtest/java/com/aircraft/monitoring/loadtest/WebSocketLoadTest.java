@@ -0,0 +1,412 @@
+package com.aircraft.monitoring.loadtest;
+
+import com.aircraft.monitoring.AircraftMonitoringApplication;
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.aircraft.monitoring.service.DataSnapshotService;
+import com.aircraft.monitoring.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+/**
+ * WebSocket fan-out load test.
+ *
+ * Starts the application in this JVM on a free port, then connects dashboards in
+ * steps (for example 250, 500, 1000 ... clients) over SockJS on {@code /websocket}
+ * or plain WebSocket on {@code /ws}. After each step settles, it measures for a
+ * fixed window:
+ * <ul>
+ *   <li>end-to-end latency percentiles, from {@code AircraftData.timestamp} to receipt</li>
+ *   <li>message loss: samples published in the window that a client did not receive</li>
+ *   <li>server fan-out time, outbound queue depth and drops</li>
+ *   <li>CPU of server and client threads, heap and garbage collection</li>
+ * </ul>
+ * The first step whose p99 latency exceeds {@code --max-p99-ms} (default: one
+ * sample interval) or whose loss exceeds {@code --max-loss} is where fan-out
+ * starts lagging. The results are written as a JSON report.
+ *
+ * Options are given as {@code --name=value}; options this class does not know are
+ * passed to the application, such as {@code --aircraft.websocket.send-threads=8}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class WebSocketLoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("steps", "250,500,1000,2000,4000,8000");
+        DEFAULTS.put("transport", "sockjs");
+        DEFAULTS.put("interval-ms", "100");
+        DEFAULTS.put("settle-seconds", "5");
+        DEFAULTS.put("measure-seconds", "15");
+        DEFAULTS.put("drain-ms", "2000");
+        DEFAULTS.put("connect-concurrency", "200");
+        DEFAULTS.put("max-p99-ms", "");
+        DEFAULTS.put("max-loss", "0");
+        DEFAULTS.put("stop-on-saturation", "true");
+        DEFAULTS.put("report", "target/loadtest-report.json");
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final Map<String, String> options;
+    private final WebSocketClient webSocketClient;
+    private final String url;
+    private final DataSnapshotService dataSnapshotService;
+    private final SampleTracker sampleTracker;
+    private final List<LoadClient> clients = new ArrayList<>();
+    private final AtomicInteger connectFailures = new AtomicInteger();
+
+    private WebSocketLoadTest(ConfigurableApplicationContext context, Map<String, String> options) {
+        this.context = context;
+        this.options = options;
+        this.dataSnapshotService = context.getBean(DataSnapshotService.class);
+        this.sampleTracker = new SampleTracker(dataSnapshotService);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(64 * 1024);
+        StandardWebSocketClient standardClient = new StandardWebSocketClient(container);
+        if ("websocket".equals(options.get("transport"))) {
+            webSocketClient = standardClient;
+            url = "ws://localhost:" + port + "/ws";
+        } else {
+            webSocketClient = new SockJsClient(List.of(new WebSocketTransport(standardClient)));
+            url = "http://localhost:" + port + "/websocket";
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            String name = arg.startsWith("--") && split > 2 ? arg.substring(2, split) : null;
+            if (name != null && DEFAULTS.containsKey(name)) {
+                options.put(name, arg.substring(split + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        if (options.get("max-p99-ms").isEmpty()) {
+            options.put("max-p99-ms", options.get("interval-ms"));
+        }
+
+        // Command line arguments take precedence over application.properties
+        List<String> serverArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.max-connections=100000",
+                "--aircraft.simulation.interval-ms=" + options.get("interval-ms"),
+                "--aircraft.journal.directory=" + Files.createTempDirectory("loadtest-journal"),
+                "--logging.level.com.aircraft.monitoring=WARN"));
+        serverArgs.addAll(applicationArgs);
+        options.put("applicationArgs", String.join(" ", applicationArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AircraftMonitoringApplication.class)
+                .run(serverArgs.toArray(new String[0]));
+        try {
+            new WebSocketLoadTest(context, options).run();
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run() throws Exception {
+        int intervalMs = Integer.parseInt(options.get("interval-ms"));
+        double maxP99Ms = Double.parseDouble(options.get("max-p99-ms"));
+        double maxLoss = Double.parseDouble(options.get("max-loss"));
+        boolean stopOnSaturation = Boolean.parseBoolean(options.get("stop-on-saturation"));
+
+        System.gc();
+        long baselineHeap = liveHeapBytes();
+
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Map<String, Object> saturation = new LinkedHashMap<>();
+        saturation.put("clients", null);
+        saturation.put("maxSustainedClients", null);
+        saturation.put("reason", null);
+
+        for (String step : options.get("steps").split(",")) {
+            int target = Integer.parseInt(step.trim());
+            Map<String, Object> result = runStep(target, baselineHeap);
+            steps.add(result);
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) result.get("latencyMs");
+            double p99 = latency.get("p99") != null ? (Double) latency.get("p99") : Double.MAX_VALUE;
+            double loss = (Double) result.get("lossRatio");
+            String reason = null;
+            if (p99 > maxP99Ms) {
+                reason = String.format("p99 latency %.1f ms above %.1f ms", p99, maxP99Ms);
+            } else if (loss > maxLoss) {
+                reason = String.format("loss %.4f above %.4f", loss, maxLoss);
+            }
+            result.put("lagging", reason != null);
+
+            System.out.printf("%6d clients: p50 %8.1f ms, p99 %8.1f ms, loss %.4f, %8.0f msg/s%s%n",
+                    result.get("clients"), latency.get("p50"), latency.get("p99"), loss, result.get("messagesPerSecond"),
+                    reason != null ? " - lagging: " + reason : "");
+
+            if (reason != null) {
+                saturation.put("clients", result.get("clients"));
+                saturation.put("reason", reason);
+                if (stopOnSaturation) {
+                    break;
+                }
+            } else if (saturation.get("clients") == null) {
+                saturation.put("maxSustainedClients", result.get("clients"));
+            }
+        }
+
+        for (LoadClient client : clients) {
+            client.close();
+        }
+        sampleTracker.stop();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", LocalDateTime.now(ZoneOffset.UTC).toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("url", url);
+        report.put("samplesPerSecond", 1000.0 / intervalMs);
+        report.put("options", options);
+        report.put("saturation", saturation);
+        report.put("steps", steps);
+
+        File reportFile = new File(options.get("report"));
+        if (reportFile.getParentFile() != null) {
+            Files.createDirectories(reportFile.getParentFile().toPath());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+
+    /**
+     * Connects up to the given number of clients, lets them settle and measures one window
+     */
+    private Map<String, Object> runStep(int target, long baselineHeap) throws Exception {
+        WebSocketService webSocketService = context.getBean(WebSocketService.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+        long connectStart = System.nanoTime();
+        int failuresBefore = connectFailures.get();
+        connectUpTo(target);
+        long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+        TimeUnit.SECONDS.sleep(Long.parseLong(options.get("settle-seconds")));
+
+        // Measurement window: samples generated after the first and up to the last snapshot
+        DataSnapshot first = awaitSnapshot();
+        List<LoadClient> measured = new ArrayList<>();
+        for (LoadClient client : clients) {
+            if (client.isOpen()) {
+                client.reset();
+                measured.add(client);
+            }
+        }
+        long droppedBefore = sumSessionStat(webSocketService, "dropped");
+        TimerReading fanoutBefore = TimerReading.of(meterRegistry, "aircraft.pipeline.stage", "fanout");
+        TimerReading endToEndBefore = TimerReading.of(meterRegistry, "aircraft.pipeline.end.to.end", null);
+        ResourceUsage usageBefore = ResourceUsage.take();
+
+        long measureNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("measure-seconds")));
+        TimeUnit.NANOSECONDS.sleep(measureNanos);
+
+        DataSnapshot last = dataSnapshotService.getSnapshot();
+        ResourceUsage usageAfter = ResourceUsage.take();
+        TimerReading fanoutAfter = TimerReading.of(meterRegistry, "aircraft.pipeline.stage", "fanout");
+        TimerReading endToEndAfter = TimerReading.of(meterRegistry, "aircraft.pipeline.end.to.end", null);
+        int maxQueued = (int) maxSessionStat(webSocketService, "queued");
+        long maxLagMs = maxSessionStat(webSocketService, "lagMs");
+
+        // Late messages of the window still count if they arrive within the drain time
+        TimeUnit.MILLISECONDS.sleep(Long.parseLong(options.get("drain-ms")));
+        long droppedAfter = sumSessionStat(webSocketService, "dropped");
+
+        long fromMicros = LoadClient.toEpochMicros(first.getData().getTimestamp());
+        long toMicros = LoadClient.toEpochMicros(last.getData().getTimestamp());
+        long samples = last.getSequence() - first.getSequence();
+        LongStream.Builder latencyBuilder = LongStream.builder();
+        long[] counts = new long[2];
+        int disconnected = 0;
+        for (LoadClient client : measured) {
+            client.collect(fromMicros, toMicros, sampleTracker, latencyBuilder, counts);
+            if (!client.isOpen()) {
+                disconnected++;
+            }
+        }
+        long received = counts[0];
+        long[] latencies = latencyBuilder.build().toArray();
+        Arrays.sort(latencies);
+        long expected = samples * measured.size();
+
+        System.gc();
+        long liveHeap = liveHeapBytes();
+
+        Map<String, Object> server = new LinkedHashMap<>();
+        server.put("connectedClients", webSocketService.getConnectedClientsCount());
+        server.put("fanoutMs", fanoutAfter.since(fanoutBefore));
+        server.put("endToEndMs", endToEndAfter.since(endToEndBefore));
+        server.put("maxQueued", maxQueued);
+        server.put("maxLagMs", maxLagMs);
+        server.put("droppedMessages", droppedAfter - droppedBefore);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clients", target);
+        result.put("measuredClients", measured.size());
+        result.put("connectFailures", connectFailures.get() - failuresBefore);
+        result.put("connectMillis", connectMillis);
+        result.put("disconnected", disconnected);
+        result.put("windowSeconds", ResourceUsage.round((toMicros - fromMicros) / 1_000_000.0));
+        result.put("samplesPublished", samples);
+        result.put("messagesExpected", expected);
+        result.put("messagesReceived", received);
+        result.put("messagesLost", expected - received);
+        // Messages of samples the tracker never saw; should stay 0
+        result.put("messagesUnmatched", counts[1]);
+        result.put("lossRatio", expected > 0 ? Math.round((double) (expected - received) / expected * 1_000_000) / 1_000_000.0 : 0.0);
+        result.put("messagesPerSecond", toMicros > fromMicros ? Math.round(received * 1_000_000.0 / (toMicros - fromMicros)) : 0.0);
+        result.put("latencyMs", percentiles(latencies));
+        result.put("server", server);
+        result.putAll(usageAfter.since(usageBefore));
+        result.put("liveHeapMb", liveHeap / (1024 * 1024));
+        result.put("liveHeapKbPerClient", measured.isEmpty() ? null
+                : ResourceUsage.round((liveHeap - baselineHeap) / 1024.0 / measured.size()));
+        return result;
+    }
+
+    /**
+     * Opens clients until the target is reached, with a bounded number of handshakes in flight
+     */
+    private void connectUpTo(int target) throws InterruptedException {
+        int concurrency = Integer.parseInt(options.get("connect-concurrency"));
+        Semaphore inFlight = new Semaphore(concurrency);
+        while (clients.size() < target) {
+            inFlight.acquire();
+            LoadClient client = new LoadClient();
+            clients.add(client);
+            webSocketClient.execute(client, url)
+                    .orTimeout(30, TimeUnit.SECONDS)
+                    .whenComplete((session, error) -> {
+                        if (error != null) {
+                            connectFailures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        // Wait for the last handshakes
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+    }
+
+    private DataSnapshot awaitSnapshot() throws Exception {
+        DataSnapshot current = dataSnapshotService.getSnapshot();
+        return dataSnapshotService.awaitAfter(current != null ? current.getSequence() : 0).get(30, TimeUnit.SECONDS);
+    }
+
+    private static long sumSessionStat(WebSocketService webSocketService, String name) {
+        long sum = 0;
+        for (Map<String, Object> stats : webSocketService.getSessionStats()) {
+            if (stats.get(name) instanceof Number value) {
+                sum += value.longValue();
+            }
+        }
+        return sum;
+    }
+
+    private static long maxSessionStat(WebSocketService webSocketService, String name) {
+        long max = 0;
+        for (Map<String, Object> stats : webSocketService.getSessionStats()) {
+            if (stats.get(name) instanceof Number value) {
+                max = Math.max(max, value.longValue());
+            }
+        }
+        return max;
+    }
+
+    private static long liveHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Map<String, Object> percentiles(long[] sortedMicros) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", sortedMicros.length);
+        percentiles.put("min", percentile(sortedMicros, 0));
+        percentiles.put("p50", percentile(sortedMicros, 0.50));
+        percentiles.put("p90", percentile(sortedMicros, 0.90));
+        percentiles.put("p99", percentile(sortedMicros, 0.99));
+        percentiles.put("p999", percentile(sortedMicros, 0.999));
+        percentiles.put("max", percentile(sortedMicros, 1));
+        percentiles.put("mean", sortedMicros.length > 0
+                ? ResourceUsage.round(LongStream.of(sortedMicros).average().orElse(0) / 1000) : null);
+        return percentiles;
+    }
+
+    private static Double percentile(long[] sortedMicros, double quantile) {
+        if (sortedMicros.length == 0) {
+            return null;
+        }
+        int index = (int) Math.ceil(quantile * sortedMicros.length) - 1;
+        return ResourceUsage.round(sortedMicros[Math.max(0, Math.min(index, sortedMicros.length - 1))] / 1000.0);
+    }
+
+    /**
+     * Count and total time of a server timer, to compute its mean over a window
+     */
+    private static final class TimerReading {
+
+        private final long count;
+        private final double totalMillis;
+        private final double maxMillis;
+
+        private TimerReading(long count, double totalMillis, double maxMillis) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        static TimerReading of(MeterRegistry registry, String name, String stage) {
+            Timer timer = stage != null
+                    ? registry.find(name).tag("stage", stage).timer()
+                    : registry.find(name).timer();
+            return timer != null
+                    ? new TimerReading(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS))
+                    : new TimerReading(0, 0, 0);
+        }
+
+        Map<String, Object> since(TimerReading start) {
+            long windowCount = count - start.count;
+            Map<String, Object> reading = new LinkedHashMap<>();
+            reading.put("count", windowCount);
+            reading.put("mean", windowCount > 0 ? ResourceUsage.round((totalMillis - start.totalMillis) / windowCount) : null);
+            // Maximum over the timer's recent decay window rather than exactly this window
+            reading.put("recentMax", ResourceUsage.round(maxMillis));
+            return reading;
+        }
+    }
+}
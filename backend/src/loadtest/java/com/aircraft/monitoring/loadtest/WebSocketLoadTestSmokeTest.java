@@ -0,0 +1,49 @@
+package com.aircraft.monitoring.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link WebSocketLoadTest} runs end to end: a single short step of a
+ * few clients connects, receives aircraft data and writes a complete report.
+ * Only compiled with the {@code loadtest} profile:
+ * {@code mvn -Ploadtest test -Dtest=WebSocketLoadTestSmokeTest}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class WebSocketLoadTestSmokeTest {
+
+    @TempDir
+    Path reportDirectory;
+
+    @Test
+    void shortRunWritesAReport() throws Exception {
+        Path reportFile = reportDirectory.resolve("loadtest-smoke.json");
+        WebSocketLoadTest.main(new String[]{
+                "--steps=5",
+                "--settle-seconds=1",
+                "--measure-seconds=2",
+                "--drain-ms=500",
+                "--stop-on-saturation=false",
+                "--report=" + reportFile});
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertTrue(report.has("saturation"), report.toString());
+        assertEquals(1, report.get("steps").size());
+        JsonNode step = report.get("steps").get(0);
+        assertEquals(5, step.get("clients").asInt());
+        assertEquals(0, step.get("connectFailures").asInt());
+        assertEquals(5, step.get("measuredClients").asInt());
+        assertTrue(step.get("samplesPublished").asLong() > 0, step.toString());
+        assertTrue(step.get("messagesReceived").asLong() > 0, step.toString());
+        assertTrue(step.get("latencyMs").get("p50").isNumber(), step.toString());
+    }
+}
@@ -2,7 +2,6 @@ package com.aircraft.monitoring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for the Aircraft Health Monitoring System.
@@ -17,7 +16,6 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * @version 1.0.0
  */
 @SpringBootApplication
-@EnableScheduling
 public class AircraftMonitoringApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,128 @@
+package com.aircraft.monitoring;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.IngestReport;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.service.CsvIngestService;
+import com.opencsv.CSVWriter;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Command line entry point for bulk CSV ingest of recorded flight data.
+ * 
+ * Starts the application context without the web server, simulation, journal or
+ * pipeline threads, scores the input CSV and prints the ingest report. If an output path is given,
+ * the scored records are written there in input order with their aircraft type
+ * and anomaly flags, so the output can be ingested again.
+ * 
+ * Usage: {@code CsvIngestCli <input.csv> [scored-output.csv]}
+ * 
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public class CsvIngestCli {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Sensors start after the timestamp, tailNumber and aircraftType columns
+    private static final int FIRST_SENSOR_COLUMN = 3;
+    private static final int COLUMNS = FIRST_SENSOR_COLUMN + Sensor.COUNT + 5;
+
+    // No scheduled simulation or flushes, no journal and no pipeline threads
+    private static final String[] OVERRIDES = {
+            "--aircraft.scheduling.enabled=false",
+            "--aircraft.journal.enabled=false",
+            "--aircraft.pipeline.enabled=false",
+            "--logging.level.com.aircraft.monitoring=INFO"
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: CsvIngestCli <input.csv> [scored-output.csv]");
+            System.exit(2);
+        }
+
+        try (ConfigurableApplicationContext context = start(args)) {
+            CsvIngestService ingestService = context.getBean(CsvIngestService.class);
+
+            IngestReport report;
+            try (InputStream input = Files.newInputStream(Paths.get(args[0]))) {
+                if (args.length > 1) {
+                    try (CSVWriter writer = new CSVWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))) {
+                        writer.writeNext(header());
+                        report = ingestService.ingest(input, toRow(writer));
+                    }
+                } else {
+                    report = ingestService.ingest(input, null);
+                }
+            }
+
+            System.out.printf("Rows: %d (rejected: %d, anomalous: %d)%n",
+                    report.getRows(), report.getRejectedRows(), report.getAnomalousRows());
+            System.out.printf("Throughput: %.0f rows/sec in %.1f ms%n", report.getRowsPerSecond(), report.getElapsedMillis());
+            report.getAnomaliesBySubsystem().forEach((subsystem, count) ->
+                    System.out.printf("  %-10s %d%n", subsystem, count));
+        }
+    }
+
+    /**
+     * Starts the application context for an ingest. The overrides are passed as command
+     * line arguments, which take precedence over application.properties; default
+     * properties would not.
+     *
+     * @param args The arguments of the command line, passed on to the application
+     */
+    static ConfigurableApplicationContext start(String... args) {
+        String[] applicationArgs = new String[OVERRIDES.length + args.length];
+        System.arraycopy(OVERRIDES, 0, applicationArgs, 0, OVERRIDES.length);
+        System.arraycopy(args, 0, applicationArgs, OVERRIDES.length, args.length);
+        return new SpringApplicationBuilder(AircraftMonitoringApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(applicationArgs);
+    }
+
+    private static String[] header() {
+        String[] header = new String[COLUMNS];
+        header[0] = "timestamp";
+        header[1] = "tailNumber";
+        header[2] = "aircraftType";
+        for (Sensor sensor : Sensor.VALUES) {
+            header[FIRST_SENSOR_COLUMN + sensor.ordinal()] = sensor.getFieldName();
+        }
+        int flags = FIRST_SENSOR_COLUMN + Sensor.COUNT;
+        header[flags] = "engineAnomaly";
+        header[flags + 1] = "fuelAnomaly";
+        header[flags + 2] = "hydraulicAnomaly";
+        header[flags + 3] = "altitudeAnomaly";
+        header[flags + 4] = "airspeedAnomaly";
+        return header;
+    }
+
+    private static Consumer<AircraftData> toRow(CSVWriter writer) {
+        return data -> {
+            String[] row = new String[COLUMNS];
+            row[0] = data.getTimestamp() != null ? TIMESTAMP_FORMAT.format(data.getTimestamp()) : "";
+            row[1] = data.getTailNumber() != null ? data.getTailNumber() : "";
+            row[2] = data.getAircraftType() != null ? data.getAircraftType() : "";
+            for (Sensor sensor : Sensor.VALUES) {
+                row[FIRST_SENSOR_COLUMN + sensor.ordinal()] = Double.toString(sensor.read(data));
+            }
+            int flags = FIRST_SENSOR_COLUMN + Sensor.COUNT;
+            row[flags] = Boolean.toString(data.isEngineAnomaly());
+            row[flags + 1] = Boolean.toString(data.isFuelAnomaly());
+            row[flags + 2] = Boolean.toString(data.isHydraulicAnomaly());
+            row[flags + 3] = Boolean.toString(data.isAltitudeAnomaly());
+            row[flags + 4] = Boolean.toString(data.isAirspeedAnomaly());
+            writer.writeNext(row, false);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.aircraft.monitoring.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration for the periodic data simulation.
+ * 
+ * Scheduling can be switched off with {@code aircraft.scheduling.enabled=false},
+ * which command line tools use to run services without live simulation.
+ * 
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "aircraft.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
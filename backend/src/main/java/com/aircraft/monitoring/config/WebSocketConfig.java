@@ -33,5 +33,9 @@ public class WebSocketConfig implements WebSocketConfigurer {
         registry.addHandler(webSocketService, "/websocket")
                 .setAllowedOriginPatterns("*") // Allow all origins for demo purposes
                 .withSockJS(); // Enable SockJS fallback for older browsers
+        
+        // Plain WebSocket endpoint, required for the binary telemetry sub-protocol
+        registry.addHandler(webSocketService, "/ws")
+                .setAllowedOriginPatterns("*");
     }
 } 
\ No newline at end of file
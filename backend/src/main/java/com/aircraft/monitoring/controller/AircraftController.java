@@ -1,15 +1,50 @@
 package com.aircraft.monitoring.controller;
 
 import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyEvent;
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.aircraft.monitoring.model.IngestReport;
+import com.aircraft.monitoring.model.RollupResolution;
+import com.aircraft.monitoring.model.RollupSeries;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import com.aircraft.monitoring.model.TelemetryWindow;
+import com.aircraft.monitoring.service.AlertService;
+import com.aircraft.monitoring.service.AnomalyDetectionService;
+import com.aircraft.monitoring.service.AnomalyEventService;
+import com.aircraft.monitoring.service.AnomalyEventStore;
+import com.aircraft.monitoring.service.CorrelationAnomalyDetector;
+import com.aircraft.monitoring.service.CsvIngestService;
 import com.aircraft.monitoring.service.DataSimulationService;
+import com.aircraft.monitoring.service.DataSnapshotService;
+import com.aircraft.monitoring.service.FleetSimulationService;
+import com.aircraft.monitoring.service.StatisticalAnomalyDetector;
+import com.aircraft.monitoring.service.TelemetryHistoryService;
+import com.aircraft.monitoring.service.TelemetryJournalService;
+import com.aircraft.monitoring.service.TelemetryPipeline;
+import com.aircraft.monitoring.service.TelemetryRollupService;
 import com.aircraft.monitoring.service.WebSocketService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST API controller for aircraft monitoring system.
@@ -24,29 +59,100 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/aircraft")
-@CrossOrigin(origins = "*") // Allow all origins for demo purposes
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.ETAG, AircraftController.SEQUENCE_HEADER}) // Allow all origins for demo purposes
 @Slf4j
 public class AircraftController {
     
+    /** Response header carrying the sequence number of the returned sample, for {@code /data?after=} */
+    static final String SEQUENCE_HEADER = "X-Sequence";
+    
     @Autowired
     private DataSimulationService dataSimulationService;
     
+    @Autowired
+    private DataSnapshotService dataSnapshotService;
+    
     @Autowired
     private WebSocketService webSocketService;
     
+    @Autowired
+    private FleetSimulationService fleetSimulationService;
+    
+    @Autowired
+    private TelemetryHistoryService telemetryHistoryService;
+    
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TelemetryJournalService telemetryJournalService;
+    
+    @Autowired
+    private CsvIngestService csvIngestService;
+    
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+    
+    @Autowired
+    private AnomalyEventService anomalyEventService;
+    
+    @Autowired
+    private AnomalyEventStore anomalyEventStore;
+    
+    @Autowired
+    private StatisticalAnomalyDetector statisticalAnomalyDetector;
+    
+    @Autowired
+    private CorrelationAnomalyDetector correlationAnomalyDetector;
+    
+    @Autowired
+    private TelemetryPipeline telemetryPipeline;
+    
+    @Autowired
+    private AlertService alertService;
+    
     /**
-     * Gets the current aircraft sensor data
+     * Gets the current aircraft sensor data.
+     * 
+     * The JSON is serialized once per sample; a matching {@code If-None-Match}
+     * is answered with 304 and no body.
      * 
-     * @return Current aircraft data
+     * @param ifNoneMatch Entity tag of the sample the client already has
+     * @return Current aircraft data with its ETag and sequence, or 204 if there is none yet
      */
     @GetMapping("/data")
-    public ResponseEntity<AircraftData> getCurrentData() {
-        AircraftData data = dataSimulationService.getCurrentData();
-        if (data != null) {
-            return ResponseEntity.ok(data);
-        } else {
-            return ResponseEntity.noContent().build();
-        }
+    public ResponseEntity<byte[]> getCurrentData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshotResponse(dataSnapshotService.getSnapshot(), ifNoneMatch);
+    }
+    
+    /**
+     * Long-polls for aircraft sensor data newer than the given sequence.
+     * 
+     * Answers as soon as a newer sample is published, or with 304 and the
+     * current ETag and sequence when the long-poll timeout expires first.
+     * 
+     * @param after Sequence of the sample the client already has, 0 for any sample
+     * @return Newer aircraft data with its ETag and sequence
+     */
+    @GetMapping(value = "/data", params = "after")
+    public CompletableFuture<ResponseEntity<byte[]>> awaitCurrentData(@RequestParam long after) {
+        return dataSnapshotService.awaitAfter(after).thenApply(snapshot -> {
+            if (snapshot != null) {
+                return snapshotResponse(snapshot, null);
+            }
+            DataSnapshot current = dataSnapshotService.getSnapshot();
+            if (current == null) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current.getEtag())
+                    .header(SEQUENCE_HEADER, Long.toString(current.getSequence()))
+                    .build();
+        });
     }
     
     /**
@@ -67,6 +173,261 @@ public class AircraftController {
         return ResponseEntity.ok(status);
     }
     
+    /**
+     * Gets outbound queue statistics of the connected WebSocket clients
+     * 
+     * @return Queue depth, lag, sent and dropped counts per session
+     */
+    @GetMapping("/clients")
+    public ResponseEntity<List<Map<String, Object>>> getClientStats() {
+        return ResponseEntity.ok(webSocketService.getSessionStats());
+    }
+    
+    /**
+     * Gets fleet simulation statistics
+     * 
+     * @return Fleet size, worker count and timing of the last tick
+     */
+    @GetMapping("/fleet")
+    public ResponseEntity<Map<String, Object>> getFleetStatus() {
+        return ResponseEntity.ok(fleetSimulationService.getFleetStatus());
+    }
+    
+    /**
+     * Gets the progress of the staged telemetry pipeline
+     * 
+     * @return Partitions, ring size, processed counts per partition, backlog and drops
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineStatus() {
+        return ResponseEntity.ok(telemetryPipeline.getPipelineStatus());
+    }
+    
+    /**
+     * Gets the latest sensor data of a fleet aircraft
+     * 
+     * @param tailNumber The aircraft tail number
+     * @return Latest aircraft data, or 404 if the aircraft is unknown
+     */
+    @GetMapping("/fleet/{tailNumber}")
+    public ResponseEntity<AircraftData> getFleetAircraftData(@PathVariable String tailNumber) {
+        AircraftData data = fleetSimulationService.getLatestData(tailNumber);
+        if (data != null) {
+            return ResponseEntity.ok(data);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Gets the recent telemetry history of an aircraft in columnar form
+     * 
+     * @param tailNumber The aircraft tail number
+     * @param minutes How many minutes of history to return
+     * @param sensors Sensor property names to include, all sensors if omitted
+     * @return History window, 404 if the aircraft has no history, 400 on unknown sensors
+     */
+    @GetMapping("/{tailNumber}/recent")
+    public ResponseEntity<TelemetryWindow> getRecentHistory(@PathVariable String tailNumber,
+                                                            @RequestParam(defaultValue = "5") int minutes,
+                                                            @RequestParam(required = false) List<String> sensors) {
+        Sensor[] selected = new Sensor[sensors != null ? sensors.size() : 0];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = Sensor.fromFieldName(sensors.get(i));
+            if (selected[i] == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        
+        LocalDateTime since = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes);
+        TelemetryWindow window = telemetryHistoryService.getWindow(tailNumber, since, selected);
+        if (window != null) {
+            return ResponseEntity.ok(window);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Gets the precomputed min/max/avg/count buckets of one sensor over a time range.
+     * The buckets are streamed to the client as they are written.
+     * 
+     * @param tailNumber The aircraft tail number
+     * @param sensor Sensor property name, e.g. "engineTemperature"
+     * @param from Start of the range (ISO date-time, inclusive), one hour before {@code to} if omitted
+     * @param to End of the range (ISO date-time, inclusive), now if omitted
+     * @param resolution Bucket width (1s, 10s, 1m, 10m), chosen from the range if omitted
+     * @return Rollup buckets, 404 if the aircraft has no rollups, 400 on invalid parameters
+     */
+    @GetMapping("/{tailNumber}/history")
+    public ResponseEntity<StreamingResponseBody> getHistory(
+            @PathVariable String tailNumber,
+            @RequestParam String sensor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String resolution) {
+        Sensor selected = Sensor.fromFieldName(sensor);
+        RollupResolution bucketWidth = resolution != null ? RollupResolution.fromLabel(resolution) : null;
+        if (selected == null || (resolution != null && bucketWidth == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        long toMillis = TelemetryTime.toEpochMillis(to != null ? to : LocalDateTime.now(ZoneOffset.UTC));
+        long fromMillis = from != null ? TelemetryTime.toEpochMillis(from) : toMillis - 3_600_000L;
+        if (fromMillis > toMillis) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        RollupSeries series = telemetryRollupService.getSeries(tailNumber, selected, fromMillis, toMillis, bucketWidth);
+        if (series == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> {
+                    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                        writeRollupSeries(generator, series, fromMillis, toMillis);
+                    }
+                });
+    }
+    
+    /**
+     * Gets the rollup settings
+     * 
+     * @return Retained buckets per resolution, tracked aircraft and allocated slots
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<Map<String, Object>> getRollupStatus() {
+        return ResponseEntity.ok(telemetryRollupService.getRollupStatus());
+    }
+    
+    /**
+     * Gets telemetry journal statistics
+     * 
+     * @return Segment and record counts of the journal
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<Map<String, Object>> getJournalStatus() throws IOException {
+        return ResponseEntity.ok(telemetryJournalService.getJournalStatus());
+    }
+    
+    /**
+     * Replays journaled samples of a time range through anomaly detection
+     * 
+     * @param from Start of the range (ISO date-time, inclusive)
+     * @param to End of the range (ISO date-time, inclusive)
+     * @param broadcast Whether replayed samples are sent to WebSocket clients subscribed to replays
+     * @return Replay statistics
+     */
+    @PostMapping("/journal/replay")
+    public ResponseEntity<Map<String, Object>> replayJournal(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean broadcast) throws IOException {
+        return ResponseEntity.ok(telemetryJournalService.replay(from, to, broadcast));
+    }
+    
+    /**
+     * Scores an uploaded CSV file of recorded flight data
+     * 
+     * @param file The CSV file with a header row of AircraftData property names
+     * @return Ingest statistics including rows/sec and anomalies per subsystem
+     */
+    @PostMapping("/ingest")
+    public ResponseEntity<IngestReport> ingestCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try (InputStream input = file.getInputStream()) {
+            IngestReport report = csvIngestService.ingest(input, null);
+            log.info("CSV ingest of {} completed: {} rows", file.getOriginalFilename(), report.getRows());
+            return ResponseEntity.ok(report);
+        }
+    }
+    
+    /**
+     * Gets the active anomaly detection rules
+     * 
+     * @return Rule version, source and rules per aircraft type profile
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<Map<String, Object>> getRules() {
+        return ResponseEntity.ok(anomalyDetectionService.getRules());
+    }
+    
+    /**
+     * Reloads the anomaly detection rules from the configured rule file
+     * 
+     * @return The new rules, or 400 if the rule file is invalid (the old rules stay active)
+     */
+    @PostMapping("/rules/reload")
+    public ResponseEntity<Map<String, Object>> reloadRules() throws IOException {
+        try {
+            return ResponseEntity.ok(anomalyDetectionService.reloadRules());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            response.put("status", "error");
+            
+            log.warn("Anomaly rule reload rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Gets recent anomaly events, newest first
+     * 
+     * @param tailNumber Only events of this aircraft
+     * @param subsystem Only events of this subsystem (engine, fuel, hydraulic, altitude, airspeed)
+     * @param source Only events of this source: live (the default), csv-ingest, journal-replay or replay-{id}
+     * @param afterId Only events newer than this event id, for incremental polling
+     * @param limit Maximum number of events (1-1000)
+     * @return Matching events
+     */
+    @GetMapping("/events")
+    public ResponseEntity<List<AnomalyEvent>> getAnomalyEvents(@RequestParam(required = false) String tailNumber,
+                                                               @RequestParam(required = false) String subsystem,
+                                                               @RequestParam(defaultValue = AnomalyEvent.LIVE) String source,
+                                                               @RequestParam(defaultValue = "0") long afterId,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 1000));
+        return ResponseEntity.ok(anomalyEventStore.find(tailNumber, subsystem, source, afterId, boundedLimit));
+    }
+    
+    /**
+     * Gets anomaly event statistics
+     * 
+     * @return Emitted, suppressed and retained live and recorded event counts
+     */
+    @GetMapping("/events/status")
+    public ResponseEntity<Map<String, Object>> getAnomalyEventStatus() {
+        Map<String, Object> status = anomalyEventService.getEventStatus();
+        status.put("retained", anomalyEventStore.size());
+        status.put("retainedRecorded", anomalyEventStore.recordedSize());
+        return ResponseEntity.ok(status);
+    }
+    
+    /**
+     * Gets the settings of the statistical outlier detector
+     * 
+     * @return Thresholds, smoothing and number of tracked aircraft
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<Map<String, Object>> getStatisticsStatus() {
+        return ResponseEntity.ok(statisticalAnomalyDetector.getStatus());
+    }
+    
+    /**
+     * Gets the settings of the cross-sensor correlation detector
+     * 
+     * @return Modeled sensor pairs, thresholds and number of tracked aircraft
+     */
+    @GetMapping("/correlation")
+    public ResponseEntity<Map<String, Object>> getCorrelationStatus() {
+        return ResponseEntity.ok(correlationAnomalyDetector.getStatus());
+    }
+    
     /**
      * Triggers an engine anomaly simulation
      * 
@@ -80,9 +441,6 @@ public class AircraftController {
         response.put("message", "Engine anomaly simulation triggered");
         response.put("status", "success");
         
-        // Broadcast alert
-        webSocketService.broadcastAlert("ENGINE", "Engine temperature anomaly detected", "WARNING");
-        
         log.info("Engine anomaly simulation triggered via API");
         return ResponseEntity.ok(response);
     }
@@ -100,9 +458,6 @@ public class AircraftController {
         response.put("message", "Fuel anomaly simulation triggered");
         response.put("status", "success");
         
-        // Broadcast alert
-        webSocketService.broadcastAlert("FUEL", "Low fuel level detected", "WARNING");
-        
         log.info("Fuel anomaly simulation triggered via API");
         return ResponseEntity.ok(response);
     }
@@ -120,9 +475,6 @@ public class AircraftController {
         response.put("message", "Hydraulic anomaly simulation triggered");
         response.put("status", "success");
         
-        // Broadcast alert
-        webSocketService.broadcastAlert("HYDRAULIC", "Low hydraulic pressure detected", "WARNING");
-        
         log.info("Hydraulic anomaly simulation triggered via API");
         return ResponseEntity.ok(response);
     }
@@ -151,6 +503,16 @@ public class AircraftController {
         return ResponseEntity.ok(health);
     }
     
+    /**
+     * Gets the alert settings and counters and the currently raised alerts
+     * 
+     * @return Raised, cleared, sent and coalesced alert counts and the active alerts
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> getAlertStatus() {
+        return ResponseEntity.ok(alertService.getAlertStatus());
+    }
+    
     /**
      * Sends a custom alert to all connected clients
      * 
@@ -172,4 +534,66 @@ public class AircraftController {
         log.info("Custom alert sent: {} - {}", alertType, message);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Writes a rollup series as JSON, one bucket object at a time
+     */
+    private static void writeRollupSeries(JsonGenerator generator, RollupSeries series,
+                                          long fromMillis, long toMillis) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("tailNumber", series.getTailNumber());
+        generator.writeStringField("sensor", series.getSensor().getFieldName());
+        generator.writeStringField("resolution", series.getResolution().getLabel());
+        generator.writeNumberField("from", fromMillis);
+        generator.writeNumberField("to", toMillis);
+        generator.writeArrayFieldStart("buckets");
+        for (int i = 0; i < series.getSize(); i++) {
+            generator.writeStartObject();
+            generator.writeNumberField("timestamp", series.getTimestamps()[i]);
+            generator.writeNumberField("count", series.getCounts()[i]);
+            generator.writeNumberField("min", series.getMin()[i]);
+            generator.writeNumberField("max", series.getMax()[i]);
+            generator.writeNumberField("avg", series.getAvg()[i]);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+    
+    /**
+     * Renders a snapshot with its cached JSON, or 304 if the client's entity tag matches
+     */
+    private static ResponseEntity<byte[]> snapshotResponse(DataSnapshot snapshot, String ifNoneMatch) {
+        if (snapshot == null) {
+            return ResponseEntity.noContent().build();
+        }
+        
+        HttpStatus status = matchesEtag(ifNoneMatch, snapshot.getEtag()) ? HttpStatus.NOT_MODIFIED : HttpStatus.OK;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .eTag(snapshot.getEtag())
+                .header(SEQUENCE_HEADER, Long.toString(snapshot.getSequence()));
+        if (status == HttpStatus.NOT_MODIFIED) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(snapshot.getJson());
+    }
+    
+    /**
+     * Checks an If-None-Match header, a list of possibly weak entity tags, against an entity tag
+     */
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.aircraft.monitoring.controller;
+
+import com.aircraft.monitoring.service.SseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Server-sent events endpoint streaming aircraft data and alerts.
+ *
+ * Delivers the same messages as the WebSocket endpoints over a single long-lived
+ * HTTP response, without the SockJS framing and fallback transports, for
+ * read-only dashboards behind proxies.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/aircraft")
+@CrossOrigin(origins = "*") // Allow all origins for demo purposes
+public class AircraftStreamController {
+
+    @Autowired
+    private SseService sseService;
+
+    /**
+     * Opens an event stream of aircraft_data and alert events
+     *
+     * @param lastEventId Id of the last received event, sent by EventSource when it reconnects
+     * @return The event stream, starting with the retained events after {@code lastEventId}
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return sseService.connect(lastEventId);
+    }
+
+    /**
+     * Gets statistics of the open event streams
+     *
+     * @return Latest event id, retained events and queue statistics per stream
+     */
+    @GetMapping("/stream/status")
+    public ResponseEntity<Map<String, Object>> getStreamStatus() {
+        return ResponseEntity.ok(sseService.getStreamStatus());
+    }
+}
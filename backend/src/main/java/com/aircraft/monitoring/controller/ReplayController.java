@@ -0,0 +1,107 @@
+package com.aircraft.monitoring.controller;
+
+import com.aircraft.monitoring.model.FlightScript;
+import com.aircraft.monitoring.service.FlightReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints running flights in virtual time, for faster-than-real-time regression
+ * and soak runs or watching a recorded flight at N times speed.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/aircraft/replay")
+@CrossOrigin(origins = "*") // Allow all origins for demo purposes
+@Slf4j
+public class ReplayController {
+
+    @Autowired
+    private FlightReplayService flightReplayService;
+
+    /**
+     * Starts a scripted flight of climb, cruise and descent phases with injected anomalies
+     *
+     * @param script The flight script
+     * @param speed Virtual time per wall-clock time, 0 for as fast as possible
+     * @param broadcast Whether samples are sent to WebSocket clients subscribed to replays
+     * @return Status of the started run, 400 for an invalid script
+     */
+    @PostMapping("/script")
+    public ResponseEntity<Map<String, Object>> startScript(@RequestBody FlightScript script,
+                                                           @RequestParam(defaultValue = "0") double speed,
+                                                           @RequestParam(defaultValue = "false") boolean broadcast) {
+        try {
+            return ResponseEntity.accepted().body(flightReplayService.startScript(script, speed, broadcast));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            response.put("status", "error");
+
+            log.warn("Flight script rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Starts a replay of the journaled samples of one aircraft
+     *
+     * @param tailNumber The aircraft tail number
+     * @param from Start of the range (ISO date-time, inclusive)
+     * @param to End of the range (ISO date-time, inclusive)
+     * @param speed Virtual time per wall-clock time, 0 for as fast as possible
+     * @param broadcast Whether samples are sent to WebSocket clients subscribed to replays
+     * @return Status of the started run
+     */
+    @PostMapping("/journal")
+    public ResponseEntity<Map<String, Object>> startJournal(
+            @RequestParam String tailNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") double speed,
+            @RequestParam(defaultValue = "false") boolean broadcast) {
+        return ResponseEntity.accepted().body(flightReplayService.startJournal(tailNumber, from, to, speed, broadcast));
+    }
+
+    /**
+     * Gets the running and recently finished runs
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getRuns() {
+        return ResponseEntity.ok(flightReplayService.getRuns());
+    }
+
+    /**
+     * Gets the progress or result of a run
+     *
+     * @param id The run id
+     * @return Virtual and wall-clock time, speed-up and anomaly counts, or 404 if unknown
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getRun(@PathVariable long id) {
+        Map<String, Object> status = flightReplayService.getRunStatus(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Cancels a run
+     *
+     * @param id The run id
+     * @return Status of the run, or 404 if unknown
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable long id) {
+        Map<String, Object> status = flightReplayService.cancel(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
@@ -24,6 +24,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AircraftData {
     
+    // Aircraft identification
+    private String tailNumber;
+    private String aircraftType;
+    
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime timestamp;
     
@@ -64,6 +68,9 @@ public class AircraftData {
     private boolean altitudeAnomaly;
     private boolean airspeedAnomaly;
     
+    // Statistical and cross-sensor outliers, a bitmask of Sensor ordinals (bit i = Sensor.VALUES[i])
+    private int outlierSensors;
+    
     /**
      * Creates a new AircraftData instance with current timestamp
      */
@@ -71,6 +78,14 @@ public class AircraftData {
         this.timestamp = timestamp;
     }
     
+    /**
+     * Creates a new AircraftData instance for the given aircraft and timestamp
+     */
+    public AircraftData(String tailNumber, LocalDateTime timestamp) {
+        this.tailNumber = tailNumber;
+        this.timestamp = timestamp;
+    }
+    
     /**
      * Checks if any critical system has anomalies
      * @return true if any anomaly is detected
@@ -80,6 +95,14 @@ public class AircraftData {
                altitudeAnomaly || airspeedAnomaly;
     }
     
+    /**
+     * Checks if any sensor deviates statistically from its recent behaviour
+     * @return true if any sensor is an outlier
+     */
+    public boolean isStatisticalAnomaly() {
+        return outlierSensors != 0;
+    }
+    
     /**
      * Gets the overall system status
      * @return "NORMAL" if no anomalies, "WARNING" if any anomaly detected
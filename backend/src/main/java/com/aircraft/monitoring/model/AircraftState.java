@@ -0,0 +1,57 @@
+package com.aircraft.monitoring.model;
+
+import lombok.Data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mutable simulation state of a single aircraft.
+ *
+ * Each simulated aircraft owns one instance, including its own random number
+ * generator, so aircraft can be advanced independently on different threads
+ * and a run seeded with the same value always produces the same readings.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+public class AircraftState {
+
+    private final String tailNumber;
+    private final SplittableRandom random;
+
+    // Aircraft type, selects the anomaly rule profile
+    private String aircraftType;
+
+    // Simulation state
+    private double currentAltitude = 35000.0;
+    private double currentAirspeed = 450.0;
+    private double currentFuelLevel = 85.0;
+    private double currentEngineRPM = 2200.0;
+    private double currentHydraulicPressure = 2800.0;
+
+    // Flight profile; climbs and descents level off at the target altitude
+    private FlightPhase flightPhase = FlightPhase.CRUISE;
+    private double targetAltitude = 35000.0;
+    private double sampleIntervalSeconds = 2.0;
+
+    // Scales the fuel burned per sample (0.25% on average), for flights longer than a demo
+    private double fuelBurnFactor = 1.0;
+
+    // Anomaly simulation flags
+    private boolean simulateEngineAnomaly = false;
+    private boolean simulateFuelAnomaly = false;
+    private boolean simulateHydraulicAnomaly = false;
+    private int anomalyCounter = 0;
+
+    /**
+     * Creates the state for an aircraft with its own random stream
+     *
+     * @param tailNumber The aircraft tail number
+     * @param random The random stream owned by this aircraft
+     */
+    public AircraftState(String tailNumber, SplittableRandom random) {
+        this.tailNumber = tailNumber;
+        this.random = random;
+    }
+}
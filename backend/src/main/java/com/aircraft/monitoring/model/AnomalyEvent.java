@@ -0,0 +1,55 @@
+package com.aircraft.monitoring.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A threshold rule breach detected in aircraft sensor data.
+ *
+ * Events are rate-limited per aircraft and sensor: while a sensor stays out of
+ * limits, at most one event is emitted per interval and {@code suppressed}
+ * counts the breaches folded into it since the previous event.
+ *
+ * {@code source} tells live events from events of recorded data scored by a
+ * detection run, like a CSV ingest or a replay.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyEvent {
+
+    /** Source of events detected in live telemetry */
+    public static final String LIVE = "live";
+
+    // Increasing event sequence number
+    private long id;
+
+    // LIVE, or the detection run of recorded data that emitted the event
+    private String source;
+
+    // Aircraft identification
+    private String tailNumber;
+    private String aircraftType;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    // Breached rule
+    private String rule;
+    private String sensor;
+    private String subsystem;
+
+    // Sensor value and the limit it crossed
+    private double value;
+    private double limit;
+
+    // Breaches of the same aircraft and sensor not emitted since the previous event
+    private int suppressed;
+}
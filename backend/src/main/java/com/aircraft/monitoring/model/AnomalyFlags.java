@@ -0,0 +1,66 @@
+package com.aircraft.monitoring.model;
+
+/**
+ * Bitmask encoding of the anomaly flags of {@link AircraftData}.
+ *
+ * Packs the five boolean anomaly flags into a single int for compact storage
+ * in columnar buffers and binary records.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class AnomalyFlags {
+
+    public static final int ENGINE = 1;
+    public static final int FUEL = 1 << 1;
+    public static final int HYDRAULIC = 1 << 2;
+    public static final int ALTITUDE = 1 << 3;
+    public static final int AIRSPEED = 1 << 4;
+
+    /** Mask of all defined flags */
+    public static final int ALL = ENGINE | FUEL | HYDRAULIC | ALTITUDE | AIRSPEED;
+
+    /** Subsystem names, indexed by bit position */
+    public static final String[] SUBSYSTEMS = {"engine", "fuel", "hydraulic", "altitude", "airspeed"};
+
+    private AnomalyFlags() {
+    }
+
+    /**
+     * Gets the flag of a subsystem by name (case insensitive)
+     *
+     * @return The flag bit, or 0 if the name is unknown
+     */
+    public static int forSubsystem(String subsystem) {
+        for (int i = 0; i < SUBSYSTEMS.length; i++) {
+            if (SUBSYSTEMS[i].equalsIgnoreCase(subsystem)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Packs the anomaly flags of the given data into a bitmask
+     */
+    public static int of(AircraftData data) {
+        int flags = 0;
+        if (data.isEngineAnomaly()) flags |= ENGINE;
+        if (data.isFuelAnomaly()) flags |= FUEL;
+        if (data.isHydraulicAnomaly()) flags |= HYDRAULIC;
+        if (data.isAltitudeAnomaly()) flags |= ALTITUDE;
+        if (data.isAirspeedAnomaly()) flags |= AIRSPEED;
+        return flags;
+    }
+
+    /**
+     * Unpacks a bitmask into the anomaly flags of the given data
+     */
+    public static void apply(int flags, AircraftData data) {
+        data.setEngineAnomaly((flags & ENGINE) != 0);
+        data.setFuelAnomaly((flags & FUEL) != 0);
+        data.setHydraulicAnomaly((flags & HYDRAULIC) != 0);
+        data.setAltitudeAnomaly((flags & ALTITUDE) != 0);
+        data.setAirspeedAnomaly((flags & AIRSPEED) != 0);
+    }
+}
@@ -0,0 +1,30 @@
+package com.aircraft.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A published sample of the demo aircraft together with its serialized JSON.
+ *
+ * Snapshots are published through a volatile reference once the sample is
+ * fully generated and analyzed; neither the data nor the bytes are modified
+ * afterwards, so any number of readers can share them.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public final class DataSnapshot {
+
+    // Increases by one with every published sample
+    private final long sequence;
+
+    // Entity tag of the JSON, quoted as sent in the ETag header
+    private final String etag;
+
+    private final AircraftData data;
+
+    // The data serialized like the REST API renders AircraftData; must not be modified
+    private final byte[] json;
+}
@@ -0,0 +1,21 @@
+package com.aircraft.monitoring.model;
+
+/**
+ * Phase of a simulated flight, selecting how altitude and airspeed evolve.
+ *
+ * The live simulation always cruises; scripted replays run a sequence of phases.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public enum FlightPhase {
+
+    /** Climb towards the target altitude at 1500 to 2500 ft/min */
+    CLIMB,
+
+    /** Level flight between 30000 and 40000 ft */
+    CRUISE,
+
+    /** Descent towards the target altitude at 1000 to 2000 ft/min */
+    DESCENT
+}
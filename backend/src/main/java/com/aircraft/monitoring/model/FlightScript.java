@@ -0,0 +1,76 @@
+package com.aircraft.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scripted flight for faster-than-real-time simulation: a sequence of phases and
+ * anomalies injected at given minutes into the flight.
+ *
+ * The flight starts on the ground if the first phase is a climb, otherwise at
+ * the cruise altitude. Readings come from the same generator as the live
+ * simulation, seeded with {@link #seed}, so a script always produces the same flight.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+public class FlightScript {
+
+    private String tailNumber = "SIM001";
+    private String aircraftType = "B737";
+    private long seed = 42;
+
+    // Virtual start time; the current time if not set
+    private LocalDateTime start;
+    private long sampleIntervalMs = 2000;
+    private double cruiseAltitude = 35000.0;
+
+    // Percent of fuel burned per flight hour; starting at 85%, 6% lasts about ten hours
+    private double fuelBurnPerHour = 6.0;
+
+    private List<Leg> phases = new ArrayList<>();
+    private List<Injection> anomalies = new ArrayList<>();
+
+    /**
+     * One phase of the flight
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Leg {
+
+        private FlightPhase phase;
+        private double minutes;
+    }
+
+    /**
+     * An anomaly triggered at a point of the flight, as by the anomaly simulation endpoints
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Injection {
+
+        private double atMinute;
+
+        // "engine", "fuel" or "hydraulic"
+        private String subsystem;
+    }
+
+    /**
+     * Gets the total scripted flight time in minutes
+     */
+    public double getTotalMinutes() {
+        double total = 0;
+        for (Leg leg : phases) {
+            total += leg.getMinutes();
+        }
+        return total;
+    }
+}
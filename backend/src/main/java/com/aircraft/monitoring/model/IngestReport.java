@@ -0,0 +1,25 @@
+package com.aircraft.monitoring.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Summary of a bulk CSV ingest run.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+public class IngestReport {
+
+    private long rows;
+    private long rejectedRows;
+    private long anomalousRows;
+    private double elapsedMillis;
+    private double rowsPerSecond;
+
+    // Number of rows with an anomaly, keyed by subsystem
+    private Map<String, Long> anomaliesBySubsystem = new LinkedHashMap<>();
+}
@@ -0,0 +1,55 @@
+package com.aircraft.monitoring.model;
+
+/**
+ * Bucket widths of the precomputed telemetry rollups, finest first.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public enum RollupResolution {
+
+    SECOND("1s", 1_000L),
+    TEN_SECONDS("10s", 10_000L),
+    MINUTE("1m", 60_000L),
+    TEN_MINUTES("10m", 600_000L);
+
+    /** Shared copy of {@link #values()} */
+    public static final RollupResolution[] VALUES = values();
+
+    private final String label;
+    private final long widthMillis;
+
+    RollupResolution(String label, long widthMillis) {
+        this.label = label;
+        this.widthMillis = widthMillis;
+    }
+
+    /**
+     * Gets the label used in queries, e.g. "10s"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the bucket width in milliseconds
+     */
+    public long getWidthMillis() {
+        return widthMillis;
+    }
+
+    /**
+     * Looks up a resolution by its label
+     *
+     * @param label The label, e.g. "1m"
+     * @return The matching resolution, or null if there is none
+     */
+    public static RollupResolution fromLabel(String label) {
+        for (RollupResolution resolution : VALUES) {
+            if (resolution.label.equalsIgnoreCase(label.trim())) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.aircraft.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Rollup buckets of one sensor of one aircraft in columnar form.
+ *
+ * All arrays have the same length and are indexed by bucket, oldest first.
+ * Buckets without samples are omitted.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+@AllArgsConstructor
+public class RollupSeries {
+
+    private String tailNumber;
+
+    private Sensor sensor;
+
+    private RollupResolution resolution;
+
+    // Bucket start times in milliseconds since the epoch (UTC)
+    private long[] timestamps;
+
+    // Number of samples per bucket
+    private int[] counts;
+
+    private double[] min;
+
+    private double[] max;
+
+    private double[] avg;
+
+    /**
+     * Gets the number of buckets in the series
+     */
+    public int getSize() {
+        return timestamps.length;
+    }
+}
@@ -0,0 +1,23 @@
+package com.aircraft.monitoring.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anomaly rule file contents.
+ *
+ * Rules are grouped into profiles keyed by aircraft type. The "default" profile
+ * applies to every aircraft; a type profile overrides default rules with the
+ * same name and adds its other rules on top.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+public class RuleConfiguration {
+
+    private Map<String, List<ThresholdRule>> profiles = new LinkedHashMap<>();
+}
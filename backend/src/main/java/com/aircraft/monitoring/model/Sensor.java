@@ -0,0 +1,103 @@
+package com.aircraft.monitoring.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Enumeration of all numeric sensor channels of {@link AircraftData}.
+ *
+ * The ordinal of each constant is its column index in columnar storage, so the
+ * order of the constants must not change once data has been persisted.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public enum Sensor {
+
+    // Engine System
+    ENGINE_RPM("engineRPM", AircraftData::getEngineRPM, AircraftData::setEngineRPM),
+    ENGINE_TEMPERATURE("engineTemperature", AircraftData::getEngineTemperature, AircraftData::setEngineTemperature),
+    OIL_PRESSURE("oilPressure", AircraftData::getOilPressure, AircraftData::setOilPressure),
+    OIL_TEMPERATURE("oilTemperature", AircraftData::getOilTemperature, AircraftData::setOilTemperature),
+
+    // Fuel System
+    FUEL_LEVEL("fuelLevel", AircraftData::getFuelLevel, AircraftData::setFuelLevel),
+    FUEL_CONSUMPTION("fuelConsumption", AircraftData::getFuelConsumption, AircraftData::setFuelConsumption),
+    FUEL_PRESSURE("fuelPressure", AircraftData::getFuelPressure, AircraftData::setFuelPressure),
+    FUEL_TEMPERATURE("fuelTemperature", AircraftData::getFuelTemperature, AircraftData::setFuelTemperature),
+
+    // Hydraulic System
+    HYDRAULIC_PRESSURE("hydraulicPressure", AircraftData::getHydraulicPressure, AircraftData::setHydraulicPressure),
+    HYDRAULIC_TEMPERATURE("hydraulicTemperature", AircraftData::getHydraulicTemperature, AircraftData::setHydraulicTemperature),
+    HYDRAULIC_FLUID_LEVEL("hydraulicFluidLevel", AircraftData::getHydraulicFluidLevel, AircraftData::setHydraulicFluidLevel),
+
+    // Flight Data
+    ALTITUDE("altitude", AircraftData::getAltitude, AircraftData::setAltitude),
+    AIRSPEED("airspeed", AircraftData::getAirspeed, AircraftData::setAirspeed),
+    GROUND_SPEED("groundSpeed", AircraftData::getGroundSpeed, AircraftData::setGroundSpeed),
+    MACH_NUMBER("machNumber", AircraftData::getMachNumber, AircraftData::setMachNumber),
+    VERTICAL_SPEED("verticalSpeed", AircraftData::getVerticalSpeed, AircraftData::setVerticalSpeed),
+
+    // Additional Systems
+    CABIN_PRESSURE("cabinPressure", AircraftData::getCabinPressure, AircraftData::setCabinPressure),
+    CABIN_TEMPERATURE("cabinTemperature", AircraftData::getCabinTemperature, AircraftData::setCabinTemperature),
+    BATTERY_VOLTAGE("batteryVoltage", AircraftData::getBatteryVoltage, AircraftData::setBatteryVoltage),
+    GENERATOR_OUTPUT("generatorOutput", AircraftData::getGeneratorOutput, AircraftData::setGeneratorOutput);
+
+    /** Shared copy of {@link #values()} to avoid cloning the array on hot paths */
+    public static final Sensor[] VALUES = values();
+
+    /** Number of sensor channels */
+    public static final int COUNT = VALUES.length;
+
+    private static final Map<String, Sensor> BY_FIELD_NAME = new HashMap<>();
+
+    static {
+        for (Sensor sensor : VALUES) {
+            BY_FIELD_NAME.put(sensor.fieldName, sensor);
+        }
+    }
+
+    private final String fieldName;
+    private final ToDoubleFunction<AircraftData> getter;
+    private final ObjDoubleConsumer<AircraftData> setter;
+
+    Sensor(String fieldName, ToDoubleFunction<AircraftData> getter, ObjDoubleConsumer<AircraftData> setter) {
+        this.fieldName = fieldName;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Gets the JSON property name of this sensor in {@link AircraftData}
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Reads this sensor's value from the given data
+     */
+    public double read(AircraftData data) {
+        return getter.applyAsDouble(data);
+    }
+
+    /**
+     * Writes this sensor's value into the given data
+     */
+    public void write(AircraftData data, double value) {
+        setter.accept(data, value);
+    }
+
+    /**
+     * Looks up a sensor by its JSON property name
+     *
+     * @param fieldName The property name, e.g. "engineRPM"
+     * @return The matching sensor, or null if there is none
+     */
+    public static Sensor fromFieldName(String fieldName) {
+        return BY_FIELD_NAME.get(fieldName);
+    }
+}
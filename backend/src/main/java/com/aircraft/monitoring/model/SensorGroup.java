@@ -0,0 +1,81 @@
+package com.aircraft.monitoring.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Groups of sensors that clients can subscribe to.
+ *
+ * Each group lists its {@link Sensor}s and the {@link AnomalyFlags} that belong
+ * to it; the flight group covers both the altitude and airspeed flags.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public enum SensorGroup {
+
+    ENGINE(AnomalyFlags.ENGINE, EnumSet.range(Sensor.ENGINE_RPM, Sensor.OIL_TEMPERATURE)),
+    FUEL(AnomalyFlags.FUEL, EnumSet.range(Sensor.FUEL_LEVEL, Sensor.FUEL_TEMPERATURE)),
+    HYDRAULIC(AnomalyFlags.HYDRAULIC, EnumSet.range(Sensor.HYDRAULIC_PRESSURE, Sensor.HYDRAULIC_FLUID_LEVEL)),
+    FLIGHT(AnomalyFlags.ALTITUDE | AnomalyFlags.AIRSPEED, EnumSet.range(Sensor.ALTITUDE, Sensor.VERTICAL_SPEED)),
+    SYSTEMS(0, EnumSet.range(Sensor.CABIN_PRESSURE, Sensor.GENERATOR_OUTPUT));
+
+    /** Shared copy of {@link #values()} */
+    public static final SensorGroup[] VALUES = values();
+
+    /** Mask with the bits of all groups */
+    public static final int ALL = (1 << VALUES.length) - 1;
+
+    private final int anomalyFlags;
+    private final Set<Sensor> sensors;
+
+    SensorGroup(int anomalyFlags, Set<Sensor> sensors) {
+        this.anomalyFlags = anomalyFlags;
+        this.sensors = sensors;
+    }
+
+    /**
+     * Gets the {@link AnomalyFlags} raised by sensors of this group
+     */
+    public int getAnomalyFlags() {
+        return anomalyFlags;
+    }
+
+    public Set<Sensor> getSensors() {
+        return sensors;
+    }
+
+    /**
+     * Gets the bit of this group in a group mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Looks up a group by name (case insensitive)
+     *
+     * @return The group, or null if the name is unknown
+     */
+    public static SensorGroup fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Combines the anomaly flags of all groups in a mask
+     */
+    public static int anomalyFlagsOf(int groupMask) {
+        int flags = 0;
+        for (SensorGroup group : VALUES) {
+            if ((groupMask & group.bit()) != 0) {
+                flags |= group.anomalyFlags;
+            }
+        }
+        return flags;
+    }
+}
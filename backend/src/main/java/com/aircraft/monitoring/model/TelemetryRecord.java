@@ -0,0 +1,273 @@
+package com.aircraft.monitoring.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Compact fixed-width form of {@link AircraftData}, accessed through a reusable
+ * flyweight over a {@link ByteBuffer}.
+ *
+ * A record is laid out as:
+ * <pre>
+ *   offset  size  field
+ *   0       8     timestamp, nanoseconds since the epoch (UTC), NO_TIMESTAMP if null
+ *   8       4     packed anomaly flags, see {@link AnomalyFlags}
+ *   12      4     outlier sensors, a bitmask of {@link Sensor} ordinals
+ *   16      16    tail number: length byte (-1 if null) and up to 15 US-ASCII characters
+ *   32      16    aircraft type, in the same form
+ *   48      160   sensor values, one double per {@link Sensor} in ordinal order
+ * </pre>
+ * Many records share one buffer, so a fleet of samples is a single object for the
+ * garbage collector. A flyweight is moved between records with {@link #wrap}, and
+ * reading or writing the primitive fields allocates nothing.
+ *
+ * Conversion to and from {@link AircraftData} is lossless for tail numbers and
+ * aircraft types of up to 15 ASCII characters. {@link #writeTo} keeps the target's
+ * timestamp and strings when they are unchanged, so refreshing a reused bean
+ * allocates only when the record differs.
+ *
+ * A flyweight is not thread-safe; callers guard the records they share.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryRecord {
+
+    public static final int RECORD_SIZE = 48 + Sensor.COUNT * Double.BYTES;
+    public static final int MAX_TEXT_LENGTH = 15;
+
+    /** Timestamp of a record whose sample has no timestamp */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int FLAGS_OFFSET = 8;
+    private static final int OUTLIERS_OFFSET = 12;
+    private static final int TAIL_NUMBER_OFFSET = 16;
+    private static final int AIRCRAFT_TYPE_OFFSET = 32;
+    private static final int VALUES_OFFSET = 48;
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Creates a flyweight over its own buffer holding a single record
+     */
+    public TelemetryRecord() {
+        this(allocate(1), 0);
+    }
+
+    /**
+     * Creates a flyweight over a record of the given buffer
+     */
+    public TelemetryRecord(ByteBuffer buffer, int index) {
+        wrap(buffer, index);
+    }
+
+    /**
+     * Allocates a heap buffer for the given number of records, each with no timestamp
+     */
+    public static ByteBuffer allocate(int records) {
+        ByteBuffer buffer = ByteBuffer.allocate(records * RECORD_SIZE);
+        for (int i = 0; i < records; i++) {
+            buffer.putLong(i * RECORD_SIZE, NO_TIMESTAMP);
+            buffer.put(i * RECORD_SIZE + TAIL_NUMBER_OFFSET, (byte) -1);
+            buffer.put(i * RECORD_SIZE + AIRCRAFT_TYPE_OFFSET, (byte) -1);
+        }
+        return buffer;
+    }
+
+    /**
+     * Moves this flyweight to a record of the given buffer
+     *
+     * @param index Record index, not byte offset
+     * @return This flyweight
+     */
+    public TelemetryRecord wrap(ByteBuffer buffer, int index) {
+        this.buffer = buffer;
+        this.offset = index * RECORD_SIZE;
+        return this;
+    }
+
+    /**
+     * Encodes the given aircraft data into the current record
+     */
+    public TelemetryRecord readFrom(AircraftData data) {
+        buffer.putLong(offset, data.getTimestamp() != null
+                ? TelemetryTime.toEpochNanos(data.getTimestamp())
+                : NO_TIMESTAMP);
+        buffer.putInt(offset + FLAGS_OFFSET, AnomalyFlags.of(data));
+        buffer.putInt(offset + OUTLIERS_OFFSET, data.getOutlierSensors());
+        putText(TAIL_NUMBER_OFFSET, data.getTailNumber());
+        putText(AIRCRAFT_TYPE_OFFSET, data.getAircraftType());
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            buffer.putDouble(offset + VALUES_OFFSET + i * Double.BYTES, Sensor.VALUES[i].read(data));
+        }
+        return this;
+    }
+
+    /**
+     * Decodes the current record into the given aircraft data object
+     *
+     * @return The given data
+     */
+    public AircraftData writeTo(AircraftData data) {
+        long timestampNanos = getTimestampNanos();
+        if (timestampNanos == NO_TIMESTAMP) {
+            data.setTimestamp(null);
+        } else if (data.getTimestamp() == null || TelemetryTime.toEpochNanos(data.getTimestamp()) != timestampNanos) {
+            data.setTimestamp(TelemetryTime.fromEpochNanos(timestampNanos));
+        }
+        if (!textEquals(TAIL_NUMBER_OFFSET, data.getTailNumber())) {
+            data.setTailNumber(getText(TAIL_NUMBER_OFFSET));
+        }
+        if (!textEquals(AIRCRAFT_TYPE_OFFSET, data.getAircraftType())) {
+            data.setAircraftType(getText(AIRCRAFT_TYPE_OFFSET));
+        }
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            Sensor.VALUES[i].write(data, buffer.getDouble(offset + VALUES_OFFSET + i * Double.BYTES));
+        }
+        AnomalyFlags.apply(getAnomalyFlags(), data);
+        data.setOutlierSensors(getOutlierSensors());
+        return data;
+    }
+
+    /**
+     * Copies the current record of another flyweight into the current record
+     */
+    public TelemetryRecord copyFrom(TelemetryRecord source) {
+        for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+            buffer.putLong(offset + i, source.buffer.getLong(source.offset + i));
+        }
+        return this;
+    }
+
+    public long getTimestampNanos() {
+        return buffer.getLong(offset);
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        buffer.putLong(offset, timestampNanos);
+    }
+
+    public boolean hasTimestamp() {
+        return getTimestampNanos() != NO_TIMESTAMP;
+    }
+
+    /**
+     * Gets the timestamp as allocated by {@link AircraftData}
+     *
+     * @return The timestamp, or null if the record has none
+     */
+    public LocalDateTime getTimestamp() {
+        long timestampNanos = getTimestampNanos();
+        return timestampNanos != NO_TIMESTAMP ? TelemetryTime.fromEpochNanos(timestampNanos) : null;
+    }
+
+    public int getAnomalyFlags() {
+        return buffer.getInt(offset + FLAGS_OFFSET);
+    }
+
+    public void setAnomalyFlags(int flags) {
+        buffer.putInt(offset + FLAGS_OFFSET, flags);
+    }
+
+    public int getOutlierSensors() {
+        return buffer.getInt(offset + OUTLIERS_OFFSET);
+    }
+
+    public void setOutlierSensors(int outlierSensors) {
+        buffer.putInt(offset + OUTLIERS_OFFSET, outlierSensors);
+    }
+
+    public double getValue(Sensor sensor) {
+        return buffer.getDouble(offset + VALUES_OFFSET + sensor.ordinal() * Double.BYTES);
+    }
+
+    public void setValue(Sensor sensor, double value) {
+        buffer.putDouble(offset + VALUES_OFFSET + sensor.ordinal() * Double.BYTES, value);
+    }
+
+    public String getTailNumber() {
+        return getText(TAIL_NUMBER_OFFSET);
+    }
+
+    public void setTailNumber(String tailNumber) {
+        putText(TAIL_NUMBER_OFFSET, tailNumber);
+    }
+
+    /**
+     * Checks the tail number without decoding it
+     */
+    public boolean hasTailNumber(String tailNumber) {
+        return textEquals(TAIL_NUMBER_OFFSET, tailNumber);
+    }
+
+    public String getAircraftType() {
+        return getText(AIRCRAFT_TYPE_OFFSET);
+    }
+
+    public void setAircraftType(String aircraftType) {
+        putText(AIRCRAFT_TYPE_OFFSET, aircraftType);
+    }
+
+    /**
+     * Checks if any critical system has anomalies, as {@link AircraftData#hasAnyAnomaly()}
+     */
+    public boolean hasAnyAnomaly() {
+        return (getAnomalyFlags() & AnomalyFlags.ALL) != 0;
+    }
+
+    /**
+     * Checks if any sensor is a statistical outlier, as {@link AircraftData#isStatisticalAnomaly()}
+     */
+    public boolean isStatisticalAnomaly() {
+        return getOutlierSensors() != 0;
+    }
+
+    /**
+     * Gets the overall system status, as {@link AircraftData#getSystemStatus()}
+     */
+    public String getSystemStatus() {
+        return hasAnyAnomaly() ? "WARNING" : "NORMAL";
+    }
+
+    private void putText(int fieldOffset, String text) {
+        int base = offset + fieldOffset;
+        int length = text != null ? Math.min(text.length(), MAX_TEXT_LENGTH) : 0;
+        buffer.put(base, text != null ? (byte) length : -1);
+        for (int i = 0; i < MAX_TEXT_LENGTH; i++) {
+            char c = i < length ? text.charAt(i) : 0;
+            buffer.put(base + 1 + i, c < 0x80 ? (byte) c : (byte) '?');
+        }
+    }
+
+    private String getText(int fieldOffset) {
+        int base = offset + fieldOffset;
+        int length = buffer.get(base);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(base + 1 + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private boolean textEquals(int fieldOffset, String text) {
+        int base = offset + fieldOffset;
+        int length = buffer.get(base);
+        if (text == null || length < 0) {
+            return text == null && length < 0;
+        }
+        if (text.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(base + 1 + i) != (byte) text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.aircraft.monitoring.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Conversions between {@link AircraftData} timestamps and primitive epoch values.
+ *
+ * Timestamps are interpreted as UTC, matching {@code spring.jackson.time-zone};
+ * samples are stamped with {@code LocalDateTime.now(ZoneOffset.UTC)}, so their
+ * epoch values compare directly with {@link System#currentTimeMillis()}.
+ * The conversion to epoch values reads the date and time parts directly, so it
+ * does not allocate on the hot path.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryTime {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    private TelemetryTime() {
+    }
+
+    /**
+     * Converts a timestamp to milliseconds since the epoch
+     */
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toLocalDate().toEpochDay() * MILLIS_PER_DAY
+                + timestamp.toLocalTime().toNanoOfDay() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Converts milliseconds since the epoch to a timestamp
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(millisOfDay * NANOS_PER_MILLI));
+    }
+
+    /**
+     * Converts a timestamp to nanoseconds since the epoch, which covers the years 1678 to 2261
+     */
+    public static long toEpochNanos(LocalDateTime timestamp) {
+        return timestamp.toLocalDate().toEpochDay() * NANOS_PER_DAY + timestamp.toLocalTime().toNanoOfDay();
+    }
+
+    /**
+     * Converts nanoseconds since the epoch to a timestamp
+     */
+    public static LocalDateTime fromEpochNanos(long epochNanos) {
+        long epochDay = Math.floorDiv(epochNanos, NANOS_PER_DAY);
+        long nanosOfDay = Math.floorMod(epochNanos, NANOS_PER_DAY);
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(nanosOfDay));
+    }
+}
@@ -0,0 +1,37 @@
+package com.aircraft.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * A consistent window of recent telemetry for one aircraft in columnar form.
+ *
+ * All arrays have the same length and are indexed by sample, oldest first.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+@AllArgsConstructor
+public class TelemetryWindow {
+
+    private String tailNumber;
+
+    // Sample timestamps in milliseconds since the epoch (UTC)
+    private long[] timestamps;
+
+    // Packed anomaly flags, see AnomalyFlags
+    private int[] anomalyFlags;
+
+    // Sensor values keyed by AircraftData property name
+    private Map<String, double[]> sensors;
+
+    /**
+     * Gets the number of samples in the window
+     */
+    public int getSize() {
+        return timestamps.length;
+    }
+}
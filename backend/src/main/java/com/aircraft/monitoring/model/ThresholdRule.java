@@ -0,0 +1,36 @@
+package com.aircraft.monitoring.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A configurable limit on one sensor.
+ *
+ * A sample breaches the rule if the sensor value is below {@code min}, above
+ * {@code max}, or its absolute value is above {@code maxAbs}. Unset bounds are
+ * not checked. A breach raises the anomaly flag of the rule's subsystem.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ThresholdRule {
+
+    // Unique rule name, e.g. "engine-temperature"
+    private String name;
+
+    // AircraftData property name of the checked sensor
+    private String sensor;
+
+    // Subsystem flagged on breach: engine, fuel, hydraulic, altitude or airspeed
+    private String subsystem;
+
+    private Double min;
+    private Double max;
+    private Double maxAbs;
+}
@@ -0,0 +1,106 @@
+package com.aircraft.monitoring.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interned aircraft types of the telemetry journal, so a record stores a two-byte
+ * id instead of the type name.
+ *
+ * The table is a text file with one type per line; the id of a type is its line
+ * number, and 0 stands for no type. A new type is appended and synced before its
+ * id is returned, so a record never refers to an id that is not on disk. Lookups
+ * by id read an immutable array and take no lock.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class AircraftTypeTable {
+
+    /** Id of samples without an aircraft type */
+    public static final int NONE = 0;
+
+    /** Largest id that fits a record */
+    public static final int MAX_ID = 0xFFFF;
+
+    private final Path path;
+    private final Map<String, Integer> ids = new HashMap<>();
+    // Index 0 is NONE; replaced, never modified, when a type is added
+    private volatile String[] names;
+
+    private AircraftTypeTable(Path path, List<String> lines) {
+        this.path = path;
+        String[] loaded = new String[lines.size() + 1];
+        for (int i = 0; i < lines.size(); i++) {
+            loaded[i + 1] = lines.get(i);
+            ids.putIfAbsent(lines.get(i), i + 1);
+        }
+        this.names = loaded;
+    }
+
+    /**
+     * Loads the table from its file; a missing file is an empty table
+     */
+    public static AircraftTypeTable load(Path path) throws IOException {
+        List<String> lines = Files.exists(path) ? Files.readAllLines(path, StandardCharsets.UTF_8) : List.of();
+        return new AircraftTypeTable(path, lines);
+    }
+
+    /**
+     * Gets the id of an aircraft type, adding it to the table if it is new
+     *
+     * @param aircraftType The aircraft type, or null
+     * @return The id, or {@link #NONE} for null, blank or multi-line types and once the table is full
+     */
+    public synchronized int idOf(String aircraftType) {
+        if (aircraftType == null || aircraftType.isBlank() || aircraftType.indexOf('\n') >= 0
+                || aircraftType.indexOf('\r') >= 0) {
+            return NONE;
+        }
+        Integer id = ids.get(aircraftType);
+        if (id != null) {
+            return id;
+        }
+        String[] current = names;
+        if (current.length > MAX_ID) {
+            return NONE;
+        }
+        try {
+            Files.write(path, (aircraftType + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot add aircraft type to " + path, e);
+        }
+        String[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = aircraftType;
+        names = updated;
+        ids.put(aircraftType, current.length);
+        return current.length;
+    }
+
+    /**
+     * Gets the aircraft type of an id
+     *
+     * @return The type, or null for {@link #NONE}
+     * @throws IllegalArgumentException if the id is not in the table
+     */
+    public String nameOf(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length) {
+            throw new IllegalArgumentException("Unknown aircraft type id " + id + " in " + path);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return names.length - 1;
+    }
+}
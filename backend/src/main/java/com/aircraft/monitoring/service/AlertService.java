@@ -0,0 +1,380 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.TelemetryTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns the anomaly flags of broadcast samples into alerts, one state machine per
+ * aircraft and subsystem.
+ *
+ * An alert is raised once a subsystem has been anomalous for
+ * {@code aircraft.alerts.raise-samples} consecutive samples, and cleared once it
+ * has been normal for {@code aircraft.alerts.clear-samples} consecutive samples,
+ * but not before it has been raised for {@code aircraft.alerts.min-dwell-ms}. A
+ * reading oscillating around a limit therefore stays raised instead of alerting
+ * on every sample. Changes within {@code aircraft.alerts.coalesce-window-ms} of
+ * the previous alert of the same subsystem are not sent at once; once the window
+ * has passed, a single alert is sent with the current state and the number of
+ * times the anomaly was raised in between. That is either the next sample of the
+ * aircraft or, if none arrives, the flush task running every
+ * {@code aircraft.alerts.flush-interval-ms}; resetting an aircraft sends its held
+ * back alerts at once.
+ *
+ * All times are sample times, so alerts do not depend on how fast samples arrive.
+ * The flush task extrapolates the sample time of an aircraft from its last sample
+ * by the time elapsed since. Each alert is serialized once by the {@link TelemetryJsonWriter} and
+ * shared by every client.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class AlertService {
+
+    private static final String[] ALERT_TYPES = {"ENGINE", "FUEL", "HYDRAULIC", "ALTITUDE", "AIRSPEED"};
+    private static final String[] SUBSYSTEM_NAMES = {"Engine", "Fuel system", "Hydraulic system", "Altitude", "Airspeed"};
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Value("${aircraft.alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${aircraft.alerts.raise-samples:1}")
+    private int raiseSamples;
+
+    @Value("${aircraft.alerts.clear-samples:3}")
+    private int clearSamples;
+
+    @Value("${aircraft.alerts.min-dwell-ms:10000}")
+    private long minDwellMillis;
+
+    @Value("${aircraft.alerts.coalesce-window-ms:30000}")
+    private long coalesceWindowMillis;
+
+    // Monotonic clock of the flush task's extrapolation; replaced by tests
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private final Map<String, AircraftAlerts> aircraft = new ConcurrentHashMap<>();
+    // Aircraft with at least one held back alert, visited by the flush task
+    private final Set<String> pendingAircraft = ConcurrentHashMap.newKeySet();
+    private final AtomicLong raisedTotal = new AtomicLong();
+    private final AtomicLong clearedTotal = new AtomicLong();
+    private final AtomicLong sentTotal = new AtomicLong();
+    private final AtomicLong coalescedTotal = new AtomicLong();
+
+    /**
+     * Advances the alert states of the sample's aircraft and broadcasts the alerts due
+     *
+     * @param data An analyzed sample that is broadcast to clients
+     */
+    public void evaluate(AircraftData data) {
+        if (!enabled || data.getTailNumber() == null) {
+            return;
+        }
+        int flags = AnomalyFlags.of(data);
+        AircraftAlerts alerts = aircraft.get(data.getTailNumber());
+        if (alerts == null) {
+            // Aircraft that were never anomalous need no state
+            if (flags == 0) {
+                return;
+            }
+            alerts = aircraft.computeIfAbsent(data.getTailNumber(), key -> new AircraftAlerts());
+        }
+
+        long millis = data.getTimestamp() != null
+                ? TelemetryTime.toEpochMillis(data.getTimestamp())
+                : System.currentTimeMillis();
+        List<Alert> due = null;
+        boolean pending = false;
+        synchronized (alerts) {
+            alerts.lastSampleMillis = millis;
+            alerts.lastSampleNanos = nanoClock.getAsLong();
+            for (int i = 0; i < ALERT_TYPES.length; i++) {
+                SubsystemAlert subsystem = alerts.subsystems[i];
+                Alert alert = subsystem.update((flags & (1 << i)) != 0, millis);
+                if (alert != null) {
+                    if (due == null) {
+                        due = new ArrayList<>(2);
+                    }
+                    due.add(alert);
+                }
+                pending |= subsystem.pending;
+            }
+        }
+        if (pending) {
+            pendingAircraft.add(data.getTailNumber());
+        }
+
+        if (due != null) {
+            for (Alert alert : due) {
+                send(data.getTailNumber(), data.getTimestamp(), alert);
+            }
+        }
+    }
+
+    /**
+     * Sends the held back alerts whose coalescing window has passed, for aircraft
+     * whose next sample has not arrived yet
+     */
+    @Scheduled(fixedRateString = "${aircraft.alerts.flush-interval-ms:1000}")
+    public void flushPendingAlerts() {
+        if (!enabled) {
+            return;
+        }
+        long nowNanos = nanoClock.getAsLong();
+        for (String tailNumber : pendingAircraft) {
+            AircraftAlerts alerts = aircraft.get(tailNumber);
+            if (alerts == null) {
+                pendingAircraft.remove(tailNumber);
+                continue;
+            }
+            long millis;
+            List<Alert> due;
+            synchronized (alerts) {
+                millis = alerts.lastSampleMillis + (nowNanos - alerts.lastSampleNanos) / 1_000_000;
+                due = alerts.flush(millis, false);
+                if (!alerts.hasPending()) {
+                    pendingAircraft.remove(tailNumber);
+                }
+            }
+            for (Alert alert : due) {
+                send(tailNumber, TelemetryTime.fromEpochMillis(millis), alert);
+            }
+        }
+    }
+
+    /**
+     * Forgets the alert states of an aircraft, first sending any held back alert
+     */
+    public void reset(String tailNumber) {
+        AircraftAlerts alerts = aircraft.remove(tailNumber);
+        pendingAircraft.remove(tailNumber);
+        if (alerts == null) {
+            return;
+        }
+        long millis;
+        List<Alert> due;
+        synchronized (alerts) {
+            millis = alerts.lastSampleMillis;
+            due = alerts.flush(millis, true);
+        }
+        for (Alert alert : due) {
+            send(tailNumber, TelemetryTime.fromEpochMillis(millis), alert);
+        }
+    }
+
+    /**
+     * Gets the alert settings, counters and currently raised alerts
+     */
+    public Map<String, Object> getAlertStatus() {
+        List<Map<String, Object>> active = new ArrayList<>();
+        aircraft.forEach((tailNumber, alerts) -> {
+            synchronized (alerts) {
+                for (int i = 0; i < ALERT_TYPES.length; i++) {
+                    SubsystemAlert subsystem = alerts.subsystems[i];
+                    if (subsystem.active) {
+                        Map<String, Object> entry = new LinkedHashMap<>();
+                        entry.put("tailNumber", tailNumber);
+                        entry.put("alertType", ALERT_TYPES[i]);
+                        entry.put("since", TelemetryTime.fromEpochMillis(subsystem.changedAt));
+                        entry.put("pending", subsystem.pending);
+                        active.add(entry);
+                    }
+                }
+            }
+        });
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("raiseSamples", raiseSamples);
+        status.put("clearSamples", clearSamples);
+        status.put("minDwellMs", minDwellMillis);
+        status.put("coalesceWindowMs", coalesceWindowMillis);
+        status.put("raised", raisedTotal.get());
+        status.put("cleared", clearedTotal.get());
+        status.put("sent", sentTotal.get());
+        status.put("coalesced", coalescedTotal.get());
+        status.put("active", active);
+        return status;
+    }
+
+    private void send(String tailNumber, LocalDateTime timestamp, Alert alert) {
+        String name = SUBSYSTEM_NAMES[alert.subsystem];
+        String message = alert.active ? name + " anomaly detected" : name + " anomaly cleared";
+        if (alert.raises > 1) {
+            message += " (raised " + alert.raises + " times)";
+        }
+
+        String json = TelemetryJsonWriter.acquire().beginObject()
+                .name("type").value("alert")
+                .name("alertType").value(ALERT_TYPES[alert.subsystem])
+                .name("message").value(message)
+                .name("severity").value(alert.active ? "WARNING" : "INFO")
+                .name("state").value(alert.active ? "RAISED" : "CLEARED")
+                .name("tailNumber").value(tailNumber)
+                .name("subsystem").value(AnomalyFlags.SUBSYSTEMS[alert.subsystem])
+                .name("count").value(alert.raises)
+                .name("since").value(TelemetryTime.fromEpochMillis(alert.since))
+                .name("timestamp").value(timestamp)
+                .endObject().toString();
+        webSocketService.broadcastSerializedAlert(json);
+        sentTotal.incrementAndGet();
+        log.info("Alert for {}: {}", tailNumber, message);
+    }
+
+    /**
+     * Alert states of one aircraft, one per subsystem
+     */
+    private final class AircraftAlerts {
+
+        private final SubsystemAlert[] subsystems = new SubsystemAlert[ALERT_TYPES.length];
+        // Sample time of the last sample, and when it arrived on the nano clock
+        private long lastSampleMillis;
+        private long lastSampleNanos;
+
+        AircraftAlerts() {
+            for (int i = 0; i < subsystems.length; i++) {
+                subsystems[i] = new SubsystemAlert(i);
+            }
+        }
+
+        /**
+         * Takes the held back alerts that are due at the given sample time
+         *
+         * @param force Whether to take them even within the coalescing window
+         */
+        List<Alert> flush(long millis, boolean force) {
+            List<Alert> due = new ArrayList<>(0);
+            for (SubsystemAlert subsystem : subsystems) {
+                if (subsystem.pending && (force || !subsystem.windowOpen(millis))) {
+                    due.add(subsystem.take(millis));
+                }
+            }
+            return due;
+        }
+
+        boolean hasPending() {
+            for (SubsystemAlert subsystem : subsystems) {
+                if (subsystem.pending) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Alert state machine of one subsystem. Guarded by the owning {@link AircraftAlerts}.
+     */
+    private final class SubsystemAlert {
+
+        private final int subsystem;
+        private boolean active = false;
+        // Consecutive samples disagreeing with the current state
+        private int streak = 0;
+        private long changedAt = 0;
+        private long lastSentAt = Long.MIN_VALUE;
+        // Raises since the last sent alert, and whether a change is waiting to be sent
+        private int raises = 0;
+        private boolean pending = false;
+
+        SubsystemAlert(int subsystem) {
+            this.subsystem = subsystem;
+        }
+
+        /**
+         * Applies one sample
+         *
+         * @return The alert to send, or null
+         */
+        Alert update(boolean anomalous, long millis) {
+            boolean changed = false;
+            if (anomalous != active) {
+                streak++;
+                boolean settled = active
+                        ? streak >= clearSamples && millis - changedAt >= minDwellMillis
+                        : streak >= raiseSamples;
+                if (settled) {
+                    active = anomalous;
+                    changedAt = millis;
+                    streak = 0;
+                    changed = true;
+                    if (active) {
+                        raises++;
+                        raisedTotal.incrementAndGet();
+                    } else {
+                        clearedTotal.incrementAndGet();
+                    }
+                }
+            } else {
+                streak = 0;
+            }
+
+            boolean windowOpen = windowOpen(millis);
+            if (changed && windowOpen) {
+                pending = true;
+                coalescedTotal.incrementAndGet();
+                return null;
+            }
+            if (!changed && !(pending && !windowOpen)) {
+                return null;
+            }
+            return take(millis);
+        }
+
+        /**
+         * Checks whether an alert at the given time would fall within the
+         * coalescing window of the last sent alert
+         */
+        boolean windowOpen(long millis) {
+            return lastSentAt != Long.MIN_VALUE && millis >= lastSentAt && millis - lastSentAt < coalesceWindowMillis;
+        }
+
+        /**
+         * Takes the alert of the current state, to be sent at the given time
+         */
+        Alert take(long millis) {
+            Alert alert = new Alert(subsystem, active, raises, changedAt);
+            lastSentAt = millis;
+            raises = 0;
+            pending = false;
+            return alert;
+        }
+    }
+
+    /**
+     * An alert to send, taken from a state machine under its lock
+     */
+    private static final class Alert {
+
+        private final int subsystem;
+        private final boolean active;
+        private final int raises;
+        private final long since;
+
+        Alert(int subsystem, boolean active, int raises, long since) {
+            this.subsystem = subsystem;
+            this.active = active;
+            this.raises = raises;
+            this.since = since;
+        }
+    }
+}
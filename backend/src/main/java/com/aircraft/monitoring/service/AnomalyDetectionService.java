@@ -1,15 +1,51 @@
 package com.aircraft.monitoring.service;
 
 import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.RuleConfiguration;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.ThresholdRule;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service responsible for detecting anomalies in aircraft sensor data.
  * 
  * This service analyzes sensor readings and flags suspicious or invalid values
  * for critical aircraft systems including engine, fuel, hydraulic, altitude, and airspeed.
  * 
+ * Limits are threshold rules loaded from {@code aircraft.rules.location}, optionally
+ * per aircraft type, and compiled into a {@link CompiledRuleSet}. The location is a file
+ * by default, so it can be edited and reloaded at runtime; until it exists the rules
+ * bundled on the classpath are used. The new rule set replaces the old one with a
+ * single volatile write, so detection never waits for a reload. Without any rule file
+ * the built-in limits apply.
+ * 
+ * Breaches are reported as rate-limited events through {@link AnomalyEventService}
+ * rather than logged per sample. Per-sample detection also runs the
+ * {@link StatisticalAnomalyDetector} and the {@link CorrelationAnomalyDetector},
+ * whose outliers are reported next to the flags. Their state and the event rate
+ * limits are kept per aircraft and expect its samples in time order; recorded data
+ * is scored in a {@link DetectionRun} with state of its own.
+ * 
  * @author Aircraft Monitoring Team
  * @version 1.0.0
  */
@@ -17,6 +53,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AnomalyDetectionService {
     
+    private static final String DEFAULT_PROFILE = "default";
+    
     // Engine System Thresholds
     private static final double MIN_ENGINE_RPM = 500.0;
     private static final double MAX_ENGINE_RPM = 3000.0;
@@ -43,177 +81,304 @@ public class AnomalyDetectionService {
     private static final double MAX_MACH_NUMBER = 0.9;
     private static final double MAX_VERTICAL_SPEED = 5000.0; // Feet per minute
     
+    @Autowired
+    private AnomalyEventService anomalyEventService;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private StatisticalAnomalyDetector statisticalAnomalyDetector;
+    
+    @Autowired
+    private CorrelationAnomalyDetector correlationAnomalyDetector;
+    
+    @Autowired
+    private ResourceLoader resourceLoader;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${aircraft.rules.location:file:config/anomaly-rules.json}")
+    private String rulesLocation;
+    
+    // Used while the rule file does not exist
+    @Value("${aircraft.rules.fallback-location:classpath:anomaly-rules.json}")
+    private String fallbackLocation;
+    
+    private volatile RuleBook ruleBook = new RuleBook(0, "built-in",
+            CompiledRuleSet.compile(builtInRules()), Map.of());
+    
     /**
-     * Analyzes aircraft data and detects anomalies in all critical systems
+     * Loads the configured rules on startup
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        ruleBook = loadRuleBook(1);
+    }
+    
+    /**
+     * Reloads the rules from the configured location and swaps them in atomically.
+     * If the new rules are invalid the current rules stay active. Reloads are
+     * serialized, so every reload publishes a new version.
+     *
+     * @return Description of the active rules
+     * @throws IllegalArgumentException if the rule file or a rule is invalid
+     */
+    public synchronized Map<String, Object> reloadRules() throws IOException {
+        RuleBook reloaded = loadRuleBook(ruleBook.version + 1);
+        ruleBook = reloaded;
+        log.info("Anomaly rules reloaded from {} (version {})", reloaded.source, reloaded.version);
+        return getRules();
+    }
+    
+    /**
+     * Describes the active rules
+     *
+     * @return Version, source and rules per profile
+     */
+    public Map<String, Object> getRules() {
+        RuleBook book = ruleBook;
+        Map<String, List<ThresholdRule>> profiles = new LinkedHashMap<>();
+        profiles.put(DEFAULT_PROFILE, book.defaults.getRules());
+        book.byType.forEach((type, rules) -> profiles.put(type, rules.getRules()));
+        
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("version", book.version);
+        description.put("source", book.source);
+        description.put("loadedAt", book.loadedAt);
+        description.put("profiles", profiles);
+        return description;
+    }
+    
+    /**
+     * Analyzes aircraft data and detects anomalies in all critical systems. Only live
+     * samples pass here, so the detect stage and anomaly metrics count live data only.
      * 
      * @param data The aircraft sensor data to analyze
-     * @return Updated AircraftData with anomaly flags set
+     * @return Updated AircraftData with anomaly flags and statistical outliers set
      */
     public AircraftData detectAnomalies(AircraftData data) {
-        log.debug("Analyzing aircraft data for anomalies: {}", data.getTimestamp());
-        
-        // Detect engine anomalies
-        data.setEngineAnomaly(detectEngineAnomalies(data));
-        
-        // Detect fuel system anomalies
-        data.setFuelAnomaly(detectFuelAnomalies(data));
-        
-        // Detect hydraulic system anomalies
-        data.setHydraulicAnomaly(detectHydraulicAnomalies(data));
-        
-        // Detect altitude anomalies
-        data.setAltitudeAnomaly(detectAltitudeAnomalies(data));
-        
-        // Detect airspeed anomalies
-        data.setAirspeedAnomaly(detectAirspeedAnomalies(data));
-        
-        if (data.hasAnyAnomaly()) {
-            log.warn("Anomalies detected in aircraft data: {}", data.getSystemStatus());
-        }
-        
+        long start = System.nanoTime();
+        int flags = detectAnomalies(data, statisticalAnomalyDetector, correlationAnomalyDetector, anomalyEventService);
+        pipelineMetrics.recordAnomalies(flags);
+        pipelineMetrics.recordStage(PipelineMetrics.Stage.DETECT, System.nanoTime() - start);
         return data;
     }
     
     /**
-     * Detects anomalies in engine systems
+     * Starts scoring recorded data with fresh statistical and correlation baselines and
+     * event rate limits, so the live aircraft are not affected
+     * 
+     * @param source Source of the run's anomaly events, naming the recorded data
      */
-    private boolean detectEngineAnomalies(AircraftData data) {
-        boolean anomaly = false;
-        
-        // Check engine RPM
-        if (data.getEngineRPM() < MIN_ENGINE_RPM || data.getEngineRPM() > MAX_ENGINE_RPM) {
-            log.warn("Engine RPM anomaly: {} (normal range: {}-{})", 
-                    data.getEngineRPM(), MIN_ENGINE_RPM, MAX_ENGINE_RPM);
-            anomaly = true;
-        }
-        
-        // Check engine temperature
-        if (data.getEngineTemperature() > MAX_ENGINE_TEMPERATURE) {
-            log.warn("Engine temperature anomaly: {}°C (max: {}°C)", 
-                    data.getEngineTemperature(), MAX_ENGINE_TEMPERATURE);
-            anomaly = true;
-        }
-        
-        // Check oil pressure
-        if (data.getOilPressure() < MIN_OIL_PRESSURE || data.getOilPressure() > MAX_OIL_PRESSUURE) {
-            log.warn("Oil pressure anomaly: {} PSI (normal range: {}-{} PSI)", 
-                    data.getOilPressure(), MIN_OIL_PRESSURE, MAX_OIL_PRESSUURE);
-            anomaly = true;
-        }
+    public DetectionRun newRun(String source) {
+        return new DetectionRun(statisticalAnomalyDetector.fork(), correlationAnomalyDetector.fork(),
+                anomalyEventService.fork(source));
+    }
+    
+    /**
+     * Sets the anomaly flags and outliers of a sample and publishes its events
+     * 
+     * @return The {@link AnomalyFlags} bits of the breached rules
+     */
+    private int detectAnomalies(AircraftData data, StatisticalAnomalyDetector statistical,
+                                CorrelationAnomalyDetector correlation, AnomalyEventService events) {
+        CompiledRuleSet rules = ruleBook.forType(data.getAircraftType());
+        int flags = rules.evaluate(data);
+        AnomalyFlags.apply(flags, data);
+        data.setOutlierSensors(statistical.evaluate(data) | correlation.evaluate(data));
         
-        // Check oil temperature
-        if (data.getOilTemperature() > MAX_OIL_TEMPERATURE) {
-            log.warn("Oil temperature anomaly: {}°C (max: {}°C)", 
-                    data.getOilTemperature(), MAX_OIL_TEMPERATURE);
-            anomaly = true;
+        // Samples within limits return here without allocating or logging
+        if (flags != 0) {
+            events.publish(rules, data);
         }
-        
-        return anomaly;
+        return flags;
+    }
+    
+    /**
+     * Forgets the per-aircraft state of the statistical and correlation detectors
+     * and the event rate limits, so the next samples of the aircraft are analyzed
+     * as if it had never been seen
+     *
+     * @param tailNumber The aircraft tail number
+     */
+    public void resetAircraft(String tailNumber) {
+        statisticalAnomalyDetector.reset(tailNumber);
+        correlationAnomalyDetector.reset(tailNumber);
+        anomalyEventService.reset(tailNumber);
+    }
+    
+    /**
+     * Detects anomalies for a batch of samples stored as sensor columns.
+     *
+     * Produces exactly the flags {@link #detectAnomalies(AircraftData)} would set for
+     * aircraft without a type profile, packed per row as {@link AnomalyFlags} bits.
+     * Rules are applied one at a time in branch-free loops over primitive arrays so
+     * the JIT can vectorize them. Nothing is logged or counted in the metrics on this path.
+     *
+     * @param columns Sensor columns indexed by {@link Sensor#ordinal()}
+     * @param length Number of rows to analyze
+     * @return Anomaly flags per row
+     */
+    public byte[] detectAnomalies(double[][] columns, int length) {
+        byte[] flags = new byte[length];
+        detectAnomalies(null, columns, length, flags);
+        return flags;
     }
     
     /**
-     * Detects anomalies in fuel system
+     * Detects anomalies for a batch of samples into a caller-provided flag array.
+     *
+     * @param aircraftType Aircraft type selecting the rule profile, null for the default profile
+     * @param columns Sensor columns indexed by {@link Sensor#ordinal()}
+     * @param length Number of rows to analyze
+     * @param flags Receives the anomaly flags per row
      */
-    private boolean detectFuelAnomalies(AircraftData data) {
-        boolean anomaly = false;
+    public void detectAnomalies(String aircraftType, double[][] columns, int length, byte[] flags) {
+        Arrays.fill(flags, 0, length, (byte) 0);
+        ruleBook.forType(aircraftType).evaluate(columns, length, flags);
+    }
+    
+    /**
+     * Detection state of one pass over recorded data. The samples of an aircraft must be
+     * scored in time order, one at a time; samples of different aircraft may be scored
+     * concurrently.
+     */
+    public final class DetectionRun {
+    
+        private final StatisticalAnomalyDetector statistical;
+        private final CorrelationAnomalyDetector correlation;
+        private final AnomalyEventService events;
         
-        // Check fuel level
-        if (data.getFuelLevel() < MIN_FUEL_LEVEL) {
-            log.warn("Low fuel level: {}% (min: {}%)", data.getFuelLevel(), MIN_FUEL_LEVEL);
-            anomaly = true;
+        private DetectionRun(StatisticalAnomalyDetector statistical, CorrelationAnomalyDetector correlation,
+                             AnomalyEventService events) {
+            this.statistical = statistical;
+            this.correlation = correlation;
+            this.events = events;
         }
         
-        // Check fuel consumption
-        if (data.getFuelConsumption() > MAX_FUEL_CONSUMPTION) {
-            log.warn("High fuel consumption: {} GPH (max: {} GPH)", 
-                    data.getFuelConsumption(), MAX_FUEL_CONSUMPTION);
-            anomaly = true;
+        /**
+         * Analyzes a sample like {@link AnomalyDetectionService#detectAnomalies(AircraftData)},
+         * against the baselines of this run
+         */
+        public AircraftData detectAnomalies(AircraftData data) {
+            AnomalyDetectionService.this.detectAnomalies(data, statistical, correlation, events);
+            return data;
         }
         
-        // Check fuel pressure
-        if (data.getFuelPressure() < MIN_FUEL_PRESSURE || data.getFuelPressure() > MAX_FUEL_PRESSURE) {
-            log.warn("Fuel pressure anomaly: {} PSI (normal range: {}-{} PSI)", 
-                    data.getFuelPressure(), MIN_FUEL_PRESSURE, MAX_FUEL_PRESSURE);
-            anomaly = true;
+        /**
+         * Completes the analysis of a sample whose anomaly flags were set from the batch
+         * path: runs the statistical and correlation detectors and publishes events for
+         * the breached rules
+         */
+        public AircraftData detectOutliers(AircraftData data) {
+            data.setOutlierSensors(statistical.evaluate(data) | correlation.evaluate(data));
+            if (data.hasAnyAnomaly()) {
+                events.publish(ruleBook.forType(data.getAircraftType()), data);
+            }
+            return data;
         }
-        
-        return anomaly;
     }
     
     /**
-     * Detects anomalies in hydraulic system
+     * Loads and compiles the rule file, or the fallback rule file if it does not exist.
+     * Falls back to the built-in rules if neither exists.
      */
-    private boolean detectHydraulicAnomalies(AircraftData data) {
-        boolean anomaly = false;
-        
-        // Check hydraulic pressure
-        if (data.getHydraulicPressure() < MIN_HYDRAULIC_PRESSURE || 
-            data.getHydraulicPressure() > MAX_HYDRAULIC_PRESSURE) {
-            log.warn("Hydraulic pressure anomaly: {} PSI (normal range: {}-{} PSI)", 
-                    data.getHydraulicPressure(), MIN_HYDRAULIC_PRESSURE, MAX_HYDRAULIC_PRESSURE);
-            anomaly = true;
+    private RuleBook loadRuleBook(long version) throws IOException {
+        String location = rulesLocation;
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists() && fallbackLocation != null && !fallbackLocation.isEmpty()) {
+            log.info("No anomaly rule file at {}, using {}", rulesLocation, fallbackLocation);
+            location = fallbackLocation;
+            resource = resourceLoader.getResource(location);
         }
-        
-        // Check hydraulic temperature
-        if (data.getHydraulicTemperature() > MAX_HYDRAULIC_TEMPERATURE) {
-            log.warn("Hydraulic temperature anomaly: {}°C (max: {}°C)", 
-                    data.getHydraulicTemperature(), MAX_HYDRAULIC_TEMPERATURE);
-            anomaly = true;
+        if (!resource.exists()) {
+            log.info("No anomaly rule file at {}, using built-in limits", location);
+            return new RuleBook(version, "built-in", CompiledRuleSet.compile(builtInRules()), Map.of());
         }
         
-        // Check hydraulic fluid level
-        if (data.getHydraulicFluidLevel() < MIN_HYDRAULIC_FLUID_LEVEL) {
-            log.warn("Low hydraulic fluid level: {}% (min: {}%)", 
-                    data.getHydraulicFluidLevel(), MIN_HYDRAULIC_FLUID_LEVEL);
-            anomaly = true;
+        RuleConfiguration configuration;
+        try (InputStream input = resource.getInputStream()) {
+            configuration = objectMapper.readValue(input, RuleConfiguration.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid rule file " + location + ": " + e.getOriginalMessage(), e);
         }
         
-        return anomaly;
+        List<ThresholdRule> defaults = configuration.getProfiles().getOrDefault(DEFAULT_PROFILE, builtInRules());
+        Map<String, CompiledRuleSet> byType = new HashMap<>();
+        configuration.getProfiles().forEach((type, rules) -> {
+            if (!DEFAULT_PROFILE.equals(type)) {
+                byType.put(type, CompiledRuleSet.compile(merge(defaults, rules)));
+            }
+        });
+        return new RuleBook(version, location, CompiledRuleSet.compile(defaults), byType);
+    }
+    
+    /**
+     * Applies a type profile on top of the default rules, replacing rules with the same name
+     */
+    private static List<ThresholdRule> merge(List<ThresholdRule> defaults, List<ThresholdRule> overrides) {
+        Map<String, ThresholdRule> merged = new LinkedHashMap<>();
+        defaults.forEach(rule -> merged.put(rule.getName(), rule));
+        overrides.forEach(rule -> merged.put(rule.getName(), rule));
+        return new ArrayList<>(merged.values());
     }
     
     /**
-     * Detects anomalies in altitude data
+     * Built-in limits used when no rule file is configured
      */
-    private boolean detectAltitudeAnomalies(AircraftData data) {
-        boolean anomaly = false;
+    private static List<ThresholdRule> builtInRules() {
+        List<ThresholdRule> rules = new ArrayList<>();
         
-        // Check maximum altitude
-        if (data.getAltitude() > MAX_ALTITUDE) {
-            log.warn("Altitude anomaly: {} feet (max: {} feet)", 
-                    data.getAltitude(), MAX_ALTITUDE);
-            anomaly = true;
-        }
+        // Engine System
+        rules.add(new ThresholdRule("engine-rpm", "engineRPM", "engine", MIN_ENGINE_RPM, MAX_ENGINE_RPM, null));
+        rules.add(new ThresholdRule("engine-temperature", "engineTemperature", "engine", null, MAX_ENGINE_TEMPERATURE, null));
+        rules.add(new ThresholdRule("oil-pressure", "oilPressure", "engine", MIN_OIL_PRESSURE, MAX_OIL_PRESSUURE, null));
+        rules.add(new ThresholdRule("oil-temperature", "oilTemperature", "engine", null, MAX_OIL_TEMPERATURE, null));
         
-        // Check vertical speed
-        if (Math.abs(data.getVerticalSpeed()) > MAX_VERTICAL_SPEED) {
-            log.warn("Vertical speed anomaly: {} ft/min (max: {} ft/min)", 
-                    data.getVerticalSpeed(), MAX_VERTICAL_SPEED);
-            anomaly = true;
-        }
+        // Fuel System
+        rules.add(new ThresholdRule("fuel-level", "fuelLevel", "fuel", MIN_FUEL_LEVEL, null, null));
+        rules.add(new ThresholdRule("fuel-consumption", "fuelConsumption", "fuel", null, MAX_FUEL_CONSUMPTION, null));
+        rules.add(new ThresholdRule("fuel-pressure", "fuelPressure", "fuel", MIN_FUEL_PRESSURE, MAX_FUEL_PRESSURE, null));
         
-        return anomaly;
+        // Hydraulic System
+        rules.add(new ThresholdRule("hydraulic-pressure", "hydraulicPressure", "hydraulic", MIN_HYDRAULIC_PRESSURE, MAX_HYDRAULIC_PRESSURE, null));
+        rules.add(new ThresholdRule("hydraulic-temperature", "hydraulicTemperature", "hydraulic", null, MAX_HYDRAULIC_TEMPERATURE, null));
+        rules.add(new ThresholdRule("hydraulic-fluid-level", "hydraulicFluidLevel", "hydraulic", MIN_HYDRAULIC_FLUID_LEVEL, null, null));
+        
+        // Flight Data
+        rules.add(new ThresholdRule("altitude", "altitude", "altitude", null, MAX_ALTITUDE, null));
+        rules.add(new ThresholdRule("vertical-speed", "verticalSpeed", "altitude", null, null, MAX_VERTICAL_SPEED));
+        rules.add(new ThresholdRule("airspeed", "airspeed", "airspeed", null, MAX_AIRSPEED, null));
+        rules.add(new ThresholdRule("mach-number", "machNumber", "airspeed", null, MAX_MACH_NUMBER, null));
+        
+        return rules;
     }
     
     /**
-     * Detects anomalies in airspeed data
+     * Immutable snapshot of the compiled rules, replaced as a whole on reload
      */
-    private boolean detectAirspeedAnomalies(AircraftData data) {
-        boolean anomaly = false;
+    private static final class RuleBook {
+    
+        private final long version;
+        private final String source;
+        private final LocalDateTime loadedAt = LocalDateTime.now(ZoneOffset.UTC);
+        private final CompiledRuleSet defaults;
+        private final Map<String, CompiledRuleSet> byType;
         
-        // Check maximum airspeed
-        if (data.getAirspeed() > MAX_AIRSPEED) {
-            log.warn("Airspeed anomaly: {} knots (max: {} knots)", 
-                    data.getAirspeed(), MAX_AIRSPEED);
-            anomaly = true;
+        RuleBook(long version, String source, CompiledRuleSet defaults, Map<String, CompiledRuleSet> byType) {
+            this.version = version;
+            this.source = source;
+            this.defaults = defaults;
+            this.byType = byType;
         }
         
-        // Check Mach number
-        if (data.getMachNumber() > MAX_MACH_NUMBER) {
-            log.warn("Mach number anomaly: {} (max: {})", 
-                    data.getMachNumber(), MAX_MACH_NUMBER);
-            anomaly = true;
+        CompiledRuleSet forType(String aircraftType) {
+            if (aircraftType == null || byType.isEmpty()) {
+                return defaults;
+            }
+            return byType.getOrDefault(aircraftType, defaults);
         }
-        
-        return anomaly;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyEvent;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns threshold rule breaches into rate-limited {@link AnomalyEvent}s.
+ *
+ * {@link AnomalyDetectionService} only calls this service for samples with at
+ * least one anomaly, so samples within limits cost nothing here. Breaches are
+ * throttled per aircraft and sensor using the sample timestamps: after an event,
+ * further breaches of the same sensor are counted but not emitted until
+ * {@code aircraft.events.min-interval-ms} has passed. Emitted events are handed
+ * to every registered {@link AnomalyEventSink}. Ids are assigned under the same
+ * lock as the sinks are called, so every sink receives events in id order, also
+ * across forks. Events of a fork carry the fork's source, so sinks can keep
+ * them apart from live events.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class AnomalyEventService {
+
+    @Autowired
+    private List<AnomalyEventSink> sinks;
+
+    @Value("${aircraft.events.min-interval-ms:30000}")
+    private long minIntervalMillis;
+
+    private final Map<String, Throttle> throttles = new ConcurrentHashMap<>();
+    private final String source;
+    // Guards id assignment and emission, shared with forks
+    private final Object emitLock;
+    private final AtomicLong nextId;
+    private final AtomicLong suppressedTotal;
+
+    public AnomalyEventService() {
+        this(AnomalyEvent.LIVE, new Object(), new AtomicLong(), new AtomicLong());
+    }
+
+    private AnomalyEventService(String source, Object emitLock, AtomicLong nextId, AtomicLong suppressedTotal) {
+        this.source = source;
+        this.emitLock = emitLock;
+        this.nextId = nextId;
+        this.suppressedTotal = suppressedTotal;
+    }
+
+    /**
+     * Emits events for the breached rules of an anomalous sample
+     *
+     * @param rules The rules the sample was evaluated against
+     * @param data The sample with at least one breached rule
+     */
+    public void publish(CompiledRuleSet rules, AircraftData data) {
+        long millis = data.getTimestamp() != null
+                ? TelemetryTime.toEpochMillis(data.getTimestamp())
+                : System.currentTimeMillis();
+        String tailNumber = data.getTailNumber() != null ? data.getTailNumber() : "";
+        Throttle throttle = throttles.computeIfAbsent(tailNumber, key -> new Throttle());
+
+        for (int r = 0; r < rules.size(); r++) {
+            if (!rules.isBreached(r, data)) {
+                continue;
+            }
+
+            Sensor sensor = rules.getSensor(r);
+            int suppressed = throttle.tryAcquire(sensor.ordinal(), millis, minIntervalMillis);
+            if (suppressed < 0) {
+                suppressedTotal.incrementAndGet();
+                continue;
+            }
+
+            double value = sensor.read(data);
+            AnomalyEvent event = new AnomalyEvent(0, source, data.getTailNumber(),
+                    data.getAircraftType(), data.getTimestamp(), rules.getRule(r).getName(),
+                    sensor.getFieldName(), rules.getRule(r).getSubsystem(), value,
+                    value < rules.getLower(r) ? rules.getLower(r) : rules.getUpper(r), suppressed);
+            emit(event);
+        }
+    }
+
+    /**
+     * Creates an event service with rate limits of its own, emitting to the same sinks
+     * with the same event ids and counters, e.g. to score recorded data whose
+     * timestamps would interleave with those of live aircraft
+     *
+     * @param source Source of the fork's events, naming the recorded data
+     */
+    public AnomalyEventService fork(String source) {
+        AnomalyEventService service = new AnomalyEventService(source, emitLock, nextId, suppressedTotal);
+        service.sinks = sinks;
+        service.minIntervalMillis = minIntervalMillis;
+        return service;
+    }
+
+    /**
+     * Clears the rate limits of an aircraft
+     */
+    public void reset(String tailNumber) {
+        throttles.remove(tailNumber);
+    }
+
+    /**
+     * Gets event statistics
+     *
+     * @return Emitted and suppressed event counts
+     */
+    public Map<String, Object> getEventStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("emitted", nextId.get());
+        status.put("suppressed", suppressedTotal.get());
+        status.put("minIntervalMs", minIntervalMillis);
+        status.put("sinks", sinks.size());
+        return status;
+    }
+
+    /**
+     * Numbers an event and hands it to the sinks; events are rate-limited, so the
+     * lock is taken rarely
+     */
+    private void emit(AnomalyEvent event) {
+        synchronized (emitLock) {
+            event.setId(nextId.incrementAndGet());
+            for (AnomalyEventSink sink : sinks) {
+                try {
+                    sink.onEvent(event);
+                } catch (RuntimeException e) {
+                    log.error("Anomaly event sink {} failed", sink.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rate limit state of one aircraft, one slot per sensor
+     */
+    private static final class Throttle {
+
+        private final long[] lastEmitted = new long[Sensor.COUNT];
+        private final int[] suppressed = new int[Sensor.COUNT];
+
+        Throttle() {
+            Arrays.fill(lastEmitted, Long.MIN_VALUE);
+        }
+
+        /**
+         * Decides whether a breach of a sensor at the given time is emitted
+         *
+         * @return The number of breaches suppressed since the last event, or -1 if this one is suppressed too
+         */
+        synchronized int tryAcquire(int sensor, long millis, long minIntervalMillis) {
+            long last = lastEmitted[sensor];
+            if (last != Long.MIN_VALUE && millis >= last && millis - last < minIntervalMillis) {
+                suppressed[sensor]++;
+                return -1;
+            }
+            lastEmitted[sensor] = millis;
+            int count = suppressed[sensor];
+            suppressed[sensor] = 0;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AnomalyEvent;
+
+/**
+ * Receiver of anomaly events.
+ *
+ * Every Spring bean implementing this interface is registered with
+ * {@link AnomalyEventService}. Sinks are called on the detecting thread, one
+ * event at a time and in id order, so implementations must be thread-safe and
+ * should return quickly.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public interface AnomalyEventSink {
+
+    /**
+     * Handles one anomaly event
+     *
+     * @param event The emitted event
+     */
+    void onEvent(AnomalyEvent event);
+}
@@ -0,0 +1,118 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AnomalyEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the most recent anomaly events in memory for querying.
+ *
+ * Events are held in fixed-size rings; once a ring is full its oldest event is
+ * overwritten. Live events and events of recorded data, like CSV ingests and
+ * replays, have separate rings, so a bulk ingest cannot push out the live events.
+ * Queries scan from the newest event backwards.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class AnomalyEventStore implements AnomalyEventSink {
+
+    @Value("${aircraft.events.capacity:10000}")
+    private int capacity;
+
+    @Value("${aircraft.events.recorded-capacity:1000}")
+    private int recordedCapacity;
+
+    private Ring live = new Ring(0);
+    private Ring recorded = new Ring(0);
+
+    /**
+     * Allocates the event rings
+     */
+    @PostConstruct
+    public void init() {
+        live = new Ring(capacity);
+        recorded = new Ring(recordedCapacity);
+    }
+
+    @Override
+    public synchronized void onEvent(AnomalyEvent event) {
+        (isLive(event) ? live : recorded).add(event);
+    }
+
+    /**
+     * Finds recent events, newest first
+     *
+     * @param tailNumber Only events of this aircraft, or null for all aircraft
+     * @param subsystem Only events of this subsystem, or null for all subsystems
+     * @param source Only events of this source; null or {@link AnomalyEvent#LIVE} for live events
+     * @param afterId Only events with a higher id, for incremental polling
+     * @param limit Maximum number of events to return
+     * @return Matching events, newest first
+     */
+    public synchronized List<AnomalyEvent> find(String tailNumber, String subsystem, String source,
+                                                long afterId, int limit) {
+        boolean liveOnly = source == null || AnomalyEvent.LIVE.equals(source);
+        Ring ring = liveOnly ? live : recorded;
+        List<AnomalyEvent> result = new ArrayList<>(Math.min(limit, 256));
+        long oldest = Math.max(0, ring.count - ring.events.length);
+        for (long i = ring.count - 1; i >= oldest && result.size() < limit; i--) {
+            AnomalyEvent event = ring.events[(int) (i % ring.events.length)];
+            if (event.getId() > afterId
+                    && (liveOnly || source.equals(event.getSource()))
+                    && (tailNumber == null || tailNumber.equals(event.getTailNumber()))
+                    && (subsystem == null || subsystem.equalsIgnoreCase(event.getSubsystem()))) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of live events currently retained
+     */
+    public synchronized int size() {
+        return live.size();
+    }
+
+    /**
+     * Gets the number of events of recorded data currently retained
+     */
+    public synchronized int recordedSize() {
+        return recorded.size();
+    }
+
+    private static boolean isLive(AnomalyEvent event) {
+        return event.getSource() == null || AnomalyEvent.LIVE.equals(event.getSource());
+    }
+
+    /**
+     * Ring of the most recent events, guarded by the store
+     */
+    private static final class Ring {
+
+        private final AnomalyEvent[] events;
+        private long count = 0;
+
+        Ring(int capacity) {
+            events = new AnomalyEvent[Math.max(0, capacity)];
+        }
+
+        void add(AnomalyEvent event) {
+            if (events.length == 0) {
+                return;
+            }
+            events[(int) (count % events.length)] = event;
+            count++;
+        }
+
+        int size() {
+            return (int) Math.min(count, events.length);
+        }
+    }
+}
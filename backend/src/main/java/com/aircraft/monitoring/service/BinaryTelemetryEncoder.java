@@ -0,0 +1,322 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Encoder of the binary WebSocket telemetry protocol.
+ *
+ * Every aircraft is a stream. Sensor values are quantized to a fixed resolution
+ * per sensor and sent in {@link Sensor} order. A keyframe carries all values; a
+ * delta frame carries only the sensors whose quantized value changed since the
+ * previous frame, as zigzag varint differences. A stream sends a keyframe every
+ * {@code keyframeInterval} frames so clients that missed a frame can resync.
+ * All integers are big-endian.
+ *
+ * <pre>
+ * header:   u8 frame type | u16 stream id | u32 sequence | f64 epoch millis (UTC) | u8 anomaly flags
+ * KEYFRAME: header | u8 length + ASCII tail number | u8 length + ASCII aircraft type | i32 x 20 values
+ * DELTA:    header | u32 changed sensor mask | varint per changed sensor
+ * </pre>
+ *
+ * Frames are encoded once and the same bytes are sent to every binary session.
+ * Thread-safe: each stream is guarded by its own lock (see {@link #lock(String)}),
+ * and frames are assembled in a per-thread buffer, so different aircraft encode in
+ * parallel.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class BinaryTelemetryEncoder {
+
+    // WebSocket sub-protocol selecting this encoding
+    public static final String SUBPROTOCOL = "aircraft-telemetry-v1";
+
+    public static final byte KEYFRAME = 1;
+    public static final byte DELTA = 2;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_FRAME_SIZE = HEADER_SIZE + 2 * 256 + 4 * Sensor.COUNT + 4;
+
+    // Value of one quantization step per sensor, indexed by Sensor ordinal
+    private static final double[] RESOLUTION = new double[Sensor.COUNT];
+
+    static {
+        for (Sensor sensor : Sensor.VALUES) {
+            RESOLUTION[sensor.ordinal()] = switch (sensor) {
+                case ENGINE_RPM, HYDRAULIC_PRESSURE, ALTITUDE, VERTICAL_SPEED -> 1.0;
+                case FUEL_LEVEL, HYDRAULIC_FLUID_LEVEL, CABIN_PRESSURE, BATTERY_VOLTAGE -> 0.01;
+                case MACH_NUMBER -> 0.001;
+                default -> 0.1;
+            };
+        }
+    }
+
+    // Frame and quantized values under construction, per thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final int keyframeInterval;
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger nextStreamId = new AtomicInteger();
+
+    public BinaryTelemetryEncoder(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /**
+     * Gets the lock of an aircraft's stream. Holding it while encoding a frame and
+     * queuing it on the sessions keeps every session's frames of the stream in
+     * sequence order; other aircraft are not blocked.
+     *
+     * @param tailNumber The aircraft tail number
+     * @return The lock object of the stream
+     */
+    public Object lock(String tailNumber) {
+        return stream(tailNumber);
+    }
+
+    /**
+     * Encodes the next frame of the sample's aircraft stream
+     *
+     * @param data The sample to encode
+     * @return The frame, a keyframe or a delta against the previous frame
+     */
+    public byte[] encode(AircraftData data) {
+        Stream stream = stream(data.getTailNumber());
+        Scratch scratch = SCRATCH.get();
+        quantize(data, scratch.quantized);
+        synchronized (stream) {
+            stream.aircraftType = data.getAircraftType() != null ? data.getAircraftType() : "";
+            stream.epochMillis = epochMillis(data);
+            stream.flags = AnomalyFlags.of(data);
+            stream.sequence++;
+
+            ByteBuffer buffer = scratch.begin();
+            if (!stream.hasKeyframe || stream.framesSinceKeyframe >= keyframeInterval - 1) {
+                System.arraycopy(scratch.quantized, 0, stream.values, 0, Sensor.COUNT);
+                writeKeyframe(buffer, stream);
+                stream.hasKeyframe = true;
+                stream.framesSinceKeyframe = 0;
+            } else {
+                writeDelta(buffer, stream, scratch.quantized);
+                stream.framesSinceKeyframe++;
+            }
+            return scratch.toArray();
+        }
+    }
+
+    /**
+     * Encodes a self-contained keyframe of a sample, for clients that do not receive
+     * every frame of its stream. The stream's delta state is left unchanged.
+     *
+     * @param data The sample to encode
+     * @return The keyframe
+     */
+    public byte[] keyframe(AircraftData data) {
+        Stream stream = stream(data.getTailNumber());
+        Scratch scratch = SCRATCH.get();
+        quantize(data, scratch.quantized);
+        int sequence;
+        synchronized (stream) {
+            sequence = stream.sequence;
+        }
+
+        ByteBuffer buffer = scratch.begin();
+        writeHeader(buffer, KEYFRAME, stream.id, sequence, epochMillis(data), AnomalyFlags.of(data));
+        writeAscii(buffer, stream.tailNumber);
+        writeAscii(buffer, data.getAircraftType() != null ? data.getAircraftType() : "");
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            buffer.putInt(scratch.quantized[i]);
+        }
+        return scratch.toArray();
+    }
+
+    /**
+     * Encodes a keyframe of the current state of every matching stream, for a client
+     * joining mid-stream. The keyframes repeat the last sequence number, so the next
+     * delta of each stream applies on top of them. Each keyframe is handed over while
+     * its stream's lock is held, so it is queued before the next frame of the stream.
+     *
+     * @param aircraftFilter Selects the streams by tail number
+     * @param consumer Receives one keyframe per matching stream
+     */
+    public void snapshot(Predicate<String> aircraftFilter, Consumer<byte[]> consumer) {
+        Scratch scratch = SCRATCH.get();
+        for (Stream stream : streams.values()) {
+            if (!aircraftFilter.test(stream.tailNumber)) {
+                continue;
+            }
+            synchronized (stream) {
+                if (stream.hasKeyframe) {
+                    writeKeyframe(scratch.begin(), stream);
+                    consumer.accept(scratch.toArray());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the stream id from the header of an encoded frame
+     *
+     * @param frame The frame, positioned at its first byte; the position is not changed
+     */
+    public static int streamIdOf(ByteBuffer frame) {
+        return frame.getShort(frame.position() + 1) & 0xFFFF;
+    }
+
+    /**
+     * Describes the field layout, sent as JSON to binary clients on connect
+     *
+     * @return Protocol version and sensor names and resolutions in wire order
+     */
+    public static Map<String, Object> getSchema() {
+        List<Map<String, Object>> fields = new ArrayList<>(Sensor.COUNT);
+        for (Sensor sensor : Sensor.VALUES) {
+            Map<String, Object> field = new LinkedHashMap<>();
+            field.put("name", sensor.getFieldName());
+            field.put("resolution", RESOLUTION[sensor.ordinal()]);
+            fields.add(field);
+        }
+
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("protocol", SUBPROTOCOL);
+        schema.put("flags", AnomalyFlags.SUBSYSTEMS);
+        schema.put("fields", fields);
+        return schema;
+    }
+
+    private Stream stream(String tailNumber) {
+        String key = tailNumber != null ? tailNumber : "";
+        Stream stream = streams.get(key);
+        return stream != null ? stream
+                : streams.computeIfAbsent(key, name -> new Stream(nextStreamId.getAndIncrement(), name));
+    }
+
+    private static void quantize(AircraftData data, int[] quantized) {
+        for (Sensor sensor : Sensor.VALUES) {
+            quantized[sensor.ordinal()] = quantize(sensor.read(data), RESOLUTION[sensor.ordinal()]);
+        }
+    }
+
+    private static double epochMillis(AircraftData data) {
+        return data.getTimestamp() != null
+                ? TelemetryTime.toEpochMillis(data.getTimestamp())
+                : System.currentTimeMillis();
+    }
+
+    private static void writeHeader(ByteBuffer buffer, byte frameType, int streamId, int sequence,
+                                    double epochMillis, int flags) {
+        buffer.put(frameType);
+        buffer.putShort((short) streamId);
+        buffer.putInt(sequence);
+        buffer.putDouble(epochMillis);
+        buffer.put((byte) flags);
+    }
+
+    private static void writeKeyframe(ByteBuffer buffer, Stream stream) {
+        writeHeader(buffer, KEYFRAME, stream.id, stream.sequence, stream.epochMillis, stream.flags);
+        writeAscii(buffer, stream.tailNumber);
+        writeAscii(buffer, stream.aircraftType);
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            buffer.putInt(stream.values[i]);
+        }
+    }
+
+    private static void writeDelta(ByteBuffer buffer, Stream stream, int[] quantized) {
+        writeHeader(buffer, DELTA, stream.id, stream.sequence, stream.epochMillis, stream.flags);
+        int maskPosition = buffer.position();
+        buffer.putInt(0);
+
+        int mask = 0;
+        int[] previous = stream.values;
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            if (quantized[i] != previous[i]) {
+                mask |= 1 << i;
+                writeVarint(buffer, zigzag((long) quantized[i] - previous[i]));
+                previous[i] = quantized[i];
+            }
+        }
+        buffer.putInt(maskPosition, mask);
+    }
+
+    private static void writeAscii(ByteBuffer buffer, String value) {
+        int length = Math.min(value.length(), 255);
+        buffer.put((byte) length);
+        buffer.put(value.substring(0, length).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Rounds a value to a whole number of resolution steps, clamped to the int range
+     */
+    static int quantize(double value, double resolution) {
+        long steps = Math.round(value / resolution);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, steps));
+    }
+
+    /**
+     * Buffers of one thread
+     */
+    private static final class Scratch {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_SIZE);
+        private final int[] quantized = new int[Sensor.COUNT];
+
+        ByteBuffer begin() {
+            buffer.clear();
+            return buffer;
+        }
+
+        byte[] toArray() {
+            byte[] frame = new byte[buffer.position()];
+            buffer.flip();
+            buffer.get(frame);
+            return frame;
+        }
+    }
+
+    /**
+     * Encoder state of one aircraft, guarded by itself
+     */
+    private static final class Stream {
+
+        private final int id;
+        private final String tailNumber;
+        private final int[] values = new int[Sensor.COUNT];
+        private String aircraftType = "";
+        private int sequence = 0;
+        private double epochMillis;
+        private int flags;
+        private boolean hasKeyframe = false;
+        private int framesSinceKeyframe = 0;
+
+        Stream(int id, String tailNumber) {
+            this.id = id & 0xFFFF;
+            this.tailNumber = tailNumber;
+        }
+    }
+}
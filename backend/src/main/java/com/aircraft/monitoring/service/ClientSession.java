@@ -0,0 +1,356 @@
+package com.aircraft.monitoring.service;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connected WebSocket client with its own bounded outbound queue.
+ *
+ * Broadcasting threads only enqueue; messages are sent by a task on the send
+ * executor, at most one per session at a time, so a slow client never blocks
+ * the producer or other clients. The queue is a fixed ring of message
+ * references, so enqueueing does not allocate. When the queue is full the
+ * overflow policy either drops the oldest queued message or disconnects the
+ * client. A binary client that lost a frame of a stream cannot apply the stream's
+ * next delta frames, so the session remembers the stream until it is sent a
+ * keyframe of it. Send latency and queue depth are reported through {@link PipelineMetrics}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Slf4j
+public final class ClientSession {
+
+    /**
+     * What happens when a message arrives for a full queue
+     */
+    public enum OverflowPolicy {
+        // Discard the oldest queued message to make room
+        DROP_OLDEST,
+        // Close the session as a slow consumer
+        DISCONNECT
+    }
+
+    // Messages sent per drain task before yielding the send thread to other sessions
+    private static final int DRAIN_BATCH = 32;
+
+    private final WebSocketSession session;
+    private final boolean binary;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor sendExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+
+    // Outbound ring, guarded by this
+    private final WebSocketMessage<?>[] messages;
+    private final DeliveryTracker[] trackers;
+    private final long[] enqueuedNanos;
+    private int head = 0;
+    private int size = 0;
+
+    // Binary streams with a dropped frame, guarded by this; the flag skips the lock while none are
+    private final BitSet resyncStreams = new BitSet();
+    private volatile boolean resyncPending = false;
+
+    // Counters
+    private volatile long sent = 0;
+    private volatile long dropped = 0;
+    private volatile long lastSendNanos = 0;
+    private volatile boolean closed = false;
+
+    private volatile Subscription subscription = Subscription.ALL;
+
+    // Set while the subscription limits the update rate
+    private volatile UpdateConflator conflator;
+
+    private final PipelineMetrics.SessionMeters meters;
+
+    public ClientSession(WebSocketSession session, int queueCapacity, OverflowPolicy overflowPolicy, Executor sendExecutor,
+                         PipelineMetrics pipelineMetrics) {
+        this.session = session;
+        this.binary = BinaryTelemetryEncoder.SUBPROTOCOL.equals(session.getAcceptedProtocol());
+        this.overflowPolicy = overflowPolicy;
+        this.sendExecutor = sendExecutor;
+        this.messages = new WebSocketMessage<?>[queueCapacity];
+        this.trackers = new DeliveryTracker[queueCapacity];
+        this.enqueuedNanos = new long[queueCapacity];
+        this.meters = pipelineMetrics.registerSession(this);
+    }
+
+    /**
+     * Queues a message for sending
+     *
+     * @return false if the session is closed or was disconnected because its queue is full
+     */
+    public boolean offer(WebSocketMessage<?> message) {
+        return offer(message, null);
+    }
+
+    /**
+     * Queues a message for sending and counts it on the tracker of its sample
+     *
+     * @param tracker Completed when the message is written or dropped, or null
+     * @return false if the session is closed or was disconnected because its queue is full
+     */
+    boolean offer(WebSocketMessage<?> message, DeliveryTracker tracker) {
+        if (closed) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (size == messages.length) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    closeAsync(CloseStatus.SESSION_NOT_RELIABLE);
+                    return false;
+                }
+                if (trackers[head] != null) {
+                    trackers[head].release(false);
+                    trackers[head] = null;
+                }
+                if (binary && messages[head] instanceof BinaryMessage frame) {
+                    resyncStreams.set(BinaryTelemetryEncoder.streamIdOf(frame.getPayload()));
+                    resyncPending = true;
+                }
+                messages[head] = null;
+                head = (head + 1) % messages.length;
+                size--;
+                dropped++;
+            }
+            if (tracker != null) {
+                tracker.retain();
+            }
+            int tail = (head + size) % messages.length;
+            messages[tail] = message;
+            trackers[tail] = tracker;
+            enqueuedNanos[tail] = System.nanoTime();
+            size++;
+        }
+
+        scheduleDrain();
+        // Closed if the send executor rejected the drain
+        return !closed;
+    }
+
+    /**
+     * Checks whether a frame of a binary stream was dropped since the client was last
+     * sent a keyframe of it, and clears the mark; the caller then sends a keyframe
+     *
+     * @param streamId The stream id of {@link BinaryTelemetryEncoder}
+     */
+    boolean takeResync(int streamId) {
+        if (!resyncPending) {
+            return false;
+        }
+        synchronized (this) {
+            boolean marked = resyncStreams.get(streamId);
+            resyncStreams.clear(streamId);
+            resyncPending = !resyncStreams.isEmpty();
+            return marked;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executeDrain();
+        }
+    }
+
+    /**
+     * Hands the drain task to the send executor. Once the executor is shut down it
+     * rejects the task; the session is then closed and its queued messages dropped,
+     * so no tracker waits for them and the drain flag does not stay set.
+     */
+    private void executeDrain() {
+        try {
+            sendExecutor.execute(drainTask);
+        } catch (RejectedExecutionException e) {
+            log.debug("Send executor rejected session {}, closing it", session.getId());
+            closed = true;
+            synchronized (this) {
+                for (; size > 0; size--) {
+                    if (trackers[head] != null) {
+                        trackers[head].release(false);
+                        trackers[head] = null;
+                    }
+                    messages[head] = null;
+                    head = (head + 1) % messages.length;
+                }
+            }
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Sends queued messages until the queue is empty. Runs on the send executor and
+     * requeues itself after a batch, so busy sessions share the send threads fairly.
+     */
+    private void drain() {
+        for (int batch = 0; ; batch++) {
+            if (batch == DRAIN_BATCH) {
+                executeDrain();
+                return;
+            }
+
+            WebSocketMessage<?> message;
+            DeliveryTracker tracker = null;
+            long enqueued = 0;
+            synchronized (this) {
+                if (size == 0) {
+                    message = null;
+                } else {
+                    message = messages[head];
+                    tracker = trackers[head];
+                    enqueued = enqueuedNanos[head];
+                    messages[head] = null;
+                    trackers[head] = null;
+                    head = (head + 1) % messages.length;
+                    size--;
+                }
+            }
+
+            if (message == null) {
+                draining.set(false);
+                // A message may have been queued after the last poll but before the flag was cleared
+                synchronized (this) {
+                    if (size == 0 || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            if (closed || !session.isOpen()) {
+                closed = true;
+                if (tracker != null) {
+                    tracker.release(false);
+                }
+                continue;
+            }
+            boolean written = false;
+            try {
+                session.sendMessage(message);
+                written = true;
+                sent++;
+                lastSendNanos = System.nanoTime();
+                meters.recordSend(lastSendNanos - enqueued);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error sending message to session {}: {}", session.getId(), e.getMessage());
+                close(CloseStatus.SERVER_ERROR);
+            }
+            if (tracker != null) {
+                tracker.release(written);
+            }
+        }
+    }
+
+    private void closeAsync(CloseStatus status) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        log.warn("Disconnecting slow WebSocket client {} ({} messages queued)", session.getId(), size);
+        try {
+            sendExecutor.execute(() -> close(status));
+        } catch (RejectedExecutionException e) {
+            close(status);
+        }
+    }
+
+    private void close(CloseStatus status) {
+        closed = true;
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Error closing session {}", session.getId(), e);
+        }
+    }
+
+    public String getId() {
+        return session.getId();
+    }
+
+    /**
+     * Checks whether the client negotiated the binary telemetry protocol
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public Subscription getSubscription() {
+        return subscription;
+    }
+
+    public void setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    /**
+     * Gets the conflation state of a rate-limited client
+     *
+     * @return The conflator, or null if the client receives every update
+     */
+    public UpdateConflator getConflator() {
+        return conflator;
+    }
+
+    public void setConflator(UpdateConflator conflator) {
+        this.conflator = conflator;
+    }
+
+    /**
+     * Gets the number of queued messages
+     */
+    public synchronized int getQueued() {
+        return size;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    PipelineMetrics.SessionMeters getMeters() {
+        return meters;
+    }
+
+    public boolean isClosed() {
+        return closed || !session.isOpen();
+    }
+
+    /**
+     * Gets the queue depth, lag and counters of this session
+     *
+     * @return Session statistics; lag is the age of the oldest queued message
+     */
+    public Map<String, Object> getStats() {
+        int queued;
+        long lagMillis;
+        synchronized (this) {
+            queued = size;
+            lagMillis = size > 0 ? (System.nanoTime() - enqueuedNanos[head]) / 1_000_000 : 0;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("id", session.getId());
+        stats.put("protocol", binary ? BinaryTelemetryEncoder.SUBPROTOCOL : "json");
+        stats.put("queued", queued);
+        stats.put("lagMs", lagMillis);
+        stats.put("sent", sent);
+        stats.put("dropped", dropped);
+        stats.put("lastSendMsAgo", lastSendNanos > 0 ? (System.nanoTime() - lastSendNanos) / 1_000_000 : null);
+        stats.put("overflowPolicy", overflowPolicy);
+        UpdateConflator currentConflator = conflator;
+        stats.put("minIntervalMs", currentConflator != null ? currentConflator.getIntervalMillis() : 0);
+        return stats;
+    }
+}
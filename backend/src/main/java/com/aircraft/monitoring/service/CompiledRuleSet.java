@@ -0,0 +1,147 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.ThresholdRule;
+
+import java.util.List;
+
+/**
+ * Threshold rules compiled into flat parallel arrays for evaluation.
+ *
+ * Every rule becomes one open interval check {@code value < lower | value > upper}
+ * that ORs the rule's subsystem flag into the result. Absolute limits are compiled
+ * into symmetric bounds ({@code |v| > m} is {@code v < -m | v > m}) and missing
+ * bounds into infinities, so evaluation is a single branch-free loop over
+ * primitive arrays. Instances are immutable and safe to share between threads.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class CompiledRuleSet {
+
+    private final ThresholdRule[] rules;
+    private final Sensor[] sensors;
+    private final double[] lower;
+    private final double[] upper;
+    private final int[] flags;
+
+    private CompiledRuleSet(List<ThresholdRule> definitions) {
+        int count = definitions.size();
+        rules = definitions.toArray(new ThresholdRule[0]);
+        sensors = new Sensor[count];
+        lower = new double[count];
+        upper = new double[count];
+        flags = new int[count];
+
+        for (int r = 0; r < count; r++) {
+            ThresholdRule rule = rules[r];
+            sensors[r] = Sensor.fromFieldName(rule.getSensor());
+            if (sensors[r] == null) {
+                throw new IllegalArgumentException("Rule " + rule.getName() + ": unknown sensor " + rule.getSensor());
+            }
+            flags[r] = AnomalyFlags.forSubsystem(rule.getSubsystem());
+            if (flags[r] == 0) {
+                throw new IllegalArgumentException("Rule " + rule.getName() + ": unknown subsystem " + rule.getSubsystem());
+            }
+            if (rule.getMaxAbs() != null) {
+                if (rule.getMin() != null || rule.getMax() != null) {
+                    throw new IllegalArgumentException("Rule " + rule.getName() + ": maxAbs cannot be combined with min/max");
+                }
+                lower[r] = -rule.getMaxAbs();
+                upper[r] = rule.getMaxAbs();
+            } else {
+                if (rule.getMin() == null && rule.getMax() == null) {
+                    throw new IllegalArgumentException("Rule " + rule.getName() + ": no limit defined");
+                }
+                lower[r] = rule.getMin() != null ? rule.getMin() : Double.NEGATIVE_INFINITY;
+                upper[r] = rule.getMax() != null ? rule.getMax() : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    /**
+     * Validates and compiles a list of rules
+     *
+     * @throws IllegalArgumentException if a rule references an unknown sensor or subsystem
+     */
+    public static CompiledRuleSet compile(List<ThresholdRule> rules) {
+        return new CompiledRuleSet(rules);
+    }
+
+    /**
+     * Evaluates all rules against one sample
+     *
+     * @return The packed anomaly flags of all breached rules
+     */
+    public int evaluate(AircraftData data) {
+        int result = 0;
+        for (int r = 0; r < sensors.length; r++) {
+            double value = sensors[r].read(data);
+            result |= (value < lower[r] | value > upper[r]) ? flags[r] : 0;
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates all rules against a batch of samples stored as sensor columns,
+     * one rule at a time over all rows
+     *
+     * @param columns Sensor columns indexed by {@link Sensor#ordinal()}
+     * @param length Number of rows to analyze
+     * @param result Receives the packed anomaly flags per row; must be zeroed
+     */
+    public void evaluate(double[][] columns, int length, byte[] result) {
+        for (int r = 0; r < sensors.length; r++) {
+            double[] column = columns[sensors[r].ordinal()];
+            double low = lower[r];
+            double high = upper[r];
+            byte flag = (byte) flags[r];
+            for (int i = 0; i < length; i++) {
+                double value = column[i];
+                result[i] |= (value < low | value > high) ? flag : 0;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a single rule is breached by a sample. Used to explain a
+     * non-zero result of {@link #evaluate(AircraftData)}.
+     */
+    public boolean isBreached(int rule, AircraftData data) {
+        double value = sensors[rule].read(data);
+        return value < lower[rule] | value > upper[rule];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    public ThresholdRule getRule(int rule) {
+        return rules[rule];
+    }
+
+    public Sensor getSensor(int rule) {
+        return sensors[rule];
+    }
+
+    public double getLower(int rule) {
+        return lower[rule];
+    }
+
+    public double getUpper(int rule) {
+        return upper[rule];
+    }
+
+    public int getFlag(int rule) {
+        return flags[rule];
+    }
+
+    /**
+     * Gets the source rule definitions
+     */
+    public List<ThresholdRule> getRules() {
+        return List.of(rules);
+    }
+}
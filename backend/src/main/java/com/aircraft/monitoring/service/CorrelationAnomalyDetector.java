@@ -0,0 +1,191 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cross-sensor check of the engine sensors that follow engine RPM.
+ *
+ * Engine temperature, oil pressure, oil temperature and fuel consumption all
+ * rise with RPM. For every aircraft this detector fits each of them against RPM
+ * with an exponentially weighted rolling regression and tracks the variance of
+ * the residual. A sample whose residual exceeds the threshold in standard
+ * deviations is out of family, e.g. a temperature that is high for the current
+ * RPM while still below the fixed limit.
+ *
+ * RPM is the input of every pair, so a sample without a finite RPM cannot be
+ * predicted and leaves all regressions untouched. A non-finite dependent value
+ * only skips its own pair; the RPM mean still advances, which keeps the other
+ * pairs centered on the same RPM.
+ *
+ * Each update is O(1) over a few primitive arrays per aircraft and does not
+ * allocate after the aircraft's first sample.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class CorrelationAnomalyDetector {
+
+    // Explanatory sensor of all pairs
+    private static final Sensor INDEPENDENT = Sensor.ENGINE_RPM;
+
+    // Sensors modeled as a linear function of the explanatory sensor
+    private static final Sensor[] DEPENDENT = {
+            Sensor.ENGINE_TEMPERATURE, Sensor.OIL_PRESSURE, Sensor.OIL_TEMPERATURE, Sensor.FUEL_CONSUMPTION
+    };
+
+    @Value("${aircraft.correlation.enabled:true}")
+    private boolean enabled;
+
+    // Weight of a new sample in the regression; 0.02 follows about the last 50-100 samples
+    @Value("${aircraft.correlation.alpha:0.02}")
+    private double alpha;
+
+    @Value("${aircraft.correlation.residual-threshold:4.0}")
+    private double residualThreshold;
+
+    @Value("${aircraft.correlation.warmup-samples:50}")
+    private int warmupSamples;
+
+    private final Map<String, Regression> regressions = new ConcurrentHashMap<>();
+
+    /**
+     * Updates the regressions of the sample's aircraft with the sample
+     *
+     * @param data The sample
+     * @return Bitmask of {@link Sensor} ordinals whose value is out of family for the current RPM
+     */
+    public int evaluate(AircraftData data) {
+        if (!enabled) {
+            return 0;
+        }
+        String tailNumber = data.getTailNumber() != null ? data.getTailNumber() : "";
+        Regression regression = regressions.get(tailNumber);
+        if (regression == null) {
+            regression = regressions.computeIfAbsent(tailNumber, key -> new Regression());
+        }
+        synchronized (regression) {
+            return regression.update(data);
+        }
+    }
+
+    /**
+     * Creates a detector with the same settings and no learned regressions. A recorded
+     * file may reuse a live tail number, and its samples must not bend that aircraft's
+     * RPM fits.
+     */
+    public CorrelationAnomalyDetector fork() {
+        CorrelationAnomalyDetector detector = new CorrelationAnomalyDetector();
+        detector.enabled = enabled;
+        detector.alpha = alpha;
+        detector.residualThreshold = residualThreshold;
+        detector.warmupSamples = warmupSamples;
+        return detector;
+    }
+
+    /**
+     * Discards the learned regressions of an aircraft, which then warms up again
+     */
+    public void reset(String tailNumber) {
+        regressions.remove(tailNumber);
+    }
+
+    /**
+     * Describes the detector settings
+     *
+     * @return Modeled sensor pairs, settings and number of tracked aircraft
+     */
+    public Map<String, Object> getStatus() {
+        List<String> pairs = new ArrayList<>(DEPENDENT.length);
+        for (Sensor sensor : DEPENDENT) {
+            pairs.add(sensor.getFieldName() + " ~ " + INDEPENDENT.getFieldName());
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("pairs", pairs);
+        status.put("alpha", alpha);
+        status.put("residualThreshold", residualThreshold);
+        status.put("warmupSamples", warmupSamples);
+        status.put("aircraft", regressions.size());
+        return status;
+    }
+
+    /**
+     * Rolling regressions of one aircraft; arrays are indexed like {@link #DEPENDENT}
+     */
+    private final class Regression {
+
+        private double meanX;
+        private double varianceX;
+        private final double[] meanY = new double[DEPENDENT.length];
+        private final double[] covariance = new double[DEPENDENT.length];
+        private final double[] residualVariance = new double[DEPENDENT.length];
+        private final long[] samples = new long[DEPENDENT.length];
+        private boolean started = false;
+
+        int update(AircraftData data) {
+            double x = INDEPENDENT.read(data);
+            if (!Double.isFinite(x)) {
+                return 0;
+            }
+            if (!started) {
+                meanX = x;
+                started = true;
+            }
+
+            double thresholdSquared = residualThreshold * residualThreshold;
+            double dx = x - meanX;
+            int outliers = 0;
+
+            for (int p = 0; p < DEPENDENT.length; p++) {
+                double y = DEPENDENT[p].read(data);
+                if (!Double.isFinite(y)) {
+                    continue;
+                }
+                if (samples[p]++ == 0) {
+                    meanY[p] = y;
+                    continue;
+                }
+
+                // Predict from the fit so far, before this sample moves it
+                double slope = varianceX > 1e-12 ? covariance[p] / varianceX : 0.0;
+                double predicted = meanY[p] + slope * dx;
+                double residual = y - predicted;
+                boolean outlier = false;
+                if (samples[p] > warmupSamples) {
+                    // A sensor that tracks RPM exactly drives the residual variance towards zero;
+                    // the floor, relative to the sensor's level, keeps such a fit from flagging rounding error
+                    double floor = 1e-9 + 1e-6 * Math.abs(meanY[p]);
+                    double limit = thresholdSquared * Math.max(residualVariance[p], floor * floor);
+                    if (residual * residual > limit) {
+                        outlier = true;
+                        outliers |= 1 << DEPENDENT[p].ordinal();
+                        // Learn an outlier only up to the threshold, so a lasting fault keeps flagging for a while
+                        y = predicted + Math.copySign(Math.sqrt(limit), residual);
+                    }
+                }
+
+                double dy = y - meanY[p];
+                meanY[p] += alpha * dy;
+                covariance[p] = (1 - alpha) * (covariance[p] + alpha * dx * dy);
+                if (!outlier) {
+                    residualVariance[p] = (1 - alpha) * residualVariance[p] + alpha * residual * residual;
+                }
+            }
+
+            meanX += alpha * dx;
+            varianceX = (1 - alpha) * (varianceX + alpha * dx * dx);
+            return outliers;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.IngestReport;
+import com.aircraft.monitoring.model.Sensor;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Service for bulk ingest of recorded flight data from CSV.
+ *
+ * The CSV is streamed in fixed-size chunks, never loaded as a whole. Each chunk
+ * is parsed and checked against the threshold rules on a worker pool, through the
+ * columnar batch path of {@link AnomalyDetectionService}. Finished chunks are handed
+ * to the caller strictly in file order. The statistical and correlation detectors
+ * keep baselines and rate limits per aircraft, so they run in a
+ * {@link AnomalyDetectionService.DetectionRun} of its own per ingest, which leaves
+ * the live aircraft's state alone. They also run on the worker pool: the records
+ * of each finished chunk are split by tail number, so every aircraft's records
+ * are still analyzed in file order by one worker. The number of chunks in flight
+ * is bounded, so memory use does not grow with the file size.
+ *
+ * The header row maps columns by {@link AircraftData} property name (case
+ * insensitive); unknown columns are ignored and missing sensors read as zero.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class CsvIngestService {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Value("${aircraft.ingest.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${aircraft.ingest.workers:0}")
+    private int workers;
+
+    private ExecutorService workerPool;
+
+    /**
+     * Creates the ingest worker pool
+     */
+    @PostConstruct
+    public void init() {
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "csv-ingest-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the worker pool on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Streams a CSV file through anomaly detection
+     *
+     * @param input The CSV content, starting with a header row
+     * @param sink Receives every analyzed record in file order
+     * @return Ingest statistics
+     */
+    public IngestReport ingest(InputStream input, Consumer<AircraftData> sink) throws IOException {
+        long start = System.nanoTime();
+        IngestReport report = new IngestReport();
+        long[] subsystemCounts = new long[AnomalyFlags.SUBSYSTEMS.length];
+        AnomalyDetectionService.DetectionRun run = anomalyDetectionService.newRun("csv-ingest");
+
+        try (CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)))) {
+            String[] header = reader.readNext();
+            if (header == null) {
+                return finish(report, subsystemCounts, start);
+            }
+            ColumnMapping mapping = new ColumnMapping(header);
+
+            // Chunks complete out of order but are drained from the head, preserving file order
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            List<String[]> rows = new ArrayList<>(chunkSize);
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                rows.add(row);
+                if (rows.size() == chunkSize) {
+                    submit(inFlight, mapping, rows);
+                    rows = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= workers * 2) {
+                        drain(inFlight.removeFirst(), run, report, subsystemCounts, sink);
+                    }
+                }
+            }
+            if (!rows.isEmpty()) {
+                submit(inFlight, mapping, rows);
+            }
+            while (!inFlight.isEmpty()) {
+                drain(inFlight.removeFirst(), run, report, subsystemCounts, sink);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Malformed CSV input", e);
+        }
+
+        finish(report, subsystemCounts, start);
+        log.info("Ingested {} CSV rows ({} rejected) at {} rows/sec",
+                report.getRows(), report.getRejectedRows(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void submit(Deque<Future<ChunkResult>> inFlight, ColumnMapping mapping, List<String[]> rows) {
+        inFlight.addLast(workerPool.submit(() -> analyzeChunk(mapping, rows)));
+    }
+
+    /**
+     * Waits for the next chunk in file order and completes the analysis of its records
+     */
+    private void drain(Future<ChunkResult> future, AnomalyDetectionService.DetectionRun run,
+                       IngestReport report, long[] subsystemCounts, Consumer<AircraftData> sink) throws IOException {
+        ChunkResult result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("CSV ingest interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("CSV ingest failed", e.getCause());
+        }
+
+        detectOutliers(result.records, run);
+
+        long anomalous = 0;
+        for (AircraftData data : result.records) {
+            if (data.hasAnyAnomaly()) {
+                anomalous++;
+                if (data.isEngineAnomaly()) subsystemCounts[0]++;
+                if (data.isFuelAnomaly()) subsystemCounts[1]++;
+                if (data.isHydraulicAnomaly()) subsystemCounts[2]++;
+                if (data.isAltitudeAnomaly()) subsystemCounts[3]++;
+                if (data.isAirspeedAnomaly()) subsystemCounts[4]++;
+            }
+        }
+
+        report.setRows(report.getRows() + result.records.size() + result.rejected);
+        report.setRejectedRows(report.getRejectedRows() + result.rejected);
+        report.setAnomalousRows(report.getAnomalousRows() + anomalous);
+        if (sink != null) {
+            result.records.forEach(sink);
+        }
+    }
+
+    /**
+     * Runs the statistical and correlation detectors over the records of one chunk
+     * on the worker pool, one task per share of the aircraft, and waits for them
+     */
+    private void detectOutliers(List<AircraftData> records, AnomalyDetectionService.DetectionRun run)
+            throws IOException {
+        int partitions = Math.min(workers, records.size());
+        if (partitions <= 1) {
+            records.forEach(run::detectOutliers);
+            return;
+        }
+
+        List<List<AircraftData>> shares = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            shares.add(new ArrayList<>(records.size() / partitions + 1));
+        }
+        for (AircraftData data : records) {
+            shares.get(Math.floorMod(Objects.hashCode(data.getTailNumber()), partitions)).add(data);
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(partitions);
+        for (List<AircraftData> share : shares) {
+            if (!share.isEmpty()) {
+                tasks.add(() -> {
+                    share.forEach(run::detectOutliers);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> task : workerPool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("CSV ingest interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("CSV ingest failed", e.getCause());
+        }
+    }
+
+    /**
+     * Parses one chunk of rows and sets their threshold flags. Runs on a worker thread.
+     */
+    private ChunkResult analyzeChunk(ColumnMapping mapping, List<String[]> rows) {
+        ChunkResult result = new ChunkResult(rows.size());
+        for (String[] row : rows) {
+            try {
+                result.records.add(mapping.parse(row));
+            } catch (RuntimeException e) {
+                result.rejected++;
+            }
+        }
+        detectThresholds(result.records);
+        return result;
+    }
+
+    /**
+     * Checks records against the threshold rules in columnar batches, one per aircraft type
+     */
+    private void detectThresholds(List<AircraftData> records) {
+        Map<String, List<AircraftData>> byType = new HashMap<>();
+        for (AircraftData data : records) {
+            byType.computeIfAbsent(data.getAircraftType(), key -> new ArrayList<>()).add(data);
+        }
+
+        double[][] columns = new double[Sensor.COUNT][records.size()];
+        byte[] flags = new byte[records.size()];
+        for (Map.Entry<String, List<AircraftData>> entry : byType.entrySet()) {
+            List<AircraftData> batch = entry.getValue();
+            for (Sensor sensor : Sensor.VALUES) {
+                double[] column = columns[sensor.ordinal()];
+                for (int i = 0; i < batch.size(); i++) {
+                    column[i] = sensor.read(batch.get(i));
+                }
+            }
+            anomalyDetectionService.detectAnomalies(entry.getKey(), columns, batch.size(), flags);
+            for (int i = 0; i < batch.size(); i++) {
+                AnomalyFlags.apply(flags[i], batch.get(i));
+            }
+        }
+    }
+
+    private IngestReport finish(IngestReport report, long[] subsystemCounts, long start) {
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        report.setElapsedMillis(elapsedMillis);
+        report.setRowsPerSecond(elapsedMillis > 0 ? report.getRows() * 1000.0 / elapsedMillis : 0.0);
+        for (int i = 0; i < AnomalyFlags.SUBSYSTEMS.length; i++) {
+            report.getAnomaliesBySubsystem().put(AnomalyFlags.SUBSYSTEMS[i], subsystemCounts[i]);
+        }
+        return report;
+    }
+
+    /**
+     * Parses a timestamp in the JSON format ("yyyy-MM-dd HH:mm:ss") or ISO-8601
+     */
+    static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value, TIMESTAMP_FORMAT);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value);
+        }
+    }
+
+    /**
+     * Column positions resolved once from the header row
+     */
+    private static final class ColumnMapping {
+
+        private final int timestampColumn;
+        private final int tailNumberColumn;
+        private final int aircraftTypeColumn;
+        private final int[] sensorColumns = new int[Sensor.COUNT];
+
+        ColumnMapping(String[] header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                positions.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            timestampColumn = positions.getOrDefault("timestamp", -1);
+            tailNumberColumn = positions.getOrDefault("tailnumber", -1);
+            aircraftTypeColumn = positions.getOrDefault("aircrafttype", -1);
+            for (Sensor sensor : Sensor.VALUES) {
+                sensorColumns[sensor.ordinal()] = positions.getOrDefault(sensor.getFieldName().toLowerCase(Locale.ROOT), -1);
+            }
+        }
+
+        AircraftData parse(String[] row) {
+            AircraftData data = new AircraftData();
+            if (timestampColumn >= 0) {
+                data.setTimestamp(parseTimestamp(row[timestampColumn].trim()));
+            }
+            if (tailNumberColumn >= 0) {
+                data.setTailNumber(row[tailNumberColumn].trim());
+            }
+            if (aircraftTypeColumn >= 0 && !row[aircraftTypeColumn].isBlank()) {
+                data.setAircraftType(row[aircraftTypeColumn].trim());
+            }
+            for (int i = 0; i < Sensor.COUNT; i++) {
+                int column = sensorColumns[i];
+                if (column >= 0 && !row[column].isBlank()) {
+                    Sensor.VALUES[i].write(data, Double.parseDouble(row[column]));
+                }
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Parsed records and rejected row count of one chunk
+     */
+    private static final class ChunkResult {
+
+        private final List<AircraftData> records;
+        private long rejected;
+
+        ChunkResult(int size) {
+            this.records = new ArrayList<>(size);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.aircraft.monitoring.service;
 
 import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AircraftState;
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.aircraft.monitoring.model.FlightPhase;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
 
 /**
  * Service responsible for simulating aircraft sensor data.
@@ -28,193 +35,355 @@ public class DataSimulationService {
     @Autowired
     private WebSocketService webSocketService;
     
-    private final Random random = new Random();
-    private AircraftData currentData;
+    @Autowired
+    private TelemetryHistoryService telemetryHistoryService;
     
-    // Simulation state
-    private double currentAltitude = 35000.0;
-    private double currentAirspeed = 450.0;
-    private double currentFuelLevel = 85.0;
-    private double currentEngineRPM = 2200.0;
-    private double currentHydraulicPressure = 2800.0;
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
     
-    // Anomaly simulation flags
-    private boolean simulateEngineAnomaly = false;
-    private boolean simulateFuelAnomaly = false;
-    private boolean simulateHydraulicAnomaly = false;
-    private int anomalyCounter = 0;
+    @Autowired
+    private TelemetryJournalService telemetryJournalService;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private DataSnapshotService dataSnapshotService;
+    
+    @Autowired
+    private TelemetryPipeline telemetryPipeline;
+    
+    @Autowired
+    private AlertService alertService;
+    
+    @Value("${aircraft.simulation.tail-number:N12345}")
+    private String tailNumber;
+    
+    @Value("${aircraft.simulation.aircraft-type:B737}")
+    private String aircraftType;
+    
+    private AircraftState state;
+    
+    // The ring slot is reused, so the snapshot and the broadcast get their own copy
+    private final TelemetryPipeline.Sink pipelineSink =
+            (data, key) -> publishSample(TelemetryPipeline.copy(data, new AircraftData()));
+    
+    /**
+     * Initializes the simulation state of the demo aircraft, resuming from the
+     * last journaled sample if there is one
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        state = new AircraftState(tailNumber, new SplittableRandom());
+        state.setAircraftType(aircraftType);
+        
+        AircraftData lastData = telemetryJournalService.findLatest(tailNumber);
+        if (lastData != null) {
+            state.setCurrentAltitude(lastData.getAltitude());
+            state.setCurrentAirspeed(lastData.getAirspeed());
+            state.setCurrentFuelLevel(lastData.getFuelLevel());
+            state.setCurrentEngineRPM(lastData.getEngineRPM());
+            state.setCurrentHydraulicPressure(lastData.getHydraulicPressure());
+            dataSnapshotService.publish(lastData);
+            log.info("Resumed simulation of {} from journaled sample at {}", tailNumber, lastData.getTimestamp());
+        }
+    }
     
     /**
-     * Generates new aircraft sensor data every 2 seconds
+     * Generates new aircraft sensor data every sample interval (2 seconds by default).
+     * With the pipeline enabled only generation runs here; detection, recording and
+     * broadcasting follow on the pipeline threads.
      */
-    @Scheduled(fixedRate = 2000)
+    @Scheduled(fixedRateString = "${aircraft.simulation.interval-ms:2000}")
     public void generateAircraftData() {
-        currentData = new AircraftData(LocalDateTime.now());
+        if (telemetryPipeline.isEnabled()) {
+            submitAircraftData();
+            return;
+        }
+        
+        long start = System.nanoTime();
+        AircraftData data = generateSample(state, new AircraftData(state.getTailNumber(), LocalDateTime.now(ZoneOffset.UTC)));
+        pipelineMetrics.recordStage(PipelineMetrics.Stage.GENERATE, System.nanoTime() - start);
+        
+        // Detect anomalies
+        data = anomalyDetectionService.detectAnomalies(data);
+        
+        // Keep in recent history, rollups and journal
+        telemetryHistoryService.record(data);
+        telemetryRollupService.record(data);
+        telemetryJournalService.append(data);
+        
+        publishSample(data);
+    }
+    
+    /**
+     * Generates the next sample into a pipeline slot
+     */
+    private void submitAircraftData() {
+        int key = state.getTailNumber().hashCode();
+        long sequence = telemetryPipeline.claim(key);
+        if (sequence < 0) {
+            return;
+        }
+        
+        TelemetryPipeline.Sink sink = null;
+        try {
+            long start = System.nanoTime();
+            AircraftData data = telemetryPipeline.get(key, sequence);
+            data.setTailNumber(state.getTailNumber());
+            data.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
+            generateSample(state, data);
+            pipelineMetrics.recordStage(PipelineMetrics.Stage.GENERATE, System.nanoTime() - start);
+            sink = pipelineSink;
+        } finally {
+            telemetryPipeline.publish(key, sequence, sink);
+        }
+    }
+    
+    /**
+     * Publishes an analyzed and recorded sample to REST readers and WebSocket clients
+     */
+    private void publishSample(AircraftData data) {
+        // Publish to REST readers only once the sample is complete
+        dataSnapshotService.publish(data);
+        
+        // Send to WebSocket clients, followed by any alert the sample raises or clears
+        webSocketService.broadcastAircraftData(data);
+        alertService.evaluate(data);
+        
+        log.debug("Generated aircraft data: {}", data.getTimestamp());
+    }
+    
+    /**
+     * Advances the given aircraft by one tick and fills in its sensor readings.
+     * 
+     * Only the state and data passed in are touched, so different aircraft can be
+     * advanced concurrently from different threads.
+     * 
+     * @param state The simulation state of the aircraft
+     * @param data The data object to populate
+     * @return The populated data object
+     */
+    public AircraftData generateSample(AircraftState state, AircraftData data) {
+        data.setAircraftType(state.getAircraftType());
         
         // Generate engine data
-        generateEngineData();
+        generateEngineData(state, data);
         
         // Generate fuel system data
-        generateFuelData();
+        generateFuelData(state, data);
         
         // Generate hydraulic system data
-        generateHydraulicData();
+        generateHydraulicData(state, data);
         
         // Generate flight data
-        generateFlightData();
+        generateFlightData(state, data);
         
         // Generate additional systems data
-        generateAdditionalData();
-        
-        // Detect anomalies
-        currentData = anomalyDetectionService.detectAnomalies(currentData);
-        
-        // Send to WebSocket clients
-        webSocketService.broadcastAircraftData(currentData);
+        generateAdditionalData(state, data);
         
-        log.debug("Generated aircraft data: {}", currentData.getTimestamp());
+        return data;
     }
     
     /**
      * Generates realistic engine system data
      */
-    private void generateEngineData() {
+    private void generateEngineData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        
         // Engine RPM with slight variations
         double rpmVariation = random.nextDouble() * 200 - 100;
-        currentEngineRPM = Math.max(1800, Math.min(2600, currentEngineRPM + rpmVariation));
-        currentData.setEngineRPM(currentEngineRPM);
+        double currentEngineRPM = Math.max(1800, Math.min(2600, state.getCurrentEngineRPM() + rpmVariation));
+        state.setCurrentEngineRPM(currentEngineRPM);
+        data.setEngineRPM(currentEngineRPM);
         
         // Engine temperature (correlated with RPM)
         double tempBase = 120.0 + (currentEngineRPM - 2000) * 0.05;
         double tempVariation = random.nextDouble() * 20 - 10;
-        currentData.setEngineTemperature(tempBase + tempVariation);
+        data.setEngineTemperature(tempBase + tempVariation);
         
         // Oil pressure (correlated with RPM)
         double oilPressureBase = 40.0 + (currentEngineRPM - 2000) * 0.02;
         double oilPressureVariation = random.nextDouble() * 10 - 5;
-        currentData.setOilPressure(oilPressureBase + oilPressureVariation);
+        data.setOilPressure(oilPressureBase + oilPressureVariation);
         
         // Oil temperature
         double oilTempBase = 80.0 + (currentEngineRPM - 2000) * 0.01;
         double oilTempVariation = random.nextDouble() * 15 - 7.5;
-        currentData.setOilTemperature(oilTempBase + oilTempVariation);
+        data.setOilTemperature(oilTempBase + oilTempVariation);
         
         // Simulate engine anomaly occasionally
-        if (simulateEngineAnomaly && anomalyCounter++ > 10) {
-            currentData.setEngineTemperature(220.0); // Overheating
-            simulateEngineAnomaly = false;
-            anomalyCounter = 0;
+        if (state.isSimulateEngineAnomaly() && nextAnomalyCount(state) > 10) {
+            data.setEngineTemperature(220.0); // Overheating
+            state.setSimulateEngineAnomaly(false);
+            state.setAnomalyCounter(0);
         }
     }
     
     /**
      * Generates realistic fuel system data
      */
-    private void generateFuelData() {
+    private void generateFuelData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        
         // Fuel level decreases over time
-        currentFuelLevel -= random.nextDouble() * 0.5;
-        currentData.setFuelLevel(Math.max(0, currentFuelLevel));
+        double currentFuelLevel = state.getCurrentFuelLevel() - random.nextDouble() * 0.5 * state.getFuelBurnFactor();
+        state.setCurrentFuelLevel(currentFuelLevel);
+        data.setFuelLevel(Math.max(0, currentFuelLevel));
         
         // Fuel consumption (correlated with engine RPM)
-        double consumptionBase = 200.0 + (currentEngineRPM - 2000) * 0.1;
+        double consumptionBase = 200.0 + (state.getCurrentEngineRPM() - 2000) * 0.1;
         double consumptionVariation = random.nextDouble() * 50 - 25;
-        currentData.setFuelConsumption(consumptionBase + consumptionVariation);
+        data.setFuelConsumption(consumptionBase + consumptionVariation);
         
         // Fuel pressure
         double fuelPressureBase = 25.0 + random.nextDouble() * 10;
-        currentData.setFuelPressure(fuelPressureBase);
+        data.setFuelPressure(fuelPressureBase);
         
         // Fuel temperature
         double fuelTempBase = 15.0 + random.nextDouble() * 10;
-        currentData.setFuelTemperature(fuelTempBase);
+        data.setFuelTemperature(fuelTempBase);
         
         // Simulate fuel anomaly occasionally
-        if (simulateFuelAnomaly && anomalyCounter++ > 15) {
-            currentData.setFuelLevel(15.0); // Low fuel
-            simulateFuelAnomaly = false;
-            anomalyCounter = 0;
+        if (state.isSimulateFuelAnomaly() && nextAnomalyCount(state) > 15) {
+            data.setFuelLevel(15.0); // Low fuel
+            state.setSimulateFuelAnomaly(false);
+            state.setAnomalyCounter(0);
         }
     }
     
     /**
      * Generates realistic hydraulic system data
      */
-    private void generateHydraulicData() {
+    private void generateHydraulicData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        
         // Hydraulic pressure with slight variations
         double pressureVariation = random.nextDouble() * 200 - 100;
-        currentHydraulicPressure = Math.max(2500, Math.min(3200, currentHydraulicPressure + pressureVariation));
-        currentData.setHydraulicPressure(currentHydraulicPressure);
+        double currentHydraulicPressure = Math.max(2500, Math.min(3200, state.getCurrentHydraulicPressure() + pressureVariation));
+        state.setCurrentHydraulicPressure(currentHydraulicPressure);
+        data.setHydraulicPressure(currentHydraulicPressure);
         
         // Hydraulic temperature
         double hydraulicTempBase = 45.0 + random.nextDouble() * 20;
-        currentData.setHydraulicTemperature(hydraulicTempBase);
+        data.setHydraulicTemperature(hydraulicTempBase);
         
         // Hydraulic fluid level
         double fluidLevelBase = 90.0 + random.nextDouble() * 10;
-        currentData.setHydraulicFluidLevel(fluidLevelBase);
+        data.setHydraulicFluidLevel(fluidLevelBase);
         
         // Simulate hydraulic anomaly occasionally
-        if (simulateHydraulicAnomaly && anomalyCounter++ > 20) {
-            currentData.setHydraulicPressure(1800.0); // Low pressure
-            simulateHydraulicAnomaly = false;
-            anomalyCounter = 0;
+        if (state.isSimulateHydraulicAnomaly() && nextAnomalyCount(state) > 20) {
+            data.setHydraulicPressure(1800.0); // Low pressure
+            state.setSimulateHydraulicAnomaly(false);
+            state.setAnomalyCounter(0);
         }
     }
     
     /**
      * Generates realistic flight data
      */
-    private void generateFlightData() {
+    private void generateFlightData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        
+        if (state.getFlightPhase() != FlightPhase.CRUISE) {
+            generateClimbOrDescentData(state, data);
+            return;
+        }
+        
         // Altitude with slight variations
         double altitudeVariation = random.nextDouble() * 200 - 100;
-        currentAltitude = Math.max(30000, Math.min(40000, currentAltitude + altitudeVariation));
-        currentData.setAltitude(currentAltitude);
+        double currentAltitude = Math.max(30000, Math.min(40000, state.getCurrentAltitude() + altitudeVariation));
+        state.setCurrentAltitude(currentAltitude);
+        data.setAltitude(currentAltitude);
         
         // Airspeed with slight variations
         double airspeedVariation = random.nextDouble() * 20 - 10;
-        currentAirspeed = Math.max(400, Math.min(500, currentAirspeed + airspeedVariation));
-        currentData.setAirspeed(currentAirspeed);
+        double currentAirspeed = Math.max(400, Math.min(500, state.getCurrentAirspeed() + airspeedVariation));
+        state.setCurrentAirspeed(currentAirspeed);
+        data.setAirspeed(currentAirspeed);
         
         // Ground speed (slightly different from airspeed due to wind)
         double groundSpeedVariation = random.nextDouble() * 30 - 15;
-        currentData.setGroundSpeed(currentAirspeed + groundSpeedVariation);
+        data.setGroundSpeed(currentAirspeed + groundSpeedVariation);
         
         // Mach number (calculated from airspeed and altitude)
         double machNumber = currentAirspeed / (661.5 + currentAltitude * 0.001);
-        currentData.setMachNumber(machNumber);
+        data.setMachNumber(machNumber);
         
         // Vertical speed
         double verticalSpeed = random.nextDouble() * 1000 - 500;
-        currentData.setVerticalSpeed(verticalSpeed);
+        data.setVerticalSpeed(verticalSpeed);
+    }
+    
+    /**
+     * Generates flight data while climbing or descending to the target altitude
+     */
+    private void generateClimbOrDescentData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        boolean climb = state.getFlightPhase() == FlightPhase.CLIMB;
+        
+        // Vertical speed in ft/min, zero once the target altitude is reached
+        double verticalSpeed = climb ? 1500 + random.nextDouble() * 1000 : -(1000 + random.nextDouble() * 1000);
+        double altitude = state.getCurrentAltitude() + verticalSpeed * state.getSampleIntervalSeconds() / 60.0;
+        if (climb ? altitude >= state.getTargetAltitude() : altitude <= state.getTargetAltitude()) {
+            altitude = state.getTargetAltitude();
+            verticalSpeed = 0;
+        }
+        double currentAltitude = Math.max(0, altitude);
+        state.setCurrentAltitude(currentAltitude);
+        data.setAltitude(currentAltitude);
+        data.setVerticalSpeed(verticalSpeed);
+        
+        // Airspeed drifts within the climb and descent speed range
+        double airspeedVariation = random.nextDouble() * 20 - 10;
+        double currentAirspeed = Math.max(250, Math.min(350, state.getCurrentAirspeed() + airspeedVariation));
+        state.setCurrentAirspeed(currentAirspeed);
+        data.setAirspeed(currentAirspeed);
+        
+        double groundSpeedVariation = random.nextDouble() * 30 - 15;
+        data.setGroundSpeed(currentAirspeed + groundSpeedVariation);
+        data.setMachNumber(currentAirspeed / (661.5 + currentAltitude * 0.001));
     }
     
     /**
      * Generates additional systems data
      */
-    private void generateAdditionalData() {
+    private void generateAdditionalData(AircraftState state, AircraftData data) {
+        SplittableRandom random = state.getRandom();
+        
         // Cabin pressure
         double cabinPressureBase = 11.0 + random.nextDouble() * 2;
-        currentData.setCabinPressure(cabinPressureBase);
+        data.setCabinPressure(cabinPressureBase);
         
         // Cabin temperature
         double cabinTempBase = 22.0 + random.nextDouble() * 4;
-        currentData.setCabinTemperature(cabinTempBase);
+        data.setCabinTemperature(cabinTempBase);
         
         // Battery voltage
         double batteryVoltageBase = 28.0 + random.nextDouble() * 2;
-        currentData.setBatteryVoltage(batteryVoltageBase);
+        data.setBatteryVoltage(batteryVoltageBase);
         
         // Generator output
         double generatorOutputBase = 115.0 + random.nextDouble() * 10;
-        currentData.setGeneratorOutput(generatorOutputBase);
+        data.setGeneratorOutput(generatorOutputBase);
+    }
+    
+    /**
+     * Returns the anomaly counter of the aircraft and increments it (post-increment)
+     */
+    private int nextAnomalyCount(AircraftState state) {
+        int count = state.getAnomalyCounter();
+        state.setAnomalyCounter(count + 1);
+        return count;
     }
     
     /**
      * Triggers simulation of engine anomaly
      */
     public void simulateEngineAnomaly() {
-        simulateEngineAnomaly = true;
-        anomalyCounter = 0;
+        state.setSimulateEngineAnomaly(true);
+        state.setAnomalyCounter(0);
         log.info("Engine anomaly simulation triggered");
     }
     
@@ -222,8 +391,8 @@ public class DataSimulationService {
      * Triggers simulation of fuel anomaly
      */
     public void simulateFuelAnomaly() {
-        simulateFuelAnomaly = true;
-        anomalyCounter = 0;
+        state.setSimulateFuelAnomaly(true);
+        state.setAnomalyCounter(0);
         log.info("Fuel anomaly simulation triggered");
     }
     
@@ -231,15 +400,16 @@ public class DataSimulationService {
      * Triggers simulation of hydraulic anomaly
      */
     public void simulateHydraulicAnomaly() {
-        simulateHydraulicAnomaly = true;
-        anomalyCounter = 0;
+        state.setSimulateHydraulicAnomaly(true);
+        state.setAnomalyCounter(0);
         log.info("Hydraulic anomaly simulation triggered");
     }
     
     /**
-     * Gets the current aircraft data
+     * Gets the current aircraft data, which must not be modified
      */
     public AircraftData getCurrentData() {
-        return currentData;
+        DataSnapshot snapshot = dataSnapshotService.getSnapshot();
+        return snapshot != null ? snapshot.getData() : null;
     }
 } 
\ No newline at end of file
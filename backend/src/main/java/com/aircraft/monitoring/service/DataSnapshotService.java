@@ -0,0 +1,103 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.aircraft.monitoring.model.SensorGroup;
+import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service publishing the latest sample of the demo aircraft to REST readers.
+ *
+ * Each sample is serialized once when it is published and handed out as an
+ * immutable {@link DataSnapshot}, so polls neither reserialize nor see a sample
+ * that is still being filled in. The sequence number doubles as the entity tag
+ * for conditional requests, and long-polling readers wait for a sequence
+ * newer than the one they have instead of polling on a timer. The JSON is written
+ * by the {@link TelemetryJsonWriter}, so it is the same as the {@code data} of the
+ * WebSocket message for the sample.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class DataSnapshotService {
+
+    // Should stay below spring.mvc.async.request-timeout
+    @Value("${aircraft.data.long-poll-timeout-ms:25000}")
+    private long longPollTimeoutMs;
+
+    // Distinguishes the entity tags of different runs, whose sequences both start at 1
+    private final String etagPrefix = Long.toHexString(System.currentTimeMillis());
+    private final Queue<CompletableFuture<DataSnapshot>> waiters = new ConcurrentLinkedQueue<>();
+    private volatile DataSnapshot snapshot;
+
+    /**
+     * Publishes a fully analyzed sample; it must not be modified afterwards
+     *
+     * @param data The aircraft data
+     */
+    public void publish(AircraftData data) {
+        byte[] json = TelemetryJsonWriter.acquire().aircraftData(data, SensorGroup.ALL).toByteArray();
+
+        // Only the simulation thread publishes, so the read-increment-write needs no lock
+        DataSnapshot previous = snapshot;
+        long sequence = previous != null ? previous.getSequence() + 1 : 1;
+        DataSnapshot next = new DataSnapshot(sequence, "\"" + etagPrefix + "-" + sequence + "\"", data, json);
+        snapshot = next;
+
+        CompletableFuture<DataSnapshot> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.complete(next);
+        }
+    }
+
+    /**
+     * Gets the latest snapshot
+     *
+     * @return The snapshot, or null if nothing was published yet
+     */
+    public DataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Waits for a snapshot newer than the given sequence
+     *
+     * @param sequence Sequence the reader already has
+     * @return Future completing with a newer snapshot, or with null when the long-poll timeout expires
+     */
+    public CompletableFuture<DataSnapshot> awaitAfter(long sequence) {
+        DataSnapshot current = snapshot;
+        if (current != null && current.getSequence() > sequence) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        CompletableFuture<DataSnapshot> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        // A snapshot published between the check and the registration would not have seen the waiter
+        current = snapshot;
+        if (current != null && current.getSequence() > sequence) {
+            waiter.complete(current);
+        }
+        waiter.completeOnTimeout(null, longPollTimeoutMs, TimeUnit.MILLISECONDS);
+        waiter.thenAccept(result -> {
+            if (result == null) {
+                waiters.remove(waiter);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Gets the number of long-polls waiting for the next snapshot
+     */
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+}
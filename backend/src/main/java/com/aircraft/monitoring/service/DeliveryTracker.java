@@ -0,0 +1,51 @@
+package com.aircraft.monitoring.service;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Counts the outstanding socket writes of one broadcast sample and records its
+ * end-to-end latency when the last one completes.
+ *
+ * The broadcaster holds one reference while queueing and releases it afterwards,
+ * so the count cannot reach zero before every session got the message. A sample
+ * whose messages were all dropped is not recorded.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class DeliveryTracker {
+
+    private static final AtomicIntegerFieldUpdater<DeliveryTracker> PENDING =
+            AtomicIntegerFieldUpdater.newUpdater(DeliveryTracker.class, "pending");
+
+    private final PipelineMetrics pipelineMetrics;
+    private final double sampleEpochMillis;
+    private volatile int pending = 1;
+    private volatile boolean written = false;
+
+    DeliveryTracker(PipelineMetrics pipelineMetrics, double sampleEpochMillis) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.sampleEpochMillis = sampleEpochMillis;
+    }
+
+    /**
+     * Adds a queued message
+     */
+    void retain() {
+        PENDING.incrementAndGet(this);
+    }
+
+    /**
+     * Completes a queued message, or the broadcaster's reference
+     *
+     * @param written Whether the message was written to the socket
+     */
+    void release(boolean written) {
+        if (written) {
+            this.written = true;
+        }
+        if (PENDING.decrementAndGet(this) == 0 && this.written) {
+            pipelineMetrics.recordEndToEnd(sampleEpochMillis);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.aircraft.monitoring.service;
+
+import java.math.BigInteger;
+
+/**
+ * Writes doubles as ASCII in the form of {@link Double#toString(double)}, without allocating.
+ *
+ * The digits are the shortest decimal that rounds back to the double, closest to
+ * it and with an even last digit on ties, found with the Ryu algorithm (Adams,
+ * PLDI 2018) on 128-bit multipliers. That is the choice {@link Double#toString(double)}
+ * specifies since Java 19. Magnitudes in [10<sup>-3</sup>, 10<sup>7</sup>) are
+ * written in plain notation, all others in computerized scientific notation, each
+ * with at least one fractional digit.
+ *
+ * The older algorithm of Java 17 and 18 prints more digits than needed for some
+ * doubles, e.g. -1.26793832509678736E17 instead of -1.2679383250967874E17, mostly
+ * but not only between 2<sup>54</sup> and 2<sup>85</sup>. On those runtimes every
+ * value is left to {@link StringBuilder#append(double)}, so the output always equals
+ * {@link Double#toString(double)} of the running JVM, which is what Jackson writes.
+ *
+ * Values whose shortest decimal has a single digit, zeros and non-finite values
+ * are left to {@link StringBuilder#append(double)}; they take its fast paths.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class DoubleFormatter {
+
+    /** Most bytes a double takes, e.g. -2.2250738585072014E-308 */
+    static final int MAX_LENGTH = 24;
+
+    /** Whether {@link Double#toString(double)} writes the shortest decimal (JDK-4511638, fixed in Java 19) */
+    static final boolean SHORTEST_TO_STRING = Runtime.version().feature() >= 19;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final int EXPONENT_BITS = 11;
+    private static final int EXPONENT_BIAS = 1023;
+
+    private static final int POW5_BITCOUNT = 125;
+    private static final int POW5_INV_BITCOUNT = 125;
+    private static final int POW5_TABLE_SIZE = 326;
+    private static final int POW5_INV_TABLE_SIZE = 342;
+
+    // 5^i and 2^k / 5^i + 1 scaled to 125 bits, as low and high 64 bits
+    private static final long[] POW5_SPLIT = new long[POW5_TABLE_SIZE * 2];
+    private static final long[] POW5_INV_SPLIT = new long[POW5_INV_TABLE_SIZE * 2];
+
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    private static final BigInteger LOW_64_BITS = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+        BigInteger five = BigInteger.valueOf(5);
+        for (int i = 0; i < POW5_INV_TABLE_SIZE; i++) {
+            BigInteger pow5 = five.pow(i);
+            int pow5Length = pow5.bitLength();
+            if (i < POW5_TABLE_SIZE) {
+                BigInteger split = pow5Length > POW5_BITCOUNT
+                        ? pow5.shiftRight(pow5Length - POW5_BITCOUNT)
+                        : pow5.shiftLeft(POW5_BITCOUNT - pow5Length);
+                POW5_SPLIT[2 * i] = split.and(LOW_64_BITS).longValue();
+                POW5_SPLIT[2 * i + 1] = split.shiftRight(64).longValue();
+            }
+            BigInteger inverse = BigInteger.ONE.shiftLeft(pow5Length - 1 + POW5_INV_BITCOUNT).divide(pow5).add(BigInteger.ONE);
+            POW5_INV_SPLIT[2 * i] = inverse.and(LOW_64_BITS).longValue();
+            POW5_INV_SPLIT[2 * i + 1] = inverse.shiftRight(64).longValue();
+        }
+    }
+
+    private DoubleFormatter() {
+    }
+
+    /**
+     * Writes a double, or returns -1 if it is one of the values left to the caller.
+     * Before Java 19 every value is left to the caller.
+     *
+     * @param buffer Receives the characters; needs {@link #MAX_LENGTH} bytes from offset
+     * @return The offset after the written characters, or -1 if nothing was written
+     */
+    static int format(double value, byte[] buffer, int offset) {
+        if (!SHORTEST_TO_STRING) {
+            return -1;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        long ieeeMantissa = bits & ((1L << MANTISSA_BITS) - 1);
+        int ieeeExponent = (int) ((bits >>> MANTISSA_BITS) & ((1 << EXPONENT_BITS) - 1));
+        if (ieeeExponent == (1 << EXPONENT_BITS) - 1 || (ieeeExponent == 0 && ieeeMantissa == 0)) {
+            return -1;
+        }
+
+        int e2;
+        long m2;
+        if (ieeeExponent == 0) {
+            e2 = 1 - EXPONENT_BIAS - MANTISSA_BITS - 2;
+            m2 = ieeeMantissa;
+        } else {
+            e2 = ieeeExponent - EXPONENT_BIAS - MANTISSA_BITS - 2;
+            m2 = ieeeMantissa | (1L << MANTISSA_BITS);
+        }
+        // The bounds round to the double if its mantissa is even
+        boolean acceptBounds = (m2 & 1) == 0;
+
+        // Step 2: the interval of values rounding to the double, times 4
+        long mv = 4 * m2;
+        int mmShift = ieeeMantissa != 0 || ieeeExponent <= 1 ? 1 : 0;
+
+        // Step 3: the interval in decimal, scaled by a power of ten
+        long vr;
+        long vp;
+        long vm;
+        int e10;
+        boolean vmIsTrailingZeros = false;
+        boolean vrIsTrailingZeros = false;
+        if (e2 >= 0) {
+            int q = log10Pow2(e2) - (e2 > 3 ? 1 : 0);
+            e10 = q;
+            int k = POW5_INV_BITCOUNT + pow5Bits(q) - 1;
+            int i = -e2 + q + k;
+            vr = mulShift(4 * m2, POW5_INV_SPLIT, q, i);
+            vp = mulShift(4 * m2 + 2, POW5_INV_SPLIT, q, i);
+            vm = mulShift(4 * m2 - 1 - mmShift, POW5_INV_SPLIT, q, i);
+            if (q <= 21) {
+                // Only one of mp, mv and mm can be a multiple of 5, if any
+                if (mv % 5 == 0) {
+                    vrIsTrailingZeros = pow5Factor(mv) >= q;
+                } else if (acceptBounds) {
+                    vmIsTrailingZeros = pow5Factor(mv - 1 - mmShift) >= q;
+                } else if (pow5Factor(mv + 2) >= q) {
+                    vp--;
+                }
+            }
+        } else {
+            int q = log10Pow5(-e2) - (-e2 > 1 ? 1 : 0);
+            e10 = q + e2;
+            int i = -e2 - q;
+            int k = pow5Bits(i) - POW5_BITCOUNT;
+            int j = q - k;
+            vr = mulShift(4 * m2, POW5_SPLIT, i, j);
+            vp = mulShift(4 * m2 + 2, POW5_SPLIT, i, j);
+            vm = mulShift(4 * m2 - 1 - mmShift, POW5_SPLIT, i, j);
+            if (q <= 1) {
+                // mv has at least q trailing zero bits, and so does mp
+                vrIsTrailingZeros = true;
+                if (acceptBounds) {
+                    vmIsTrailingZeros = mmShift == 1;
+                } else {
+                    vp--;
+                }
+            } else if (q < 63) {
+                vrIsTrailingZeros = (mv & ((1L << q) - 1)) == 0;
+            }
+        }
+
+        // Step 4: the shortest decimal in the interval
+        int removed = 0;
+        int lastRemovedDigit = 0;
+        long output;
+        if (vmIsTrailingZeros || vrIsTrailingZeros) {
+            while (vp / 10 > vm / 10) {
+                vmIsTrailingZeros &= vm % 10 == 0;
+                vrIsTrailingZeros &= lastRemovedDigit == 0;
+                lastRemovedDigit = (int) (vr % 10);
+                vr /= 10;
+                vp /= 10;
+                vm /= 10;
+                removed++;
+            }
+            if (vmIsTrailingZeros) {
+                while (vm % 10 == 0) {
+                    vrIsTrailingZeros &= lastRemovedDigit == 0;
+                    lastRemovedDigit = (int) (vr % 10);
+                    vr /= 10;
+                    vp /= 10;
+                    vm /= 10;
+                    removed++;
+                }
+            }
+            if (vrIsTrailingZeros && lastRemovedDigit == 5 && vr % 2 == 0) {
+                // Exactly halfway, round to even
+                lastRemovedDigit = 4;
+            }
+            output = vr + ((vr == vm && (!acceptBounds || !vmIsTrailingZeros)) || lastRemovedDigit >= 5 ? 1 : 0);
+        } else {
+            // Common case: nothing is exact, so only the last removed digit matters
+            boolean roundUp = false;
+            long vpDiv100 = vp / 100;
+            long vmDiv100 = vm / 100;
+            if (vpDiv100 > vmDiv100) {
+                long vrDiv100 = vr / 100;
+                roundUp = vr - 100 * vrDiv100 >= 50;
+                vr = vrDiv100;
+                vp = vpDiv100;
+                vm = vmDiv100;
+                removed += 2;
+            }
+            while (true) {
+                long vpDiv10 = vp / 10;
+                long vmDiv10 = vm / 10;
+                if (vpDiv10 <= vmDiv10) {
+                    break;
+                }
+                long vrDiv10 = vr / 10;
+                roundUp = vr - 10 * vrDiv10 >= 5;
+                vr = vrDiv10;
+                vp = vpDiv10;
+                vm = vmDiv10;
+                removed++;
+            }
+            output = vr + (vr == vm || roundUp ? 1 : 0);
+        }
+        int length = decimalLength(output);
+        if (length == 1) {
+            // Double.toString may prefer a closer two-digit decimal
+            return -1;
+        }
+
+        // Step 5: the characters
+        int exponent = e10 + removed + length - 1;
+        int position = offset;
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        if (exponent >= -3 && exponent < 7) {
+            if (exponent >= 0) {
+                int integerDigits = exponent + 1;
+                if (length <= integerDigits) {
+                    writeDigits(output, length, buffer, position);
+                    position += length;
+                    for (int i = length; i < integerDigits; i++) {
+                        buffer[position++] = '0';
+                    }
+                    buffer[position++] = '.';
+                    buffer[position++] = '0';
+                } else {
+                    // Digits with the point inserted after the integer part
+                    writeDigits(output, length, buffer, position + 1);
+                    System.arraycopy(buffer, position + 1, buffer, position, integerDigits);
+                    position += integerDigits;
+                    buffer[position] = '.';
+                    position += length - integerDigits + 1;
+                }
+            } else {
+                buffer[position++] = '0';
+                buffer[position++] = '.';
+                for (int i = -1; i > exponent; i--) {
+                    buffer[position++] = '0';
+                }
+                writeDigits(output, length, buffer, position);
+                position += length;
+            }
+        } else {
+            writeDigits(output, length, buffer, position + 1);
+            buffer[position] = buffer[position + 1];
+            buffer[position + 1] = '.';
+            position += length + 1;
+            buffer[position++] = 'E';
+            if (exponent < 0) {
+                buffer[position++] = '-';
+                exponent = -exponent;
+            }
+            if (exponent >= 100) {
+                buffer[position++] = (byte) ('0' + exponent / 100);
+                exponent %= 100;
+                buffer[position++] = (byte) ('0' + exponent / 10);
+            } else if (exponent >= 10) {
+                buffer[position++] = (byte) ('0' + exponent / 10);
+            }
+            buffer[position++] = (byte) ('0' + exponent % 10);
+        }
+        return position;
+    }
+
+    /**
+     * Writes the given number of digits, two at a time and in int arithmetic below 10^8
+     */
+    private static void writeDigits(long value, int length, byte[] buffer, int offset) {
+        int position = offset + length;
+        if (length > 8) {
+            long high = value / 100_000_000;
+            int low = (int) (value - high * 100_000_000);
+            for (int i = 0; i < 4; i++) {
+                int pair = low % 100;
+                low /= 100;
+                buffer[--position] = DIGIT_PAIRS[2 * pair + 1];
+                buffer[--position] = DIGIT_PAIRS[2 * pair];
+            }
+            value = high;
+        }
+        int rest = (int) value;
+        while (position - offset >= 2) {
+            int pair = rest % 100;
+            rest /= 100;
+            buffer[--position] = DIGIT_PAIRS[2 * pair + 1];
+            buffer[--position] = DIGIT_PAIRS[2 * pair];
+        }
+        if (position > offset) {
+            buffer[--position] = (byte) ('0' + rest);
+        }
+    }
+
+    /**
+     * Computes (m * table[index]) >> shift, with the table entry a 128-bit multiplier
+     */
+    private static long mulShift(long m, long[] table, int index, int shift) {
+        long factorLow = table[2 * index];
+        long factorHigh = table[2 * index + 1];
+        long highOfLow = unsignedMultiplyHigh(m, factorLow);
+        long lowOfHigh = m * factorHigh;
+        long highOfHigh = unsignedMultiplyHigh(m, factorHigh);
+        // (m * factorLow >> 64) + m * factorHigh, as a 128-bit sum
+        long sumLow = lowOfHigh + highOfLow;
+        long sumHigh = highOfHigh + (Long.compareUnsigned(sumLow, lowOfHigh) < 0 ? 1 : 0);
+        int distance = shift - 64;
+        return (sumHigh << (64 - distance)) | (sumLow >>> distance);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static int pow5Factor(long value) {
+        int count = 0;
+        while (value > 0 && value % 5 == 0) {
+            value /= 5;
+            count++;
+        }
+        return count;
+    }
+
+    /** Bit length of 5^e, for e in [0, 3528] */
+    private static int pow5Bits(int e) {
+        return ((e * 1217359) >>> 19) + 1;
+    }
+
+    /** floor(log10(2^e)), for e in [0, 1650] */
+    private static int log10Pow2(int e) {
+        return (e * 78913) >>> 18;
+    }
+
+    /** floor(log10(5^e)), for e in [0, 2620] */
+    private static int log10Pow5(int e) {
+        return (e * 732923) >>> 20;
+    }
+
+    /**
+     * Number of decimal digits of a value below 10^17, which most doubles need all of
+     */
+    private static int decimalLength(long value) {
+        int length = 17;
+        for (long limit = 10_000_000_000_000_000L; length > 1 && value < limit; limit /= 10) {
+            length--;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,397 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AircraftState;
+import com.aircraft.monitoring.model.TelemetryRecord;
+import org.springframework.stereotype.Service;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service responsible for simulating a whole fleet of aircraft for load testing.
+ *
+ * Every aircraft has its own {@link AircraftState} with a random stream split from
+ * a single seed, so a run is reproducible regardless of how the fleet is sharded.
+ * Each tick the fleet is divided into contiguous shards which are generated in
+ * parallel on a worker pool sized to the number of cores. With the
+ * {@link TelemetryPipeline} enabled the workers only generate into ring slots and
+ * the pipeline threads analyze and record; otherwise each worker runs all stages
+ * for its shard. Either way no {@link AircraftData} is allocated per sample, and
+ * the latest sample of every aircraft is kept as a {@link TelemetryRecord} in one
+ * shared buffer rather than as a bean per aircraft. Fleet aircraft get no
+ * in-memory history or rollups unless enabled, which would cost about 48 KB and
+ * 1.8 MB per aircraft.
+ *
+ * Fleet mode is disabled by default and enabled with {@code aircraft.fleet.enabled=true}.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class FleetSimulationService {
+
+    @Autowired
+    private DataSimulationService dataSimulationService;
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Autowired
+    private TelemetryHistoryService telemetryHistoryService;
+
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
+
+    @Autowired
+    private TelemetryJournalService telemetryJournalService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private TelemetryPipeline telemetryPipeline;
+
+    @Value("${aircraft.fleet.enabled:false}")
+    private boolean enabled;
+
+    @Value("${aircraft.fleet.size:10000}")
+    private int fleetSize;
+
+    @Value("${aircraft.fleet.seed:42}")
+    private long seed;
+
+    @Value("${aircraft.fleet.workers:0}")
+    private int workers;
+
+    @Value("${aircraft.fleet.aircraft-types:A320,B737,B787}")
+    private String[] aircraftTypes;
+
+    // Tail number of the demo aircraft, never given to a fleet aircraft
+    @Value("${aircraft.simulation.tail-number:N12345}")
+    private String demoTailNumber;
+
+    private static final int LATEST_LOCK_STRIPES = 64;
+
+    private AircraftState[] fleet = new AircraftState[0];
+    // Latest sample per aircraft as compact records, guarded by the lock stripe of the index
+    private ByteBuffer latestRecords = TelemetryRecord.allocate(0);
+    private final Object[] latestLocks = new Object[LATEST_LOCK_STRIPES];
+    private final ThreadLocal<TelemetryRecord> latestRecord = ThreadLocal.withInitial(TelemetryRecord::new);
+    private final Map<String, Integer> fleetIndex = new HashMap<>();
+    private ExecutorService workerPool;
+
+    // Tick statistics; generation is timed on its own because with the pipeline
+    // enabled the samples are completed after the tick returns
+    private volatile long ticks = 0;
+    private volatile long lastGenerateNanos = 0;
+    private volatile int lastTickAnomalies = 0;
+    private volatile double samplesPerSecond = 0.0;
+    private long lastTickStart = 0;
+    private long completedAtLastTick = 0;
+    // Samples analyzed and recorded, inline or by the pipeline
+    private final AtomicLong completedSamples = new AtomicLong();
+
+    // Anomalous samples completed by the pipeline since the last tick
+    private final AtomicInteger pipelineAnomalies = new AtomicInteger();
+    private final TelemetryPipeline.Sink pipelineSink = this::completeSample;
+
+    /**
+     * Creates the fleet state and the worker pool when fleet mode is enabled
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        fleet = new AircraftState[fleetSize];
+        latestRecords = TelemetryRecord.allocate(fleetSize);
+        for (int i = 0; i < latestLocks.length; i++) {
+            latestLocks[i] = new Object();
+        }
+        List<String> tailNumbers = tailNumbers(fleetSize, demoTailNumber);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet[i] = new AircraftState(tailNumbers.get(i), root.split());
+            fleet[i].setAircraftType(aircraftTypes[i % aircraftTypes.length].trim());
+            fleetIndex.put(fleet[i].getTailNumber(), i);
+        }
+
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "fleet-sim-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("Fleet simulation enabled: {} aircraft on {} workers (seed {})", fleetSize, workers, seed);
+    }
+
+    /**
+     * Stops the worker pool on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates one sample for every aircraft in the fleet, and analyzes it unless
+     * the pipeline does
+     */
+    @Scheduled(fixedRateString = "${aircraft.fleet.interval-ms:2000}")
+    public void generateFleetData() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime timestamp = LocalDateTime.now(ZoneOffset.UTC);
+
+        // Completed samples since the previous tick, so a backlog in the pipeline shows up
+        long completed = completedSamples.get();
+        if (lastTickStart != 0) {
+            samplesPerSecond = (completed - completedAtLastTick) * 1_000_000_000.0 / (start - lastTickStart);
+        }
+        lastTickStart = start;
+        completedAtLastTick = completed;
+
+        boolean pipelined = telemetryPipeline.isEnabled();
+        int shardSize = (fleet.length + workers - 1) / workers;
+        List<Callable<Integer>> shards = new ArrayList<>(workers);
+        for (int from = 0; from < fleet.length; from += shardSize) {
+            int shardFrom = from;
+            int shardTo = Math.min(fleet.length, from + shardSize);
+            shards.add(pipelined
+                    ? () -> submitShard(shardFrom, shardTo, timestamp)
+                    : () -> generateShard(shardFrom, shardTo, timestamp));
+        }
+
+        int anomalies = 0;
+        try {
+            for (Future<Integer> result : workerPool.invokeAll(shards)) {
+                anomalies += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.error("Error generating fleet data", e.getCause());
+        }
+
+        lastGenerateNanos = System.nanoTime() - start;
+        lastTickAnomalies = pipelined ? pipelineAnomalies.getAndSet(0) : anomalies;
+        ticks++;
+
+        log.debug("Generated fleet data for {} aircraft in {} ms", fleet.length, lastGenerateNanos / 1_000_000);
+    }
+
+    /**
+     * Generates and analyzes the aircraft in the range [from, to)
+     *
+     * @return Number of aircraft with at least one anomaly
+     */
+    private int generateShard(int from, int to, LocalDateTime timestamp) {
+        int anomalies = 0;
+        AircraftData data = new AircraftData();
+        for (int i = from; i < to; i++) {
+            AircraftState state = fleet[i];
+            long start = System.nanoTime();
+            data.setTailNumber(state.getTailNumber());
+            data.setTimestamp(timestamp);
+            dataSimulationService.generateSample(state, data);
+            pipelineMetrics.recordStage(PipelineMetrics.Stage.GENERATE, System.nanoTime() - start);
+            anomalyDetectionService.detectAnomalies(data);
+            telemetryHistoryService.record(data);
+            telemetryRollupService.record(data);
+            telemetryJournalService.append(data);
+            if (data.hasAnyAnomaly()) {
+                anomalies++;
+            }
+            storeLatest(i, data);
+            completedSamples.incrementAndGet();
+        }
+        return anomalies;
+    }
+
+    /**
+     * Generates the aircraft in the range [from, to) into pipeline slots
+     *
+     * @return Always 0; anomalies are counted as the pipeline completes the samples
+     */
+    private int submitShard(int from, int to, LocalDateTime timestamp) {
+        for (int i = from; i < to; i++) {
+            long sequence = telemetryPipeline.claim(i);
+            if (sequence < 0) {
+                continue;
+            }
+
+            TelemetryPipeline.Sink sink = null;
+            try {
+                AircraftState state = fleet[i];
+                long start = System.nanoTime();
+                AircraftData data = telemetryPipeline.get(i, sequence);
+                data.setTailNumber(state.getTailNumber());
+                data.setTimestamp(timestamp);
+                dataSimulationService.generateSample(state, data);
+                pipelineMetrics.recordStage(PipelineMetrics.Stage.GENERATE, System.nanoTime() - start);
+                sink = pipelineSink;
+            } finally {
+                telemetryPipeline.publish(i, sequence, sink);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Keeps an analyzed and recorded pipeline sample as the latest of its aircraft
+     */
+    private void completeSample(AircraftData data, int index) {
+        if (data.hasAnyAnomaly()) {
+            pipelineAnomalies.incrementAndGet();
+        }
+        storeLatest(index, data);
+        completedSamples.incrementAndGet();
+    }
+
+    private void storeLatest(int index, AircraftData data) {
+        TelemetryRecord record = latestRecord.get().wrap(latestRecords, index);
+        synchronized (latestLocks[index % LATEST_LOCK_STRIPES]) {
+            record.readFrom(data);
+        }
+    }
+
+    /**
+     * Gets the tail numbers of a fleet: N00001, N00002 and so on, skipping the
+     * tail number of the demo aircraft.
+     *
+     * @param fleetSize Number of aircraft in the fleet
+     * @param demoTailNumber Tail number of the demo aircraft
+     * @return The tail numbers in fleet order
+     */
+    public static List<String> tailNumbers(int fleetSize, String demoTailNumber) {
+        List<String> tailNumbers = new ArrayList<>(fleetSize);
+        int number = 0;
+        while (tailNumbers.size() < fleetSize) {
+            String tailNumber = tailNumberFor(++number);
+            if (!tailNumber.equals(demoTailNumber)) {
+                tailNumbers.add(tailNumber);
+            }
+        }
+        return tailNumbers;
+    }
+
+    /**
+     * Builds the tail number of the given fleet number, counted from 1
+     */
+    private static String tailNumberFor(int number) {
+        return String.format("N%05d", number);
+    }
+
+    /**
+     * Checks whether a tail number belongs to a fleet of the given size, without
+     * building the fleet's tail numbers. Services that treat fleet aircraft apart,
+     * like the history and rollups, use this to know them before the fleet is
+     * created, as the journal recovery replays their samples.
+     *
+     * @param tailNumber The tail number to check
+     * @param fleetSize Number of aircraft in the fleet
+     * @param demoTailNumber Tail number of the demo aircraft
+     * @return true if {@link #tailNumbers} of the fleet contains the tail number
+     */
+    public static boolean isFleetTailNumber(String tailNumber, int fleetSize, String demoTailNumber) {
+        int number = fleetNumberOf(tailNumber);
+        if (number < 1 || tailNumber.equals(demoTailNumber)) {
+            return false;
+        }
+        // A demo tail number within the fleet's range moves the last aircraft up by one
+        int demoNumber = fleetNumberOf(demoTailNumber);
+        int last = demoNumber >= 1 && demoNumber <= fleetSize ? fleetSize + 1 : fleetSize;
+        return number <= last;
+    }
+
+    /**
+     * Parses the fleet number of a tail number built by {@link #tailNumberFor}
+     *
+     * @return The fleet number, or -1 if the tail number is not of that form
+     */
+    private static int fleetNumberOf(String tailNumber) {
+        int digits = tailNumber != null ? tailNumber.length() - 1 : 0;
+        if (digits < 5 || digits > 9 || tailNumber.charAt(0) != 'N' || (digits > 5 && tailNumber.charAt(1) == '0')) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = 1; i <= digits; i++) {
+            char c = tailNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Gets the latest data of a fleet aircraft
+     *
+     * @param tailNumber The aircraft tail number
+     * @return Latest aircraft data, or null if unknown or not generated yet
+     */
+    public AircraftData getLatestData(String tailNumber) {
+        Integer index = fleetIndex.get(tailNumber);
+        if (index == null) {
+            return null;
+        }
+        TelemetryRecord record = latestRecord.get().wrap(latestRecords, index);
+        synchronized (latestLocks[index % LATEST_LOCK_STRIPES]) {
+            return record.hasTimestamp() ? record.writeTo(new AircraftData()) : null;
+        }
+    }
+
+    /**
+     * Gets fleet simulation statistics
+     *
+     * @return Fleet size, worker count, generation time of the last tick and the
+     *         rate of completed samples between the last two ticks
+     */
+    public Map<String, Object> getFleetStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("fleetSize", fleet.length);
+        status.put("workers", workers);
+        status.put("ticks", ticks);
+        status.put("lastGenerateMillis", lastGenerateNanos / 1_000_000.0);
+        status.put("lastTickAnomalies", lastTickAnomalies);
+        status.put("generatedPerSecond",
+                lastGenerateNanos > 0 ? fleet.length * 1_000_000_000.0 / lastGenerateNanos : 0.0);
+        status.put("completedSamples", completedSamples.get());
+        status.put("samplesPerSecond", samplesPerSecond);
+        return status;
+    }
+}
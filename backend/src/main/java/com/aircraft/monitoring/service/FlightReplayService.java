@@ -0,0 +1,338 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AircraftState;
+import com.aircraft.monitoring.model.FlightPhase;
+import com.aircraft.monitoring.model.FlightScript;
+import com.aircraft.monitoring.model.TelemetryTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service running flights in virtual time, as fast as the CPU allows or at N times
+ * real time.
+ *
+ * A run either follows a {@link FlightScript} of climb, cruise and descent phases
+ * with injected anomalies, or replays the journaled samples of one aircraft. Both
+ * go through the same sample generator and anomaly detection as the live system,
+ * driven by a {@link SimulationClock} instead of the 2-second schedule, so a
+ * ten-hour flight is analyzed in well under a second. Samples can optionally be
+ * sent to the WebSocket clients subscribed to replays, which is mostly useful at a
+ * fixed speed.
+ *
+ * Every run scores its samples with its own detector baselines, so the same script
+ * always gives the same result and the live aircraft are not affected. Replayed
+ * samples are neither journaled, added to the history nor evaluated for alerts.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class FlightReplayService {
+
+    private static final Set<String> INJECTABLE_SUBSYSTEMS = Set.of("engine", "fuel", "hydraulic");
+
+    @Autowired
+    private DataSimulationService dataSimulationService;
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Autowired
+    private TelemetryJournalService telemetryJournalService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Value("${aircraft.replay.threads:2}")
+    private int threads;
+
+    // Finished runs kept for GET /api/aircraft/replay
+    @Value("${aircraft.replay.retained-runs:20}")
+    private int retainedRuns;
+
+    // Guarded by itself, in start order
+    private final Map<Long, ReplayRun> runs = new LinkedHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private ExecutorService executor;
+
+    /**
+     * Creates the replay threads
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "replay-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Cancels running replays on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (runs) {
+            runs.values().forEach(ReplayRun::cancel);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a scripted flight
+     *
+     * @param script Phases, anomalies and sampling of the flight
+     * @param speed Virtual time per wall-clock time, 0 for as fast as possible
+     * @param broadcast Whether samples are sent to WebSocket clients subscribed to replays
+     * @return Status of the started run
+     * @throws IllegalArgumentException If the script has no phases or an unknown anomaly subsystem
+     */
+    public Map<String, Object> startScript(FlightScript script, double speed, boolean broadcast) {
+        if (script.getPhases().isEmpty() || script.getSampleIntervalMs() <= 0) {
+            throw new IllegalArgumentException("Script needs at least one phase and a positive sample interval");
+        }
+        for (FlightScript.Leg leg : script.getPhases()) {
+            if (leg.getPhase() == null || leg.getMinutes() <= 0) {
+                throw new IllegalArgumentException("Every phase needs a phase name and a positive duration");
+            }
+        }
+        for (FlightScript.Injection injection : script.getAnomalies()) {
+            if (!INJECTABLE_SUBSYSTEMS.contains(injection.getSubsystem())) {
+                throw new IllegalArgumentException("Unknown anomaly subsystem: " + injection.getSubsystem()
+                        + ", expected one of " + INJECTABLE_SUBSYSTEMS);
+            }
+        }
+
+        ReplayRun run = register("script", script.getTailNumber(), speed);
+        executor.execute(() -> execute(run, () -> runScript(run, script, speed, broadcast)));
+        return run.getStatus();
+    }
+
+    /**
+     * Starts a replay of the journaled samples of one aircraft
+     *
+     * @param tailNumber The aircraft tail number
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param speed Virtual time per wall-clock time, 0 for as fast as possible
+     * @param broadcast Whether samples are sent to WebSocket clients subscribed to replays
+     * @return Status of the started run
+     */
+    public Map<String, Object> startJournal(String tailNumber, LocalDateTime from, LocalDateTime to,
+                                            double speed, boolean broadcast) {
+        ReplayRun run = register("journal", tailNumber, speed);
+        executor.execute(() -> execute(run, () -> runJournal(run, tailNumber, from, to, speed, broadcast)));
+        return run.getStatus();
+    }
+
+    /**
+     * Gets the status of a run
+     *
+     * @return The status, or null if the run is unknown
+     */
+    public Map<String, Object> getRunStatus(long id) {
+        ReplayRun run;
+        synchronized (runs) {
+            run = runs.get(id);
+        }
+        return run != null ? run.getStatus() : null;
+    }
+
+    /**
+     * Gets the status of the running and the most recent finished runs
+     */
+    public List<Map<String, Object>> getRuns() {
+        List<ReplayRun> snapshot;
+        synchronized (runs) {
+            snapshot = new ArrayList<>(runs.values());
+        }
+        List<Map<String, Object>> statuses = new ArrayList<>(snapshot.size());
+        for (ReplayRun run : snapshot) {
+            statuses.add(run.getStatus());
+        }
+        return statuses;
+    }
+
+    /**
+     * Stops a run before its next event
+     *
+     * @return The status, or null if the run is unknown
+     */
+    public Map<String, Object> cancel(long id) {
+        ReplayRun run;
+        synchronized (runs) {
+            run = runs.get(id);
+        }
+        if (run == null) {
+            return null;
+        }
+        run.cancel();
+        return run.getStatus();
+    }
+
+    private ReplayRun register(String source, String tailNumber, double speed) {
+        ReplayRun run = new ReplayRun(nextId.incrementAndGet(), source, tailNumber, speed);
+        synchronized (runs) {
+            runs.put(run.getId(), run);
+            int finished = 0;
+            for (ReplayRun existing : runs.values()) {
+                if (existing.isFinished()) {
+                    finished++;
+                }
+            }
+            // Drop the oldest finished runs beyond the retained number
+            for (Iterator<ReplayRun> it = runs.values().iterator(); it.hasNext() && finished > retainedRuns; ) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                    finished--;
+                }
+            }
+        }
+        log.info("Replay {} started: {} {} at speed {}", run.getId(), source, tailNumber, speed > 0 ? speed : "max");
+        return run;
+    }
+
+    /**
+     * Runs a replay on the calling thread and records how it ended
+     */
+    private void execute(ReplayRun run, ReplayBody body) {
+        try {
+            body.run();
+            run.finish(ReplayRun.State.COMPLETED, null);
+            log.info("Replay {} completed: {}", run.getId(), run.getStatus());
+        } catch (CancellationException e) {
+            run.finish(ReplayRun.State.CANCELLED, null);
+            log.info("Replay {} cancelled", run.getId());
+        } catch (Exception e) {
+            run.finish(ReplayRun.State.FAILED, e.getMessage());
+            log.error("Replay {} failed", run.getId(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReplayBody {
+        void run() throws IOException;
+    }
+
+    /**
+     * Schedules the phase changes, anomaly injections and sample ticks of a script
+     * on a new clock and runs them
+     */
+    private void runScript(ReplayRun run, FlightScript script, double speed, boolean broadcast) {
+        LocalDateTime start = script.getStart() != null ? script.getStart() : LocalDateTime.now(ZoneOffset.UTC);
+        long startMillis = TelemetryTime.toEpochMillis(start);
+        long endMillis = startMillis + (long) (script.getTotalMinutes() * 60_000);
+        long interval = script.getSampleIntervalMs();
+
+        AircraftState state = new AircraftState(script.getTailNumber(), new SplittableRandom(script.getSeed()));
+        state.setAircraftType(script.getAircraftType());
+        state.setSampleIntervalSeconds(interval / 1000.0);
+        state.setTargetAltitude(script.getCruiseAltitude());
+        // The generator burns 0.25% per sample on average
+        state.setFuelBurnFactor(script.getFuelBurnPerHour() / (0.25 * 3_600_000.0 / interval));
+        if (script.getPhases().get(0).getPhase() == FlightPhase.CLIMB) {
+            state.setCurrentAltitude(0);
+            state.setCurrentAirspeed(250);
+        }
+        AnomalyDetectionService.DetectionRun detection = anomalyDetectionService.newRun("replay-" + run.getId());
+
+        SimulationClock clock = new SimulationClock(startMillis, speed, run::isCancelled);
+
+        // Phase changes and injections are scheduled first, so they apply to a tick at the same time
+        long phaseStart = startMillis;
+        for (FlightScript.Leg leg : script.getPhases()) {
+            FlightPhase phase = leg.getPhase();
+            clock.schedule(phaseStart, () -> {
+                state.setFlightPhase(phase);
+                if (phase == FlightPhase.CLIMB) {
+                    state.setTargetAltitude(script.getCruiseAltitude());
+                } else if (phase == FlightPhase.DESCENT) {
+                    state.setTargetAltitude(0);
+                }
+                run.setPhase(phase);
+            });
+            phaseStart += (long) (leg.getMinutes() * 60_000);
+        }
+        for (FlightScript.Injection injection : script.getAnomalies()) {
+            clock.schedule(startMillis + (long) (injection.getAtMinute() * 60_000),
+                    () -> inject(state, injection.getSubsystem()));
+        }
+
+        AircraftData data = new AircraftData();
+        clock.schedule(startMillis, new Runnable() {
+            @Override
+            public void run() {
+                data.setTailNumber(state.getTailNumber());
+                data.setTimestamp(TelemetryTime.fromEpochMillis(clock.now()));
+                dataSimulationService.generateSample(state, data);
+                analyze(run, detection, data, clock.now(), broadcast);
+                if (clock.now() + interval < endMillis) {
+                    clock.scheduleAfter(interval, this);
+                }
+            }
+        });
+        clock.run();
+    }
+
+    /**
+     * Feeds the journaled samples of an aircraft through a clock starting at the first sample
+     */
+    private void runJournal(ReplayRun run, String tailNumber, LocalDateTime from, LocalDateTime to,
+                            double speed, boolean broadcast) throws IOException {
+        SimulationClock[] clock = new SimulationClock[1];
+        AnomalyDetectionService.DetectionRun detection = anomalyDetectionService.newRun("replay-" + run.getId());
+        telemetryJournalService.scan(tailNumber, from, to, data -> {
+            long millis = TelemetryTime.toEpochMillis(data.getTimestamp());
+            if (clock[0] == null) {
+                clock[0] = new SimulationClock(millis, speed, run::isCancelled);
+            }
+            clock[0].advanceTo(millis);
+            analyze(run, detection, data, millis, broadcast);
+        });
+    }
+
+    private void analyze(ReplayRun run, AnomalyDetectionService.DetectionRun detection, AircraftData data,
+                         long virtualMillis, boolean broadcast) {
+        detection.detectAnomalies(data);
+        if (broadcast) {
+            webSocketService.broadcastReplayData(data);
+        }
+        run.record(data, virtualMillis);
+    }
+
+    /**
+     * Triggers an anomaly like the simulation endpoints of the live aircraft
+     */
+    private static void inject(AircraftState state, String subsystem) {
+        switch (subsystem) {
+            case "engine" -> state.setSimulateEngineAnomaly(true);
+            case "fuel" -> state.setSimulateFuelAnomaly(true);
+            case "hydraulic" -> state.setSimulateHydraulicAnomaly(true);
+            default -> throw new IllegalArgumentException("Unknown anomaly subsystem: " + subsystem);
+        }
+        state.setAnomalyCounter(0);
+    }
+}
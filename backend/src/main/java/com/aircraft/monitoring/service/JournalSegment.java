@@ -0,0 +1,333 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of the telemetry journal.
+ *
+ * A segment holds fixed-width binary records laid out as:
+ * <pre>
+ *   offset  size  field
+ *   0       4     marker (MAGIC once the record is complete)
+ *   4       2     aircraft type id, see {@link AircraftTypeTable}
+ *   6       2     packed anomaly flags
+ *   8       8     timestamp, milliseconds since the epoch (UTC)
+ *   16      16    tail number, US-ASCII, zero padded; longer ones are rejected
+ *   32      160   sensor values, one double per {@link Sensor} in ordinal order
+ * </pre>
+ * The file is pre-sized, so unwritten space reads as zero and the first record
+ * without the marker is the end of the segment. The marker is written last.
+ *
+ * Records are in append order, which is not strictly time order: pipeline
+ * partitions and fleet workers append concurrently. A segment therefore finds its
+ * {@link TimeRange} with one pass over the timestamps, on first use and then as
+ * records are appended; only segments whose records are in time order are
+ * searched by timestamp.
+ *
+ * Not thread-safe for writes; the journal serializes appends.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class JournalSegment implements AutoCloseable {
+
+    public static final int MAGIC = 0x41484D53; // "AHMS"
+    public static final int TAIL_NUMBER_BYTES = 16;
+    public static final int RECORD_SIZE = 32 + Sensor.COUNT * Double.BYTES;
+
+    private static final int AIRCRAFT_TYPE_OFFSET = 4;
+    private static final int FLAGS_OFFSET = 6;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int TAIL_NUMBER_OFFSET = 16;
+    private static final int VALUES_OFFSET = 32;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int recordCount;
+
+    // Time range of the records, once indexed
+    private boolean timesIndexed;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private boolean ordered = true;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity() / RECORD_SIZE;
+        this.recordCount = findRecordCount();
+    }
+
+    /**
+     * Maps a segment file for appending, creating and pre-sizing it if needed
+     */
+    public static JournalSegment openForWrite(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), (long) capacity * RECORD_SIZE);
+        return new JournalSegment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Maps an existing segment file for reading
+     */
+    public static JournalSegment openForRead(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new JournalSegment(path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+     * Checks whether a tail number fits a record unchanged: null, or at most
+     * {@link #TAIL_NUMBER_BYTES} US-ASCII characters other than NUL
+     */
+    public static boolean fitsTailNumber(String tailNumber) {
+        if (tailNumber == null) {
+            return true;
+        }
+        if (tailNumber.length() > TAIL_NUMBER_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < tailNumber.length(); i++) {
+            char c = tailNumber.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends a record for the given aircraft data
+     *
+     * @param aircraftTypeId Id of the aircraft type in the journal's {@link AircraftTypeTable}
+     * @return false if the segment is full
+     * @throws IllegalArgumentException if the tail number does not fit a record, see {@link #fitsTailNumber}
+     */
+    public boolean append(AircraftData data, int aircraftTypeId) {
+        if (!fitsTailNumber(data.getTailNumber())) {
+            throw new IllegalArgumentException("Tail number does not fit a journal record: " + data.getTailNumber());
+        }
+        if (recordCount >= capacity) {
+            return false;
+        }
+        int offset = recordCount * RECORD_SIZE;
+        long timestamp = TelemetryTime.toEpochMillis(data.getTimestamp());
+        buffer.putShort(offset + AIRCRAFT_TYPE_OFFSET, (short) aircraftTypeId);
+        buffer.putShort(offset + FLAGS_OFFSET, (short) AnomalyFlags.of(data));
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        writeTailNumber(offset, data.getTailNumber());
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            buffer.putDouble(offset + VALUES_OFFSET + i * Double.BYTES, Sensor.VALUES[i].read(data));
+        }
+        buffer.putInt(offset, MAGIC);
+        recordCount++;
+        if (timesIndexed) {
+            indexTime(timestamp);
+        }
+        return true;
+    }
+
+    /**
+     * Flushes written records to the storage device
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Gets the time range of the records, indexing the timestamps on first use
+     */
+    public TimeRange getTimeRange() {
+        if (!timesIndexed) {
+            for (int i = 0; i < recordCount; i++) {
+                indexTime(getTimestamp(i));
+            }
+            timesIndexed = true;
+        }
+        return new TimeRange(minTimestamp, maxTimestamp, ordered);
+    }
+
+    private void indexTime(long timestamp) {
+        ordered &= timestamp >= maxTimestamp;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+
+    /**
+     * Finds the index of the first record with a timestamp at or after the given time
+     * by binary search. Only valid when the {@link TimeRange} of the segment is ordered.
+     */
+    public int findFirstAtOrAfter(long epochMillis) {
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getTimestamp(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public long getTimestamp(int index) {
+        return buffer.getLong(index * RECORD_SIZE + TIMESTAMP_OFFSET);
+    }
+
+    public int getAnomalyFlags(int index) {
+        return buffer.getShort(index * RECORD_SIZE + FLAGS_OFFSET) & 0xFFFF;
+    }
+
+    public int getAircraftTypeId(int index) {
+        return buffer.getShort(index * RECORD_SIZE + AIRCRAFT_TYPE_OFFSET) & 0xFFFF;
+    }
+
+    /**
+     * Reads the sensor values of a record into the given array, indexed by {@link Sensor#ordinal()}
+     */
+    public void readValues(int index, double[] values) {
+        int offset = index * RECORD_SIZE + VALUES_OFFSET;
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            values[i] = buffer.getDouble(offset + i * Double.BYTES);
+        }
+    }
+
+    public String getTailNumber(int index) {
+        int offset = index * RECORD_SIZE + TAIL_NUMBER_OFFSET;
+        byte[] bytes = new byte[TAIL_NUMBER_BYTES];
+        int length = 0;
+        while (length < TAIL_NUMBER_BYTES && buffer.get(offset + length) != 0) {
+            bytes[length] = buffer.get(offset + length);
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Checks the tail number of a record without decoding it
+     */
+    public boolean hasTailNumber(int index, String tailNumber) {
+        int length = tailNumber.length();
+        if (length > TAIL_NUMBER_BYTES) {
+            // Never appended
+            return false;
+        }
+        int offset = index * RECORD_SIZE + TAIL_NUMBER_OFFSET;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != (byte) tailNumber.charAt(i)) {
+                return false;
+            }
+        }
+        return length == TAIL_NUMBER_BYTES || buffer.get(offset + length) == 0;
+    }
+
+    /**
+     * Decodes a record into the given aircraft data object
+     *
+     * @param aircraftTypes The journal's aircraft types, resolving the type id
+     */
+    public AircraftData readInto(int index, AircraftData data, AircraftTypeTable aircraftTypes) {
+        int offset = index * RECORD_SIZE + VALUES_OFFSET;
+        data.setTailNumber(getTailNumber(index));
+        data.setAircraftType(aircraftTypes.nameOf(getAircraftTypeId(index)));
+        data.setTimestamp(TelemetryTime.fromEpochMillis(getTimestamp(index)));
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            Sensor.VALUES[i].write(data, buffer.getDouble(offset + i * Double.BYTES));
+        }
+        AnomalyFlags.apply(getAnomalyFlags(index), data);
+        return data;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public boolean isFull() {
+        return recordCount >= capacity;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeTailNumber(int offset, String tailNumber) {
+        int base = offset + TAIL_NUMBER_OFFSET;
+        int length = tailNumber != null ? tailNumber.length() : 0;
+        for (int i = 0; i < TAIL_NUMBER_BYTES; i++) {
+            buffer.put(base + i, i < length ? (byte) tailNumber.charAt(i) : 0);
+        }
+    }
+
+    /**
+     * Records are written front to back with the marker last, so the complete
+     * records form a prefix of the file and the end can be found by binary search.
+     */
+    private int findRecordCount() {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(mid * RECORD_SIZE) == MAGIC) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Oldest and newest timestamp of a segment's records, and whether the records
+     * are in time order
+     */
+    public static final class TimeRange {
+
+        private final long minMillis;
+        private final long maxMillis;
+        private final boolean ordered;
+
+        private TimeRange(long minMillis, long maxMillis, boolean ordered) {
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+            this.ordered = ordered;
+        }
+
+        /**
+         * Checks whether any record may fall within the given range, both ends inclusive
+         */
+        public boolean overlaps(long fromMillis, long toMillis) {
+            return minMillis <= toMillis && maxMillis >= fromMillis;
+        }
+
+        public long getMinMillis() {
+            return minMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public boolean isOrdered() {
+            return ordered;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AnomalyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes anomaly events to the application log.
+ *
+ * Enabled by default; disable with {@code aircraft.events.log-enabled=false}
+ * when events are consumed through the API only. Events of recorded data, like
+ * CSV ingests and replays, are logged at debug level so they do not mix with
+ * the live anomaly log.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "aircraft.events.log-enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingAnomalyEventSink implements AnomalyEventSink {
+
+    @Override
+    public void onEvent(AnomalyEvent event) {
+        if (event.getSource() != null && !AnomalyEvent.LIVE.equals(event.getSource())) {
+            log.debug("Anomaly {} on {} at {} in {}: {} = {} (limit {}, {} suppressed)",
+                    event.getRule(), event.getTailNumber(), event.getTimestamp(), event.getSource(),
+                    event.getSensor(), event.getValue(), event.getLimit(), event.getSuppressed());
+            return;
+        }
+        log.warn("Anomaly {} on {} at {}: {} = {} (limit {}, {} suppressed)",
+                event.getRule(), event.getTailNumber(), event.getTimestamp(),
+                event.getSensor(), event.getValue(), event.getLimit(), event.getSuppressed());
+    }
+}
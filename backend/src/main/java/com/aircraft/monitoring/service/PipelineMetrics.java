@@ -0,0 +1,209 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AnomalyFlags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the telemetry pipeline, exported through the
+ * actuator metrics and Prometheus endpoints.
+ *
+ * All meters are registered up front, so recording is a histogram update with
+ * no lookup or allocation: callers measure with {@link System#nanoTime()} and
+ * pass the elapsed nanoseconds. Timers publish Prometheus histogram buckets and
+ * p50/p99/p999 estimates.
+ *
+ * <ul>
+ * <li>{@code aircraft.pipeline.stage} - latency per stage: generate, detect, record, serialize, fanout</li>
+ * <li>{@code aircraft.pipeline.processed} - samples through each stage of the {@link TelemetryPipeline},
+ * next to {@code aircraft.pipeline.dropped} and {@code aircraft.pipeline.backlog}</li>
+ * <li>{@code aircraft.pipeline.end.to.end} - sensor timestamp to the last socket write of a sample</li>
+ * <li>{@code aircraft.websocket.send} - time from queueing to the completed write, overall and per session</li>
+ * <li>{@code aircraft.websocket.queue.depth} - queued messages per session</li>
+ * <li>{@code aircraft.anomalies} - live samples with an anomaly per subsystem, next to {@code aircraft.samples.analyzed}</li>
+ * </ul>
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class PipelineMetrics {
+
+    /**
+     * Stages of one telemetry tick
+     */
+    public enum Stage {
+        GENERATE, DETECT, RECORD, SERIALIZE, FANOUT
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter[] anomalyCounters = new Counter[AnomalyFlags.SUBSYSTEMS.length];
+    private Timer endToEndTimer;
+    private Timer sendTimer;
+    private Counter analyzedCounter;
+
+    /**
+     * Registers the pipeline meters
+     */
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = latencyTimer("aircraft.pipeline.stage")
+                    .description("Latency of one pipeline stage per sample")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        endToEndTimer = latencyTimer("aircraft.pipeline.end.to.end")
+                .description("Time from the sensor timestamp to the last socket write of a sample")
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        sendTimer = latencyTimer("aircraft.websocket.send")
+                .description("Time from queueing to the completed write of a WebSocket message")
+                .register(meterRegistry);
+
+        for (int i = 0; i < AnomalyFlags.SUBSYSTEMS.length; i++) {
+            anomalyCounters[i] = Counter.builder("aircraft.anomalies")
+                    .description("Analyzed live samples with an anomaly in the subsystem")
+                    .tag("subsystem", AnomalyFlags.SUBSYSTEMS[i])
+                    .register(meterRegistry);
+        }
+        analyzedCounter = Counter.builder("aircraft.samples.analyzed")
+                .description("Live samples analyzed by anomaly detection")
+                .register(meterRegistry);
+    }
+
+    private static Timer.Builder latencyTimer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Records the duration of a pipeline stage
+     *
+     * @param stage The stage
+     * @param nanos Elapsed nanoseconds
+     */
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time since a sample was taken
+     *
+     * @param sampleEpochMillis The sample timestamp as epoch milliseconds; timestamps are UTC,
+     *                          see {@link com.aircraft.monitoring.model.TelemetryTime}
+     */
+    public void recordEndToEnd(double sampleEpochMillis) {
+        long latencyMicros = (long) ((System.currentTimeMillis() - sampleEpochMillis) * 1000);
+        if (latencyMicros >= 0) {
+            endToEndTimer.record(latencyMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Records the anomaly flags of one analyzed live sample
+     */
+    public void recordAnomalies(int flags) {
+        analyzedCounter.increment();
+        for (int i = 0; flags != 0; i++, flags >>>= 1) {
+            if ((flags & 1) != 0) {
+                anomalyCounters[i].increment();
+            }
+        }
+    }
+
+    /**
+     * Registers the throughput meters of the staged pipeline
+     */
+    public void registerPipeline(TelemetryPipeline pipeline) {
+        FunctionCounter.builder("aircraft.pipeline.processed", pipeline, TelemetryPipeline::getPublishedCount)
+                .description("Samples passed through a pipeline stage")
+                .tag("stage", "publish")
+                .register(meterRegistry);
+        for (int i = 0; i < pipeline.getPartitions(); i++) {
+            int partition = i;
+            FunctionCounter.builder("aircraft.pipeline.processed", pipeline, p -> p.getProcessedCount(partition))
+                    .description("Samples passed through a pipeline stage")
+                    .tag("stage", "partition-" + (partition + 1))
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("aircraft.pipeline.processed", pipeline, TelemetryPipeline::getRecordedCount)
+                .description("Samples passed through a pipeline stage")
+                .tag("stage", "record")
+                .register(meterRegistry);
+        FunctionCounter.builder("aircraft.pipeline.dropped", pipeline, TelemetryPipeline::getDroppedCount)
+                .description("Samples dropped because the pipeline ring was full")
+                .register(meterRegistry);
+        Gauge.builder("aircraft.pipeline.backlog", pipeline, TelemetryPipeline::getBacklog)
+                .description("Claimed pipeline slots not yet recorded")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the meters of a connected WebSocket client
+     *
+     * @return The client's send latency timer, also feeding the overall one
+     */
+    public SessionMeters registerSession(ClientSession client) {
+        Timer sessionSendTimer = Timer.builder("aircraft.websocket.session.send")
+                .description("Time from queueing to the completed write, per session")
+                .tag("session", client.getId())
+                .register(meterRegistry);
+        Gauge queueDepth = Gauge.builder("aircraft.websocket.queue.depth", client, ClientSession::getQueued)
+                .description("Messages queued for the session")
+                .tag("session", client.getId())
+                .register(meterRegistry);
+        FunctionCounter dropped = FunctionCounter.builder("aircraft.websocket.dropped", client, ClientSession::getDropped)
+                .description("Messages dropped by the overflow policy")
+                .tag("session", client.getId())
+                .register(meterRegistry);
+        return new SessionMeters(sessionSendTimer, List.of(sessionSendTimer, queueDepth, dropped));
+    }
+
+    /**
+     * Removes the meters of a disconnected client
+     */
+    public void removeSession(SessionMeters meters) {
+        meters.meters.forEach(meterRegistry::remove);
+    }
+
+    /**
+     * Meters of one WebSocket client
+     */
+    public final class SessionMeters {
+
+        private final Timer sessionSendTimer;
+        private final List<Meter> meters;
+
+        private SessionMeters(Timer sessionSendTimer, List<Meter> meters) {
+            this.sessionSendTimer = sessionSendTimer;
+            this.meters = meters;
+        }
+
+        /**
+         * Records the time from queueing to the completed write of one message
+         */
+        public void recordSend(long nanos) {
+            sessionSendTimer.record(nanos, TimeUnit.NANOSECONDS);
+            sendTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
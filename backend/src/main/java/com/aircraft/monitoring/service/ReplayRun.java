@@ -0,0 +1,142 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.FlightPhase;
+import com.aircraft.monitoring.model.TelemetryTime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Progress and results of one replay in virtual time.
+ *
+ * Updated by the replay thread only; the status can be read at any time.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class ReplayRun {
+
+    /**
+     * Lifecycle of a run
+     */
+    enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final long id;
+    private final String source;
+    private final String tailNumber;
+    private final double speed;
+    private final long wallStartNanos = System.nanoTime();
+
+    private volatile State state = State.RUNNING;
+    private volatile boolean cancelled = false;
+    private volatile String error;
+    private volatile FlightPhase phase;
+    private volatile long virtualStartMillis = -1;
+    private volatile long virtualNowMillis = -1;
+    private volatile long wallEndNanos = 0;
+
+    private volatile long samples = 0;
+    private volatile long anomalousSamples = 0;
+    private volatile long outlierSamples = 0;
+    private final AtomicLongArray subsystemCounts = new AtomicLongArray(AnomalyFlags.SUBSYSTEMS.length);
+
+    ReplayRun(long id, String source, String tailNumber, double speed) {
+        this.id = id;
+        this.source = source;
+        this.tailNumber = tailNumber;
+        this.speed = speed;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    /**
+     * Asks the run to stop before its next event
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    void setPhase(FlightPhase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Counts an analyzed sample and moves the virtual time to its timestamp
+     */
+    void record(AircraftData data, long virtualMillis) {
+        if (virtualStartMillis < 0) {
+            virtualStartMillis = virtualMillis;
+        }
+        virtualNowMillis = virtualMillis;
+        samples++;
+        if (data.isStatisticalAnomaly()) {
+            outlierSamples++;
+        }
+        int flags = AnomalyFlags.of(data);
+        if (flags != 0) {
+            anomalousSamples++;
+            for (int i = 0; flags != 0; i++, flags >>>= 1) {
+                if ((flags & 1) != 0) {
+                    subsystemCounts.incrementAndGet(i);
+                }
+            }
+        }
+    }
+
+    void finish(State state, String error) {
+        this.error = error;
+        this.wallEndNanos = System.nanoTime();
+        this.state = state;
+    }
+
+    /**
+     * Describes the run: virtual and wall-clock time, speed-up and anomaly counts
+     */
+    Map<String, Object> getStatus() {
+        long wallNanos = (wallEndNanos != 0 ? wallEndNanos : System.nanoTime()) - wallStartNanos;
+        long virtualMillis = virtualStartMillis >= 0 ? virtualNowMillis - virtualStartMillis : 0;
+
+        Map<String, Long> anomaliesBySubsystem = new LinkedHashMap<>();
+        for (int i = 0; i < AnomalyFlags.SUBSYSTEMS.length; i++) {
+            anomaliesBySubsystem.put(AnomalyFlags.SUBSYSTEMS[i], subsystemCounts.get(i));
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("source", source);
+        status.put("tailNumber", tailNumber);
+        status.put("state", state.name());
+        status.put("speed", speed > 0 ? speed : "max");
+        if (phase != null) {
+            status.put("phase", phase.name());
+        }
+        status.put("virtualStart", virtualStartMillis >= 0 ? TelemetryTime.fromEpochMillis(virtualStartMillis) : null);
+        status.put("virtualTime", virtualNowMillis >= 0 ? TelemetryTime.fromEpochMillis(virtualNowMillis) : null);
+        status.put("virtualMinutes", virtualMillis / 60_000.0);
+        status.put("wallMillis", wallNanos / 1_000_000.0);
+        status.put("speedup", wallNanos > 0 ? virtualMillis * 1_000_000.0 / wallNanos : 0.0);
+        status.put("samples", samples);
+        status.put("anomalousSamples", anomalousSamples);
+        status.put("anomaliesBySubsystem", anomaliesBySubsystem);
+        status.put("outlierSamples", outlierSamples);
+        if (error != null) {
+            status.put("error", error);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,60 @@
+package com.aircraft.monitoring.service;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors that write to client connections.
+ *
+ * By default a small pool of platform threads drains the per-client queues. With
+ * {@code spring.threads.virtual.enabled=true} on Java 21 or later every drain task
+ * runs on its own virtual thread instead, so a client blocked in a slow socket
+ * write parks a virtual thread rather than occupying one of a few pool threads.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Slf4j
+final class SendExecutors {
+
+    private SendExecutors() {
+    }
+
+    /**
+     * Creates a send executor
+     *
+     * @param name Thread name prefix, e.g. "ws-send"
+     * @param threads Pool size for platform threads
+     * @param virtualThreads Whether to use virtual threads if the runtime supports them
+     */
+    static Executor create(String name, int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                log.info("{} uses virtual threads", name);
+                return new VirtualThreadTaskExecutor(name + "-");
+            }
+            log.warn("Virtual threads need Java 21 or later, {} uses {} platform threads", name, threads);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops a send executor; virtual threads end with their drain task
+     */
+    static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.aircraft.monitoring.service;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Discrete-event clock running simulation events in virtual time.
+ *
+ * Events are kept in time order and executed one after the other; the clock jumps
+ * straight to the time of the next event, so an idle stretch of virtual time costs
+ * nothing. At speed 0 events run as fast as the CPU allows; at speed N the clock
+ * sleeps so that virtual time passes N times faster than wall-clock time.
+ *
+ * Not thread-safe: a clock and its events belong to one replay run.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class SimulationClock {
+
+    private static final class Event implements Comparable<Event> {
+
+        final long time;
+        final long order;
+        final Runnable action;
+
+        Event(long time, long order, Runnable action) {
+            this.time = time;
+            this.order = order;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            // Events at the same time run in the order they were scheduled
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final double speed;
+    private final BooleanSupplier cancelled;
+    private final long startMillis;
+    private final long wallStartNanos = System.nanoTime();
+    private long nowMillis;
+    private long scheduled = 0;
+    private long executed = 0;
+
+    /**
+     * @param startMillis Virtual start time in epoch milliseconds
+     * @param speed Virtual milliseconds per wall-clock millisecond, 0 for as fast as possible
+     * @param cancelled Checked before every event; when true the run stops with a {@link CancellationException}
+     */
+    SimulationClock(long startMillis, double speed, BooleanSupplier cancelled) {
+        this.startMillis = startMillis;
+        this.nowMillis = startMillis;
+        this.speed = speed;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Gets the current virtual time in epoch milliseconds
+     */
+    long now() {
+        return nowMillis;
+    }
+
+    /**
+     * Schedules an action at a virtual time; times in the past run next
+     */
+    void schedule(long atMillis, Runnable action) {
+        events.add(new Event(Math.max(atMillis, nowMillis), scheduled++, action));
+    }
+
+    /**
+     * Schedules an action after a virtual delay
+     */
+    void scheduleAfter(long delayMillis, Runnable action) {
+        schedule(nowMillis + delayMillis, action);
+    }
+
+    /**
+     * Runs all events in time order, including the ones they schedule, until none are left
+     */
+    void run() {
+        while (!events.isEmpty()) {
+            runNext();
+        }
+    }
+
+    /**
+     * Runs all events up to a virtual time, then moves the clock to it. Used to merge
+     * an external, time-ordered stream such as recorded samples with scheduled events.
+     */
+    void advanceTo(long atMillis) {
+        while (!events.isEmpty() && events.peek().time <= atMillis) {
+            runNext();
+        }
+        if (atMillis > nowMillis) {
+            pace(atMillis);
+            nowMillis = atMillis;
+        }
+    }
+
+    private void runNext() {
+        Event event = events.poll();
+        pace(event.time);
+        nowMillis = event.time;
+        event.action.run();
+        executed++;
+    }
+
+    /**
+     * Waits until the wall clock catches up with the given virtual time
+     */
+    private void pace(long atMillis) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Simulation cancelled at virtual time " + nowMillis);
+        }
+        if (speed <= 0) {
+            return;
+        }
+        long dueNanos = wallStartNanos + (long) ((atMillis - startMillis) / speed * 1_000_000);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Simulation interrupted at virtual time " + nowMillis);
+            }
+        }
+    }
+
+    /**
+     * Gets the virtual time elapsed since the start
+     */
+    long getElapsedMillis() {
+        return nowMillis - startMillis;
+    }
+
+    /**
+     * Gets the number of events run so far
+     */
+    long getExecutedEvents() {
+        return executed;
+    }
+}
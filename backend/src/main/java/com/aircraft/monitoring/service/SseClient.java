@@ -0,0 +1,193 @@
+package com.aircraft.monitoring.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connected server-sent events stream with its own bounded outbound queue.
+ *
+ * Works like {@link ClientSession}: publishers only enqueue shared
+ * {@link SseEvent}s into a fixed ring, and a task on the send executor writes
+ * them, at most one per stream at a time. When the queue is full the oldest
+ * event is dropped; the client can still detect the gap from the event ids.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Slf4j
+final class SseClient {
+
+    // Events sent per drain task before yielding the send thread to other streams
+    private static final int DRAIN_BATCH = 32;
+
+    private final String id;
+    private final SseEmitter emitter;
+    private final Executor sendExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+
+    // Outbound ring, guarded by this
+    private final SseEvent[] events;
+    private int head = 0;
+    private int size = 0;
+
+    private volatile long sent = 0;
+    private volatile long dropped = 0;
+    private volatile boolean closed = false;
+
+    SseClient(String id, SseEmitter emitter, int queueCapacity, Executor sendExecutor) {
+        this.id = id;
+        this.emitter = emitter;
+        this.sendExecutor = sendExecutor;
+        this.events = new SseEvent[queueCapacity];
+    }
+
+    /**
+     * Queues an event for sending
+     *
+     * @return false if the stream is closed
+     */
+    boolean offer(SseEvent event) {
+        if (closed) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (size == events.length) {
+                events[head] = null;
+                head = (head + 1) % events.length;
+                size--;
+                dropped++;
+            }
+            events[(head + size) % events.length] = event;
+            size++;
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            executeDrain();
+        }
+        // Closed if the send executor rejected the drain
+        return !closed;
+    }
+
+    /**
+     * Hands the drain task to the send executor; once the executor is shut down the
+     * stream is closed and its queued events dropped, as in {@link ClientSession}
+     */
+    private void executeDrain() {
+        try {
+            sendExecutor.execute(drainTask);
+        } catch (RejectedExecutionException e) {
+            log.debug("Send executor rejected stream {}, closing it", id);
+            close();
+            synchronized (this) {
+                for (; size > 0; size--) {
+                    events[head] = null;
+                    head = (head + 1) % events.length;
+                }
+            }
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Sends queued events until the queue is empty. Runs on the send executor and
+     * requeues itself after a batch, so busy streams share the send threads fairly.
+     */
+    private void drain() {
+        for (int batch = 0; ; batch++) {
+            if (batch == DRAIN_BATCH) {
+                executeDrain();
+                return;
+            }
+
+            SseEvent event;
+            synchronized (this) {
+                if (size == 0) {
+                    event = null;
+                } else {
+                    event = events[head];
+                    events[head] = null;
+                    head = (head + 1) % events.length;
+                    size--;
+                }
+            }
+
+            if (event == null) {
+                draining.set(false);
+                // An event may have been queued after the last poll but before the flag was cleared
+                synchronized (this) {
+                    if (size == 0 || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            if (closed) {
+                continue;
+            }
+            try {
+                if (event == SseEvent.HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getId()))
+                            .name(event.getName())
+                            .data(event.getPayload()));
+                    sent++;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Error sending event to stream {}: {}", id, e.getMessage());
+                close();
+            }
+        }
+    }
+
+    /**
+     * Stops sending and completes the response
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Error completing stream {}", id, e);
+        }
+    }
+
+    String getId() {
+        return id;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the queue depth and counters of this stream
+     */
+    Map<String, Object> getStats() {
+        int queued;
+        synchronized (this) {
+            queued = size;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("id", id);
+        stats.put("queued", queued);
+        stats.put("sent", sent);
+        stats.put("dropped", dropped);
+        return stats;
+    }
+}
@@ -0,0 +1,38 @@
+package com.aircraft.monitoring.service;
+
+/**
+ * A server-sent event with its pre-serialized JSON payload, shared by all streams.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+final class SseEvent {
+
+    /** Keep-alive comment; not retained for resume */
+    static final SseEvent HEARTBEAT = new SseEvent(-1, null, null);
+
+    private final long id;
+    private final String name;
+    private final String payload;
+
+    SseEvent(long id, String name, String payload) {
+        this.id = id;
+        this.name = name;
+        this.payload = payload;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the event type, the same as the {@code type} of the payload
+     */
+    String getName() {
+        return name;
+    }
+
+    String getPayload() {
+        return payload;
+    }
+}
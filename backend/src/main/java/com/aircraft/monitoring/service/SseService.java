@@ -0,0 +1,198 @@
+package com.aircraft.monitoring.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent events streams of aircraft data and alerts, a plain HTTP
+ * alternative to the WebSocket endpoints for read-only dashboards.
+ *
+ * Events carry the same JSON messages as the WebSocket text protocol, serialized
+ * once by {@link WebSocketService} and shared by every stream. Each stream has a
+ * bounded queue drained on a small send executor (see {@link SseClient}).
+ *
+ * The most recent events are retained with increasing ids, so a client that
+ * reconnects with {@code Last-Event-ID} first receives the events it missed.
+ * The replay is queued at once, so no more events are retained than a stream's
+ * queue holds; a larger replay capacity is reduced to the queue capacity.
+ * Idle streams get a keep-alive comment so proxies do not close them.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class SseService {
+
+    public static final String AIRCRAFT_DATA = "aircraft_data";
+    public static final String ALERT = "alert";
+
+    // At most queueCapacity, so a replay fits a new stream's queue
+    @Value("${aircraft.sse.replay-capacity:256}")
+    private int replayCapacity;
+
+    @Value("${aircraft.sse.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${aircraft.sse.send-threads:2}")
+    private int sendThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${aircraft.sse.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    // 0 keeps streams open until the client disconnects
+    @Value("${aircraft.sse.timeout-ms:0}")
+    private long timeoutMs;
+
+    private final Map<String, SseClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong connections = new AtomicLong();
+
+    // Recent events for resume, guarded by itself; publishing and replaying both hold the lock
+    private SseEvent[] history;
+    private long nextEventId = 1;
+
+    private Executor sendExecutor;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * Creates the event history, the send executor and the heartbeat schedule
+     */
+    @PostConstruct
+    public void init() {
+        if (replayCapacity > queueCapacity) {
+            log.warn("SSE replay capacity {} exceeds the queue capacity, retaining {} events for resume",
+                    replayCapacity, queueCapacity);
+        }
+        history = new SseEvent[Math.max(1, Math.min(replayCapacity, queueCapacity))];
+
+        sendExecutor = SendExecutors.create("sse-send", Math.max(1, sendThreads), virtualThreads);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::sendHeartbeats,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes all streams and stops the executors on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        clients.values().forEach(SseClient::close);
+        SendExecutors.shutdown(sendExecutor);
+    }
+
+    /**
+     * Opens a stream, first replaying the retained events after the given id
+     *
+     * @param lastEventId Id of the last event the client received, or null for a new stream
+     * @return The emitter to return from the request handler
+     */
+    public SseEmitter connect(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        SseClient client = new SseClient("sse-" + connections.incrementAndGet(), emitter, queueCapacity, sendExecutor);
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(error -> remove(client));
+
+        int replayed = 0;
+        synchronized (history) {
+            if (lastEventId != null) {
+                long first = Math.max(Math.max(lastEventId + 1, 1), nextEventId - history.length);
+                for (long id = first; id < nextEventId; id++) {
+                    client.offer(history[(int) (id % history.length)]);
+                    replayed++;
+                }
+            }
+            // Registered under the lock, so no event falls between the replay and the live stream
+            clients.put(client.getId(), client);
+        }
+
+        log.info("SSE stream {} connected (last event id {}, {} events replayed)", client.getId(), lastEventId, replayed);
+        return emitter;
+    }
+
+    /**
+     * Retains an event and queues it on every stream
+     *
+     * @param name The event type, {@link #AIRCRAFT_DATA} or {@link #ALERT}
+     * @param payload The serialized JSON message
+     */
+    public void publish(String name, String payload) {
+        synchronized (history) {
+            long id = nextEventId++;
+            SseEvent event = new SseEvent(id, name, payload);
+            history[(int) (id % history.length)] = event;
+            for (SseClient client : clients.values()) {
+                if (!client.offer(event)) {
+                    remove(client);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of open streams
+     */
+    public int getConnectedClientsCount() {
+        return clients.size();
+    }
+
+    /**
+     * Describes the open streams and the retained events
+     *
+     * @return Latest event id, retained events and statistics per stream
+     */
+    public Map<String, Object> getStreamStatus() {
+        long lastEventId;
+        synchronized (history) {
+            lastEventId = nextEventId - 1;
+        }
+        List<Map<String, Object>> streams = new ArrayList<>(clients.size());
+        for (SseClient client : clients.values()) {
+            streams.add(client.getStats());
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("lastEventId", lastEventId);
+        status.put("retainedEvents", Math.min(lastEventId, history.length));
+        status.put("streams", streams);
+        return status;
+    }
+
+    private void sendHeartbeats() {
+        for (SseClient client : clients.values()) {
+            if (!client.offer(SseEvent.HEARTBEAT)) {
+                remove(client);
+            }
+        }
+    }
+
+    private void remove(SseClient client) {
+        if (clients.remove(client.getId(), client)) {
+            client.close();
+            log.info("SSE stream {} disconnected", client.getId());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming statistical outlier detection per aircraft and sensor.
+ *
+ * Complements the fixed limits of {@link AnomalyDetectionService}: it catches a
+ * sensor that jumps away from its recent behaviour or suddenly gets noisy while
+ * still within limits. Every series keeps an exponentially weighted mean and
+ * variance of its values and an exponentially weighted variance of its
+ * sample-to-sample changes. A sample is an outlier if its z-score against the
+ * value statistics or its change against the change statistics exceeds the
+ * configured threshold, once the series has seen the warm-up samples.
+ *
+ * Non-finite values (e.g. a NaN read from a file) are skipped, so they neither
+ * flag nor poison the statistics of their series.
+ *
+ * State is a fixed set of primitive arrays per aircraft, allocated on its first
+ * sample; later updates do not allocate.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class StatisticalAnomalyDetector {
+
+    @Value("${aircraft.statistics.enabled:true}")
+    private boolean enabled;
+
+    // Weight of a new sample in the moving statistics; 0.05 remembers about the last 20-40 samples
+    @Value("${aircraft.statistics.alpha:0.05}")
+    private double alpha;
+
+    @Value("${aircraft.statistics.z-threshold:4.0}")
+    private double zThreshold;
+
+    @Value("${aircraft.statistics.rate-threshold:6.0}")
+    private double rateThreshold;
+
+    @Value("${aircraft.statistics.warmup-samples:30}")
+    private int warmupSamples;
+
+    private final Map<String, SeriesState> series = new ConcurrentHashMap<>();
+
+    /**
+     * Updates the statistics of the sample's aircraft with the sample
+     *
+     * @param data The sample
+     * @return Bitmask of {@link Sensor} ordinals that are outliers in this sample
+     */
+    public int evaluate(AircraftData data) {
+        if (!enabled) {
+            return 0;
+        }
+        String tailNumber = data.getTailNumber() != null ? data.getTailNumber() : "";
+        SeriesState state = series.get(tailNumber);
+        if (state == null) {
+            state = series.computeIfAbsent(tailNumber, key -> new SeriesState());
+        }
+        synchronized (state) {
+            return state.update(data);
+        }
+    }
+
+    /**
+     * Creates a detector with the same settings and no learned baselines, e.g. to score
+     * recorded data without touching the baselines of live aircraft
+     */
+    public StatisticalAnomalyDetector fork() {
+        StatisticalAnomalyDetector detector = new StatisticalAnomalyDetector();
+        detector.enabled = enabled;
+        detector.alpha = alpha;
+        detector.zThreshold = zThreshold;
+        detector.rateThreshold = rateThreshold;
+        detector.warmupSamples = warmupSamples;
+        return detector;
+    }
+
+    /**
+     * Discards the learned baselines of an aircraft, which then warms up again
+     */
+    public void reset(String tailNumber) {
+        series.remove(tailNumber);
+    }
+
+    /**
+     * Describes the detector settings
+     *
+     * @return Settings and number of tracked aircraft
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("alpha", alpha);
+        status.put("zThreshold", zThreshold);
+        status.put("rateThreshold", rateThreshold);
+        status.put("warmupSamples", warmupSamples);
+        status.put("aircraft", series.size());
+        return status;
+    }
+
+    /**
+     * Moving statistics of all sensors of one aircraft, indexed by {@link Sensor#ordinal()}
+     */
+    private final class SeriesState {
+
+        private final double[] mean = new double[Sensor.COUNT];
+        private final double[] variance = new double[Sensor.COUNT];
+        private final double[] last = new double[Sensor.COUNT];
+        private final double[] changeVariance = new double[Sensor.COUNT];
+        private final long[] samples = new long[Sensor.COUNT];
+
+        int update(AircraftData data) {
+            double zSquared = zThreshold * zThreshold;
+            double rateSquared = rateThreshold * rateThreshold;
+            int outliers = 0;
+
+            for (int i = 0; i < Sensor.COUNT; i++) {
+                double value = Sensor.VALUES[i].read(data);
+                if (!Double.isFinite(value)) {
+                    continue;
+                }
+                if (samples[i]++ == 0) {
+                    mean[i] = value;
+                    last[i] = value;
+                    continue;
+                }
+
+                // Exponentially weighted mean and variance (West's incremental form)
+                double deviation = value - mean[i];
+                double change = value - last[i];
+                if (samples[i] > warmupSamples) {
+                    // Compared squared to avoid square roots; the floor keeps constant series from flagging rounding noise
+                    double floor = 1e-9 + 1e-6 * Math.abs(mean[i]);
+                    double floorSquared = floor * floor;
+                    boolean zOutlier = deviation * deviation > zSquared * Math.max(variance[i], floorSquared);
+                    boolean rateOutlier = change * change > rateSquared * Math.max(changeVariance[i], floorSquared);
+                    if (zOutlier || rateOutlier) {
+                        outliers |= 1 << i;
+                    }
+                }
+
+                double increment = alpha * deviation;
+                mean[i] += increment;
+                variance[i] = (1 - alpha) * (variance[i] + deviation * increment);
+                changeVariance[i] = (1 - alpha) * changeVariance[i] + alpha * change * change;
+                last[i] = value;
+            }
+            return outliers;
+        }
+    }
+}
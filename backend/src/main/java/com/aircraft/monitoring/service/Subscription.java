@@ -0,0 +1,232 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.SensorGroup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a WebSocket client wants to receive. Immutable; changes create a new instance.
+ *
+ * A new client receives every aircraft and every sensor group. The first
+ * subscribe command naming aircraft or groups narrows the subscription to
+ * them, later ones add to it; "*" selects all again. Unsubscribe removes
+ * aircraft or groups, and without arguments stops all aircraft data. Single
+ * aircraft can only be removed from an explicit aircraft list, not from "*".
+ * A maximum rate limits how often each aircraft is sent; see {@link UpdateConflator}.
+ * Samples of replayed flights are only sent to clients that subscribe to replays,
+ * as separate replay_data messages.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class Subscription {
+
+    /** Everything, the subscription of a new client */
+    public static final Subscription ALL = new Subscription(null, SensorGroup.ALL, false, 0, false, false);
+
+    private static final String WILDCARD = "*";
+
+    // Subscribed tail numbers, null for all aircraft
+    private final Set<String> aircraft;
+    private final int groups;
+    private final boolean anomaliesOnly;
+    private final int anomalyFlags;
+    // Updates per second and aircraft, 0 for every update
+    private final double maxRate;
+    private final boolean aggregate;
+    private final boolean replay;
+
+    private Subscription(Set<String> aircraft, int groups, boolean anomaliesOnly, double maxRate, boolean aggregate,
+                         boolean replay) {
+        this.aircraft = aircraft;
+        this.groups = groups;
+        this.anomaliesOnly = anomaliesOnly;
+        this.anomalyFlags = SensorGroup.anomalyFlagsOf(groups);
+        this.maxRate = maxRate;
+        this.aggregate = aggregate;
+        this.replay = replay;
+    }
+
+    /**
+     * Adds aircraft and sensor groups
+     *
+     * @param tailNumbers Aircraft to add, "*" for all, or null to keep the aircraft
+     * @param groupNames Sensor groups to add, "*" for all, or null to keep the groups
+     * @param anomaliesOnly Whether only samples with anomalies in the subscribed groups are sent, null to keep
+     * @throws IllegalArgumentException on an unknown sensor group
+     */
+    public Subscription subscribe(Collection<String> tailNumbers, Collection<String> groupNames, Boolean anomaliesOnly) {
+        Set<String> newAircraft = aircraft;
+        if (tailNumbers != null) {
+            if (tailNumbers.contains(WILDCARD)) {
+                newAircraft = null;
+            } else {
+                newAircraft = aircraft == null ? new HashSet<>() : new HashSet<>(aircraft);
+                newAircraft.addAll(tailNumbers);
+            }
+        }
+
+        int newGroups = groups;
+        if (groupNames != null) {
+            int mask = parseGroups(groupNames);
+            newGroups = groups == SensorGroup.ALL ? mask : groups | mask;
+        }
+
+        return new Subscription(newAircraft, newGroups, anomaliesOnly != null ? anomaliesOnly : this.anomaliesOnly,
+                maxRate, aggregate, replay);
+    }
+
+    /**
+     * Changes the maximum update rate
+     *
+     * @param maxRate Updates per second and aircraft, 0 for every update, or null to keep the rate
+     * @param aggregate Whether min/max/avg over the conflated samples are sent along, null to keep
+     * @throws IllegalArgumentException on a negative or invalid rate
+     */
+    public Subscription withRate(Double maxRate, Boolean aggregate) {
+        if (maxRate != null && !(maxRate >= 0 && maxRate < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Invalid maxRate: " + maxRate);
+        }
+        return new Subscription(aircraft, groups, anomaliesOnly, maxRate != null ? maxRate : this.maxRate,
+                aggregate != null ? aggregate : this.aggregate, replay);
+    }
+
+    /**
+     * Changes whether samples of replayed flights are sent
+     *
+     * @param replay Whether replay_data messages are sent, null to keep
+     */
+    public Subscription withReplay(Boolean replay) {
+        if (replay == null || replay == this.replay) {
+            return this;
+        }
+        return new Subscription(aircraft, groups, anomaliesOnly, maxRate, aggregate, replay);
+    }
+
+    /**
+     * Removes aircraft and sensor groups; without either, stops all aircraft data
+     *
+     * @param tailNumbers Aircraft to remove, or null
+     * @param groupNames Sensor groups to remove, or null
+     * @throws IllegalArgumentException on an unknown sensor group
+     */
+    public Subscription unsubscribe(Collection<String> tailNumbers, Collection<String> groupNames) {
+        if (tailNumbers == null && groupNames == null) {
+            return new Subscription(Set.of(), groups, anomaliesOnly, maxRate, aggregate, replay);
+        }
+
+        Set<String> newAircraft = aircraft;
+        if (tailNumbers != null && tailNumbers.contains(WILDCARD)) {
+            newAircraft = Set.of();
+        } else if (tailNumbers != null && aircraft != null) {
+            newAircraft = new HashSet<>(aircraft);
+            newAircraft.removeAll(tailNumbers);
+        }
+
+        int newGroups = groupNames != null ? groups & ~parseGroups(groupNames) : groups;
+        return new Subscription(newAircraft, newGroups, anomaliesOnly, maxRate, aggregate, replay);
+    }
+
+    private static int parseGroups(Collection<String> groupNames) {
+        if (groupNames.contains(WILDCARD)) {
+            return SensorGroup.ALL;
+        }
+        int mask = 0;
+        for (String name : groupNames) {
+            SensorGroup group = SensorGroup.fromName(name);
+            if (group == null) {
+                throw new IllegalArgumentException("Unknown subsystem: " + name);
+            }
+            mask |= group.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether a sample of an aircraft with the given anomaly flags is sent to this client
+     */
+    public boolean matches(int flags) {
+        return groups != 0 && (!anomaliesOnly || (flags & anomalyFlags) != 0);
+    }
+
+    /**
+     * Gets the subscribed tail numbers
+     *
+     * @return The tail numbers, or null if all aircraft are subscribed
+     */
+    public Set<String> getAircraft() {
+        return aircraft;
+    }
+
+    public boolean isAllAircraft() {
+        return aircraft == null;
+    }
+
+    public boolean includesAircraft(String tailNumber) {
+        return aircraft == null || aircraft.contains(tailNumber);
+    }
+
+    /**
+     * Gets the mask of subscribed {@link SensorGroup}s
+     */
+    public int getGroups() {
+        return groups;
+    }
+
+    public boolean isAnomaliesOnly() {
+        return anomaliesOnly;
+    }
+
+    public double getMaxRate() {
+        return maxRate;
+    }
+
+    /**
+     * Gets the minimum time between two updates of one aircraft
+     *
+     * @return The interval in milliseconds, 0 if every update is sent
+     */
+    public long getMinIntervalMillis() {
+        return maxRate > 0 ? Math.max(1, Math.round(1000 / maxRate)) : 0;
+    }
+
+    public boolean isConflated() {
+        return maxRate > 0;
+    }
+
+    public boolean isAggregate() {
+        return aggregate;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    /**
+     * Describes the subscription for the confirmation message
+     */
+    public Map<String, Object> describe() {
+        List<String> groupNames = new ArrayList<>();
+        for (SensorGroup group : SensorGroup.VALUES) {
+            if ((groups & group.bit()) != 0) {
+                groupNames.add(group.name().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("aircraft", aircraft != null ? aircraft : List.of(WILDCARD));
+        description.put("subsystems", groupNames);
+        description.put("anomaliesOnly", anomaliesOnly);
+        description.put("maxRate", maxRate);
+        description.put("aggregate", aggregate);
+        description.put("replay", replay);
+        return description;
+    }
+}
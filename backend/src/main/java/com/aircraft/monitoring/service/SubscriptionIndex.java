@@ -0,0 +1,111 @@
+package com.aircraft.monitoring.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup of the WebSocket clients interested in an aircraft.
+ *
+ * Rebuilt whenever a client connects, disconnects or changes its
+ * {@link Subscription}, which is rare compared to broadcasts. A broadcast then
+ * only visits the clients subscribed to all aircraft plus those listed for the
+ * sample's aircraft, so its cost follows actual interest instead of the number
+ * of connected clients. JSON and binary clients are listed apart, so binary
+ * frames can be queued under the aircraft's stream lock and JSON outside it. The
+ * index also lists the rate-limited clients whose conflated updates are flushed
+ * periodically.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class SubscriptionIndex {
+
+    private static final ClientSession[] NONE = new ClientSession[0];
+
+    public static final SubscriptionIndex EMPTY = new SubscriptionIndex(NONE, Map.of(), NONE, Map.of(), NONE);
+
+    private final ClientSession[] allAircraft;
+    private final Map<String, ClientSession[]> byAircraft;
+    private final ClientSession[] binaryAllAircraft;
+    private final Map<String, ClientSession[]> binaryByAircraft;
+    private final ClientSession[] conflated;
+
+    private SubscriptionIndex(ClientSession[] allAircraft, Map<String, ClientSession[]> byAircraft,
+                              ClientSession[] binaryAllAircraft, Map<String, ClientSession[]> binaryByAircraft,
+                              ClientSession[] conflated) {
+        this.allAircraft = allAircraft;
+        this.byAircraft = byAircraft;
+        this.binaryAllAircraft = binaryAllAircraft;
+        this.binaryByAircraft = binaryByAircraft;
+        this.conflated = conflated;
+    }
+
+    /**
+     * Builds the index from the current subscriptions of the given clients
+     */
+    public static SubscriptionIndex build(Collection<ClientSession> clients) {
+        List<ClientSession> all = new ArrayList<>();
+        Map<String, List<ClientSession>> specific = new HashMap<>();
+        List<ClientSession> binaryAll = new ArrayList<>();
+        Map<String, List<ClientSession>> binarySpecific = new HashMap<>();
+        List<ClientSession> conflated = new ArrayList<>();
+        for (ClientSession client : clients) {
+            Subscription subscription = client.getSubscription();
+            if (subscription.getGroups() == 0) {
+                continue;
+            }
+            if (client.getConflator() != null) {
+                conflated.add(client);
+            }
+            if (subscription.isAllAircraft()) {
+                (client.isBinary() ? binaryAll : all).add(client);
+            } else {
+                for (String tailNumber : subscription.getAircraft()) {
+                    (client.isBinary() ? binarySpecific : specific)
+                            .computeIfAbsent(tailNumber, key -> new ArrayList<>()).add(client);
+                }
+            }
+        }
+
+        return new SubscriptionIndex(all.toArray(NONE), toArrays(specific),
+                binaryAll.toArray(NONE), toArrays(binarySpecific), conflated.toArray(NONE));
+    }
+
+    private static Map<String, ClientSession[]> toArrays(Map<String, List<ClientSession>> lists) {
+        Map<String, ClientSession[]> arrays = new HashMap<>();
+        lists.forEach((tailNumber, list) -> arrays.put(tailNumber, list.toArray(NONE)));
+        return arrays;
+    }
+
+    /**
+     * Gets the JSON or binary clients subscribed to every aircraft
+     */
+    public ClientSession[] getAllAircraftClients(boolean binary) {
+        return binary ? binaryAllAircraft : allAircraft;
+    }
+
+    /**
+     * Gets the JSON or binary clients subscribed to the given aircraft by tail number
+     */
+    public ClientSession[] getClients(String tailNumber, boolean binary) {
+        ClientSession[] clients = tailNumber != null ? (binary ? binaryByAircraft : byAircraft).get(tailNumber) : null;
+        return clients != null ? clients : NONE;
+    }
+
+    /**
+     * Checks whether any binary client receives the given aircraft
+     */
+    public boolean hasBinaryClients(String tailNumber) {
+        return binaryAllAircraft.length > 0 || getClients(tailNumber, true).length > 0;
+    }
+
+    /**
+     * Gets the clients with a maximum update rate
+     */
+    public ClientSession[] getConflatedClients() {
+        return conflated;
+    }
+}
@@ -0,0 +1,141 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import com.aircraft.monitoring.model.TelemetryWindow;
+import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Service keeping the recent telemetry history of every aircraft in memory.
+ *
+ * Each aircraft gets a {@link TelemetryRingBuffer} sized to hold the configured
+ * retention period at the configured sample interval. Recording a sample does
+ * not allocate once the aircraft's buffer exists, and queries never lock out
+ * the writers, so dashboards and detectors can read recent history cheaply.
+ *
+ * A buffer takes about 48 KB with the default retention, so the simulated fleet
+ * has no history unless {@code aircraft.fleet.history} is set; it is excluded
+ * from startup on, before the journal recovery replays its samples.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class TelemetryHistoryService {
+
+    @Value("${aircraft.history.retention-minutes:10}")
+    private int retentionMinutes;
+
+    @Value("${aircraft.history.sample-interval-ms:2000}")
+    private long sampleIntervalMs;
+
+    @Value("${aircraft.simulation.tail-number:N12345}")
+    private String demoTailNumber;
+
+    @Value("${aircraft.fleet.enabled:false}")
+    private boolean fleetEnabled;
+
+    @Value("${aircraft.fleet.size:10000}")
+    private int fleetSize;
+
+    // History takes about 48 KB per aircraft, so the fleet has none by default
+    @Value("${aircraft.fleet.history:false}")
+    private boolean fleetHistory;
+
+    private final ConcurrentMap<String, TelemetryRingBuffer> buffers = new ConcurrentHashMap<>();
+    private boolean excludeFleet;
+    private int capacity;
+
+    /**
+     * Derives the per-aircraft buffer capacity from the retention settings and
+     * excludes the fleet unless it keeps history
+     */
+    @PostConstruct
+    public void init() {
+        capacity = (int) Math.max(1, retentionMinutes * 60_000L / sampleIntervalMs);
+        excludeFleet = fleetEnabled && !fleetHistory;
+        log.info("Telemetry history keeps {} samples ({} minutes) per aircraft", capacity, retentionMinutes);
+    }
+
+    /**
+     * Records a sample in the history of its aircraft
+     *
+     * @param data The analyzed aircraft data
+     */
+    public void record(AircraftData data) {
+        TelemetryRingBuffer buffer = bufferFor(data.getTailNumber());
+        if (buffer != null) {
+            buffer.append(data);
+        }
+    }
+
+    /**
+     * Records a sample given in primitive form
+     *
+     * @param tailNumber The aircraft tail number
+     * @param epochMillis Sample timestamp in milliseconds since the epoch
+     * @param values Sensor values indexed by {@link Sensor#ordinal()}
+     * @param anomalyFlags Packed anomaly flags
+     */
+    public void record(String tailNumber, long epochMillis, double[] values, int anomalyFlags) {
+        TelemetryRingBuffer buffer = bufferFor(tailNumber);
+        if (buffer != null) {
+            buffer.append(epochMillis, values, anomalyFlags);
+        }
+    }
+
+    /**
+     * Gets the recent history of an aircraft
+     *
+     * @param tailNumber The aircraft tail number
+     * @param since Only samples taken at or after this time are returned
+     * @param sensors Sensors to include, all sensors if empty
+     * @return The history window, or null if the aircraft has no history or is excluded
+     */
+    public TelemetryWindow getWindow(String tailNumber, LocalDateTime since, Sensor... sensors) {
+        TelemetryRingBuffer buffer = buffers.get(tailNumber);
+        if (buffer == null) {
+            return null;
+        }
+        return buffer.read(TelemetryTime.toEpochMillis(since), sensors.length > 0 ? sensors : Sensor.VALUES);
+    }
+
+    /**
+     * Gets the number of aircraft with recorded history
+     */
+    public int getTrackedAircraftCount() {
+        return buffers.size();
+    }
+
+    /**
+     * Gets the number of samples retained per aircraft
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the buffer of an aircraft, creating it unless the aircraft is excluded
+     *
+     * @return The buffer, or null if the aircraft keeps no history
+     */
+    private TelemetryRingBuffer bufferFor(String tailNumber) {
+        TelemetryRingBuffer buffer = buffers.get(tailNumber);
+        if (buffer == null) {
+            if (excludeFleet && FleetSimulationService.isFleetTailNumber(tailNumber, fleetSize, demoTailNumber)) {
+                return null;
+            }
+            buffer = buffers.computeIfAbsent(tailNumber, tail -> new TelemetryRingBuffer(tail, capacity));
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,507 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service writing every analyzed sample to a durable append-only journal.
+ *
+ * The journal is a directory of memory-mapped {@link JournalSegment} files with
+ * fixed-width binary records. Aircraft types are interned in an {@link AircraftTypeTable}
+ * file next to the segments. Appends only copy primitives into the mapped
+ * buffer; a background committer flushes all records appended since the last
+ * commit with a single {@code force()} (group commit), so a crash loses at most
+ * one commit interval.
+ *
+ * Segments older than the retention period, or beyond the total size limit, are
+ * deleted whenever a segment is rolled.
+ *
+ * Records are in append order, and the pipeline partitions and fleet workers
+ * append concurrently, so a segment is not necessarily in time order. Reads skip
+ * segments by their {@link JournalSegment.TimeRange}, kept for every sealed
+ * segment once it is known, and search by timestamp only within ordered segments.
+ *
+ * On startup the recent part of the journal, at most the recovery period, is read
+ * straight from the mapped segments into {@link TelemetryHistoryService} and
+ * {@link TelemetryRollupService} without building any {@link AircraftData} objects.
+ * The position of the latest record of every aircraft is indexed as records are
+ * recovered and appended. A time range can also be replayed through anomaly
+ * detection with fresh detector baselines and, optionally, sent to the WebSocket
+ * clients subscribed to replays.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class TelemetryJournalService {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final String AIRCRAFT_TYPES_FILE = "aircraft-types.txt";
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private TelemetryHistoryService telemetryHistoryService;
+
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
+
+    @Value("${aircraft.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${aircraft.journal.directory:data/journal}")
+    private String directory;
+
+    @Value("${aircraft.journal.segment-records:262144}")
+    private int segmentRecords;
+
+    @Value("${aircraft.journal.commit-interval-ms:200}")
+    private long commitIntervalMs;
+
+    @Value("${aircraft.journal.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${aircraft.journal.max-size-mb:4096}")
+    private long maxSizeMb;
+
+    @Value("${aircraft.journal.recovery-minutes:60}")
+    private int recoveryMinutes;
+
+    @Value("${aircraft.history.retention-minutes:10}")
+    private int historyMinutes;
+
+    private final Object appendLock = new Object();
+    private Path journalDirectory;
+    private AircraftTypeTable aircraftTypes;
+    private JournalSegment activeSegment;
+    private int activeSegmentNumber;
+    private long appendedRecords = 0;
+    private volatile long committedRecords = 0;
+    private long deletedSegments = 0;
+    // Samples whose tail number does not fit a record
+    private final AtomicLong rejectedRecords = new AtomicLong();
+    // Segment number (high 32 bits) and record index of the latest record per tail number
+    private final Map<String, long[]> latestPositions = new HashMap<>();
+    // Time ranges of sealed segments by segment number; the active segment keeps its own
+    private final ConcurrentMap<Integer, JournalSegment.TimeRange> sealedTimeRanges = new ConcurrentHashMap<>();
+    private ScheduledExecutorService committer;
+
+    /**
+     * Opens the newest segment for appending, restores recent history and starts the committer
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        journalDirectory = Paths.get(directory);
+        Files.createDirectories(journalDirectory);
+        aircraftTypes = AircraftTypeTable.load(journalDirectory.resolve(AIRCRAFT_TYPES_FILE));
+
+        List<Path> segments = listSegments();
+        activeSegmentNumber = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1));
+        activeSegment = JournalSegment.openForWrite(segmentPath(activeSegmentNumber), segmentRecords);
+
+        synchronized (appendLock) {
+            pruneSegments();
+        }
+        recoverHistory(listSegments());
+
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-committer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commit, commitIntervalMs, commitIntervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("Telemetry journal opened at {} (segment {}, {} records)",
+                journalDirectory.toAbsolutePath(), activeSegmentNumber, activeSegment.getRecordCount());
+    }
+
+    /**
+     * Commits outstanding records and closes the active segment
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (committer != null) {
+            committer.shutdown();
+        }
+        synchronized (appendLock) {
+            if (activeSegment != null) {
+                activeSegment.force();
+                activeSegment.close();
+                activeSegment = null;
+            }
+        }
+    }
+
+    /**
+     * Appends an analyzed sample to the journal. The record becomes durable with the next commit.
+     *
+     * @param data The analyzed aircraft data
+     */
+    public void append(AircraftData data) {
+        if (!enabled) {
+            return;
+        }
+        if (!JournalSegment.fitsTailNumber(data.getTailNumber())) {
+            // Cutting it short would merge it with other aircraft of the same prefix
+            if (rejectedRecords.getAndIncrement() == 0) {
+                log.warn("Not journaling samples of tail number {}: more than {} bytes or not US-ASCII",
+                        data.getTailNumber(), JournalSegment.TAIL_NUMBER_BYTES);
+            }
+            return;
+        }
+        synchronized (appendLock) {
+            if (activeSegment == null) {
+                return;
+            }
+            int aircraftTypeId = aircraftTypes.idOf(data.getAircraftType());
+            if (!activeSegment.append(data, aircraftTypeId)) {
+                rollSegment();
+                activeSegment.append(data, aircraftTypeId);
+            }
+            appendedRecords++;
+            indexLatest(data.getTailNumber(), activeSegmentNumber, activeSegment.getRecordCount() - 1);
+        }
+    }
+
+    /**
+     * Flushes all records appended since the last commit with a single force
+     */
+    private void commit() {
+        JournalSegment segment;
+        long pending;
+        synchronized (appendLock) {
+            segment = activeSegment;
+            pending = appendedRecords;
+        }
+        if (segment == null || pending == committedRecords) {
+            return;
+        }
+        try {
+            segment.force();
+            committedRecords = pending;
+        } catch (Exception e) {
+            log.error("Error committing telemetry journal", e);
+        }
+    }
+
+    /**
+     * Closes the full active segment, starts the next one and deletes expired segments.
+     * Called with the append lock held.
+     */
+    private void rollSegment() {
+        try {
+            activeSegment.force();
+            activeSegment.close();
+            activeSegmentNumber++;
+            activeSegment = JournalSegment.openForWrite(segmentPath(activeSegmentNumber), segmentRecords);
+            log.info("Telemetry journal rolled to segment {}", activeSegmentNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll telemetry journal segment", e);
+        }
+        pruneSegments();
+    }
+
+    /**
+     * Deletes the oldest segments while they are older than the retention period or the
+     * journal exceeds its size limit. The active segment is always kept. Called with the
+     * append lock held.
+     */
+    private void pruneSegments() {
+        try {
+            List<Path> segments = listSegments();
+            long totalBytes = 0;
+            for (Path path : segments) {
+                totalBytes += Files.size(path);
+            }
+            long maxBytes = maxSizeMb * 1024 * 1024;
+            long cutoffMillis = TelemetryTime.toEpochMillis(LocalDateTime.now(ZoneOffset.UTC)) - retentionHours * 3_600_000L;
+
+            for (Path path : segments) {
+                if (segmentNumber(path) >= activeSegmentNumber) {
+                    break;
+                }
+                boolean oversized = maxSizeMb > 0 && totalBytes > maxBytes;
+                if (!oversized && (retentionHours <= 0 || timeRange(path).getMaxMillis() >= cutoffMillis)) {
+                    break;
+                }
+                long size = Files.size(path);
+                Files.delete(path);
+                sealedTimeRanges.remove(segmentNumber(path));
+                totalBytes -= size;
+                deletedSegments++;
+                log.info("Deleted telemetry journal segment {}", path.getFileName());
+            }
+        } catch (IOException e) {
+            // Retried with the next roll, e.g. while a replay still maps the segment
+            log.warn("Cannot delete expired telemetry journal segments", e);
+        }
+    }
+
+    /**
+     * Gets the time range of a segment, indexing a sealed segment on first use
+     */
+    private JournalSegment.TimeRange timeRange(Path path) throws IOException {
+        int number = segmentNumber(path);
+        synchronized (appendLock) {
+            if (activeSegment != null && number == activeSegmentNumber) {
+                return activeSegment.getTimeRange();
+            }
+        }
+        JournalSegment.TimeRange range = sealedTimeRanges.get(number);
+        if (range == null) {
+            try (JournalSegment segment = JournalSegment.openForRead(path)) {
+                range = segment.getTimeRange();
+            }
+            sealedTimeRanges.put(number, range);
+        }
+        return range;
+    }
+
+    /**
+     * Remembers the position of the latest record of an aircraft. Called with the append lock held.
+     */
+    private void indexLatest(String tailNumber, int segmentNumber, int index) {
+        if (tailNumber != null) {
+            latestPositions.computeIfAbsent(tailNumber, key -> new long[1])[0] =
+                    ((long) segmentNumber << 32) | index;
+        }
+    }
+
+    /**
+     * Streams the samples of a time range back through anomaly detection. The replay
+     * has its own statistical baselines, so the live aircraft are not affected.
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param broadcast Whether replayed samples are sent to WebSocket clients subscribed to replays
+     * @return Replay statistics
+     */
+    public Map<String, Object> replay(LocalDateTime from, LocalDateTime to, boolean broadcast) throws IOException {
+        long start = System.nanoTime();
+        long[] anomalies = new long[1];
+        AnomalyDetectionService.DetectionRun run = anomalyDetectionService.newRun("journal-replay");
+
+        long records = scan(null, from, to, data -> {
+            run.detectAnomalies(data);
+            if (broadcast) {
+                webSocketService.broadcastReplayData(data);
+            }
+            if (data.hasAnyAnomaly()) {
+                anomalies[0]++;
+            }
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("records", records);
+        result.put("anomalies", anomalies[0]);
+        result.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000.0);
+        log.info("Replayed {} journal records from {} to {}", records, from, to);
+        return result;
+    }
+
+    /**
+     * Reads the samples of a time range in journal order
+     *
+     * @param tailNumber Only read samples of this aircraft, or null for all aircraft
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param consumer Receives every sample in the same reused object
+     * @return Number of samples read
+     */
+    public long scan(String tailNumber, LocalDateTime from, LocalDateTime to, Consumer<AircraftData> consumer) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long fromMillis = TelemetryTime.toEpochMillis(from);
+        long toMillis = TelemetryTime.toEpochMillis(to);
+        long records = 0;
+
+        AircraftData data = new AircraftData();
+        for (Path path : listSegments()) {
+            JournalSegment.TimeRange range = timeRange(path);
+            if (!range.overlaps(fromMillis, toMillis)) {
+                continue;
+            }
+            try (JournalSegment segment = JournalSegment.openForRead(path)) {
+                int count = segment.getRecordCount();
+                for (int i = range.isOrdered() ? segment.findFirstAtOrAfter(fromMillis) : 0; i < count; i++) {
+                    long timestamp = segment.getTimestamp(i);
+                    if (timestamp > toMillis && range.isOrdered()) {
+                        break;
+                    }
+                    if (timestamp < fromMillis || timestamp > toMillis
+                            || (tailNumber != null && !segment.hasTailNumber(i, tailNumber))) {
+                        continue;
+                    }
+                    consumer.accept(segment.readInto(i, data, aircraftTypes));
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Finds the most recent journaled sample of an aircraft through the index of
+     * latest records, without scanning the segments
+     *
+     * @param tailNumber The aircraft tail number
+     * @return The latest sample, or null if the aircraft has no sample appended since
+     *         startup or within the recovery period
+     */
+    public AircraftData findLatest(String tailNumber) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        long position;
+        synchronized (appendLock) {
+            long[] latest = latestPositions.get(tailNumber);
+            if (latest == null) {
+                return null;
+            }
+            position = latest[0];
+        }
+        Path path = segmentPath((int) (position >>> 32));
+        int index = (int) position;
+        try (JournalSegment segment = JournalSegment.openForRead(path)) {
+            return index < segment.getRecordCount() ? segment.readInto(index, new AircraftData(), aircraftTypes) : null;
+        } catch (NoSuchFileException e) {
+            // Deleted by retention since
+            return null;
+        }
+    }
+
+    /**
+     * Gets journal statistics
+     */
+    public Map<String, Object> getJournalStatus() throws IOException {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        if (enabled) {
+            synchronized (appendLock) {
+                status.put("activeSegment", activeSegmentNumber);
+                status.put("appendedRecords", appendedRecords);
+                status.put("deletedSegments", deletedSegments);
+                status.put("indexedAircraft", latestPositions.size());
+                status.put("aircraftTypes", aircraftTypes.size());
+            }
+            status.put("committedRecords", committedRecords);
+            status.put("rejectedRecords", rejectedRecords.get());
+            List<Path> segments = listSegments();
+            long sizeBytes = 0;
+            for (Path path : segments) {
+                sizeBytes += Files.size(path);
+            }
+            status.put("segments", segments.size());
+            status.put("sizeBytes", sizeBytes);
+            status.put("directory", journalDirectory.toAbsolutePath().toString());
+        }
+        return status;
+    }
+
+    /**
+     * Loads the samples within the history retention period into the history store and
+     * the samples within the rollup retention into the rollups, reading back at most the
+     * recovery period. Values are copied from the mapped segments into a single scratch
+     * array, and the latest record of every aircraft read is indexed.
+     */
+    private void recoverHistory(List<Path> segments) throws IOException {
+        long start = System.nanoTime();
+        long nowMillis = TelemetryTime.toEpochMillis(LocalDateTime.now(ZoneOffset.UTC));
+        long historySinceMillis = nowMillis - historyMinutes * 60_000L;
+        long sinceMillis = telemetryRollupService.isEnabled()
+                ? Math.min(historySinceMillis, nowMillis - telemetryRollupService.getRetentionMillis())
+                : historySinceMillis;
+        sinceMillis = Math.max(sinceMillis, nowMillis - recoveryMinutes * 60_000L);
+        double[] values = new double[Sensor.COUNT];
+        long recovered = 0;
+
+        for (Path path : segments) {
+            JournalSegment.TimeRange range = timeRange(path);
+            if (!range.overlaps(sinceMillis, Long.MAX_VALUE)) {
+                continue;
+            }
+            try (JournalSegment segment = JournalSegment.openForRead(path)) {
+                int count = segment.getRecordCount();
+                for (int i = range.isOrdered() ? segment.findFirstAtOrAfter(sinceMillis) : 0; i < count; i++) {
+                    long timestamp = segment.getTimestamp(i);
+                    if (timestamp < sinceMillis) {
+                        continue;
+                    }
+                    segment.readValues(i, values);
+                    String tailNumber = segment.getTailNumber(i);
+                    telemetryRollupService.record(tailNumber, timestamp, values);
+                    if (timestamp >= historySinceMillis) {
+                        telemetryHistoryService.record(tailNumber, timestamp, values, segment.getAnomalyFlags(i));
+                    }
+                    synchronized (appendLock) {
+                        indexLatest(tailNumber, segmentNumber(path), i);
+                    }
+                    recovered++;
+                }
+            }
+        }
+
+        if (recovered > 0) {
+            log.info("Recovered {} journal records into history and rollups in {} ms", recovered, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return journalDirectory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,431 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.SensorGroup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Streaming UTF-8 JSON writer for the telemetry and alert messages.
+ *
+ * Writes straight into a reusable byte buffer, with the property names of
+ * {@link AircraftData} encoded once up front, so a message costs no reflection and
+ * no intermediate strings or boxed values. The output is byte for byte what the Spring configured
+ * {@code ObjectMapper} produces for the same values:
+ * <ul>
+ *   <li>{@link AircraftData} properties in declaration order followed by
+ *       {@code statisticalAnomaly} and {@code systemStatus}, with the timestamp
+ *       formatted as {@code yyyy-MM-dd HH:mm:ss}</li>
+ *   <li>Other timestamps in ISO-8601 form, as written by the Java time module</li>
+ *   <li>Doubles as {@link Double#toString(double)} of the running JVM, see {@link DoubleFormatter}, and
+ *       non-finite values as strings</li>
+ *   <li>Strings with quotes, backslashes and control characters escaped</li>
+ * </ul>
+ * A property added to {@link AircraftData} must be added to {@link #aircraftData} too.
+ *
+ * Each thread has one writer, obtained with {@link #acquire()}. A message must be
+ * completed with {@link #toString()} or {@link #toByteArray()} before the thread
+ * acquires the writer again.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryJsonWriter {
+
+    private static final ThreadLocal<TelemetryJsonWriter> WRITERS = ThreadLocal.withInitial(TelemetryJsonWriter::new);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+
+    private static final byte[] TAIL_NUMBER = bytes("{\"tailNumber\":");
+    private static final byte[] AIRCRAFT_TYPE = bytes(",\"aircraftType\":");
+    private static final byte[] TIMESTAMP = bytes(",\"timestamp\":");
+    private static final byte[][] SENSOR_NAMES = new byte[Sensor.COUNT][];
+    private static final int[] SENSOR_GROUPS = new int[Sensor.COUNT];
+    private static final byte[] ENGINE_ANOMALY = bytes(",\"engineAnomaly\":");
+    private static final byte[] FUEL_ANOMALY = bytes(",\"fuelAnomaly\":");
+    private static final byte[] HYDRAULIC_ANOMALY = bytes(",\"hydraulicAnomaly\":");
+    private static final byte[] ALTITUDE_ANOMALY = bytes(",\"altitudeAnomaly\":");
+    private static final byte[] AIRSPEED_ANOMALY = bytes(",\"airspeedAnomaly\":");
+    private static final byte[] OUTLIER_SENSORS = bytes(",\"outlierSensors\":");
+    private static final byte[] STATISTICAL_ANOMALY = bytes(",\"statisticalAnomaly\":");
+    private static final byte[] SYSTEM_STATUS = bytes(",\"systemStatus\":");
+    private static final byte[] WARNING = bytes("\"WARNING\"");
+    private static final byte[] NORMAL = bytes("\"NORMAL\"");
+
+    static {
+        for (Sensor sensor : Sensor.VALUES) {
+            SENSOR_NAMES[sensor.ordinal()] = bytes(",\"" + sensor.getFieldName() + "\":");
+        }
+        for (SensorGroup group : SensorGroup.VALUES) {
+            for (Sensor sensor : group.getSensors()) {
+                SENSOR_GROUPS[sensor.ordinal()] = group.bit();
+            }
+        }
+    }
+
+    private byte[] buffer = new byte[2048];
+    private int length = 0;
+    // Whether the next property is the first of its object
+    private boolean first = true;
+    // Doubles left by the DoubleFormatter are formatted here, StringBuilder appends them without allocating
+    private final StringBuilder number = new StringBuilder(32);
+
+    private TelemetryJsonWriter() {
+    }
+
+    /**
+     * Gets the writer of the current thread, emptied
+     */
+    public static TelemetryJsonWriter acquire() {
+        TelemetryJsonWriter writer = WRITERS.get();
+        writer.length = 0;
+        writer.first = true;
+        return writer;
+    }
+
+    public TelemetryJsonWriter beginObject() {
+        ensure(1);
+        buffer[length++] = '{';
+        first = true;
+        return this;
+    }
+
+    public TelemetryJsonWriter endObject() {
+        ensure(1);
+        buffer[length++] = '}';
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes a property name; the value follows with one of the value methods
+     */
+    public TelemetryJsonWriter name(String name) {
+        if (!first) {
+            ensure(1);
+            buffer[length++] = ',';
+        }
+        first = false;
+        string(name);
+        ensure(1);
+        buffer[length++] = ':';
+        return this;
+    }
+
+    public TelemetryJsonWriter value(String value) {
+        if (value == null) {
+            raw(NULL);
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public TelemetryJsonWriter value(boolean value) {
+        raw(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public TelemetryJsonWriter value(long value) {
+        if (value == Long.MIN_VALUE) {
+            ascii(Long.toString(value));
+            return this;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+    public TelemetryJsonWriter value(double value) {
+        ensure(DoubleFormatter.MAX_LENGTH);
+        int end = DoubleFormatter.format(value, buffer, length);
+        if (end >= 0) {
+            length = end;
+            return this;
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            ensure(1);
+            buffer[length++] = '"';
+            ascii(Double.toString(value));
+            ensure(1);
+            buffer[length++] = '"';
+            return this;
+        }
+        number.setLength(0);
+        number.append(value);
+        ascii(number);
+        return this;
+    }
+
+    /**
+     * Writes a timestamp in ISO-8601 form, e.g. 2024-01-02T03:04:05.12
+     */
+    public TelemetryJsonWriter value(LocalDateTime value) {
+        if (value == null) {
+            raw(NULL);
+            return this;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            return value(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        ensure(32);
+        buffer[length++] = '"';
+        dateTime(value, 'T');
+        int nanos = value.getNano();
+        if (nanos > 0) {
+            // Fraction without trailing zeros
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            buffer[length++] = '.';
+            for (int i = length + digits - 1; i >= length; i--) {
+                buffer[i] = (byte) ('0' + nanos % 10);
+                nanos /= 10;
+            }
+            length += digits;
+        }
+        buffer[length++] = '"';
+        return this;
+    }
+
+    /**
+     * Writes a value that is already serialized JSON
+     */
+    public TelemetryJsonWriter rawValue(String json) {
+        string(json, false);
+        return this;
+    }
+
+    /**
+     * Writes an aircraft data object
+     *
+     * @param groups Mask of the {@link SensorGroup}s whose sensors are included
+     */
+    public TelemetryJsonWriter aircraftData(AircraftData data, int groups) {
+        raw(TAIL_NUMBER);
+        value(data.getTailNumber());
+        raw(AIRCRAFT_TYPE);
+        value(data.getAircraftType());
+        raw(TIMESTAMP);
+        timestamp(data.getTimestamp());
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            if ((groups & SENSOR_GROUPS[i]) != 0) {
+                raw(SENSOR_NAMES[i]);
+                value(Sensor.VALUES[i].read(data));
+            }
+        }
+        raw(ENGINE_ANOMALY);
+        value(data.isEngineAnomaly());
+        raw(FUEL_ANOMALY);
+        value(data.isFuelAnomaly());
+        raw(HYDRAULIC_ANOMALY);
+        value(data.isHydraulicAnomaly());
+        raw(ALTITUDE_ANOMALY);
+        value(data.isAltitudeAnomaly());
+        raw(AIRSPEED_ANOMALY);
+        value(data.isAirspeedAnomaly());
+        raw(OUTLIER_SENSORS);
+        value(data.getOutlierSensors());
+        raw(STATISTICAL_ANOMALY);
+        value(data.isStatisticalAnomaly());
+        raw(SYSTEM_STATUS);
+        raw(data.hasAnyAnomaly() ? WARNING : NORMAL);
+        return endObject();
+    }
+
+    /**
+     * Writes an object of sensor values, one property per sensor of the given groups
+     *
+     * @param values Values indexed by {@link Sensor#ordinal()}
+     */
+    public TelemetryJsonWriter sensorValues(double[] values, int groups) {
+        beginObject();
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            if ((groups & SENSOR_GROUPS[i]) != 0) {
+                // The names start with a comma
+                if (first) {
+                    first = false;
+                    raw(SENSOR_NAMES[i], 1);
+                } else {
+                    raw(SENSOR_NAMES[i], 0);
+                }
+                value(values[i]);
+            }
+        }
+        return endObject();
+    }
+
+    /**
+     * Gets the message written so far as a new byte array
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Gets the message written so far as a new string
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes an {@link AircraftData} timestamp as formatted by its {@code @JsonFormat} pattern
+     */
+    private void timestamp(LocalDateTime value) {
+        if (value == null) {
+            raw(NULL);
+        } else if (value.getYear() < 1 || value.getYear() > 9999) {
+            value(value.format(TIMESTAMP_FORMAT));
+        } else {
+            ensure(21);
+            buffer[length++] = '"';
+            dateTime(value, ' ');
+            buffer[length++] = '"';
+        }
+    }
+
+    /**
+     * Writes yyyy-MM-dd, the separator and HH:mm:ss; the caller ensures the capacity
+     */
+    private void dateTime(LocalDateTime value, char separator) {
+        digits(value.getYear(), 4);
+        buffer[length++] = '-';
+        digits(value.getMonthValue(), 2);
+        buffer[length++] = '-';
+        digits(value.getDayOfMonth(), 2);
+        buffer[length++] = (byte) separator;
+        digits(value.getHour(), 2);
+        buffer[length++] = ':';
+        digits(value.getMinute(), 2);
+        buffer[length++] = ':';
+        digits(value.getSecond(), 2);
+    }
+
+    private void digits(int value, int count) {
+        for (int i = length + count - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += count;
+    }
+
+    private void string(String value) {
+        ensure(1);
+        buffer[length++] = '"';
+        string(value, true);
+        ensure(1);
+        buffer[length++] = '"';
+    }
+
+    /**
+     * Writes the characters of a string as UTF-8, escaped for a JSON string if requested
+     */
+    private void string(String value, boolean escape) {
+        int count = value.length();
+        // Worst case: 6 bytes per escaped character, 3 per other character
+        ensure(count * 6);
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (!escape || (c >= 0x20 && c != '"' && c != '\\')) {
+                    buffer[length++] = (byte) c;
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates cannot be encoded, so they are escaped as Jackson does
+                buffer[length++] = '\\';
+                buffer[length++] = 'u';
+                buffer[length++] = HEX[c >> 12];
+                buffer[length++] = HEX[(c >> 8) & 0xF];
+                buffer[length++] = HEX[(c >> 4) & 0xF];
+                buffer[length++] = HEX[c & 0xF];
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void escape(char c) {
+        buffer[length++] = '\\';
+        switch (c) {
+            case '"' -> buffer[length++] = '"';
+            case '\\' -> buffer[length++] = '\\';
+            case '\b' -> buffer[length++] = 'b';
+            case '\f' -> buffer[length++] = 'f';
+            case '\n' -> buffer[length++] = 'n';
+            case '\r' -> buffer[length++] = 'r';
+            case '\t' -> buffer[length++] = 't';
+            default -> {
+                buffer[length++] = 'u';
+                buffer[length++] = '0';
+                buffer[length++] = '0';
+                buffer[length++] = HEX[c >> 4];
+                buffer[length++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void ascii(CharSequence value) {
+        int count = value.length();
+        ensure(count);
+        for (int i = 0; i < count; i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void raw(byte[] bytes) {
+        raw(bytes, 0);
+    }
+
+    private void raw(byte[] bytes, int from) {
+        ensure(bytes.length - from);
+        System.arraycopy(bytes, from, buffer, length, bytes.length - from);
+        length += bytes.length - from;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
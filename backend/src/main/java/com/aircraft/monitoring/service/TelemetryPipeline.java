@@ -0,0 +1,441 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Staged generate, detect and record pipeline over preallocated rings of samples.
+ *
+ * The aircraft are split into partitions by a key, e.g. their fleet index. Each
+ * partition has its own ring and one consumer thread that analyzes a sample,
+ * adds it to the history, rollups and journal and hands it to the producer's
+ * {@link Sink}, e.g. for broadcasting, before releasing its slot. Producers (the
+ * simulation tick and the fleet workers) claim a slot in the ring of their
+ * aircraft, generate into its reusable {@link AircraftData} and publish it. The
+ * samples of one aircraft therefore pass every stage in order, while different
+ * partitions detect and record in parallel with no shared consumer.
+ *
+ * Rings are linked to their consumer by sequence numbers in the style of the LMAX
+ * Disruptor: no locks and no allocation per sample. A consumer processes everything
+ * published so far as one batch and parks when idle; a producer unparks only the
+ * consumer of the partition it published to. When a ring is full, producers either
+ * wait for its consumer or drop the new sample, see {@link OverflowPolicy}.
+ *
+ * The pipeline is enabled with {@code aircraft.pipeline.enabled}; when disabled,
+ * producers run all stages inline as before.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class TelemetryPipeline {
+
+    /**
+     * What producers do when every slot of a ring is still in use
+     */
+    public enum OverflowPolicy {
+        /** Wait until the consumer releases a slot, slowing down generation */
+        BLOCK,
+        /** Drop the new sample and count it */
+        DROP_NEWEST
+    }
+
+    /**
+     * Receives a sample once it has been analyzed and recorded
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        /**
+         * Handles a completed sample on the consumer thread of its partition. The
+         * data belongs to the ring and is reused afterwards, so it must be copied
+         * if kept.
+         *
+         * @param data The analyzed sample
+         * @param key The partition key it was published with
+         */
+        void accept(AircraftData data, int key);
+    }
+
+    // Spins before an idle consumer parks until a producer of its partition unparks it
+    private static final int SPIN_TRIES = 200;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Autowired
+    private TelemetryHistoryService telemetryHistoryService;
+
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
+
+    @Autowired
+    private TelemetryJournalService telemetryJournalService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${aircraft.pipeline.enabled:true}")
+    private boolean enabled;
+
+    // Slots of all rings together; each ring is rounded up to a power of two
+    @Value("${aircraft.pipeline.ring-size:16384}")
+    private int ringSize;
+
+    // 0 = one less than the available cores, at least 1
+    @Value("${aircraft.pipeline.partitions:0}")
+    private int partitions;
+
+    @Value("${aircraft.pipeline.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    private Partition[] rings = new Partition[0];
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * Preallocates the rings and starts their consumer threads
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        if (partitions <= 0) {
+            partitions = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        }
+        int size = Integer.highestOneBit(Math.max(2, ringSize / partitions) - 1) << 1;
+        rings = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            rings[i] = new Partition(size);
+        }
+
+        running = true;
+        for (int i = 0; i < partitions; i++) {
+            rings[i].start("pipeline-" + (i + 1));
+        }
+        pipelineMetrics.registerPipeline(this);
+
+        log.info("Telemetry pipeline started: {} partitions of {} slots, overflow policy {}",
+                partitions, size, overflowPolicy);
+    }
+
+    /**
+     * Stops the consumer threads; samples still in the rings are not recorded
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Partition ring : rings) {
+            LockSupport.unpark(ring.thread);
+        }
+    }
+
+    /**
+     * Checks whether producers should publish into the pipeline
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Claims the next slot of a partition. Every claimed sequence must be
+     * published, also when generating the sample fails.
+     *
+     * @param key Partition key, the same for all samples of an aircraft
+     * @return The sequence of the claimed slot, or -1 if the ring is full and the
+     *         sample is dropped
+     */
+    public long claim(int key) {
+        Partition ring = ring(key);
+        while (true) {
+            long current = ring.cursor.get();
+            long next = current + 1;
+            if (next - ring.slots.length > ring.sequence) {
+                if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    dropped.incrementAndGet();
+                    return -1;
+                }
+                if (!running) {
+                    throw new IllegalStateException("Telemetry pipeline is stopped");
+                }
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                continue;
+            }
+            if (ring.cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Gets the reusable sample of a claimed slot. The producer sets the tail number
+     * and timestamp and generates the sensor values; anomaly flags and outliers are
+     * set by detection.
+     *
+     * @param key The key the slot was claimed with
+     * @param sequence The claimed sequence
+     */
+    public AircraftData get(int key, long sequence) {
+        Partition ring = ring(key);
+        return ring.slots[(int) sequence & ring.mask];
+    }
+
+    /**
+     * Publishes a claimed slot to the consumer of its partition
+     *
+     * @param key The key the slot was claimed with
+     * @param sequence The claimed sequence
+     * @param sink Receives the sample once recorded, or null to discard the slot
+     */
+    public void publish(int key, long sequence, Sink sink) {
+        Partition ring = ring(key);
+        int index = (int) sequence & ring.mask;
+        ring.keys[index] = key;
+        ring.sinks[index] = sink;
+        ring.published.set(index, sequence);
+        ring.wake();
+    }
+
+    /**
+     * Copies a sample out of the ring into an object the caller owns
+     *
+     * @param source The ring sample
+     * @param target The object to fill
+     * @return The target
+     */
+    public static AircraftData copy(AircraftData source, AircraftData target) {
+        target.setTailNumber(source.getTailNumber());
+        target.setAircraftType(source.getAircraftType());
+        target.setTimestamp(source.getTimestamp());
+        for (Sensor sensor : Sensor.VALUES) {
+            sensor.write(target, sensor.read(source));
+        }
+        AnomalyFlags.apply(AnomalyFlags.of(source), target);
+        target.setOutlierSensors(source.getOutlierSensors());
+        return target;
+    }
+
+    /**
+     * Gets the number of samples published by producers
+     */
+    public long getPublishedCount() {
+        long published = 0;
+        for (Partition ring : rings) {
+            published += ring.cursor.get() + 1;
+        }
+        return published;
+    }
+
+    /**
+     * Gets the number of samples analyzed and recorded by one partition
+     */
+    public long getProcessedCount(int partition) {
+        return rings[partition].processed;
+    }
+
+    /**
+     * Gets the number of partitions, each with its own ring and consumer thread
+     */
+    public int getPartitions() {
+        return rings.length;
+    }
+
+    /**
+     * Gets the number of samples that passed the record stage
+     */
+    public long getRecordedCount() {
+        long recorded = 0;
+        for (Partition ring : rings) {
+            recorded += ring.processed;
+        }
+        return recorded;
+    }
+
+    /**
+     * Gets the number of samples dropped because a ring was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of claimed slots not yet released by their consumer
+     */
+    public long getBacklog() {
+        long backlog = 0;
+        for (Partition ring : rings) {
+            backlog += ring.cursor.get() - ring.sequence;
+        }
+        return backlog;
+    }
+
+    /**
+     * Describes the rings and the progress of every partition
+     *
+     * @return Configuration, backlog and processed counts per partition
+     */
+    public Map<String, Object> getPipelineStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        if (!enabled) {
+            return status;
+        }
+
+        List<Long> processed = new ArrayList<>(rings.length);
+        for (Partition ring : rings) {
+            processed.add(ring.processed);
+        }
+
+        status.put("partitions", rings.length);
+        status.put("ringSize", rings[0].slots.length);
+        status.put("overflowPolicy", overflowPolicy.name());
+        status.put("published", getPublishedCount());
+        status.put("processed", processed);
+        status.put("recorded", getRecordedCount());
+        status.put("dropped", getDroppedCount());
+        status.put("backlog", getBacklog());
+        return status;
+    }
+
+    private Partition ring(int key) {
+        return rings[Math.floorMod(key, rings.length)];
+    }
+
+    /**
+     * The ring of one partition of the aircraft and the thread that detects,
+     * records and completes its samples
+     */
+    private final class Partition implements Runnable {
+
+        final AircraftData[] slots;
+        final int[] keys;
+        final Sink[] sinks;
+        // Sequence last published into each slot; a slot is readable once it holds the wanted sequence
+        final AtomicLongArray published;
+        final int mask;
+
+        // Highest claimed sequence
+        final AtomicLong cursor = new AtomicLong(-1);
+        // Last sequence the consumer is done with; slots up to it may be reused
+        volatile long sequence = -1;
+        volatile long processed = 0;
+        volatile boolean parked = false;
+        Thread thread;
+
+        Partition(int size) {
+            slots = new AircraftData[size];
+            keys = new int[size];
+            sinks = new Sink[size];
+            published = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                slots[i] = new AircraftData();
+                published.set(i, -1);
+            }
+            mask = size - 1;
+        }
+
+        void start(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Unparks the consumer if it is waiting for work. Both this check and the
+         * consumer's check before parking follow a volatile write, so either the
+         * producer sees the consumer parked or the consumer sees the new slot.
+         */
+        void wake() {
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                long next = sequence + 1;
+                long available = available(next);
+                if (available < next) {
+                    if (++idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        // Announce the park before the last check, so a publish in between wakes us
+                        parked = true;
+                        if (running && available(next) < next) {
+                            LockSupport.park(this);
+                        }
+                        parked = false;
+                        idle = 0;
+                    }
+                    continue;
+                }
+
+                idle = 0;
+                for (long s = next; s <= available; s++) {
+                    try {
+                        handle((int) s & mask);
+                    } catch (RuntimeException e) {
+                        log.error("Error in {} at sequence {}", thread.getName(), s, e);
+                    }
+                }
+                sequence = available;
+            }
+        }
+
+        /**
+         * Gets the highest consecutive published sequence, or less than next if none
+         */
+        long available(long next) {
+            long available = next - 1;
+            while (published.get((int) (available + 1) & mask) == available + 1) {
+                available++;
+            }
+            return available;
+        }
+
+        void handle(int index) {
+            Sink sink = sinks[index];
+            if (sink == null) {
+                return;
+            }
+            sinks[index] = null;
+
+            AircraftData data = slots[index];
+            anomalyDetectionService.detectAnomalies(data);
+
+            long start = System.nanoTime();
+            telemetryHistoryService.record(data);
+            telemetryRollupService.record(data);
+            telemetryJournalService.append(data);
+            pipelineMetrics.recordStage(PipelineMetrics.Stage.RECORD, System.nanoTime() - start);
+
+            sink.accept(data, keys[index]);
+            processed++;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import com.aircraft.monitoring.model.TelemetryWindow;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-capacity telemetry history of one aircraft stored as primitive columns.
+ *
+ * Every sensor has its own {@code double[]} ring, timestamps are kept in a
+ * {@code long[]} and the anomaly flags are packed into an {@code int[]} bitmask,
+ * so no per-sample objects are retained.
+ *
+ * There must be a single writer per buffer. Appending never allocates. Readers
+ * never block the writer: a read copies the requested range and then re-checks
+ * the write sequence, discarding any samples the writer may have overwritten
+ * while they were being copied. The writer fences the published sequence before
+ * it overwrites a slot, matching the reader's load fence before the re-check.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryRingBuffer {
+
+    private final String tailNumber;
+    private final int capacity;
+    // One spare slot for the sample the writer may be filling while a reader copies
+    private final int slots;
+    private final long[] timestamps;
+    private final int[] flags;
+    private final double[][] columns;
+
+    // Total number of samples ever appended; published after each write
+    private volatile long sequence = 0;
+
+    public TelemetryRingBuffer(String tailNumber, int capacity) {
+        this.tailNumber = tailNumber;
+        this.capacity = capacity;
+        this.slots = capacity + 1;
+        this.timestamps = new long[slots];
+        this.flags = new int[slots];
+        this.columns = new double[Sensor.COUNT][slots];
+    }
+
+    /**
+     * Appends a sample taken from the given aircraft data
+     */
+    public void append(AircraftData data) {
+        long next = sequence;
+        // The slot writes must not become visible before the previous sequence, or a reader
+        // would accept the oldest sample while it is being overwritten
+        VarHandle.storeStoreFence();
+        int slot = (int) (next % slots);
+        timestamps[slot] = TelemetryTime.toEpochMillis(data.getTimestamp());
+        flags[slot] = AnomalyFlags.of(data);
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            columns[i][slot] = Sensor.VALUES[i].read(data);
+        }
+        sequence = next + 1;
+    }
+
+    /**
+     * Appends a sample given in primitive form
+     *
+     * @param epochMillis Sample timestamp in milliseconds since the epoch
+     * @param values Sensor values indexed by {@link Sensor#ordinal()}
+     * @param anomalyFlags Packed anomaly flags
+     */
+    public void append(long epochMillis, double[] values, int anomalyFlags) {
+        long next = sequence;
+        // The slot writes must not become visible before the previous sequence, or a reader
+        // would accept the oldest sample while it is being overwritten
+        VarHandle.storeStoreFence();
+        int slot = (int) (next % slots);
+        timestamps[slot] = epochMillis;
+        flags[slot] = anomalyFlags;
+        for (int i = 0; i < Sensor.COUNT; i++) {
+            columns[i][slot] = values[i];
+        }
+        sequence = next + 1;
+    }
+
+    /**
+     * Reads all retained samples taken at or after the given time
+     *
+     * @param sinceMillis Lower bound of the sample timestamps (inclusive)
+     * @param sensors Sensors to include in the window
+     * @return A consistent window, oldest sample first
+     */
+    public TelemetryWindow read(long sinceMillis, Sensor[] sensors) {
+        while (true) {
+            long end = sequence;
+            long start = Math.max(0, end - capacity);
+            int length = (int) (end - start);
+
+            long[] windowTimestamps = new long[length];
+            int[] windowFlags = new int[length];
+            double[][] windowValues = new double[sensors.length][length];
+            copy(start, length, timestamps, windowTimestamps);
+            copy(start, length, flags, windowFlags);
+            for (int i = 0; i < sensors.length; i++) {
+                copy(start, length, columns[sensors[i].ordinal()], windowValues[i]);
+            }
+
+            // Samples below the writer's current slot may have been overwritten meanwhile
+            VarHandle.loadLoadFence();
+            long validFrom = sequence + 1 - slots;
+            if (length > 0 && validFrom >= end) {
+                // The writer lapped the whole range while copying; try again
+                continue;
+            }
+
+            int skip = (int) Math.max(0, validFrom - start);
+            while (skip < length && windowTimestamps[skip] < sinceMillis) {
+                skip++;
+            }
+            return toWindow(skip, length, windowTimestamps, windowFlags, windowValues, sensors);
+        }
+    }
+
+    /**
+     * Gets the timestamp of the latest sample, or -1 if the buffer is empty
+     */
+    public long getLatestTimestamp() {
+        long end = sequence;
+        return end == 0 ? -1 : timestamps[(int) ((end - 1) % slots)];
+    }
+
+    public String getTailNumber() {
+        return tailNumber;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the total number of samples ever appended
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    private TelemetryWindow toWindow(int from, int to, long[] windowTimestamps, int[] windowFlags,
+                                     double[][] windowValues, Sensor[] sensors) {
+        Map<String, double[]> values = new LinkedHashMap<>();
+        for (int i = 0; i < sensors.length; i++) {
+            values.put(sensors[i].getFieldName(), Arrays.copyOfRange(windowValues[i], from, to));
+        }
+        return new TelemetryWindow(tailNumber,
+                Arrays.copyOfRange(windowTimestamps, from, to),
+                Arrays.copyOfRange(windowFlags, from, to),
+                values);
+    }
+
+    private void copy(long start, int length, Object source, Object target) {
+        int first = (int) (start % slots);
+        int firstPart = Math.min(length, slots - first);
+        System.arraycopy(source, first, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, length - firstPart);
+    }
+}
@@ -0,0 +1,253 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.RollupResolution;
+import com.aircraft.monitoring.model.RollupSeries;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+
+import java.util.Arrays;
+
+/**
+ * Min/max/sum/count rollups of all sensors of one aircraft at every
+ * {@link RollupResolution}, maintained incrementally as samples arrive.
+ *
+ * Each resolution is a ring of time buckets addressed by bucket index
+ * ({@code epochMillis / width}) modulo the ring length, stored as primitive
+ * columns. A ring starts small and doubles until it holds its configured
+ * retention, so aircraft that are only seen briefly stay cheap. Samples older
+ * than the retention of a resolution are ignored there.
+ *
+ * A query visits at most the retained buckets of one resolution, however wide
+ * the requested range. Writes and reads synchronize on the rollup; both only
+ * touch a bounded number of slots.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryRollup {
+
+    private static final int INITIAL_SLOTS = 64;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final String tailNumber;
+    private final Ring[] rings;
+
+    /**
+     * @param tailNumber The aircraft tail number
+     * @param capacities Number of retained buckets, indexed by {@link RollupResolution#ordinal()}
+     */
+    public TelemetryRollup(String tailNumber, int[] capacities) {
+        this.tailNumber = tailNumber;
+        this.rings = new Ring[RollupResolution.VALUES.length];
+        for (RollupResolution resolution : RollupResolution.VALUES) {
+            rings[resolution.ordinal()] = new Ring(resolution.getWidthMillis(), capacities[resolution.ordinal()]);
+        }
+    }
+
+    /**
+     * Adds a sample taken from the given aircraft data
+     */
+    public synchronized void add(AircraftData data) {
+        long epochMillis = TelemetryTime.toEpochMillis(data.getTimestamp());
+        for (Ring ring : rings) {
+            int base = ring.open(epochMillis);
+            if (base < 0) {
+                continue;
+            }
+            for (int i = 0; i < Sensor.COUNT; i++) {
+                ring.accumulate(base + i, Sensor.VALUES[i].read(data));
+            }
+            ring.close(base);
+        }
+    }
+
+    /**
+     * Adds a sample given in primitive form
+     *
+     * @param epochMillis Sample timestamp in milliseconds since the epoch
+     * @param values Sensor values indexed by {@link Sensor#ordinal()}
+     */
+    public synchronized void add(long epochMillis, double[] values) {
+        for (Ring ring : rings) {
+            int base = ring.open(epochMillis);
+            if (base < 0) {
+                continue;
+            }
+            for (int i = 0; i < Sensor.COUNT; i++) {
+                ring.accumulate(base + i, values[i]);
+            }
+            ring.close(base);
+        }
+    }
+
+    /**
+     * Reads the non-empty buckets of a sensor that overlap the given range
+     *
+     * @param resolution Bucket width to read
+     * @param sensor The sensor
+     * @param fromMillis Start of the range (inclusive)
+     * @param toMillis End of the range (inclusive)
+     * @return The buckets, oldest first
+     */
+    public synchronized RollupSeries read(RollupResolution resolution, Sensor sensor, long fromMillis, long toMillis) {
+        Ring ring = rings[resolution.ordinal()];
+        long first = Math.floorDiv(fromMillis, ring.width);
+        long last = Math.floorDiv(toMillis, ring.width);
+        if (ring.newest != EMPTY) {
+            first = Math.max(first, ring.newest - ring.capacity + 1);
+            last = Math.min(last, ring.newest);
+        }
+        int span = ring.newest == EMPTY || last < first ? 0 : (int) (last - first + 1);
+
+        long[] timestamps = new long[span];
+        int[] counts = new int[span];
+        double[] min = new double[span];
+        double[] max = new double[span];
+        double[] avg = new double[span];
+        int size = 0;
+        for (long index = first; index <= last && span > 0; index++) {
+            int slot = ring.slotOf(index);
+            if (ring.keys[slot] != index || ring.counts[slot] == 0) {
+                continue;
+            }
+            int cell = slot * Sensor.COUNT + sensor.ordinal();
+            timestamps[size] = index * ring.width;
+            counts[size] = ring.counts[slot];
+            min[size] = ring.min[cell];
+            max[size] = ring.max[cell];
+            avg[size] = ring.sum[cell] / ring.counts[slot];
+            size++;
+        }
+
+        return new RollupSeries(tailNumber, sensor, resolution,
+                Arrays.copyOf(timestamps, size), Arrays.copyOf(counts, size),
+                Arrays.copyOf(min, size), Arrays.copyOf(max, size), Arrays.copyOf(avg, size));
+    }
+
+    /**
+     * Gets the start of the oldest bucket a resolution can still hold, or -1 if it has no samples
+     */
+    public synchronized long getRetainedSince(RollupResolution resolution) {
+        Ring ring = rings[resolution.ordinal()];
+        return ring.newest == EMPTY ? -1 : (ring.newest - ring.capacity + 1) * ring.width;
+    }
+
+    /**
+     * Gets the number of bucket slots currently allocated across all resolutions
+     */
+    public synchronized int getAllocatedSlots() {
+        int slots = 0;
+        for (Ring ring : rings) {
+            slots += ring.keys.length;
+        }
+        return slots;
+    }
+
+    public String getTailNumber() {
+        return tailNumber;
+    }
+
+    /**
+     * Buckets of one resolution; value columns are laid out as {@code slot * Sensor.COUNT + sensor}
+     */
+    private static final class Ring {
+
+        private final long width;
+        private final int capacity;
+        private long newest = EMPTY;
+        private long[] keys;
+        private int[] counts;
+        private double[] min;
+        private double[] max;
+        private double[] sum;
+
+        Ring(long width, int capacity) {
+            this.width = width;
+            this.capacity = capacity;
+            allocate(Math.min(capacity, INITIAL_SLOTS));
+        }
+
+        /**
+         * Finds or starts the bucket of a sample
+         *
+         * @return Index of the bucket's first value cell, or -1 if the sample is too old to keep
+         */
+        int open(long epochMillis) {
+            long index = Math.floorDiv(epochMillis, width);
+            if (newest != EMPTY && index <= newest - capacity) {
+                return -1;
+            }
+            if (newest == EMPTY || index > newest) {
+                newest = index;
+            }
+
+            int slot = slotOf(index);
+            if (keys[slot] != index) {
+                // Grow rather than evict a bucket that is still within the retention
+                while (keys[slot] != EMPTY && keys[slot] > newest - capacity && keys.length < capacity) {
+                    resize(Math.min(capacity, keys.length * 2));
+                    slot = slotOf(index);
+                }
+                if (keys[slot] != index) {
+                    keys[slot] = index;
+                    counts[slot] = 0;
+                }
+            }
+            return slot * Sensor.COUNT;
+        }
+
+        void accumulate(int cell, double value) {
+            if (counts[cell / Sensor.COUNT] == 0) {
+                min[cell] = value;
+                max[cell] = value;
+                sum[cell] = value;
+            } else {
+                min[cell] = Math.min(min[cell], value);
+                max[cell] = Math.max(max[cell], value);
+                sum[cell] += value;
+            }
+        }
+
+        void close(int base) {
+            counts[base / Sensor.COUNT]++;
+        }
+
+        int slotOf(long index) {
+            return (int) Math.floorMod(index, (long) keys.length);
+        }
+
+        private void allocate(int slots) {
+            keys = new long[slots];
+            Arrays.fill(keys, EMPTY);
+            counts = new int[slots];
+            min = new double[slots * Sensor.COUNT];
+            max = new double[slots * Sensor.COUNT];
+            sum = new double[slots * Sensor.COUNT];
+        }
+
+        private void resize(int slots) {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            double[] oldMin = min;
+            double[] oldMax = max;
+            double[] oldSum = sum;
+            allocate(slots);
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == EMPTY || oldKeys[old] <= newest - capacity) {
+                    continue;
+                }
+                int slot = slotOf(oldKeys[old]);
+                if (keys[slot] != EMPTY && keys[slot] > oldKeys[old]) {
+                    // Gaps can leave buckets further apart than the new length; keep the newer one
+                    continue;
+                }
+                keys[slot] = oldKeys[old];
+                counts[slot] = oldCounts[old];
+                System.arraycopy(oldMin, old * Sensor.COUNT, min, slot * Sensor.COUNT, Sensor.COUNT);
+                System.arraycopy(oldMax, old * Sensor.COUNT, max, slot * Sensor.COUNT, Sensor.COUNT);
+                System.arraycopy(oldSum, old * Sensor.COUNT, sum, slot * Sensor.COUNT, Sensor.COUNT);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.RollupResolution;
+import com.aircraft.monitoring.model.RollupSeries;
+import com.aircraft.monitoring.model.Sensor;
+import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service maintaining multi-resolution rollups of every aircraft's telemetry
+ * for historical queries.
+ *
+ * Every recorded sample updates the min, max, sum and count of its 1s, 10s, 1m
+ * and 10m buckets in the aircraft's {@link TelemetryRollup}, so a chart over a
+ * long range reads a bounded number of precomputed buckets instead of raw
+ * samples. Each resolution keeps its own retention.
+ *
+ * A fully populated rollup takes about 1.8 MB with the default retention, so the
+ * number of tracked aircraft is capped; the demo aircraft is always tracked.
+ * The simulated fleet is excluded from startup on, before the journal recovery
+ * replays its samples, unless {@code aircraft.fleet.rollups} is set.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class TelemetryRollupService {
+
+    @Value("${aircraft.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${aircraft.rollup.second-retention-minutes:10}")
+    private long secondRetentionMinutes;
+
+    @Value("${aircraft.rollup.ten-second-retention-minutes:120}")
+    private long tenSecondRetentionMinutes;
+
+    @Value("${aircraft.rollup.minute-retention-minutes:1440}")
+    private long minuteRetentionMinutes;
+
+    @Value("${aircraft.rollup.ten-minute-retention-minutes:10080}")
+    private long tenMinuteRetentionMinutes;
+
+    // Upper bound of buckets when the resolution is chosen automatically
+    @Value("${aircraft.rollup.max-points:2000}")
+    private int maxPoints;
+
+    // Aircraft tracked at most, besides the demo aircraft; 0 for no limit
+    @Value("${aircraft.rollup.max-aircraft:100}")
+    private int maxAircraft;
+
+    @Value("${aircraft.simulation.tail-number:N12345}")
+    private String demoTailNumber;
+
+    @Value("${aircraft.fleet.enabled:false}")
+    private boolean fleetEnabled;
+
+    @Value("${aircraft.fleet.size:10000}")
+    private int fleetSize;
+
+    // Rollups take about 1.8 MB per aircraft, so the fleet is not rolled up by default
+    @Value("${aircraft.fleet.rollups:false}")
+    private boolean fleetRollups;
+
+    private final ConcurrentMap<String, TelemetryRollup> rollups = new ConcurrentHashMap<>();
+    private boolean excludeFleet;
+    private final LongAdder untrackedSamples = new LongAdder();
+    private final int[] capacities = new int[RollupResolution.VALUES.length];
+
+    /**
+     * Derives the bucket count of every resolution from its retention and
+     * excludes the fleet unless it is rolled up
+     */
+    @PostConstruct
+    public void init() {
+        long[] retentionMinutes = {
+                secondRetentionMinutes, tenSecondRetentionMinutes, minuteRetentionMinutes, tenMinuteRetentionMinutes
+        };
+        for (RollupResolution resolution : RollupResolution.VALUES) {
+            capacities[resolution.ordinal()] = (int) Math.max(1,
+                    retentionMinutes[resolution.ordinal()] * 60_000L / resolution.getWidthMillis());
+        }
+        excludeFleet = fleetEnabled && !fleetRollups;
+        log.info("Telemetry rollups keep {} buckets per aircraft (1s/10s/1m/10m: {}/{}/{}/{})", totalCapacity(),
+                capacities[0], capacities[1], capacities[2], capacities[3]);
+    }
+
+    /**
+     * Adds a sample to the rollups of its aircraft
+     *
+     * @param data The analyzed aircraft data
+     */
+    public void record(AircraftData data) {
+        if (enabled) {
+            TelemetryRollup rollup = rollupFor(data.getTailNumber());
+            if (rollup != null) {
+                rollup.add(data);
+            }
+        }
+    }
+
+    /**
+     * Adds a sample given in primitive form
+     *
+     * @param tailNumber The aircraft tail number
+     * @param epochMillis Sample timestamp in milliseconds since the epoch
+     * @param values Sensor values indexed by {@link Sensor#ordinal()}
+     */
+    public void record(String tailNumber, long epochMillis, double[] values) {
+        if (enabled) {
+            TelemetryRollup rollup = rollupFor(tailNumber);
+            if (rollup != null) {
+                rollup.add(epochMillis, values);
+            }
+        }
+    }
+
+    /**
+     * Gets the rollup buckets of a sensor within a time range
+     *
+     * @param tailNumber The aircraft tail number
+     * @param sensor The sensor
+     * @param fromMillis Start of the range in milliseconds since the epoch (inclusive)
+     * @param toMillis End of the range in milliseconds since the epoch (inclusive)
+     * @param resolution Bucket width, or null to choose one for the range
+     * @return The buckets, or null if the aircraft has no rollups
+     */
+    public RollupSeries getSeries(String tailNumber, Sensor sensor, long fromMillis, long toMillis,
+                                  RollupResolution resolution) {
+        TelemetryRollup rollup = rollups.get(tailNumber);
+        if (rollup == null) {
+            return null;
+        }
+        if (resolution == null) {
+            resolution = selectResolution(rollup, fromMillis, toMillis);
+        }
+        return rollup.read(resolution, sensor, fromMillis, toMillis);
+    }
+
+    /**
+     * Gets how far back the coarsest resolution reaches, in milliseconds
+     */
+    public long getRetentionMillis() {
+        long retention = 0;
+        for (RollupResolution resolution : RollupResolution.VALUES) {
+            retention = Math.max(retention, capacities[resolution.ordinal()] * resolution.getWidthMillis());
+        }
+        return retention;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Describes the rollup settings and memory use
+     *
+     * @return Retained buckets per resolution, tracked aircraft and allocated slots
+     */
+    public Map<String, Object> getRollupStatus() {
+        Map<String, Integer> buckets = new LinkedHashMap<>();
+        for (RollupResolution resolution : RollupResolution.VALUES) {
+            buckets.put(resolution.getLabel(), capacities[resolution.ordinal()]);
+        }
+        long allocatedSlots = 0;
+        for (TelemetryRollup rollup : rollups.values()) {
+            allocatedSlots += rollup.getAllocatedSlots();
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("buckets", buckets);
+        status.put("maxPoints", maxPoints);
+        status.put("aircraft", rollups.size());
+        status.put("maxAircraft", maxAircraft);
+        status.put("fleetExcluded", excludeFleet);
+        status.put("untrackedSamples", untrackedSamples.sum());
+        status.put("allocatedSlots", allocatedSlots);
+        return status;
+    }
+
+    /**
+     * Picks the finest resolution that still holds the start of the range and
+     * covers it with at most the configured number of buckets
+     */
+    private RollupResolution selectResolution(TelemetryRollup rollup, long fromMillis, long toMillis) {
+        long span = Math.max(0, toMillis - fromMillis);
+        for (RollupResolution resolution : RollupResolution.VALUES) {
+            long retainedSince = rollup.getRetainedSince(resolution);
+            if (span / resolution.getWidthMillis() < maxPoints && retainedSince >= 0 && retainedSince <= fromMillis) {
+                return resolution;
+            }
+        }
+        return RollupResolution.VALUES[RollupResolution.VALUES.length - 1];
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int capacity : capacities) {
+            total += capacity;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the rollup of an aircraft, creating it unless the aircraft is excluded or
+     * the cap is reached
+     *
+     * @return The rollup, or null if the aircraft is not rolled up
+     */
+    private TelemetryRollup rollupFor(String tailNumber) {
+        TelemetryRollup rollup = rollups.get(tailNumber);
+        if (rollup == null) {
+            boolean full = maxAircraft > 0 && rollups.size() >= maxAircraft && !tailNumber.equals(demoTailNumber);
+            boolean fleet = excludeFleet
+                    && FleetSimulationService.isFleetTailNumber(tailNumber, fleetSize, demoTailNumber);
+            if (full || fleet) {
+                untrackedSamples.increment();
+                return null;
+            }
+            rollup = rollups.computeIfAbsent(tailNumber, tail -> new TelemetryRollup(tail, capacities));
+        }
+        return rollup;
+    }
+}
@@ -0,0 +1,193 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limits the update rate of one WebSocket client per aircraft.
+ *
+ * Between two sends to the client, only the latest sample of each aircraft is
+ * kept; it is sent once the minimum interval has passed, either with the next
+ * sample or by the periodic flush. A change of the anomaly flags is sent at
+ * once, so anomaly transitions are never delayed. Optionally min/max/avg of
+ * every sensor over the conflated samples are sent along.
+ *
+ * Samples are copied into objects owned by the conflator, since replays reuse one
+ * object for every sample they broadcast. An update owns its sample; the slot
+ * continues with a fresh object.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+public final class UpdateConflator {
+
+    private final long intervalMillis;
+    private final boolean aggregate;
+
+    // Guarded by this
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    public UpdateConflator(long intervalMillis, boolean aggregate) {
+        this.intervalMillis = intervalMillis;
+        this.aggregate = aggregate;
+    }
+
+    /**
+     * Offers a new sample
+     *
+     * @param data The sample
+     * @param flags The sample's anomaly flags
+     * @param nowMillis The current time
+     * @return The update to send now, or null if the sample was conflated
+     */
+    public synchronized Update offer(AircraftData data, int flags, long nowMillis) {
+        String tailNumber = data.getTailNumber() != null ? data.getTailNumber() : "";
+        Slot slot = slots.computeIfAbsent(tailNumber, key -> new Slot(aggregate));
+        slot.add(data);
+
+        if (flags != slot.lastFlags || nowMillis - slot.lastSentMillis >= intervalMillis) {
+            slot.lastFlags = flags;
+            return slot.take(nowMillis);
+        }
+        return null;
+    }
+
+    /**
+     * Collects the conflated samples whose interval has passed
+     *
+     * @param nowMillis The current time
+     * @param due Receives the updates to send
+     */
+    public synchronized void collectDue(long nowMillis, List<Update> due) {
+        for (Slot slot : slots.values()) {
+            if (slot.count > 0 && nowMillis - slot.lastSentMillis >= intervalMillis) {
+                due.add(slot.take(nowMillis));
+            }
+        }
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public boolean isAggregate() {
+        return aggregate;
+    }
+
+    /**
+     * A sample to send, with the statistics of all samples it replaces if aggregation is on
+     */
+    public static final class Update {
+
+        private final AircraftData data;
+        private final int count;
+        private final double[] min;
+        private final double[] max;
+        private final double[] avg;
+
+        Update(AircraftData data, int count, double[] min, double[] max, double[] avg) {
+            this.data = data;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.avg = avg;
+        }
+
+        public AircraftData getData() {
+            return data;
+        }
+
+        /**
+         * Gets the number of samples covered by this update
+         */
+        public int getCount() {
+            return count;
+        }
+
+        public boolean hasAggregate() {
+            return min != null;
+        }
+
+        /**
+         * Gets the minimum per sensor, indexed by {@link Sensor#ordinal()}
+         */
+        public double[] getMin() {
+            return min;
+        }
+
+        public double[] getMax() {
+            return max;
+        }
+
+        public double[] getAvg() {
+            return avg;
+        }
+    }
+
+    /**
+     * Conflation state of one aircraft
+     */
+    private static final class Slot {
+
+        private final double[] min;
+        private final double[] max;
+        private final double[] sum;
+        // The latest sample, copied from the caller
+        private AircraftData latest = new AircraftData();
+        private int count = 0;
+        private int lastFlags = 0;
+        private long lastSentMillis = Long.MIN_VALUE / 2;
+
+        Slot(boolean aggregate) {
+            min = aggregate ? new double[Sensor.COUNT] : null;
+            max = aggregate ? new double[Sensor.COUNT] : null;
+            sum = aggregate ? new double[Sensor.COUNT] : null;
+            reset();
+        }
+
+        void add(AircraftData data) {
+            TelemetryPipeline.copy(data, latest);
+            count++;
+            if (sum != null) {
+                for (Sensor sensor : Sensor.VALUES) {
+                    int i = sensor.ordinal();
+                    double value = sensor.read(data);
+                    min[i] = Math.min(min[i], value);
+                    max[i] = Math.max(max[i], value);
+                    sum[i] += value;
+                }
+            }
+        }
+
+        Update take(long nowMillis) {
+            Update update;
+            if (sum != null) {
+                double[] avg = new double[Sensor.COUNT];
+                for (int i = 0; i < Sensor.COUNT; i++) {
+                    avg[i] = sum[i] / count;
+                }
+                update = new Update(latest, count, min.clone(), max.clone(), avg);
+            } else {
+                update = new Update(latest, count, null, null, null);
+            }
+            latest = new AircraftData();
+            lastSentMillis = nowMillis;
+            reset();
+            return update;
+        }
+
+        private void reset() {
+            count = 0;
+            if (sum != null) {
+                Arrays.fill(min, Double.POSITIVE_INFINITY);
+                Arrays.fill(max, Double.NEGATIVE_INFINITY);
+                Arrays.fill(sum, 0.0);
+            }
+        }
+    }
+}
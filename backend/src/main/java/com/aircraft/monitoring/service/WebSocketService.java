@@ -1,16 +1,34 @@
 package com.aircraft.monitoring.service;
 
 import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.SensorGroup;
+import com.aircraft.monitoring.model.TelemetryTime;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebSocket service for real-time aircraft data communication.
@@ -18,27 +36,138 @@ import java.util.List;
  * This service handles WebSocket connections and broadcasts aircraft sensor data
  * to all connected clients in real-time.
  * 
+ * Broadcasts never send on the calling thread. Each message is serialized once
+ * and queued on every session's bounded {@link ClientSession} queue; a dedicated
+ * send executor drains the queues, so a slow client cannot stall data generation
+ * or other clients.
+ * 
+ * Clients connecting to the plain WebSocket endpoint can negotiate the
+ * {@value BinaryTelemetryEncoder#SUBPROTOCOL} sub-protocol to receive aircraft data
+ * as compact binary delta frames (see {@link BinaryTelemetryEncoder}) instead of JSON.
+ * When a full queue drops a frame of a binary client, the client's next frame of that
+ * stream is a keyframe, since its deltas no longer apply.
+ * 
+ * Clients can subscribe to specific aircraft, sensor groups or anomalies only. Aircraft
+ * data is routed through a {@link SubscriptionIndex}, so a broadcast only visits the
+ * clients interested in the sample's aircraft. JSON clients receive only the fields of
+ * their subscribed groups; binary clients always receive complete frames.
+ * 
+ * Clients can also declare a maximum update rate. Their updates are conflated per
+ * aircraft by an {@link UpdateConflator}, keeping only the latest sample (optionally
+ * with min/max/avg over the interval) until the next send; samples whose anomaly flags
+ * changed are sent at once. Binary clients with a rate receive keyframes.
+ * 
+ * The complete JSON messages of aircraft data and alerts are also handed to the
+ * {@link SseService} for server-sent events streams, without serializing again.
+ * 
  * @author Aircraft Monitoring Team
  * @version 1.0.0
  */
 @Service
 @Slf4j
-public class WebSocketService extends TextWebSocketHandler {
+public class WebSocketService extends TextWebSocketHandler implements SubProtocolCapable {
+    
+    private final Map<String, ClientSession> sessions = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private SseService sseService;
+    
+    @Value("${aircraft.websocket.queue-capacity:256}")
+    private int queueCapacity;
+    
+    @Value("${aircraft.websocket.overflow-policy:DROP_OLDEST}")
+    private ClientSession.OverflowPolicy overflowPolicy;
+    
+    @Value("${aircraft.websocket.send-threads:0}")
+    private int sendThreads;
     
-    private final List<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Also switches Tomcat request handling to virtual threads (Spring Boot 3.2+ on Java 21)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${aircraft.websocket.binary.keyframe-interval:30}")
+    private int keyframeInterval;
+    
+    @Value("${aircraft.websocket.conflation.flush-interval-ms:100}")
+    private long conflationFlushIntervalMs;
+    
+    private Executor sendExecutor;
+    
+    private ScheduledExecutorService conflationExecutor;
+    
+    // Thread-safe; its per-aircraft stream locks keep binary frames in order
+    private BinaryTelemetryEncoder binaryEncoder;
+    
+    // Serializes subscription changes and index rebuilds, so the latest index wins
+    private final Object subscriptionLock = new Object();
+    
+    // Rebuilt on every connection and subscription change, read lock-free by broadcasts
+    private volatile SubscriptionIndex subscriptionIndex = SubscriptionIndex.EMPTY;
+    
+    /**
+     * Creates the send executor and schedules the flush of conflated updates
+     */
+    @PostConstruct
+    public void init() {
+        if (sendThreads <= 0) {
+            sendThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        sendExecutor = SendExecutors.create("ws-send", sendThreads, virtualThreads);
+        binaryEncoder = new BinaryTelemetryEncoder(keyframeInterval);
+        
+        conflationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-conflation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        conflationExecutor.scheduleWithFixedDelay(this::flushConflatedUpdates,
+                conflationFlushIntervalMs, conflationFlushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops the executors on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        conflationExecutor.shutdownNow();
+        SendExecutors.shutdown(sendExecutor);
+    }
     
     /**
      * Handles new WebSocket connections
      */
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
-        log.info("New WebSocket connection established: {}", session.getId());
+        ClientSession client = new ClientSession(session, queueCapacity, overflowPolicy, sendExecutor, pipelineMetrics);
+        log.info("New WebSocket connection established: {} (protocol {})", session.getId(),
+                client.isBinary() ? BinaryTelemetryEncoder.SUBPROTOCOL : "json");
         
         // Send welcome message
         String welcomeMessage = "{\"type\":\"connection\",\"message\":\"Connected to Aircraft Monitoring System\"}";
-        session.sendMessage(new TextMessage(welcomeMessage));
+        client.offer(new TextMessage(welcomeMessage));
+        
+        if (client.isBinary()) {
+            String schemaMessage = "{\"type\":\"binary_schema\",\"data\":"
+                    + objectMapper.writeValueAsString(BinaryTelemetryEncoder.getSchema()) + "}";
+            client.offer(new TextMessage(schemaMessage));
+        }
+        
+        sessions.put(session.getId(), client);
+        updateSubscription(client, Subscription.ALL, true);
+    }
+    
+    /**
+     * Sub-protocols offered during the WebSocket handshake
+     */
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(BinaryTelemetryEncoder.SUBPROTOCOL);
     }
     
     /**
@@ -46,95 +175,447 @@ public class WebSocketService extends TextWebSocketHandler {
      */
     @Override
     public void afterConnectionClosed(WebSocketSession session, org.springframework.web.socket.CloseStatus status) throws Exception {
-        sessions.remove(session);
+        ClientSession client = sessions.get(session.getId());
+        if (client != null && removeClient(client)) {
+            rebuildSubscriptionIndex();
+        }
         log.info("WebSocket connection closed: {} with status: {}", session.getId(), status);
     }
     
     /**
-     * Handles incoming WebSocket messages
+     * Handles incoming WebSocket messages.
+     * 
+     * Supported commands:
+     * {"type":"subscribe","aircraft":[...],"subsystems":[...],"anomaliesOnly":true,"maxRate":0.2,"aggregate":true,"replay":true}
+     * and {"type":"unsubscribe","aircraft":[...],"subsystems":[...]}; all fields are optional.
+     * Subsystems are engine, fuel, hydraulic, flight and systems. maxRate is in updates per
+     * second and aircraft, 0 for every update. replay adds the replay_data messages of replayed
+     * flights. Other messages are echoed.
      */
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String payload = message.getPayload();
         log.debug("Received WebSocket message from {}: {}", session.getId(), payload);
         
+        ClientSession client = sessions.get(session.getId());
+        if (client == null) {
+            return;
+        }
+        
         // Handle different message types
         try {
-            // For now, just echo back the message
-            String response = "{\"type\":\"echo\",\"message\":\"" + payload + "\"}";
-            session.sendMessage(new TextMessage(response));
+            JsonNode command = parseCommand(payload);
+            String type = command != null ? command.path("type").asText() : "";
+            if ("subscribe".equals(type) || "unsubscribe".equals(type)) {
+                handleSubscriptionCommand(client, type, command);
+            } else {
+                // For now, just echo back the message
+                byte[] response = TelemetryJsonWriter.acquire().beginObject()
+                        .name("type").value("echo")
+                        .name("message").value(payload)
+                        .endObject().toByteArray();
+                client.offer(new TextMessage(response));
+            }
         } catch (Exception e) {
             log.error("Error handling WebSocket message", e);
         }
     }
     
+    private JsonNode parseCommand(String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
     /**
-     * Broadcasts aircraft data to all connected WebSocket clients
-     * 
-     * @param aircraftData The aircraft sensor data to broadcast
+     * Applies a subscribe or unsubscribe command and confirms the resulting subscription
      */
-    public void broadcastAircraftData(AircraftData aircraftData) {
-        if (sessions.isEmpty()) {
+    private void handleSubscriptionCommand(ClientSession client, String type, JsonNode command) throws IOException {
+        List<String> aircraft = textList(command.get("aircraft"));
+        List<String> subsystems = textList(command.get("subsystems"));
+        JsonNode anomaliesOnly = command.get("anomaliesOnly");
+        JsonNode maxRate = command.get("maxRate");
+        JsonNode aggregate = command.get("aggregate");
+        JsonNode replay = command.get("replay");
+        
+        Subscription current = client.getSubscription();
+        Subscription updated;
+        try {
+            updated = "subscribe".equals(type)
+                    ? current.subscribe(aircraft, subsystems, anomaliesOnly != null ? anomaliesOnly.asBoolean() : null)
+                            .withRate(maxRate != null ? maxRate.asDouble(-1) : null,
+                                    aggregate != null ? aggregate.asBoolean() : null)
+                            .withReplay(replay != null ? replay.asBoolean() : null)
+                    : current.unsubscribe(aircraft, subsystems);
+        } catch (IllegalArgumentException e) {
+            byte[] error = TelemetryJsonWriter.acquire().beginObject()
+                    .name("type").value("error")
+                    .name("message").value(e.getMessage())
+                    .endObject().toByteArray();
+            client.offer(new TextMessage(error));
             return;
         }
         
+        updateSubscription(client, updated, false);
+        String confirmation = "{\"type\":\"subscription\",\"data\":"
+                + objectMapper.writeValueAsString(updated.describe()) + "}";
+        client.offer(new TextMessage(confirmation));
+    }
+    
+    private static List<String> textList(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(element -> values.add(element.asText()));
+        } else {
+            values.add(node.asText());
+        }
+        return values;
+    }
+    
+    /**
+     * Replaces the subscription of a client and rebuilds the routing index. Binary clients
+     * receive keyframes of aircraft they did not follow frame by frame before, so the
+     * following delta frames apply. A changed rate resets the client's conflation state.
+     */
+    private void updateSubscription(ClientSession client, Subscription updated, boolean joining) {
+        Subscription previous;
+        synchronized (subscriptionLock) {
+            previous = client.getSubscription();
+            client.setSubscription(updated);
+            if (joining || previous.getMaxRate() != updated.getMaxRate()
+                    || previous.isAggregate() != updated.isAggregate()) {
+                client.setConflator(updated.isConflated()
+                        ? new UpdateConflator(updated.getMinIntervalMillis(), updated.isAggregate())
+                        : null);
+            }
+            rebuildSubscriptionIndex();
+        }
+        if (client.isBinary() && isFrameByFrame(updated)) {
+            // Queued under each stream's lock after the new index is visible, so every later
+            // delta frame of the stream reaches the client after its keyframe
+            boolean resync = joining || !isFrameByFrame(previous) || previous.getGroups() == 0;
+            binaryEncoder.snapshot(tailNumber -> updated.includesAircraft(tailNumber)
+                            && (resync || !previous.includesAircraft(tailNumber)),
+                    keyframe -> client.offer(new BinaryMessage(keyframe)));
+        }
+    }
+    
+    /**
+     * Checks whether a binary client receives every frame and can apply delta frames
+     */
+    private static boolean isFrameByFrame(Subscription subscription) {
+        return !subscription.isAnomaliesOnly() && !subscription.isConflated();
+    }
+    
+    /**
+     * Forgets a client and its meters
+     * 
+     * @return false if the client was already removed
+     */
+    private boolean removeClient(ClientSession client) {
+        if (!sessions.remove(client.getId(), client)) {
+            return false;
+        }
+        pipelineMetrics.removeSession(client.getMeters());
+        return true;
+    }
+    
+    private void rebuildSubscriptionIndex() {
+        synchronized (subscriptionLock) {
+            subscriptionIndex = SubscriptionIndex.build(sessions.values());
+        }
+    }
+    
+    /**
+     * Broadcasts aircraft data to the WebSocket clients subscribed to it and to the
+     * server-sent events streams. Records the serialize and fan-out stage latencies,
+     * and the end-to-end latency once the last session wrote the sample.
+     * 
+     * @param aircraftData The aircraft sensor data to broadcast
+     */
+    public void broadcastAircraftData(AircraftData aircraftData) {
+        String tailNumber = aircraftData.getTailNumber();
+        long start = System.nanoTime();
+        DeliveryTracker tracker = aircraftData.getTimestamp() != null
+                ? new DeliveryTracker(pipelineMetrics, TelemetryTime.toEpochMillis(aircraftData.getTimestamp()))
+                : null;
         try {
-            String jsonData = objectMapper.writeValueAsString(aircraftData);
-            String message = "{\"type\":\"aircraft_data\",\"data\":" + jsonData + "}";
-            TextMessage textMessage = new TextMessage(message);
-            
-            // Send to all connected sessions
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(textMessage);
-                    } catch (IOException e) {
-                        log.error("Error sending message to session: {}", session.getId(), e);
-                        sessions.remove(session);
-                    }
-                } else {
-                    sessions.remove(session);
+            AircraftDataMessages messages = new AircraftDataMessages(aircraftData, tracker);
+            SubscriptionIndex index = subscriptionIndex;
+            int removed = 0;
+            if (index.hasBinaryClients(tailNumber)) {
+                // Encoding and queuing under the aircraft's stream lock keeps its binary frames in
+                // sequence order across broadcasting threads; the index is read again under the lock,
+                // so a client never misses a frame between its snapshot keyframe and the next delta
+                synchronized (binaryEncoder.lock(tailNumber)) {
+                    index = subscriptionIndex;
+                    removed += deliver(index.getAllAircraftClients(true), messages)
+                            + deliver(index.getClients(tailNumber, true), messages);
                 }
             }
+            // JSON is serialized outside any lock
+            removed += deliver(index.getAllAircraftClients(false), messages)
+                    + deliver(index.getClients(tailNumber, false), messages);
+            if (removed > 0) {
+                rebuildSubscriptionIndex();
+            }
+            // Always retained, so streams can resume even if no one is connected right now
+            sseService.publish(SseService.AIRCRAFT_DATA, messages.json(SensorGroup.ALL).getPayload());
+            
+            long elapsed = System.nanoTime() - start;
+            pipelineMetrics.recordStage(PipelineMetrics.Stage.SERIALIZE, messages.serializeNanos);
+            pipelineMetrics.recordStage(PipelineMetrics.Stage.FANOUT, elapsed - messages.serializeNanos);
             
-            log.debug("Broadcasted aircraft data to {} clients", sessions.size());
+            log.debug("Queued aircraft data {} for subscribed clients", aircraftData.getTailNumber());
             
         } catch (Exception e) {
             log.error("Error broadcasting aircraft data", e);
+        } finally {
+            if (tracker != null) {
+                tracker.release(false);
+            }
         }
     }
     
     /**
-     * Sends a system alert to all connected clients
+     * Queues aircraft data on every matching client; rate-limited clients only get it
+     * if their interval has passed or the anomaly flags changed
      * 
-     * @param alertType The type of alert
-     * @param message The alert message
-     * @param severity The severity level (INFO, WARNING, CRITICAL)
+     * @return Number of clients removed because they are closed
      */
-    public void broadcastAlert(String alertType, String message, String severity) {
-        if (sessions.isEmpty()) {
+    private int deliver(ClientSession[] clients, AircraftDataMessages messages) {
+        int removed = 0;
+        long now = System.currentTimeMillis();
+        for (ClientSession client : clients) {
+            Subscription subscription = client.getSubscription();
+            if (!subscription.matches(messages.flags)) {
+                continue;
+            }
+            WebSocketMessage<?> message;
+            UpdateConflator conflator = client.getConflator();
+            if (conflator == null) {
+                message = client.isBinary()
+                        ? binaryMessage(client, subscription, messages)
+                        : messages.json(subscription.getGroups());
+            } else {
+                UpdateConflator.Update update = conflator.offer(messages.data, messages.flags, now);
+                message = update != null ? conflatedMessage(client, subscription, messages, update) : null;
+            }
+            if (message != null && !client.offer(message, messages.tracker) && removeClient(client)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Encodes aircraft data for a binary client that receives every update: the next
+     * frame of the stream, or a keyframe if the client's queue dropped a frame of the
+     * stream since its last keyframe. Called under the stream lock.
+     */
+    private static BinaryMessage binaryMessage(ClientSession client, Subscription subscription,
+                                               AircraftDataMessages messages) {
+        if (subscription.isAnomaliesOnly()) {
+            return messages.binary(true);
+        }
+        BinaryMessage frame = messages.binary(false);
+        return client.takeResync(BinaryTelemetryEncoder.streamIdOf(frame.getPayload()))
+                ? messages.resyncKeyframe()
+                : frame;
+    }
+    
+    /**
+     * Sends the conflated updates of rate-limited clients whose interval has passed.
+     * Runs periodically on the conflation thread.
+     */
+    private void flushConflatedUpdates() {
+        ClientSession[] clients = subscriptionIndex.getConflatedClients();
+        if (clients.length == 0) {
             return;
         }
         
         try {
-            String alertMessage = String.format(
-                "{\"type\":\"alert\",\"alertType\":\"%s\",\"message\":\"%s\",\"severity\":\"%s\"}",
-                alertType, message, severity
-            );
-            TextMessage textMessage = new TextMessage(alertMessage);
-            
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(textMessage);
-                    } catch (IOException e) {
-                        log.error("Error sending alert to session: {}", session.getId(), e);
-                        sessions.remove(session);
+            // Conflated binary clients receive self-contained keyframes, which need no stream lock
+            long now = System.currentTimeMillis();
+            List<UpdateConflator.Update> due = new ArrayList<>();
+            int removed = 0;
+            for (ClientSession client : clients) {
+                UpdateConflator conflator = client.getConflator();
+                if (conflator == null) {
+                    continue;
+                }
+                due.clear();
+                conflator.collectDue(now, due);
+                for (UpdateConflator.Update update : due) {
+                    WebSocketMessage<?> message = conflatedMessage(client, client.getSubscription(),
+                            new AircraftDataMessages(update.getData(), null), update);
+                    if (!client.offer(message)) {
+                        if (removeClient(client)) {
+                            removed++;
+                        }
+                        break;
                     }
-                } else {
-                    sessions.remove(session);
                 }
             }
+            if (removed > 0) {
+                rebuildSubscriptionIndex();
+            }
+        } catch (Exception e) {
+            log.error("Error flushing conflated aircraft data", e);
+        }
+    }
+    
+    /**
+     * Encodes a conflated update: a keyframe for binary clients, otherwise the JSON sample,
+     * extended by an aggregate object if the client asked for one
+     */
+    private WebSocketMessage<?> conflatedMessage(ClientSession client, Subscription subscription,
+                                                 AircraftDataMessages messages, UpdateConflator.Update update) {
+        if (client.isBinary()) {
+            return messages.binary(true);
+        }
+        int groups = subscription.getGroups();
+        if (!update.hasAggregate()) {
+            return messages.json(groups);
+        }
+        
+        TelemetryJsonWriter writer = TelemetryJsonWriter.acquire().beginObject()
+                .name("type").value("aircraft_data")
+                .name("data").aircraftData(messages.data, groups);
+        writer.name("aggregate").beginObject()
+                .name("count").value(update.getCount())
+                .name("min").sensorValues(update.getMin(), groups)
+                .name("max").sensorValues(update.getMax(), groups)
+                .name("avg").sensorValues(update.getAvg(), groups)
+                .endObject();
+        return new TextMessage(writer.endObject().toByteArray());
+    }
+    
+    /**
+     * The encodings of one aircraft data sample. Each encoding is produced on first
+     * use and shared by all clients using it. JSON is written by the
+     * {@link TelemetryJsonWriter}, projected to the client's sensor groups as it is written.
+     */
+    private final class AircraftDataMessages {
+        
+        private final AircraftData data;
+        private final int flags;
+        private final DeliveryTracker tracker;
+        // Time spent encoding, for the serialize stage
+        private long serializeNanos = 0;
+        private final TextMessage[] json = new TextMessage[SensorGroup.ALL + 1];
+        private byte[] deltaFrame;
+        private byte[] keyframe;
+        private byte[] resyncKeyframe;
+        
+        AircraftDataMessages(AircraftData data, DeliveryTracker tracker) {
+            this.data = data;
+            this.flags = AnomalyFlags.of(data);
+            this.tracker = tracker;
+        }
+        
+        /**
+         * JSON message with the fields of the given sensor groups
+         */
+        TextMessage json(int groups) {
+            if (json[groups] == null) {
+                long start = System.nanoTime();
+                json[groups] = new TextMessage(TelemetryJsonWriter.acquire().beginObject()
+                        .name("type").value("aircraft_data")
+                        .name("data").aircraftData(data, groups)
+                        .endObject().toByteArray());
+                serializeNanos += System.nanoTime() - start;
+            }
+            return json[groups];
+        }
+        
+        /**
+         * Binary frame; clients that skip samples get a self-contained keyframe.
+         * Sending consumes the ByteBuffer view, so every client gets its own message.
+         */
+        BinaryMessage binary(boolean standalone) {
+            if (standalone) {
+                if (keyframe == null) {
+                    long start = System.nanoTime();
+                    keyframe = binaryEncoder.keyframe(data);
+                    serializeNanos += System.nanoTime() - start;
+                }
+                return new BinaryMessage(keyframe);
+            }
+            if (deltaFrame == null) {
+                long start = System.nanoTime();
+                deltaFrame = binaryEncoder.encode(data);
+                serializeNanos += System.nanoTime() - start;
+            }
+            return new BinaryMessage(deltaFrame);
+        }
+        
+        /**
+         * Keyframe carrying the sequence number of this sample's frame, so the stream's
+         * next delta frame applies on top of it. Encoded after the frame, which advances
+         * the stream, unlike the standalone keyframe that may have been encoded before it.
+         */
+        BinaryMessage resyncKeyframe() {
+            if (resyncKeyframe == null) {
+                binary(false);
+                long start = System.nanoTime();
+                resyncKeyframe = binaryEncoder.keyframe(data);
+                serializeNanos += System.nanoTime() - start;
+            }
+            return new BinaryMessage(resyncKeyframe);
+        }
+    }
+    
+    /**
+     * Sends a sample of a replayed flight as a replay_data message to the clients that
+     * subscribed to replays and to its aircraft. Replayed samples never reach the live
+     * aircraft_data messages, the binary streams or the server-sent events streams.
+     * 
+     * @param aircraftData The replayed sample, already analyzed
+     */
+    public void broadcastReplayData(AircraftData aircraftData) {
+        TextMessage message = null;
+        int removed = 0;
+        for (ClientSession client : sessions.values()) {
+            Subscription subscription = client.getSubscription();
+            if (!subscription.isReplay() || !subscription.includesAircraft(aircraftData.getTailNumber())) {
+                continue;
+            }
+            if (message == null) {
+                message = new TextMessage(TelemetryJsonWriter.acquire().beginObject()
+                        .name("type").value("replay_data")
+                        .name("data").aircraftData(aircraftData, SensorGroup.ALL)
+                        .endObject().toByteArray());
+            }
+            if (!client.offer(message) && removeClient(client)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            rebuildSubscriptionIndex();
+        }
+    }
+    
+    /**
+     * Sends a system alert to all connected WebSocket clients and server-sent events streams
+     * 
+     * @param alertType The type of alert
+     * @param message The alert message
+     * @param severity The severity level (INFO, WARNING, CRITICAL)
+     */
+    public void broadcastAlert(String alertType, String message, String severity) {
+        try {
+            broadcastSerializedAlert(TelemetryJsonWriter.acquire().beginObject()
+                    .name("type").value("alert")
+                    .name("alertType").value(alertType)
+                    .name("message").value(message)
+                    .name("severity").value(severity)
+                    .endObject().toString());
             
             log.info("Broadcasted alert: {} - {}", alertType, message);
             
@@ -143,6 +624,50 @@ public class WebSocketService extends TextWebSocketHandler {
         }
     }
     
+    /**
+     * Sends an alert that is already serialized as a complete {"type":"alert",...}
+     * message. The same message is shared by every client and stream.
+     * 
+     * @param alertMessage The alert message JSON
+     */
+    public void broadcastSerializedAlert(String alertMessage) {
+        if (!sessions.isEmpty()) {
+            broadcast(new TextMessage(alertMessage));
+        }
+        sseService.publish(SseService.ALERT, alertMessage);
+    }
+    
+    /**
+     * Queues a message on every connected session. Sessions that are closed or
+     * were disconnected by their overflow policy are removed.
+     * 
+     * @param message The message, shared by all sessions
+     */
+    private void broadcast(WebSocketMessage<?> message) {
+        int removed = 0;
+        for (ClientSession client : sessions.values()) {
+            if (!client.offer(message) && removeClient(client)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            rebuildSubscriptionIndex();
+        }
+    }
+    
+    /**
+     * Gets queue depth, lag and drop counters of every connected session
+     * 
+     * @return Statistics per session
+     */
+    public List<Map<String, Object>> getSessionStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(sessions.size());
+        for (ClientSession client : sessions.values()) {
+            stats.add(client.getStats());
+        }
+        return stats;
+    }
+    
     /**
      * Gets the number of connected WebSocket clients
      * 
@@ -165,21 +690,12 @@ public class WebSocketService extends TextWebSocketHandler {
         
         try {
             String jsonData = objectMapper.writeValueAsString(data);
-            String message = String.format("{\"type\":\"%s\",\"data\":%s}", messageType, jsonData);
-            TextMessage textMessage = new TextMessage(message);
+            TextMessage textMessage = new TextMessage(TelemetryJsonWriter.acquire().beginObject()
+                    .name("type").value(messageType)
+                    .name("data").rawValue(jsonData)
+                    .endObject().toByteArray());
             
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(textMessage);
-                    } catch (IOException e) {
-                        log.error("Error sending custom message to session: {}", session.getId(), e);
-                        sessions.remove(session);
-                    }
-                } else {
-                    sessions.remove(session);
-                }
-            }
+            broadcast(textMessage);
             
             log.debug("Broadcasted custom message: {}", messageType);
             
@@ -0,0 +1,39 @@
+package com.aircraft.monitoring;
+
+import com.aircraft.monitoring.config.SchedulingConfig;
+import com.aircraft.monitoring.service.TelemetryJournalService;
+import com.aircraft.monitoring.service.TelemetryPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the context of {@link CsvIngestCli} runs without the journal, the
+ * pipeline threads and scheduling, although application.properties enables them.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class CsvIngestCliTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void contextDoesNotOpenTheJournal() throws Exception {
+        Path journal = directory.resolve("journal");
+        try (ConfigurableApplicationContext context = CsvIngestCli.start(directory.resolve("input.csv").toString(),
+                "--aircraft.journal.directory=" + journal)) {
+            assertEquals(false, context.getBean(TelemetryJournalService.class).getJournalStatus().get("enabled"));
+            assertFalse(context.getBean(TelemetryPipeline.class).isEnabled());
+            assertEquals(0, context.getBeanNamesForType(SchedulingConfig.class).length);
+        }
+        assertFalse(Files.exists(journal), "the journal directory was created");
+    }
+}
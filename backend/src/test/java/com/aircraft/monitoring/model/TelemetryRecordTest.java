@@ -0,0 +1,108 @@
+package com.aircraft.monitoring.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link TelemetryRecord} converts {@link AircraftData} losslessly in
+ * both directions, including edge values, nanosecond timestamps and missing fields,
+ * and that flyweights address the right record of a shared buffer.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryRecordTest {
+
+    private static final double[] EDGE_VALUES = {
+            0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, -Double.MAX_VALUE, 1e-300, 123456.789
+    };
+
+    @Test
+    void roundTripsRandomSamples() {
+        SplittableRandom random = new SplittableRandom(17);
+        TelemetryRecord record = new TelemetryRecord();
+        for (int i = 0; i < 1000; i++) {
+            AircraftData data = new AircraftData("N" + random.nextInt(100_000),
+                    LocalDateTime.of(2024, 5, 1, 6, 0).plusNanos(random.nextLong(0, 86_400_000_000_000L)));
+            data.setAircraftType(i % 3 == 0 ? null : "B737-800");
+            for (Sensor sensor : Sensor.VALUES) {
+                sensor.write(data, i % 2 == 0
+                        ? random.nextDouble(-1e6, 1e6)
+                        : EDGE_VALUES[random.nextInt(EDGE_VALUES.length)]);
+            }
+            AnomalyFlags.apply(random.nextInt(AnomalyFlags.ALL + 1), data);
+            data.setOutlierSensors(random.nextInt(1 << Sensor.COUNT));
+
+            AircraftData decoded = record.readFrom(data).writeTo(new AircraftData());
+            assertEquals(data, decoded, "sample " + i);
+            for (Sensor sensor : Sensor.VALUES) {
+                assertEquals(Double.doubleToRawLongBits(sensor.read(data)),
+                        Double.doubleToRawLongBits(sensor.read(decoded)), sensor.getFieldName());
+            }
+        }
+    }
+
+    @Test
+    void keepsMissingFieldsAndLongestStrings() {
+        TelemetryRecord record = new TelemetryRecord();
+        AircraftData empty = new AircraftData();
+        AircraftData decoded = record.readFrom(empty).writeTo(new AircraftData("N12345", LocalDateTime.now()));
+        assertNull(decoded.getTimestamp());
+        assertNull(decoded.getTailNumber());
+        assertNull(decoded.getAircraftType());
+        assertEquals(empty, decoded);
+
+        AircraftData longest = new AircraftData("N123456789ABCDE", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999));
+        longest.setAircraftType("");
+        assertEquals(longest, record.readFrom(longest).writeTo(new AircraftData()));
+        assertEquals(TelemetryRecord.MAX_TEXT_LENGTH, longest.getTailNumber().length());
+    }
+
+    @Test
+    void refreshingAReusedBeanKeepsUnchangedObjects() {
+        AircraftData data = new AircraftData("N12345", LocalDateTime.of(2024, 5, 1, 6, 0, 0, 123_456_789));
+        data.setAircraftType("A320");
+        TelemetryRecord record = new TelemetryRecord().readFrom(data);
+
+        AircraftData target = record.writeTo(new AircraftData());
+        String tailNumber = target.getTailNumber();
+        LocalDateTime timestamp = target.getTimestamp();
+        record.setValue(Sensor.ALTITUDE, 35000);
+        record.writeTo(target);
+        assertSame(tailNumber, target.getTailNumber());
+        assertSame(timestamp, target.getTimestamp());
+        assertEquals(35000.0, target.getAltitude());
+
+        record.setTailNumber("N99999");
+        assertEquals("N99999", record.writeTo(target).getTailNumber());
+        assertTrue(record.hasTailNumber("N99999"));
+    }
+
+    @Test
+    void flyweightsAddressRecordsOfASharedBuffer() {
+        ByteBuffer buffer = TelemetryRecord.allocate(3);
+        TelemetryRecord record = new TelemetryRecord(buffer, 0);
+        for (int i = 0; i < 3; i++) {
+            AircraftData data = new AircraftData("N0000" + i, LocalDateTime.of(2024, 5, 1, 6, 0, i));
+            data.setAltitude(i);
+            record.wrap(buffer, i).readFrom(data);
+        }
+
+        TelemetryRecord copy = new TelemetryRecord().copyFrom(record.wrap(buffer, 1));
+        assertEquals("N00001", copy.getTailNumber());
+        assertEquals(1.0, copy.getValue(Sensor.ALTITUDE));
+        assertEquals(2.0, record.wrap(buffer, 2).getValue(Sensor.ALTITUDE));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 6, 0, 0), record.wrap(buffer, 0).getTimestamp());
+        assertFalse(new TelemetryRecord().hasTimestamp());
+    }
+}
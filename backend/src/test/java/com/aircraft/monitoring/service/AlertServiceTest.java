@@ -0,0 +1,153 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the hysteresis, minimum dwell and coalescing of {@link AlertService},
+ * and that held back alerts are sent without a further sample.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class AlertServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WebSocketService webSocketService;
+    private AlertService service;
+    // The service's nano clock, advanced by hand
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        webSocketService = mock(WebSocketService.class);
+        service = new AlertService();
+        ReflectionTestUtils.setField(service, "webSocketService", webSocketService);
+        ReflectionTestUtils.setField(service, "nanoClock", (LongSupplier) nanos::get);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "raiseSamples", 2);
+        ReflectionTestUtils.setField(service, "clearSamples", 3);
+        ReflectionTestUtils.setField(service, "minDwellMillis", 12_000L);
+        ReflectionTestUtils.setField(service, "coalesceWindowMillis", 0L);
+    }
+
+    @Test
+    void raisesAndClearsWithHysteresisAndDwell() throws Exception {
+        evaluate(0, true);
+        assertEquals(List.of(), sent());
+        evaluate(2, true);
+        evaluate(4, false);
+        evaluate(6, true);
+
+        // Three normal samples clear it, but not before the minimum dwell of 12 s
+        evaluate(8, false);
+        evaluate(10, false);
+        evaluate(12, false);
+        evaluate(14, false);
+
+        List<JsonNode> alerts = sent();
+        assertEquals(2, alerts.size());
+        assertEquals("RAISED", alerts.get(0).get("state").asText());
+        assertEquals("ENGINE", alerts.get(0).get("alertType").asText());
+        assertEquals("2024-05-01T06:00:02", alerts.get(0).get("since").asText());
+        assertEquals("CLEARED", alerts.get(1).get("state").asText());
+        assertEquals("2024-05-01T06:00:14", alerts.get(1).get("timestamp").asText());
+    }
+
+    @Test
+    void changesWithinTheWindowAreSentAsOneAlert() throws Exception {
+        quickStateMachine(30_000L);
+        evaluate(0, true);
+        for (int second = 2; second < 30; second += 2) {
+            evaluate(second, second % 4 == 0);
+        }
+        assertEquals(1, sent().size());
+
+        evaluate(30, true);
+        List<JsonNode> alerts = sent();
+        assertEquals(2, alerts.size());
+        assertEquals("RAISED", alerts.get(1).get("state").asText());
+        assertEquals(7, alerts.get(1).get("count").asInt());
+        assertEquals(14L, service.getAlertStatus().get("coalesced"));
+    }
+
+    @Test
+    void heldBackAlertIsFlushedWithoutAnotherSample() throws Exception {
+        quickStateMachine(2_000L);
+        evaluate(0, true);
+        nanos.addAndGet(1_000_000_000L);
+        evaluate(1, false);
+        service.flushPendingAlerts();
+        assertEquals(1, sent().size());
+
+        // The flush extrapolates the sample time from the arrival of the last sample
+        nanos.addAndGet(999_000_000L);
+        service.flushPendingAlerts();
+        assertEquals(1, sent().size());
+
+        nanos.addAndGet(1_000_000L);
+        service.flushPendingAlerts();
+        List<JsonNode> alerts = sent();
+        assertEquals(2, alerts.size());
+        assertEquals("CLEARED", alerts.get(1).get("state").asText());
+        assertEquals("2024-05-01T06:00:02", alerts.get(1).get("timestamp").asText());
+
+        service.flushPendingAlerts();
+        assertEquals(2, sent().size());
+    }
+
+    @Test
+    void resetSendsHeldBackAlerts() throws Exception {
+        quickStateMachine(60_000L);
+        evaluate(0, true);
+        evaluate(2, false);
+        assertEquals(1, sent().size());
+
+        service.reset("N12345");
+        List<JsonNode> alerts = sent();
+        assertEquals(2, alerts.size());
+        assertEquals("CLEARED", alerts.get(1).get("state").asText());
+        assertEquals("2024-05-01T06:00:02", alerts.get(1).get("timestamp").asText());
+    }
+
+    private void quickStateMachine(long coalesceWindowMillis) {
+        ReflectionTestUtils.setField(service, "raiseSamples", 1);
+        ReflectionTestUtils.setField(service, "clearSamples", 1);
+        ReflectionTestUtils.setField(service, "minDwellMillis", 0L);
+        ReflectionTestUtils.setField(service, "coalesceWindowMillis", coalesceWindowMillis);
+    }
+
+    private void evaluate(int second, boolean engineAnomaly) {
+        AircraftData data = new AircraftData("N12345", START.plusSeconds(second));
+        data.setEngineAnomaly(engineAnomaly);
+        service.evaluate(data);
+    }
+
+    private List<JsonNode> sent() throws Exception {
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        List<JsonNode> alerts = new ArrayList<>();
+        verify(webSocketService, atLeast(0)).broadcastSerializedAlert(json.capture());
+        for (String alert : json.getAllValues()) {
+            alerts.add(objectMapper.readTree(alert));
+        }
+        return alerts;
+    }
+}
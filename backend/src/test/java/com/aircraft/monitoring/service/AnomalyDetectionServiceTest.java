@@ -0,0 +1,256 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.ThresholdRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the columnar batch path of {@link AnomalyDetectionService} sets
+ * exactly the flags of the per-sample path, for every rule profile of a test
+ * rule file that adds type profiles to the bundled defaults, and that only live
+ * samples are counted in the detection metrics.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class AnomalyDetectionServiceTest {
+
+    // Aircraft types to check: null and an unknown type use the default profile
+    private static final String[] AIRCRAFT_TYPES = {null, "B737", "B787", "A320"};
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AnomalyDetectionService service;
+    private Map<String, List<ThresholdRule>> profiles;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", meterRegistry);
+        pipelineMetrics.init();
+
+        AnomalyEventService anomalyEventService = new AnomalyEventService();
+        ReflectionTestUtils.setField(anomalyEventService, "sinks", List.of());
+
+        service = new AnomalyDetectionService();
+        ReflectionTestUtils.setField(service, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(service, "anomalyEventService", anomalyEventService);
+        ReflectionTestUtils.setField(service, "statisticalAnomalyDetector", new StatisticalAnomalyDetector());
+        ReflectionTestUtils.setField(service, "correlationAnomalyDetector", new CorrelationAnomalyDetector());
+        ReflectionTestUtils.setField(service, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "rulesLocation", "classpath:anomaly-rules-profiles.json");
+        service.init();
+
+        profiles = (Map<String, List<ThresholdRule>>) service.getRules().get("profiles");
+        assertTrue(profiles.containsKey("B787") && profiles.containsKey("A320"), "test rules define type profiles");
+    }
+
+    @Test
+    void batchMatchesScalarOnRandomRows() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<AircraftData> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            AircraftData data = new AircraftData();
+            for (Sensor sensor : Sensor.VALUES) {
+                double scale = scale(sensor);
+                sensor.write(data, random.nextDouble(-1.5 * scale, 1.5 * scale));
+            }
+            rows.add(data);
+        }
+        for (String aircraftType : AIRCRAFT_TYPES) {
+            assertBatchMatchesScalar(aircraftType, rows);
+        }
+    }
+
+    @Test
+    void batchMatchesScalarOnEdgeValues() {
+        List<Double> edges = new ArrayList<>(List.of(Double.NaN, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, 0.0, -0.0, Double.MAX_VALUE, -Double.MAX_VALUE, Double.MIN_VALUE));
+        for (List<ThresholdRule> rules : profiles.values()) {
+            for (ThresholdRule rule : rules) {
+                addBound(edges, rule.getMin());
+                addBound(edges, rule.getMax());
+                if (rule.getMaxAbs() != null) {
+                    addBound(edges, rule.getMaxAbs());
+                    addBound(edges, -rule.getMaxAbs());
+                }
+            }
+        }
+
+        // Every edge value in every sensor of an otherwise nominal row
+        List<AircraftData> rows = new ArrayList<>();
+        for (Sensor sensor : Sensor.VALUES) {
+            for (double edge : edges) {
+                AircraftData data = nominalRow();
+                sensor.write(data, edge);
+                rows.add(data);
+            }
+        }
+        AircraftData allNaN = new AircraftData();
+        for (Sensor sensor : Sensor.VALUES) {
+            sensor.write(allNaN, Double.NaN);
+        }
+        rows.add(allNaN);
+
+        for (String aircraftType : AIRCRAFT_TYPES) {
+            assertBatchMatchesScalar(aircraftType, rows);
+        }
+    }
+
+    @Test
+    void bundledRulesHaveOnlyTheDefaultProfile() throws Exception {
+        ReflectionTestUtils.setField(service, "rulesLocation", "classpath:anomaly-rules.json");
+        service.init();
+        assertEquals(List.of("default"), List.copyOf(((Map<?, ?>) service.getRules().get("profiles")).keySet()));
+    }
+
+    @Test
+    void onlyLiveSamplesAreCountedInTheMetrics() {
+        AircraftData anomalous = nominalRow();
+        anomalous.setAltitude(60000.0);
+        List<AircraftData> rows = List.of(nominalRow(), anomalous);
+        service.detectAnomalies(columns(rows), rows.size());
+        AnomalyDetectionService.DetectionRun run = service.newRun("csv-ingest");
+        run.detectAnomalies(nominalRow());
+        run.detectAnomalies(anomalous);
+        assertEquals(0.0, meterRegistry.get("aircraft.samples.analyzed").counter().count());
+        assertEquals(0L, meterRegistry.get("aircraft.pipeline.stage").tag("stage", "detect").timer().count());
+
+        service.detectAnomalies(nominalRow());
+        service.detectAnomalies(anomalous);
+        assertEquals(2.0, meterRegistry.get("aircraft.samples.analyzed").counter().count());
+        assertEquals(1.0, meterRegistry.get("aircraft.anomalies").tag("subsystem", "altitude").counter().count());
+        assertEquals(2L, meterRegistry.get("aircraft.pipeline.stage").tag("stage", "detect").timer().count());
+    }
+
+        @Test
+    void profilesApplyTheirOwnLimits() {
+        AircraftData data = nominalRow();
+        data.setAltitude(44000.0);
+        double[][] columns = columns(List.of(data));
+        byte[] flags = new byte[1];
+
+        service.detectAnomalies("B787", columns, 1, flags);
+        assertEquals(AnomalyFlags.ALTITUDE, flags[0] & AnomalyFlags.ALTITUDE);
+        service.detectAnomalies("B737", columns, 1, flags);
+        assertEquals(0, flags[0] & AnomalyFlags.ALTITUDE);
+        assertEquals(0, service.detectAnomalies(columns, 1)[0] & AnomalyFlags.ALTITUDE);
+
+        // A profile can also add a limit the default does not have
+        data = nominalRow();
+        data.setAirspeed(90.0);
+        columns = columns(List.of(data));
+        service.detectAnomalies("A320", columns, 1, flags);
+        assertEquals(AnomalyFlags.AIRSPEED, flags[0] & AnomalyFlags.AIRSPEED);
+        service.detectAnomalies("B787", columns, 1, flags);
+        assertEquals(0, flags[0] & AnomalyFlags.AIRSPEED);
+    }
+
+    private void assertBatchMatchesScalar(String aircraftType, List<AircraftData> rows) {
+        double[][] columns = columns(rows);
+        byte[] flags = new byte[rows.size()];
+        service.detectAnomalies(aircraftType, columns, rows.size(), flags);
+        byte[] defaultFlags = service.detectAnomalies(columns, rows.size());
+
+        for (int i = 0; i < rows.size(); i++) {
+            AircraftData data = copyOf(rows.get(i));
+            data.setAircraftType(aircraftType);
+            int expected = AnomalyFlags.of(service.detectAnomalies(data));
+            assertEquals(expected, flags[i], "type " + aircraftType + ", row " + i + ": " + describe(rows.get(i)));
+            if (aircraftType == null) {
+                assertEquals(expected, defaultFlags[i], "default profile, row " + i);
+            }
+        }
+    }
+
+    /**
+     * A row within all limits of every profile
+     */
+    private static AircraftData nominalRow() {
+        AircraftData data = new AircraftData();
+        data.setEngineRPM(2200.0);
+        data.setEngineTemperature(150.0);
+        data.setOilPressure(60.0);
+        data.setOilTemperature(90.0);
+        data.setFuelLevel(70.0);
+        data.setFuelConsumption(600.0);
+        data.setFuelPressure(30.0);
+        data.setHydraulicPressure(3000.0);
+        data.setHydraulicTemperature(50.0);
+        data.setHydraulicFluidLevel(95.0);
+        data.setAltitude(35000.0);
+        data.setVerticalSpeed(0.0);
+        data.setAirspeed(450.0);
+        data.setMachNumber(0.78);
+        return data;
+    }
+
+    /**
+     * The largest bound of any rule on the sensor, so random values straddle the limits
+     */
+    private double scale(Sensor sensor) {
+        double scale = 1.0;
+        for (List<ThresholdRule> rules : profiles.values()) {
+            for (ThresholdRule rule : rules) {
+                if (sensor.getFieldName().equals(rule.getSensor())) {
+                    for (Double bound : new Double[]{rule.getMin(), rule.getMax(), rule.getMaxAbs()}) {
+                        if (bound != null) {
+                            scale = Math.max(scale, Math.abs(bound));
+                        }
+                    }
+                }
+            }
+        }
+        return scale;
+    }
+
+    private static void addBound(List<Double> edges, Double bound) {
+        if (bound != null) {
+            edges.add(bound);
+            edges.add(Math.nextUp(bound));
+            edges.add(Math.nextDown(bound));
+        }
+    }
+
+    private static double[][] columns(List<AircraftData> rows) {
+        double[][] columns = new double[Sensor.COUNT][rows.size()];
+        for (Sensor sensor : Sensor.VALUES) {
+            for (int i = 0; i < rows.size(); i++) {
+                columns[sensor.ordinal()][i] = sensor.read(rows.get(i));
+            }
+        }
+        return columns;
+    }
+
+    private static AircraftData copyOf(AircraftData source) {
+        AircraftData copy = new AircraftData();
+        for (Sensor sensor : Sensor.VALUES) {
+            sensor.write(copy, sensor.read(source));
+        }
+        return copy;
+    }
+
+    private static String describe(AircraftData data) {
+        StringBuilder description = new StringBuilder();
+        for (Sensor sensor : Sensor.VALUES) {
+            description.append(sensor.getFieldName()).append('=').append(sensor.read(data)).append(' ');
+        }
+        return description.toString();
+    }
+}
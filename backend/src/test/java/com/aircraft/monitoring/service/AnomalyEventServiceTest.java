@@ -0,0 +1,117 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyEvent;
+import com.aircraft.monitoring.model.ThresholdRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the rate limit of {@link AnomalyEventService}, that sinks receive
+ * events in id order while several threads and forks publish, and that events
+ * of forks are stored apart from live events.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class AnomalyEventServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    private final CompiledRuleSet rules = CompiledRuleSet.compile(List.of(
+            new ThresholdRule("engine-temperature", "engineTemperature", "engine", null, 200.0, null),
+            new ThresholdRule("fuel-level", "fuelLevel", "fuel", 20.0, null, null)));
+    private final List<AnomalyEvent> received = new ArrayList<>();
+    private AnomalyEventService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnomalyEventService();
+        ReflectionTestUtils.setField(service, "sinks", List.<AnomalyEventSink>of(received::add));
+        ReflectionTestUtils.setField(service, "minIntervalMillis", 30_000L);
+    }
+
+    @Test
+    void breachesWithinTheIntervalAreCountedIntoTheNextEvent() {
+        for (int second = 0; second <= 40; second += 2) {
+            service.publish(rules, sample("N12345", second));
+        }
+
+        // Events at 0 s and 30 s; fuel is within limits
+        assertEquals(2, received.size());
+        assertEquals("engine-temperature", received.get(0).getRule());
+        assertEquals(0, received.get(0).getSuppressed());
+        assertEquals(14, received.get(1).getSuppressed());
+        assertEquals(START.plusSeconds(30), received.get(1).getTimestamp());
+        assertEquals(250.0, received.get(1).getValue());
+        assertEquals(200.0, received.get(1).getLimit());
+        assertEquals(19L, service.getEventStatus().get("suppressed"));
+    }
+
+    @Test
+    void sinksReceiveEventsInIdOrder() throws Exception {
+        ReflectionTestUtils.setField(service, "minIntervalMillis", 0L);
+        AnomalyEventService fork = service.fork("csv-ingest");
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            AnomalyEventService publisher = t % 2 == 0 ? service : fork;
+            String tailNumber = "N0000" + t;
+            publishers.add(new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    publisher.publish(rules, sample(tailNumber, i));
+                }
+            }));
+        }
+        publishers.forEach(Thread::start);
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertEquals(20_000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i + 1, received.get(i).getId());
+        }
+        assertEquals(20_000L, fork.getEventStatus().get("emitted"));
+    }
+
+    @Test
+    void forkEventsDoNotPushOutLiveEvents() {
+        AnomalyEventStore store = new AnomalyEventStore();
+        ReflectionTestUtils.setField(store, "capacity", 10);
+        ReflectionTestUtils.setField(store, "recordedCapacity", 5);
+        store.init();
+        ReflectionTestUtils.setField(service, "sinks", List.<AnomalyEventSink>of(store));
+        ReflectionTestUtils.setField(service, "minIntervalMillis", 0L);
+        AnomalyEventService ingest = service.fork("csv-ingest");
+
+        for (int i = 0; i < 3; i++) {
+            service.publish(rules, sample("N12345", i));
+        }
+        for (int i = 0; i < 100; i++) {
+            ingest.publish(rules, sample("N00001", i));
+        }
+
+        List<AnomalyEvent> live = store.find(null, null, null, 0, 100);
+        assertEquals(3, live.size());
+        live.forEach(event -> assertEquals(AnomalyEvent.LIVE, event.getSource()));
+        List<AnomalyEvent> recorded = store.find(null, null, "csv-ingest", 0, 100);
+        assertEquals(5, recorded.size());
+        assertEquals("N00001", recorded.get(0).getTailNumber());
+        assertEquals(103, recorded.get(0).getId());
+        assertEquals(0, store.find(null, null, "replay-1", 0, 100).size());
+    }
+
+    private static AircraftData sample(String tailNumber, int second) {
+        AircraftData data = new AircraftData(tailNumber, START.plusSeconds(second));
+        data.setEngineTemperature(250.0);
+        data.setFuelLevel(50.0);
+        return data;
+    }
+}
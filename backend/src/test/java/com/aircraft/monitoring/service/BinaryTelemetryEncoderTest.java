@@ -0,0 +1,184 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryTime;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Decodes the frames of {@link BinaryTelemetryEncoder} the way a client does and
+ * checks that every sample comes back within its sensor's resolution, with
+ * keyframes at the configured interval and snapshots a joining client can
+ * continue from.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class BinaryTelemetryEncoderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    @Test
+    void framesRoundTripWithinResolution() {
+        BinaryTelemetryEncoder encoder = new BinaryTelemetryEncoder(10);
+        Decoder decoder = new Decoder();
+        SplittableRandom random = new SplittableRandom(11);
+        AircraftData data = sample(random, 0);
+
+        for (int i = 0; i < 50; i++) {
+            // Mostly small steps, so deltas leave most sensors out
+            for (Sensor sensor : Sensor.VALUES) {
+                if (random.nextInt(4) == 0) {
+                    sensor.write(data, sensor.read(data) + random.nextDouble(-5.0, 5.0));
+                }
+            }
+            data.setTimestamp(START.plusSeconds(2L * i));
+            data.setEngineAnomaly(i % 7 == 0);
+
+            byte[] frame = encoder.encode(data);
+            assertEquals(i % 10 == 0 ? BinaryTelemetryEncoder.KEYFRAME : BinaryTelemetryEncoder.DELTA, frame[0]);
+            Decoder.Frame decoded = decoder.decode(frame);
+            assertEquals(i + 1, decoded.sequence);
+            assertSample(data, decoded);
+        }
+    }
+
+    @Test
+    void snapshotLetsAJoiningClientApplyTheNextDelta() {
+        BinaryTelemetryEncoder encoder = new BinaryTelemetryEncoder(100);
+        SplittableRandom random = new SplittableRandom(3);
+        AircraftData first = sample(random, 0);
+        AircraftData other = sample(random, 0);
+        other.setTailNumber("N99999");
+        encoder.encode(first);
+        encoder.encode(other);
+        AircraftData second = sample(random, 1);
+        encoder.encode(second);
+
+        List<byte[]> keyframes = new ArrayList<>();
+        encoder.snapshot("N12345"::equals, keyframes::add);
+        assertEquals(1, keyframes.size());
+        Decoder decoder = new Decoder();
+        Decoder.Frame joined = decoder.decode(keyframes.get(0));
+        assertEquals(2, joined.sequence);
+        assertSample(second, joined);
+
+        AircraftData third = sample(random, 2);
+        byte[] delta = encoder.encode(third);
+        assertEquals(BinaryTelemetryEncoder.DELTA, delta[0]);
+        assertSample(third, decoder.decode(delta));
+    }
+
+    @Test
+    void valuesAreRoundedToTheResolution() {
+        assertEquals(12346, BinaryTelemetryEncoder.quantize(1234.56, 0.1));
+        assertEquals(-3, BinaryTelemetryEncoder.quantize(-0.0026, 0.001));
+        assertEquals(Integer.MAX_VALUE, BinaryTelemetryEncoder.quantize(1e12, 0.01));
+        assertEquals(Integer.MIN_VALUE, BinaryTelemetryEncoder.quantize(-1e12, 0.01));
+    }
+
+    private static AircraftData sample(SplittableRandom random, int index) {
+        AircraftData data = new AircraftData("N12345", START.plusSeconds(2L * index));
+        data.setAircraftType("B737");
+        for (Sensor sensor : Sensor.VALUES) {
+            sensor.write(data, random.nextDouble(0.0, 1000.0));
+        }
+        return data;
+    }
+
+    private static void assertSample(AircraftData expected, Decoder.Frame frame) {
+        assertEquals(expected.getTailNumber(), frame.tailNumber);
+        assertEquals(expected.getAircraftType(), frame.aircraftType);
+        assertEquals(TelemetryTime.toEpochMillis(expected.getTimestamp()), frame.epochMillis);
+        assertEquals(AnomalyFlags.of(expected), frame.flags);
+        for (Sensor sensor : Sensor.VALUES) {
+            assertTrue(Math.abs(frame.values[sensor.ordinal()] - sensor.read(expected)) <= resolution(sensor) / 2 + 1e-9,
+                    sensor.getFieldName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double resolution(Sensor sensor) {
+        List<Map<String, Object>> fields = (List<Map<String, Object>>) BinaryTelemetryEncoder.getSchema().get("fields");
+        return (double) fields.get(sensor.ordinal()).get("resolution");
+    }
+
+    /**
+     * Client side of the protocol for one stream
+     */
+    private static final class Decoder {
+
+        private final int[] quantized = new int[Sensor.COUNT];
+        private String tailNumber;
+        private String aircraftType;
+        private int sequence;
+
+        Frame decode(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte frameType = buffer.get();
+            buffer.getShort();
+            int frameSequence = buffer.getInt();
+            double epochMillis = buffer.getDouble();
+            int flags = buffer.get();
+
+            if (frameType == BinaryTelemetryEncoder.KEYFRAME) {
+                tailNumber = readAscii(buffer);
+                aircraftType = readAscii(buffer);
+                for (int i = 0; i < Sensor.COUNT; i++) {
+                    quantized[i] = buffer.getInt();
+                }
+            } else {
+                assertEquals(sequence + 1, frameSequence, "deltas follow without a gap");
+                int mask = buffer.getInt();
+                for (int i = 0; i < Sensor.COUNT; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        long zigzag = readVarint(buffer);
+                        quantized[i] += (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+                    }
+                }
+            }
+            assertEquals(0, buffer.remaining());
+            sequence = frameSequence;
+
+            double[] values = new double[Sensor.COUNT];
+            for (Sensor sensor : Sensor.VALUES) {
+                values[sensor.ordinal()] = quantized[sensor.ordinal()] * resolution(sensor);
+            }
+            return new Frame(tailNumber, aircraftType, frameSequence, epochMillis, flags, values);
+        }
+
+        private static String readAscii(ByteBuffer buffer) {
+            byte[] value = new byte[buffer.get() & 0xFF];
+            buffer.get(value);
+            return new String(value, StandardCharsets.US_ASCII);
+        }
+
+        private static long readVarint(ByteBuffer buffer) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private record Frame(String tailNumber, String aircraftType, int sequence, double epochMillis, int flags,
+                             double[] values) {
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the overflow policies of {@link ClientSession}, that its queue is sent
+ * in order in batches, that delivery trackers see written and dropped messages, that
+ * a rejected drain closes the session, and that a binary client is marked for a keyframe of every stream it lost a frame of.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class ClientSessionTest {
+
+    // Tasks handed to the send executor, run by the test
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private WebSocketSession session;
+    private PipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        pipelineMetrics.init();
+    }
+
+    @Test
+    void fullQueueDropsTheOldestMessage() throws Exception {
+        ClientSession client = client(3, ClientSession.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(client.offer(new TextMessage("m" + i)));
+        }
+        assertEquals(3, client.getQueued());
+        assertEquals(2, client.getDropped());
+
+        runTasks();
+        assertEquals(List.of("m2", "m3", "m4"), sentPayloads(3));
+        assertEquals(0, client.getQueued());
+        assertEquals(3L, client.getStats().get("sent"));
+    }
+
+    @Test
+    void fullQueueDisconnectsTheClient() throws Exception {
+        ClientSession client = client(2, ClientSession.OverflowPolicy.DISCONNECT);
+        assertTrue(client.offer(new TextMessage("m0")));
+        assertTrue(client.offer(new TextMessage("m1")));
+        assertFalse(client.offer(new TextMessage("m2")));
+        assertTrue(client.isClosed());
+        assertFalse(client.offer(new TextMessage("m3")));
+
+        runTasks();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void drainYieldsAfterABatch() throws Exception {
+        ClientSession client = client(64, ClientSession.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 40; i++) {
+            client.offer(new TextMessage("m" + i));
+        }
+        assertEquals(1, tasks.size());
+
+        tasks.removeFirst().run();
+        assertEquals(8, client.getQueued());
+        assertEquals(1, tasks.size(), "the drain requeued itself");
+
+        runTasks();
+        List<String> payloads = sentPayloads(40);
+        for (int i = 0; i < 40; i++) {
+            assertEquals("m" + i, payloads.get(i));
+        }
+    }
+
+    @Test
+    void trackerCompletesOnlyWhenAMessageWasWritten() {
+        PipelineMetrics trackerMetrics = mock(PipelineMetrics.class);
+        ClientSession client = client(1, ClientSession.OverflowPolicy.DROP_OLDEST);
+
+        DeliveryTracker dropped = new DeliveryTracker(trackerMetrics, 1.0);
+        client.offer(new TextMessage("m0"), dropped);
+        dropped.release(false);
+        DeliveryTracker written = new DeliveryTracker(trackerMetrics, 2.0);
+        client.offer(new TextMessage("m1"), written);
+        written.release(false);
+        verify(trackerMetrics, never()).recordEndToEnd(anyDouble());
+
+        runTasks();
+        verify(trackerMetrics, times(1)).recordEndToEnd(2.0);
+    }
+
+    @Test
+    void rejectedDrainClosesTheSessionAndReleasesItsTrackers() {
+        PipelineMetrics trackerMetrics = mock(PipelineMetrics.class);
+        ClientSession client = new ClientSession(session, 4, ClientSession.OverflowPolicy.DROP_OLDEST, task -> {
+            throw new RejectedExecutionException("send executor shut down");
+        }, pipelineMetrics);
+
+        DeliveryTracker tracker = new DeliveryTracker(trackerMetrics, 1.0);
+        assertFalse(client.offer(new TextMessage("m0"), tracker));
+        tracker.release(false);
+        assertTrue(client.isClosed());
+        assertEquals(0, client.getQueued());
+        assertFalse(client.offer(new TextMessage("m1")));
+        verify(trackerMetrics, never()).recordEndToEnd(anyDouble());
+    }
+
+        @Test
+    void droppedBinaryFrameMarksItsStreamForResync() {
+        when(session.getAcceptedProtocol()).thenReturn(BinaryTelemetryEncoder.SUBPROTOCOL);
+        ClientSession client = client(2, ClientSession.OverflowPolicy.DROP_OLDEST);
+        BinaryTelemetryEncoder encoder = new BinaryTelemetryEncoder(30);
+        AircraftData first = new AircraftData("N00001", LocalDateTime.of(2024, 1, 1, 12, 0));
+        AircraftData second = new AircraftData("N00002", LocalDateTime.of(2024, 1, 1, 12, 0));
+        int firstStream = BinaryTelemetryEncoder.streamIdOf(new BinaryMessage(encoder.encode(first)).getPayload());
+        int secondStream = BinaryTelemetryEncoder.streamIdOf(new BinaryMessage(encoder.encode(second)).getPayload());
+
+        client.offer(new BinaryMessage(encoder.encode(first)));
+        client.offer(new BinaryMessage(encoder.encode(second)));
+        assertFalse(client.takeResync(firstStream));
+
+        client.offer(new BinaryMessage(encoder.encode(first)));
+        assertEquals(1, client.getDropped());
+        assertFalse(client.takeResync(secondStream));
+        assertTrue(client.takeResync(firstStream));
+        assertFalse(client.takeResync(firstStream), "the mark is cleared once taken");
+    }
+
+    private ClientSession client(int queueCapacity, ClientSession.OverflowPolicy overflowPolicy) {
+        return new ClientSession(session, queueCapacity, overflowPolicy, tasks::addLast, pipelineMetrics);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.removeFirst().run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> sentPayloads(int expected) throws Exception {
+        ArgumentCaptor<WebSocketMessage<?>> messages = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(session, times(expected)).sendMessage(messages.capture());
+        return messages.getAllValues().stream().map(message -> (String) message.getPayload()).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link CorrelationAnomalyDetector} follows the engine sensors'
+ * dependence on RPM, flags a value that is out of family for the current RPM,
+ * keeps flagging a lasting fault and skips samples without RPM.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class CorrelationAnomalyDetectorTest {
+
+    private static final int ENGINE_TEMPERATURE = 1 << Sensor.ENGINE_TEMPERATURE.ordinal();
+
+    private final SplittableRandom random = new SplittableRandom(9);
+    private CorrelationAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new CorrelationAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "alpha", 0.02);
+        ReflectionTestUtils.setField(detector, "residualThreshold", 4.0);
+        ReflectionTestUtils.setField(detector, "warmupSamples", 50);
+    }
+
+    @Test
+    void followsRpmAndFlagsOutOfFamilyValues() {
+        train(500);
+
+        // A large RPM change with the sensors following it is in family
+        assertEquals(0, detector.evaluate(sample(2800, 0)));
+        // A temperature 25 degrees high for the RPM, far below any fixed limit
+        assertEquals(ENGINE_TEMPERATURE, detector.evaluate(sample(2400, 25)));
+    }
+
+    @Test
+    void lastingFaultKeepsFlagging() {
+        train(500);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ENGINE_TEMPERATURE, detector.evaluate(sample(2400, 25)), "sample " + i);
+        }
+    }
+
+    @Test
+    void skipsSamplesWithoutRpm() {
+        train(500);
+        AircraftData data = sample(2400, 25);
+        data.setEngineRPM(Double.NaN);
+        assertEquals(0, detector.evaluate(data));
+
+        // A missing dependent value is skipped without disturbing the others
+        AircraftData missing = sample(2400, 25);
+        missing.setOilPressure(Double.NaN);
+        assertEquals(ENGINE_TEMPERATURE, detector.evaluate(missing));
+    }
+
+    private void train(int samples) {
+        for (int i = 0; i < samples; i++) {
+            double rpm = 2000 + random.nextDouble(0, 1000);
+            assertEquals(0, detector.evaluate(sample(rpm, 0)), "sample " + i);
+        }
+    }
+
+    /**
+     * Builds a sample whose engine sensors follow RPM, with an offset on engine temperature
+     */
+    private AircraftData sample(double rpm, double temperatureOffset) {
+        AircraftData data = new AircraftData();
+        data.setTailNumber("N12345");
+        data.setEngineRPM(rpm);
+        data.setEngineTemperature(100 + 0.05 * rpm + temperatureOffset + noise());
+        data.setOilPressure(20 + 0.01 * rpm + noise());
+        data.setOilTemperature(50 + 0.02 * rpm + noise());
+        data.setFuelConsumption(0.5 * rpm + noise());
+        return data;
+    }
+
+    private double noise() {
+        return random.nextDouble(-1.0, 1.0);
+    }
+}
@@ -0,0 +1,138 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.IngestReport;
+import com.aircraft.monitoring.model.Sensor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link CsvIngestService} reports records in file order with their
+ * aircraft type, and that scoring outliers on several workers gives the flags of
+ * a single worker.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class CsvIngestServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int AIRCRAFT = 6;
+    private static final int SAMPLES_PER_AIRCRAFT = 400;
+
+    @Test
+    void parallelOutliersMatchOneWorker() throws Exception {
+        byte[] csv = csv();
+        List<AircraftData> sequential = new ArrayList<>();
+        IngestReport sequentialReport = ingest(1, csv, sequential);
+        List<AircraftData> parallel = new ArrayList<>();
+        IngestReport parallelReport = ingest(4, csv, parallel);
+
+        assertEquals(AIRCRAFT * SAMPLES_PER_AIRCRAFT, parallel.size());
+        assertEquals(AIRCRAFT * SAMPLES_PER_AIRCRAFT, parallelReport.getRows());
+        assertEquals(sequentialReport.getAnomalousRows(), parallelReport.getAnomalousRows());
+        long outliers = 0;
+        for (int i = 0; i < parallel.size(); i++) {
+            AircraftData data = parallel.get(i);
+            // File order: aircraft interleaved sample by sample
+            assertEquals("N" + (i % AIRCRAFT), data.getTailNumber());
+            assertEquals(START.plusSeconds(2L * (i / AIRCRAFT)), data.getTimestamp());
+            assertEquals(i % 2 == 0 ? "B737" : "A320", data.getAircraftType());
+            assertEquals(sequential.get(i).getOutlierSensors(), data.getOutlierSensors(), "row " + i);
+            assertEquals(sequential.get(i).hasAnyAnomaly(), data.hasAnyAnomaly(), "row " + i);
+            if (data.isStatisticalAnomaly()) {
+                outliers++;
+            }
+        }
+        assertTrue(outliers > 0, "the spikes are scored as outliers");
+    }
+
+    private static IngestReport ingest(int workers, byte[] csv, List<AircraftData> sink) throws Exception {
+        CsvIngestService service = new CsvIngestService();
+        ReflectionTestUtils.setField(service, "anomalyDetectionService", anomalyDetectionService());
+        ReflectionTestUtils.setField(service, "chunkSize", 50);
+        ReflectionTestUtils.setField(service, "workers", workers);
+        service.init();
+        try {
+            return service.ingest(new ByteArrayInputStream(csv), sink::add);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static AnomalyDetectionService anomalyDetectionService() throws Exception {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        pipelineMetrics.init();
+
+        AnomalyEventService anomalyEventService = new AnomalyEventService();
+        ReflectionTestUtils.setField(anomalyEventService, "sinks", List.of());
+
+        StatisticalAnomalyDetector statisticalAnomalyDetector = new StatisticalAnomalyDetector();
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "enabled", true);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "alpha", 0.05);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "zThreshold", 4.0);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "rateThreshold", 6.0);
+        ReflectionTestUtils.setField(statisticalAnomalyDetector, "warmupSamples", 30);
+        CorrelationAnomalyDetector correlationAnomalyDetector = new CorrelationAnomalyDetector();
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "enabled", true);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "alpha", 0.02);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "residualThreshold", 4.0);
+        ReflectionTestUtils.setField(correlationAnomalyDetector, "warmupSamples", 50);
+
+        AnomalyDetectionService service = new AnomalyDetectionService();
+        ReflectionTestUtils.setField(service, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(service, "anomalyEventService", anomalyEventService);
+        ReflectionTestUtils.setField(service, "statisticalAnomalyDetector", statisticalAnomalyDetector);
+        ReflectionTestUtils.setField(service, "correlationAnomalyDetector", correlationAnomalyDetector);
+        ReflectionTestUtils.setField(service, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "rulesLocation", "classpath:anomaly-rules-profiles.json");
+        service.init();
+        return service;
+    }
+
+    /**
+     * Builds a flight of noisy readings per aircraft with an occasional spike
+     */
+    private static byte[] csv() {
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder csv = new StringBuilder("timestamp,tailNumber,aircraftType");
+        for (Sensor sensor : Sensor.VALUES) {
+            csv.append(',').append(sensor.getFieldName());
+        }
+        csv.append('\n');
+        for (int sample = 0; sample < SAMPLES_PER_AIRCRAFT; sample++) {
+            for (int aircraft = 0; aircraft < AIRCRAFT; aircraft++) {
+                csv.append(TIMESTAMP_FORMAT.format(START.plusSeconds(2L * sample)))
+                        .append(",N").append(aircraft)
+                        .append(',').append(aircraft % 2 == 0 ? "B737" : "A320");
+                for (Sensor sensor : Sensor.VALUES) {
+                    double base = 100.0 * (sensor.ordinal() + 1);
+                    double value = base + random.nextDouble(-1.0, 1.0);
+                    if (sample > 60 && (sample + aircraft) % 41 == 0 && sensor.ordinal() == aircraft % Sensor.COUNT) {
+                        value += 50.0;
+                    }
+                    csv.append(',').append(value);
+                }
+                csv.append('\n');
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,113 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.controller.AircraftController;
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.DataSnapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the snapshots of {@link DataSnapshotService}, its long-polling, and the
+ * conditional and long-poll responses of the {@code /data} endpoint built on it.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class DataSnapshotServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    private DataSnapshotService service;
+    private AircraftController controller;
+
+    @BeforeEach
+    void setUp() {
+        service = new DataSnapshotService();
+        ReflectionTestUtils.setField(service, "longPollTimeoutMs", 100L);
+        controller = new AircraftController();
+        ReflectionTestUtils.setField(controller, "dataSnapshotService", service);
+    }
+
+    @Test
+    void publishedSamplesAreNumberedAndSerializedOnce() throws Exception {
+        assertNull(service.getSnapshot());
+        service.publish(sample(0));
+        service.publish(sample(2));
+
+        DataSnapshot snapshot = service.getSnapshot();
+        assertEquals(2, snapshot.getSequence());
+        assertTrue(snapshot.getEtag().startsWith("\"") && snapshot.getEtag().endsWith("-2\""));
+        JsonNode json = new ObjectMapper().readTree(snapshot.getJson());
+        assertEquals("N12345", json.get("tailNumber").asText());
+        assertEquals(2.0, json.get("altitude").asDouble());
+    }
+
+    @Test
+    void longPollWaitsForANewerSnapshot() throws Exception {
+        service.publish(sample(0));
+        assertSame(service.getSnapshot(), service.awaitAfter(0).getNow(null));
+
+        CompletableFuture<DataSnapshot> waiter = service.awaitAfter(1);
+        assertFalse(waiter.isDone());
+        assertEquals(1, service.getWaitingCount());
+        service.publish(sample(2));
+        assertEquals(2, waiter.get(1, TimeUnit.SECONDS).getSequence());
+        assertEquals(0, service.getWaitingCount());
+
+        // Expires with null and stops waiting; the waiter is removed right after it completes
+        assertNull(service.awaitAfter(2).get(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getWaitingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, service.getWaitingCount());
+    }
+
+    @Test
+    void dataEndpointAnswersConditionalAndLongPollRequests() throws Exception {
+        assertEquals(HttpStatus.NO_CONTENT, controller.getCurrentData(null).getStatusCode());
+        service.publish(sample(0));
+
+        ResponseEntity<byte[]> full = controller.getCurrentData(null);
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        String etag = full.getHeaders().getETag();
+        assertEquals(service.getSnapshot().getEtag(), etag);
+
+        ResponseEntity<byte[]> unchanged = controller.getCurrentData("W/" + etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+
+        ResponseEntity<byte[]> expired = controller.awaitCurrentData(1).get(5, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.NOT_MODIFIED, expired.getStatusCode());
+        assertEquals(etag, expired.getHeaders().getETag());
+
+        CompletableFuture<ResponseEntity<byte[]>> poll = controller.awaitCurrentData(1);
+        service.publish(sample(2));
+        ResponseEntity<byte[]> newer = poll.get(1, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.OK, newer.getStatusCode());
+        assertNotEquals(etag, newer.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, controller.getCurrentData(etag).getStatusCode());
+    }
+
+    private static AircraftData sample(int second) {
+        AircraftData data = new AircraftData("N12345", START.plusSeconds(second));
+        data.setAltitude(second);
+        return data;
+    }
+}
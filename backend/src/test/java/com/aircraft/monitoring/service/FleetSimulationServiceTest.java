@@ -0,0 +1,164 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the tail numbers of {@link FleetSimulationService}, that a tick
+ * generates the same samples however the fleet is sharded, inline or through the
+ * pipeline, and that the latest sample of every aircraft is kept.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class FleetSimulationServiceTest {
+
+    private static final int FLEET_SIZE = 250;
+
+    private final List<FleetSimulationService> services = new ArrayList<>();
+    private final List<TelemetryPipeline> pipelines = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(FleetSimulationService::shutdown);
+        pipelines.forEach(TelemetryPipeline::shutdown);
+    }
+
+    @Test
+    void tailNumbersAreUniqueAndSkipTheDemoAircraft() {
+        List<String> tailNumbers = FleetSimulationService.tailNumbers(10, "N00003");
+        assertEquals(10, tailNumbers.size());
+        assertEquals(10, new HashSet<>(tailNumbers).size());
+        assertFalse(tailNumbers.contains("N00003"));
+        assertEquals("N00011", tailNumbers.get(9));
+
+        // The predicate agrees with the list without building it
+        Set<String> fleet = new HashSet<>(tailNumbers);
+        for (int number = 0; number <= 20; number++) {
+            String tailNumber = String.format("N%05d", number);
+            assertEquals(fleet.contains(tailNumber), FleetSimulationService.isFleetTailNumber(tailNumber, 10, "N00003"),
+                    tailNumber);
+        }
+        assertTrue(FleetSimulationService.isFleetTailNumber("N00010", 10, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber("N00011", 10, "N12345"));
+        assertTrue(FleetSimulationService.isFleetTailNumber("N100000", 100_000, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber("N0000001", 100_000, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber("N12345", 100_000, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber("N0001", 10, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber("X00001", 10, "N12345"));
+        assertFalse(FleetSimulationService.isFleetTailNumber(null, 10, "N12345"));
+    }
+
+    @Test
+    void shardingDoesNotChangeTheGeneratedSamples() throws Exception {
+        FleetSimulationService single = service(1, false);
+        FleetSimulationService sharded = service(7, false);
+        FleetSimulationService pipelined = service(4, true);
+        for (int tick = 0; tick < 3; tick++) {
+            single.generateFleetData();
+            sharded.generateFleetData();
+            pipelined.generateFleetData();
+            awaitCompleted(pipelined, (tick + 1L) * FLEET_SIZE);
+        }
+
+        assertEquals(3L * FLEET_SIZE, single.getFleetStatus().get("completedSamples"));
+        assertEquals(3L * FLEET_SIZE, sharded.getFleetStatus().get("completedSamples"));
+        for (String tailNumber : FleetSimulationService.tailNumbers(FLEET_SIZE, "N12345")) {
+            AircraftData expected = withoutTimestamp(single.getLatestData(tailNumber));
+            assertEquals(tailNumber, expected.getTailNumber());
+            assertEquals(expected, withoutTimestamp(sharded.getLatestData(tailNumber)), tailNumber);
+            assertEquals(expected, withoutTimestamp(pipelined.getLatestData(tailNumber)), tailNumber);
+        }
+    }
+
+    @Test
+    void latestSampleIsKeptPerAircraft() {
+        FleetSimulationService service = service(3, false);
+        assertNull(service.getLatestData("N00001"));
+
+        service.generateFleetData();
+
+        AircraftData first = service.getLatestData("N00001");
+        AircraftData last = service.getLatestData(String.format("N%05d", FLEET_SIZE));
+        assertEquals("N00001", first.getTailNumber());
+        assertEquals("A320", first.getAircraftType());
+        assertEquals("B737", service.getLatestData("N00002").getAircraftType());
+        assertNotNull(first.getTimestamp());
+        assertNotNull(last);
+        assertNull(service.getLatestData("N12345"));
+        assertNull(service.getLatestData(String.format("N%05d", FLEET_SIZE + 1)));
+    }
+
+    private FleetSimulationService service(int workers, boolean pipelined) {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        pipelineMetrics.init();
+
+        AnomalyDetectionService anomalyDetectionService = mock(AnomalyDetectionService.class);
+        TelemetryHistoryService telemetryHistoryService = mock(TelemetryHistoryService.class);
+        TelemetryRollupService telemetryRollupService = mock(TelemetryRollupService.class);
+        TelemetryJournalService telemetryJournalService = mock(TelemetryJournalService.class);
+
+        TelemetryPipeline telemetryPipeline = new TelemetryPipeline();
+        ReflectionTestUtils.setField(telemetryPipeline, "anomalyDetectionService", anomalyDetectionService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryHistoryService", telemetryHistoryService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryRollupService", telemetryRollupService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryJournalService", telemetryJournalService);
+        ReflectionTestUtils.setField(telemetryPipeline, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(telemetryPipeline, "enabled", pipelined);
+        ReflectionTestUtils.setField(telemetryPipeline, "ringSize", 64);
+        ReflectionTestUtils.setField(telemetryPipeline, "partitions", 3);
+        ReflectionTestUtils.setField(telemetryPipeline, "overflowPolicy", TelemetryPipeline.OverflowPolicy.BLOCK);
+        telemetryPipeline.init();
+        pipelines.add(telemetryPipeline);
+
+        FleetSimulationService service = new FleetSimulationService();
+        ReflectionTestUtils.setField(service, "dataSimulationService", new DataSimulationService());
+        ReflectionTestUtils.setField(service, "anomalyDetectionService", anomalyDetectionService);
+        ReflectionTestUtils.setField(service, "telemetryHistoryService", telemetryHistoryService);
+        ReflectionTestUtils.setField(service, "telemetryRollupService", telemetryRollupService);
+        ReflectionTestUtils.setField(service, "telemetryJournalService", telemetryJournalService);
+        ReflectionTestUtils.setField(service, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(service, "telemetryPipeline", telemetryPipeline);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "fleetSize", FLEET_SIZE);
+        ReflectionTestUtils.setField(service, "seed", 42L);
+        ReflectionTestUtils.setField(service, "workers", workers);
+        ReflectionTestUtils.setField(service, "aircraftTypes", new String[]{"A320", "B737", "B787"});
+        ReflectionTestUtils.setField(service, "demoTailNumber", "N12345");
+        service.init();
+        services.add(service);
+        return service;
+    }
+
+    // Each service stamps its ticks with its own clock reading
+    private static AircraftData withoutTimestamp(AircraftData data) {
+        assertNotNull(data.getTimestamp());
+        data.setTimestamp(null);
+        return data;
+    }
+
+    private static void awaitCompleted(FleetSimulationService service, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((long) service.getFleetStatus().get("completedSamples") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, service.getFleetStatus().get("completedSamples"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.TelemetryTime;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link PipelineMetrics} measures the end-to-end latency of UTC
+ * sample timestamps whatever the default time zone of the JVM.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class PipelineMetricsTest {
+
+    private TimeZone defaultZone;
+
+    @BeforeEach
+    void setUp() {
+        defaultZone = TimeZone.getDefault();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void endToEndLatencyIgnoresTheDefaultTimeZone() {
+        for (String zone : new String[]{"Pacific/Kiritimati", "America/Los_Angeles"}) {
+            TimeZone.setDefault(TimeZone.getTimeZone(zone));
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            PipelineMetrics pipelineMetrics = new PipelineMetrics();
+            ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", registry);
+            pipelineMetrics.init();
+
+            LocalDateTime sampled = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(2);
+            pipelineMetrics.recordEndToEnd(TelemetryTime.toEpochMillis(sampled));
+
+            Timer endToEnd = registry.get("aircraft.pipeline.end.to.end").timer();
+            assertEquals(1, endToEnd.count(), zone);
+            double seconds = endToEnd.totalTime(TimeUnit.SECONDS);
+            assertTrue(seconds >= 2 && seconds < 60, zone + ": " + seconds + " s");
+        }
+    }
+}
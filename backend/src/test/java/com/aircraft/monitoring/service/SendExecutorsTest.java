@@ -0,0 +1,75 @@
+package com.aircraft.monitoring.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@code spring.threads.virtual.enabled} selects the executor created
+ * by {@link SendExecutors}: virtual threads on Java 21 or later, otherwise the
+ * platform thread pool.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class SendExecutorsTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(SseService.class)
+            .withPropertyValues("aircraft.sse.send-threads=2");
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadsPropertyRunsDrainTasksOnVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            Executor executor = sendExecutor(context.getBean(SseService.class));
+            assertInstanceOf(VirtualThreadTaskExecutor.class, executor);
+            Thread thread = threadOf(executor);
+            assertTrue((boolean) Thread.class.getMethod("isVirtual").invoke(thread), thread.toString());
+            assertTrue(thread.getName().startsWith("sse-send-"), thread.getName());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualThreadsPropertyFallsBackToPlatformThreadsBeforeJava21() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            Executor executor = sendExecutor(context.getBean(SseService.class));
+            assertInstanceOf(ExecutorService.class, executor);
+            assertEquals("sse-send-1", threadOf(executor).getName());
+        });
+    }
+
+    @Test
+    void platformThreadsByDefault() {
+        contextRunner.run(context -> {
+            Executor executor = sendExecutor(context.getBean(SseService.class));
+            assertInstanceOf(ExecutorService.class, executor);
+            Thread thread = threadOf(executor);
+            assertEquals("sse-send-1", thread.getName());
+            assertTrue(thread.isDaemon());
+        });
+    }
+
+    private static Executor sendExecutor(SseService service) {
+        return (Executor) ReflectionTestUtils.getField(service, "sendExecutor");
+    }
+
+    private static Thread threadOf(Executor executor) throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        executor.execute(() -> thread.complete(Thread.currentThread()));
+        return thread.get(10, TimeUnit.SECONDS);
+    }
+}
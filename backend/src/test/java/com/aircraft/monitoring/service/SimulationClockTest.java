@@ -0,0 +1,89 @@
+package com.aircraft.monitoring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link SimulationClock} runs events in virtual time order, merges
+ * them with an external stream, paces to the requested speed and stops when
+ * cancelled.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class SimulationClockTest {
+
+    private static final long START = 1_714_543_200_000L;
+
+    @Test
+    void runsEventsInTimeThenSchedulingOrder() {
+        SimulationClock clock = new SimulationClock(START, 0, () -> false);
+        List<String> log = new ArrayList<>();
+        clock.schedule(START + 3_000, () -> log.add("c@" + clock.getElapsedMillis()));
+        clock.schedule(START + 1_000, () -> {
+            log.add("a@" + clock.getElapsedMillis());
+            clock.scheduleAfter(500, () -> log.add("follow-up@" + clock.getElapsedMillis()));
+            // In the past, so it runs next at the current time
+            clock.schedule(START, () -> log.add("late@" + clock.getElapsedMillis()));
+        });
+        clock.schedule(START + 1_000, () -> log.add("b@" + clock.getElapsedMillis()));
+
+        clock.run();
+        assertEquals(List.of("a@1000", "b@1000", "late@1000", "follow-up@1500", "c@3000"), log);
+        assertEquals(5, clock.getExecutedEvents());
+    }
+
+    @Test
+    void advanceMergesScheduledEventsWithAnExternalStream() {
+        SimulationClock clock = new SimulationClock(START, 0, () -> false);
+        List<String> log = new ArrayList<>();
+        clock.schedule(START + 1_500, () -> log.add("event"));
+        clock.schedule(START + 2_000, () -> log.add("tie"));
+
+        for (long sample = 1_000; sample <= 3_000; sample += 1_000) {
+            clock.advanceTo(START + sample);
+            log.add("sample@" + clock.getElapsedMillis());
+        }
+        assertEquals(List.of("sample@1000", "event", "tie", "sample@2000", "sample@3000"), log);
+        assertEquals(START + 3_000, clock.now());
+    }
+
+    @Test
+    void pacesVirtualTimeToTheSpeed() {
+        // One virtual minute at 600x takes 100 ms of wall-clock time
+        SimulationClock clock = new SimulationClock(START, 600, () -> false);
+        long wallStart = System.nanoTime();
+        clock.schedule(START + 60_000, () -> {
+        });
+        clock.run();
+        long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+        assertTrue(wallMillis >= 95, "took " + wallMillis + " ms");
+    }
+
+    @Test
+    void stopsWhenCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        SimulationClock clock = new SimulationClock(START, 0, cancelled::get);
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int event = i;
+            clock.schedule(START + i, () -> {
+                ran.add(event);
+                if (event == 2) {
+                    cancelled.set(true);
+                }
+            });
+        }
+
+        assertThrows(CancellationException.class, clock::run);
+        assertEquals(List.of(0, 1, 2), ran);
+    }
+}
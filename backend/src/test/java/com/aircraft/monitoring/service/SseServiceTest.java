@@ -0,0 +1,159 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.controller.AircraftStreamController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Checks that {@link SseService} streams events with increasing ids, replays the
+ * retained events a reconnecting client missed, without retaining more than a
+ * stream's queue holds, that a stream's full queue drops its oldest events, and
+ * that a stream is closed once the send executor rejects it.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class SseServiceTest {
+
+    private SseService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = new SseService();
+        ReflectionTestUtils.setField(service, "replayCapacity", 4);
+        ReflectionTestUtils.setField(service, "queueCapacity", 16);
+        ReflectionTestUtils.setField(service, "sendThreads", 1);
+        ReflectionTestUtils.setField(service, "heartbeatIntervalMs", 60_000L);
+        service.init();
+
+        AircraftStreamController controller = new AircraftStreamController();
+        ReflectionTestUtils.setField(controller, "sseService", service);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reconnectingClientReceivesMissedEventsThenLiveOnes() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            service.publish(SseService.AIRCRAFT_DATA, "{\"n\":" + i + "}");
+        }
+
+        // Events 1 and 2 are no longer retained; 3 was received before the reconnect
+        MockHttpServletResponse response = mockMvc.perform(get("/api/aircraft/stream").header("Last-Event-ID", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        service.publish(SseService.ALERT, "{\"n\":7}");
+
+        String stream = awaitContent(response, "id:7");
+        assertFalse(stream.contains("id:3\n"));
+        assertTrue(stream.indexOf("id:4\n") < stream.indexOf("id:5\n") && stream.indexOf("id:6\n") < stream.indexOf("id:7\n"));
+        assertTrue(stream.contains("id:4\nevent:aircraft_data\ndata:{\"n\":4}\n\n"));
+        assertTrue(stream.contains("id:7\nevent:alert\ndata:{\"n\":7}\n\n"));
+        assertEquals(1, service.getConnectedClientsCount());
+        assertEquals(7L, service.getStreamStatus().get("lastEventId"));
+        assertEquals(4L, service.getStreamStatus().get("retainedEvents"));
+    }
+
+    @Test
+    void newClientReceivesOnlyLiveEvents() throws Exception {
+        service.publish(SseService.AIRCRAFT_DATA, "{\"n\":1}");
+        MockHttpServletResponse response = mockMvc.perform(get("/api/aircraft/stream"))
+                .andReturn().getResponse();
+        service.publish(SseService.AIRCRAFT_DATA, "{\"n\":2}");
+
+        String stream = awaitContent(response, "id:2");
+        assertFalse(stream.contains("id:1\n"));
+    }
+
+    @Test
+    void replayIsLimitedToTheQueueCapacity() throws Exception {
+        service.shutdown();
+        service = new SseService();
+        ReflectionTestUtils.setField(service, "replayCapacity", 8);
+        ReflectionTestUtils.setField(service, "queueCapacity", 3);
+        ReflectionTestUtils.setField(service, "sendThreads", 1);
+        ReflectionTestUtils.setField(service, "heartbeatIntervalMs", 60_000L);
+        service.init();
+        for (int i = 1; i <= 6; i++) {
+            service.publish(SseService.AIRCRAFT_DATA, "{\"n\":" + i + "}");
+        }
+        assertEquals(3L, service.getStreamStatus().get("retainedEvents"));
+
+        // The whole replay is queued at once and none of it is dropped
+        SseEmitter emitter = service.connect(0L);
+        Map<?, ?> stream = (Map<?, ?>) ((List<?>) service.getStreamStatus().get("streams")).get(0);
+        assertEquals(0L, stream.get("dropped"));
+        emitter.complete();
+    }
+
+        @Test
+    void fullQueueDropsTheOldestEvent() throws Exception {
+        Deque<Runnable> tasks = new ArrayDeque<>();
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseClient client = new SseClient("sse-1", emitter, 2, tasks::addLast);
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(client.offer(new SseEvent(i, SseService.AIRCRAFT_DATA, "{}")));
+        }
+        assertEquals(3L, client.getStats().get("dropped"));
+
+        while (!tasks.isEmpty()) {
+            tasks.removeFirst().run();
+        }
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(2L, client.getStats().get("sent"));
+
+        client.close();
+        assertFalse(client.offer(new SseEvent(6, SseService.AIRCRAFT_DATA, "{}")));
+    }
+
+    @Test
+    void rejectedDrainClosesTheStream() {
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseClient client = new SseClient("sse-1", emitter, 2, task -> {
+            throw new RejectedExecutionException("send executor shut down");
+        });
+        assertFalse(client.offer(new SseEvent(1, SseService.AIRCRAFT_DATA, "{}")));
+        assertTrue(client.isClosed());
+        assertEquals(0, client.getStats().get("queued"));
+        verify(emitter).complete();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
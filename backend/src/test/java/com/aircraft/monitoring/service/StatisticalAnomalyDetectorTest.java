@@ -0,0 +1,91 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link StatisticalAnomalyDetector} flags only the spiking sensor
+ * once warmed up, ignores constant and non-finite readings, and keeps baselines
+ * per aircraft and per fork.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class StatisticalAnomalyDetectorTest {
+
+    private static final int WARMUP = 30;
+    private static final int ALTITUDE = 1 << Sensor.ALTITUDE.ordinal();
+
+    private final SplittableRandom random = new SplittableRandom(5);
+    private StatisticalAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new StatisticalAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "alpha", 0.05);
+        ReflectionTestUtils.setField(detector, "zThreshold", 4.0);
+        ReflectionTestUtils.setField(detector, "rateThreshold", 6.0);
+        ReflectionTestUtils.setField(detector, "warmupSamples", WARMUP);
+    }
+
+    @Test
+    void flagsOnlyTheSpikingSensorAfterWarmup() {
+        // A spike within the warm-up is learned, not flagged
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(0, detector.evaluate(sample("N12345", i == 10 ? 5000.0 : noisy(1000.0))));
+        }
+        // Then fades out of the moving statistics
+        for (int i = 0; i < 300; i++) {
+            assertEquals(0, detector.evaluate(sample("N12345", noisy(1000.0))), "sample " + i);
+        }
+
+        assertEquals(ALTITUDE, detector.evaluate(sample("N12345", 1100.0)));
+        // Other aircraft have no baseline yet
+        assertEquals(0, detector.evaluate(sample("N00001", 1100.0)));
+    }
+
+    @Test
+    void ignoresConstantAndNonFiniteReadings() {
+        for (int i = 0; i < 200; i++) {
+            AircraftData data = sample("N12345", 1000.0);
+            data.setEngineRPM(i % 20 == 0 ? Double.NaN : 2400.0);
+            assertEquals(0, detector.evaluate(data), "sample " + i);
+        }
+        // Rounding noise on a constant series stays under the floor
+        AircraftData data = sample("N12345", 1000.0 + 1e-7);
+        data.setEngineRPM(2400.0);
+        assertEquals(0, detector.evaluate(data));
+    }
+
+    @Test
+    void forksAndResetsStartWithoutBaselines() {
+        for (int i = 0; i < 200; i++) {
+            detector.evaluate(sample("N12345", noisy(1000.0)));
+        }
+        StatisticalAnomalyDetector fork = detector.fork();
+        assertEquals(0, fork.evaluate(sample("N12345", 1100.0)));
+        assertEquals(1, fork.getStatus().get("aircraft"));
+
+        detector.reset("N12345");
+        assertEquals(0, detector.evaluate(sample("N12345", 1100.0)));
+    }
+
+    private double noisy(double value) {
+        return value + random.nextDouble(-1.0, 1.0);
+    }
+
+    private static AircraftData sample(String tailNumber, double altitude) {
+        AircraftData data = new AircraftData();
+        data.setTailNumber(tailNumber);
+        data.setAltitude(altitude);
+        return data;
+    }
+}
@@ -0,0 +1,102 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.SensorGroup;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how subscribe and unsubscribe commands change a {@link Subscription},
+ * and that {@link SubscriptionIndex} lists each client under exactly the
+ * aircraft and protocol it receives.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class SubscriptionIndexTest {
+
+    @Test
+    void firstSubscribeNarrowsAndLaterOnesAdd() {
+        Subscription subscription = Subscription.ALL
+                .subscribe(List.of("N12345"), List.of("engine"), null)
+                .subscribe(List.of("N00001"), List.of("fuel"), true);
+
+        assertEquals(Set.of("N12345", "N00001"), subscription.getAircraft());
+        assertEquals(SensorGroup.ENGINE.bit() | SensorGroup.FUEL.bit(), subscription.getGroups());
+        assertTrue(subscription.matches(AnomalyFlags.FUEL));
+        assertFalse(subscription.matches(AnomalyFlags.ALTITUDE), "only anomalies in the subscribed groups");
+
+        Subscription all = subscription.subscribe(List.of("*"), List.of("*"), false);
+        assertTrue(all.isAllAircraft());
+        assertEquals(SensorGroup.ALL, all.getGroups());
+        assertTrue(all.matches(0));
+    }
+
+    @Test
+    void unsubscribeRemovesAircraftAndGroups() {
+        Subscription subscription = Subscription.ALL.subscribe(List.of("N12345", "N00001"), null, null);
+
+        Subscription fewer = subscription.unsubscribe(List.of("N00001"), List.of("systems"));
+        assertEquals(Set.of("N12345"), fewer.getAircraft());
+        assertEquals(SensorGroup.ALL & ~SensorGroup.SYSTEMS.bit(), fewer.getGroups());
+
+        // Single aircraft cannot be removed from "*"
+        assertNull(Subscription.ALL.unsubscribe(List.of("N12345"), null).getAircraft());
+        assertEquals(Set.of(), subscription.unsubscribe(null, null).getAircraft());
+        assertThrows(IllegalArgumentException.class, () -> Subscription.ALL.subscribe(null, List.of("wings"), null));
+        assertThrows(IllegalArgumentException.class, () -> Subscription.ALL.withRate(-1.0, null));
+    }
+
+    @Test
+    void rateSetsTheMinimumInterval() {
+        Subscription subscription = Subscription.ALL.withRate(4.0, true);
+        assertTrue(subscription.isConflated());
+        assertEquals(250, subscription.getMinIntervalMillis());
+        assertEquals(0, subscription.withRate(0.0, null).getMinIntervalMillis());
+        assertTrue(subscription.withRate(null, null).isAggregate());
+    }
+
+    @Test
+    void indexListsClientsByAircraftAndProtocol() {
+        ClientSession everything = client("json-all", false, Subscription.ALL);
+        ClientSession demo = client("json-demo", false, Subscription.ALL.subscribe(List.of("N12345"), null, null));
+        ClientSession binary = client("binary-fleet", true, Subscription.ALL.subscribe(List.of("N00001"), null, null));
+        ClientSession stopped = client("stopped", false, Subscription.ALL.unsubscribe(null, List.of("*")));
+        ClientSession slow = client("slow", true, Subscription.ALL.withRate(1.0, false));
+        slow.setConflator(new UpdateConflator(1000, false));
+
+        SubscriptionIndex index = SubscriptionIndex.build(List.of(everything, demo, binary, stopped, slow));
+
+        assertArrayEquals(new ClientSession[]{everything}, index.getAllAircraftClients(false));
+        assertArrayEquals(new ClientSession[]{slow}, index.getAllAircraftClients(true));
+        assertArrayEquals(new ClientSession[]{demo}, index.getClients("N12345", false));
+        assertArrayEquals(new ClientSession[]{binary}, index.getClients("N00001", true));
+        assertEquals(0, index.getClients("N00001", false).length);
+        assertEquals(0, index.getClients(null, false).length);
+        assertArrayEquals(new ClientSession[]{slow}, index.getConflatedClients());
+        assertTrue(index.hasBinaryClients("N99999"));
+        assertFalse(SubscriptionIndex.build(List.of(everything, demo)).hasBinaryClients("N12345"));
+    }
+
+    private static ClientSession client(String id, boolean binary, Subscription subscription) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getAcceptedProtocol()).thenReturn(binary ? BinaryTelemetryEncoder.SUBPROTOCOL : null);
+        ClientSession client = new ClientSession(session, 4, ClientSession.OverflowPolicy.DROP_OLDEST, Runnable::run,
+                mock(PipelineMetrics.class));
+        client.setSubscription(subscription);
+        return client;
+    }
+}
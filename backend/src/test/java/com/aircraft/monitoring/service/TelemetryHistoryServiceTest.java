@@ -0,0 +1,79 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.TelemetryWindow;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that {@link TelemetryHistoryService} keeps the retained window of an
+ * aircraft and no history for fleet aircraft unless enabled.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryHistoryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    @Test
+    void windowHoldsTheRetainedSamples() {
+        TelemetryHistoryService service = service(false, false);
+        // Capacity is one minute at two seconds, 30 samples
+        for (int i = 0; i < 40; i++) {
+            service.record(sample("N12345", i));
+        }
+
+        TelemetryWindow window = service.getWindow("N12345", START, Sensor.ALTITUDE);
+        assertEquals(30, window.getSize());
+        assertEquals(10.0, window.getSensors().get("altitude")[0]);
+        assertEquals(39.0, window.getSensors().get("altitude")[29]);
+
+        TelemetryWindow recent = service.getWindow("N12345", START.plusSeconds(76));
+        assertArrayEquals(new double[]{38, 39}, recent.getSensors().get("altitude"));
+        assertEquals(Sensor.COUNT, recent.getSensors().size());
+    }
+
+    @Test
+    void fleetKeepsNoHistoryUnlessEnabled() {
+        TelemetryHistoryService service = service(true, false);
+        String fleetTail = FleetSimulationService.tailNumbers(1, "N12345").get(0);
+        service.record(sample(fleetTail, 0));
+        service.record(fleetTail, 0L, new double[Sensor.COUNT], 0);
+        service.record(sample("N12345", 0));
+
+        assertNull(service.getWindow(fleetTail, START));
+        assertNotNull(service.getWindow("N12345", START));
+        assertEquals(1, service.getTrackedAircraftCount());
+
+        TelemetryHistoryService withFleet = service(true, true);
+        withFleet.record(sample(fleetTail, 0));
+        assertNotNull(withFleet.getWindow(fleetTail, START));
+    }
+
+    private static TelemetryHistoryService service(boolean fleetEnabled, boolean fleetHistory) {
+        TelemetryHistoryService service = new TelemetryHistoryService();
+        ReflectionTestUtils.setField(service, "retentionMinutes", 1);
+        ReflectionTestUtils.setField(service, "sampleIntervalMs", 2000L);
+        ReflectionTestUtils.setField(service, "demoTailNumber", "N12345");
+        ReflectionTestUtils.setField(service, "fleetEnabled", fleetEnabled);
+        ReflectionTestUtils.setField(service, "fleetSize", 3);
+        ReflectionTestUtils.setField(service, "fleetHistory", fleetHistory);
+        service.init();
+        return service;
+    }
+
+    private static AircraftData sample(String tailNumber, int index) {
+        AircraftData data = new AircraftData(tailNumber, START.plusSeconds(2L * index));
+        data.setAltitude((double) index);
+        return data;
+    }
+}
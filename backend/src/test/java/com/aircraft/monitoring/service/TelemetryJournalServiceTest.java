@@ -0,0 +1,216 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that journaled samples are read back, recovered after a restart and
+ * replayed without loss, including their aircraft type, and that tail numbers
+ * too long for a record are not journaled.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryJournalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private AnomalyDetectionService anomalyDetectionService;
+    private WebSocketService webSocketService;
+    private TelemetryHistoryService telemetryHistoryService;
+    private TelemetryRollupService telemetryRollupService;
+    private TelemetryJournalService journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        anomalyDetectionService = mock(AnomalyDetectionService.class);
+        webSocketService = mock(WebSocketService.class);
+        telemetryHistoryService = mock(TelemetryHistoryService.class);
+        telemetryRollupService = mock(TelemetryRollupService.class);
+        journal = openJournal();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.shutdown();
+    }
+
+    @Test
+    void scanReturnsAppendedSamples() throws Exception {
+        List<AircraftData> samples = samples();
+        samples.forEach(journal::append);
+
+        List<AircraftData> scanned = new ArrayList<>();
+        long records = journal.scan(null, LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1), LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1),
+                data -> scanned.add(copyOf(data)));
+
+        assertEquals(samples.size(), records);
+        for (int i = 0; i < samples.size(); i++) {
+            assertSameSample(samples.get(i), scanned.get(i));
+        }
+
+        List<AircraftData> single = new ArrayList<>();
+        journal.scan("N00002", LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1), LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1),
+                data -> single.add(copyOf(data)));
+        assertEquals(1, single.size());
+        assertSameSample(samples.get(1), single.get(0));
+    }
+
+    @Test
+    void scanFindsRecordsAppendedOutOfTimeOrder() throws Exception {
+        ReflectionTestUtils.setField(journal, "segmentRecords", 4);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        // Seconds as partitions might append them: each segment of four is out of order
+        int[] seconds = {2, 0, 1, 3, 6, 4, 5, 7};
+        for (int second : seconds) {
+            AircraftData data = new AircraftData("N00001", now.plusSeconds(second));
+            data.setAltitude(second);
+            journal.append(data);
+        }
+
+        List<Double> scanned = new ArrayList<>();
+        long records = journal.scan(null, now.plusSeconds(1), now.plusSeconds(4), data -> scanned.add(data.getAltitude()));
+
+        assertEquals(4, records);
+        assertEquals(List.of(2.0, 1.0, 3.0, 4.0), scanned);
+    }
+
+    @Test
+    void tailNumbersLongerThanARecordHoldsAreNotJournaled() throws Exception {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        String longest = "N123456789ABCDEF";
+        assertEquals(JournalSegment.TAIL_NUMBER_BYTES, longest.length());
+        AircraftData fits = new AircraftData(longest, now);
+        fits.setAltitude(1);
+        journal.append(fits);
+        AircraftData tooLong = new AircraftData(longest + "G", now.plusSeconds(1));
+        tooLong.setAltitude(2);
+        journal.append(tooLong);
+
+        assertEquals(1L, journal.getJournalStatus().get("appendedRecords"));
+        assertEquals(1L, journal.getJournalStatus().get("rejectedRecords"));
+        assertEquals(1.0, journal.findLatest(longest).getAltitude());
+        assertNull(journal.findLatest(longest + "G"));
+        List<String> scanned = new ArrayList<>();
+        journal.scan(longest + "G", now.minusMinutes(1), now.plusMinutes(1), data -> scanned.add(data.getTailNumber()));
+        assertEquals(List.of(), scanned);
+        journal.scan(longest, now.minusMinutes(1), now.plusMinutes(1), data -> scanned.add(data.getTailNumber()));
+        assertEquals(List.of(longest), scanned);
+    }
+
+        @Test
+    void restartRecoversHistoryAndLatestSamples() throws Exception {
+        List<AircraftData> samples = samples();
+        samples.forEach(journal::append);
+        journal.shutdown();
+
+        journal = openJournal();
+
+        verify(telemetryHistoryService, times(samples.size())).record(any(String.class), anyLong(), any(), anyInt());
+        verify(telemetryHistoryService).record(eq("N00001"), anyLong(), any(), eq(AnomalyFlags.ENGINE));
+        for (AircraftData sample : samples) {
+            assertSameSample(sample, journal.findLatest(sample.getTailNumber()));
+        }
+        assertNull(journal.findLatest("N99999"));
+        assertEquals(2, journal.getJournalStatus().get("aircraftTypes"));
+    }
+
+    @Test
+    void replayScoresWithItsOwnRunOnTheReplayChannel() throws Exception {
+        AnomalyDetectionService.DetectionRun run = mock(AnomalyDetectionService.DetectionRun.class);
+        when(anomalyDetectionService.newRun(any())).thenReturn(run);
+        List<AircraftData> samples = samples();
+        samples.forEach(journal::append);
+
+        Map<String, Object> result = journal.replay(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1),
+                LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1), true);
+
+        assertEquals((long) samples.size(), result.get("records"));
+        verify(run, times(samples.size())).detectAnomalies(any());
+        verify(anomalyDetectionService, never()).detectAnomalies(any(AircraftData.class));
+        verify(webSocketService, times(samples.size())).broadcastReplayData(any());
+        verify(webSocketService, never()).broadcastAircraftData(any());
+    }
+
+    private TelemetryJournalService openJournal() throws Exception {
+        TelemetryJournalService service = new TelemetryJournalService();
+        ReflectionTestUtils.setField(service, "anomalyDetectionService", anomalyDetectionService);
+        ReflectionTestUtils.setField(service, "webSocketService", webSocketService);
+        ReflectionTestUtils.setField(service, "telemetryHistoryService", telemetryHistoryService);
+        ReflectionTestUtils.setField(service, "telemetryRollupService", telemetryRollupService);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "segmentRecords", 2);
+        ReflectionTestUtils.setField(service, "commitIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(service, "recoveryMinutes", 60);
+        ReflectionTestUtils.setField(service, "historyMinutes", 10);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Samples of three aircraft, spread over two segments, one of them without a type
+     */
+    private static List<AircraftData> samples() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS);
+        String[] types = {"B787", null, "A320"};
+        List<AircraftData> samples = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            AircraftData data = new AircraftData();
+            data.setTailNumber("N0000" + (i + 1));
+            data.setAircraftType(types[i]);
+            data.setTimestamp(now.plusNanos(i * 1_000_000L));
+            for (Sensor sensor : Sensor.VALUES) {
+                sensor.write(data, sensor.ordinal() * 10.5 + i);
+            }
+            samples.add(data);
+        }
+        samples.get(0).setEngineAnomaly(true);
+        return samples;
+    }
+
+    private static AircraftData copyOf(AircraftData source) {
+        AircraftData copy = new AircraftData();
+        TelemetryPipeline.copy(source, copy);
+        return copy;
+    }
+
+    private static void assertSameSample(AircraftData expected, AircraftData actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getTailNumber(), actual.getTailNumber());
+        assertEquals(expected.getAircraftType(), actual.getAircraftType());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(AnomalyFlags.of(expected), AnomalyFlags.of(actual));
+        for (Sensor sensor : Sensor.VALUES) {
+            assertEquals(sensor.read(expected), sensor.read(actual), sensor.getFieldName());
+        }
+    }
+}
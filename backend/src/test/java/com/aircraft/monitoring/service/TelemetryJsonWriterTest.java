@@ -0,0 +1,146 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.Sensor;
+import com.aircraft.monitoring.model.SensorGroup;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that {@link TelemetryJsonWriter} writes the same JSON as the Spring
+ * configured {@code ObjectMapper}, on random and edge-case values.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryJsonWriterTest {
+
+    // Configured like spring.jackson.* in application.properties
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .timeZone("UTC")
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void doublesMatchObjectMapper() throws Exception {
+        for (double value : doubles()) {
+            String json = TelemetryJsonWriter.acquire().value(value).toString();
+            assertEquals(objectMapper.writeValueAsString(value), json, "bits " + Double.doubleToRawLongBits(value));
+        }
+    }
+
+    @Test
+    void formatterWritesShortestDecimal() {
+        assumeTrue(DoubleFormatter.SHORTEST_TO_STRING, "Double.toString is not the shortest decimal before Java 19");
+        byte[] buffer = new byte[DoubleFormatter.MAX_LENGTH];
+        for (double value : doubles()) {
+            int end = DoubleFormatter.format(value, buffer, 0);
+            if (end >= 0) {
+                assertEquals(Double.toString(value), new String(buffer, 0, end, StandardCharsets.US_ASCII));
+            }
+        }
+    }
+
+    @Test
+    void aircraftDataMatchesObjectMapper() throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 1000; i++) {
+            AircraftData data = new AircraftData();
+            data.setTailNumber(i % 10 == 0 ? null : "N" + i + (i % 7 == 0 ? "\"\\\u0001é" : ""));
+            data.setAircraftType(i % 3 == 0 ? null : "B787");
+            data.setTimestamp(i % 11 == 0 ? null
+                    : LocalDateTime.of(2024, 5, 1, 6, 0).plusNanos(random.nextLong(1_000_000_000_000_000L)));
+            for (Sensor sensor : Sensor.VALUES) {
+                sensor.write(data, i % 50 == 0 ? Double.NaN : random.nextDouble(-50_000, 50_000));
+            }
+            data.setEngineAnomaly(random.nextBoolean());
+            data.setAltitudeAnomaly(random.nextBoolean());
+            data.setOutlierSensors(random.nextInt(1 << Sensor.COUNT));
+
+            String json = TelemetryJsonWriter.acquire().aircraftData(data, SensorGroup.ALL).toString();
+            // Jackson orders the getter-only properties by reflection, which varies between runs
+            assertEquals(fieldTexts(objectMapper.writeValueAsString(data)), fieldTexts(json), json);
+        }
+    }
+
+    @Test
+    void messagesMatchObjectMapper() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2024, 5, 1, 6, 0, 5, 120_000_000);
+        byte[] json = TelemetryJsonWriter.acquire().beginObject()
+                .name("type").value("alert")
+                .name("message").value("Line\nbreak\t\"quoted\"  ")
+                .name("count").value(Long.MIN_VALUE)
+                .name("since").value(since)
+                .name("value").value(Double.NEGATIVE_INFINITY)
+                .endObject().toByteArray();
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "alert");
+        message.put("message", "Line\nbreak\t\"quoted\"  ");
+        message.put("count", Long.MIN_VALUE);
+        message.put("since", since);
+        message.put("value", Double.NEGATIVE_INFINITY);
+        assertEquals(objectMapper.writeValueAsString(message), new String(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the fields of a flat JSON object as written, ignoring their order
+     */
+    private Map<String, String> fieldTexts(String json) throws Exception {
+        Map<String, String> fields = new HashMap<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                fields.put(name, value + " " + parser.getText());
+            }
+            assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+        }
+        return fields;
+    }
+
+    /**
+     * Random bit patterns, random values in the sensor ranges, and values around
+     * the notation and precision boundaries
+     */
+    private static List<Double> doubles() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            values.add(Double.longBitsToDouble(random.nextLong()));
+            values.add(random.nextDouble(-100_000, 100_000));
+            // Integral doubles between 2^54 and 2^85, where Java 17 prints extra digits
+            values.add(Math.scalb((double) (random.nextLong() >>> 11), 2 + random.nextInt(32)));
+        }
+        double[] edges = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, 1e-3, 1e7, 1e23, 2e-3, 9.999999999999999e22,
+                0.1, 0.3, 1.0, 123456.789, 4.35, 2.0E-3, 1.0E22, 5e-324, 2.2250738585072014E-308};
+        for (double edge : edges) {
+            values.add(edge);
+            values.add(-edge);
+            values.add(Math.nextUp(edge));
+            values.add(Math.nextDown(edge));
+        }
+        for (int exponent = -1074; exponent <= 1023; exponent++) {
+            values.add(Math.scalb(1.0, exponent));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,171 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that {@link TelemetryPipeline} completes every sample of an aircraft in
+ * publishing order, across wrapping rings and concurrent producers, and applies
+ * its overflow policy when a ring is full.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryPipelineTest {
+
+    private static final int AIRCRAFT = 12;
+    private static final int SAMPLES_PER_AIRCRAFT = 2000;
+
+    private final AnomalyDetectionService anomalyDetectionService = mock(AnomalyDetectionService.class);
+    private final TelemetryHistoryService telemetryHistoryService = mock(TelemetryHistoryService.class);
+    private final TelemetryJournalService telemetryJournalService = mock(TelemetryJournalService.class);
+    private TelemetryPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void completesSamplesOfEachAircraftInOrder() throws Exception {
+        // Two slots per ring, so producers wrap and block on every partition
+        pipeline = pipeline(3, 6, TelemetryPipeline.OverflowPolicy.BLOCK);
+        Map<Integer, List<Double>> completed = new ConcurrentHashMap<>();
+        TelemetryPipeline.Sink sink = (data, key) ->
+                completed.computeIfAbsent(key, k -> new ArrayList<>()).add(data.getAltitude());
+
+        // Each producer owns a third of the aircraft, like the fleet workers
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 3; producer++) {
+            int first = producer;
+            producers.add(new Thread(() -> {
+                for (int sample = 0; sample < SAMPLES_PER_AIRCRAFT; sample++) {
+                    for (int key = first; key < AIRCRAFT; key += 3) {
+                        long sequence = pipeline.claim(key);
+                        AircraftData data = pipeline.get(key, sequence);
+                        data.setTailNumber("N" + key);
+                        data.setAltitude(sample);
+                        pipeline.publish(key, sequence, sink);
+                    }
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        awaitRecorded(AIRCRAFT * SAMPLES_PER_AIRCRAFT);
+
+        assertEquals(AIRCRAFT, completed.size());
+        for (List<Double> altitudes : completed.values()) {
+            assertEquals(SAMPLES_PER_AIRCRAFT, altitudes.size());
+            for (int sample = 0; sample < SAMPLES_PER_AIRCRAFT; sample++) {
+                assertEquals(sample, altitudes.get(sample));
+            }
+        }
+        assertEquals(0, pipeline.getBacklog());
+        assertEquals(0, pipeline.getDroppedCount());
+        verify(anomalyDetectionService, times(AIRCRAFT * SAMPLES_PER_AIRCRAFT)).detectAnomalies(any(AircraftData.class));
+        verify(telemetryJournalService, times(AIRCRAFT * SAMPLES_PER_AIRCRAFT)).append(any());
+    }
+
+    @Test
+    void discardedSlotsAreReleasedWithoutRecording() throws Exception {
+        pipeline = pipeline(2, 4, TelemetryPipeline.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 10; i++) {
+            long sequence = pipeline.claim(i);
+            pipeline.publish(i, sequence, null);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pipeline.getBacklog() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(0, pipeline.getBacklog());
+        assertEquals(0, pipeline.getRecordedCount());
+        verify(telemetryHistoryService, times(0)).record(any(AircraftData.class));
+    }
+
+    @Test
+    void fullRingDropsOnlyItsOwnPartition() throws Exception {
+        pipeline = pipeline(2, 4, TelemetryPipeline.OverflowPolicy.DROP_NEWEST);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        TelemetryPipeline.Sink blocking = (data, key) -> {
+            blocked.countDown();
+            awaitQuietly(release);
+        };
+
+        // Partition 0 is stuck in its sink with a full ring; partition 1 keeps going
+        pipeline.publish(0, pipeline.claim(0), blocking);
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        pipeline.publish(0, pipeline.claim(0), blocking);
+        assertEquals(-1, pipeline.claim(0));
+        assertEquals(1, pipeline.getDroppedCount());
+
+        TelemetryPipeline.Sink sink = (data, key) -> {
+        };
+        for (int i = 0; i < 10; i++) {
+            long sequence = pipeline.claim(1);
+            assertTrue(sequence >= 0, "partition 1 has free slots");
+            pipeline.publish(1, sequence, sink);
+            awaitRecorded(i + 1);
+        }
+
+        release.countDown();
+        awaitRecorded(12);
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+
+    private TelemetryPipeline pipeline(int partitions, int ringSize, TelemetryPipeline.OverflowPolicy policy) {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        pipelineMetrics.init();
+
+        TelemetryPipeline telemetryPipeline = new TelemetryPipeline();
+        ReflectionTestUtils.setField(telemetryPipeline, "anomalyDetectionService", anomalyDetectionService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryHistoryService", telemetryHistoryService);
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryRollupService", mock(TelemetryRollupService.class));
+        ReflectionTestUtils.setField(telemetryPipeline, "telemetryJournalService", telemetryJournalService);
+        ReflectionTestUtils.setField(telemetryPipeline, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(telemetryPipeline, "enabled", true);
+        ReflectionTestUtils.setField(telemetryPipeline, "ringSize", ringSize);
+        ReflectionTestUtils.setField(telemetryPipeline, "partitions", partitions);
+        ReflectionTestUtils.setField(telemetryPipeline, "overflowPolicy", policy);
+        telemetryPipeline.init();
+        return telemetryPipeline;
+    }
+
+    private void awaitRecorded(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pipeline.getRecordedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, pipeline.getRecordedCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.RollupResolution;
+import com.aircraft.monitoring.model.RollupSeries;
+import com.aircraft.monitoring.model.Sensor;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the buckets of {@link TelemetryRollupService}, the choice of resolution
+ * and that fleet aircraft are excluded before any sample is recorded.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class TelemetryRollupServiceTest {
+
+    // A minute boundary, so every resolution's buckets start here
+    private static final long START = 1_718_000_400_000L;
+
+    @Test
+    void bucketsAggregateSamples() {
+        TelemetryRollupService service = service(false, false);
+        // Two seconds apart for three minutes: 30 samples per minute
+        for (int i = 0; i < 90; i++) {
+            service.record("N12345", START + i * 2_000L, values(i));
+        }
+
+        RollupSeries series = service.getSeries("N12345", Sensor.ALTITUDE, START, START + 179_999L,
+                RollupResolution.MINUTE);
+        assertEquals(3, series.getSize());
+        assertArrayEquals(new long[]{START, START + 60_000L, START + 120_000L}, series.getTimestamps());
+        assertArrayEquals(new int[]{30, 30, 30}, series.getCounts());
+        assertArrayEquals(new double[]{0, 30, 60}, series.getMin());
+        assertArrayEquals(new double[]{29, 59, 89}, series.getMax());
+        assertArrayEquals(new double[]{14.5, 44.5, 74.5}, series.getAvg());
+    }
+
+    @Test
+    void picksFinestResolutionWithinMaxPoints() {
+        TelemetryRollupService service = service(false, false);
+        ReflectionTestUtils.setField(service, "maxPoints", 100);
+        for (int i = 0; i < 300; i++) {
+            service.record("N12345", START + i * 2_000L, values(i));
+        }
+
+        assertEquals(RollupResolution.SECOND,
+                service.getSeries("N12345", Sensor.ALTITUDE, START, START + 60_000L, null).getResolution());
+        assertEquals(RollupResolution.TEN_SECONDS,
+                service.getSeries("N12345", Sensor.ALTITUDE, START, START + 599_999L, null).getResolution());
+    }
+
+    @Test
+    void fleetIsExcludedFromStartup() {
+        TelemetryRollupService service = service(true, false);
+        List<String> fleet = FleetSimulationService.tailNumbers(5, "N12345");
+        for (String tailNumber : fleet) {
+            service.record(tailNumber, START, values(1));
+        }
+        service.record("N12345", START, values(1));
+        service.record("N99999", START, values(1));
+
+        for (String tailNumber : fleet) {
+            assertNull(service.getSeries(tailNumber, Sensor.ALTITUDE, START, START, RollupResolution.SECOND));
+        }
+        assertNotNull(service.getSeries("N12345", Sensor.ALTITUDE, START, START, RollupResolution.SECOND));
+        assertNotNull(service.getSeries("N99999", Sensor.ALTITUDE, START, START, RollupResolution.SECOND));
+        assertEquals(true, service.getRollupStatus().get("fleetExcluded"));
+
+        TelemetryRollupService rolledUp = service(true, true);
+        rolledUp.record(fleet.get(0), START, values(1));
+        assertNotNull(rolledUp.getSeries(fleet.get(0), Sensor.ALTITUDE, START, START, RollupResolution.SECOND));
+    }
+
+    private static TelemetryRollupService service(boolean fleetEnabled, boolean fleetRollups) {
+        TelemetryRollupService service = new TelemetryRollupService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "secondRetentionMinutes", 10L);
+        ReflectionTestUtils.setField(service, "tenSecondRetentionMinutes", 120L);
+        ReflectionTestUtils.setField(service, "minuteRetentionMinutes", 1440L);
+        ReflectionTestUtils.setField(service, "tenMinuteRetentionMinutes", 10080L);
+        ReflectionTestUtils.setField(service, "maxPoints", 2000);
+        ReflectionTestUtils.setField(service, "maxAircraft", 100);
+        ReflectionTestUtils.setField(service, "demoTailNumber", "N12345");
+        ReflectionTestUtils.setField(service, "fleetEnabled", fleetEnabled);
+        ReflectionTestUtils.setField(service, "fleetSize", 5);
+        ReflectionTestUtils.setField(service, "fleetRollups", fleetRollups);
+        service.init();
+        return service;
+    }
+
+    private static double[] values(double altitude) {
+        double[] values = new double[Sensor.COUNT];
+        values[Sensor.ALTITUDE.ordinal()] = altitude;
+        return values;
+    }
+}
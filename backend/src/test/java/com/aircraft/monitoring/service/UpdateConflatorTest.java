@@ -0,0 +1,106 @@
+package com.aircraft.monitoring.service;
+
+import com.aircraft.monitoring.model.AircraftData;
+import com.aircraft.monitoring.model.AnomalyFlags;
+import com.aircraft.monitoring.model.Sensor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link UpdateConflator} sends at most one update per interval and
+ * aircraft, sends anomaly changes at once, aggregates the conflated samples and
+ * keeps copies rather than the caller's objects.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+class UpdateConflatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 6, 0);
+
+    @Test
+    void sendsTheLatestSampleOncePerInterval() {
+        UpdateConflator conflator = new UpdateConflator(1000, false);
+        assertNotNull(conflator.offer(sample("N12345", 1), 0, 0));
+        assertNull(conflator.offer(sample("N12345", 2), 0, 200));
+        assertNull(conflator.offer(sample("N12345", 3), 0, 400));
+        // Other aircraft have their own interval
+        assertNotNull(conflator.offer(sample("N00001", 1), 0, 400));
+
+        List<UpdateConflator.Update> due = new ArrayList<>();
+        conflator.collectDue(900, due);
+        assertTrue(due.isEmpty());
+        conflator.collectDue(1000, due);
+        assertEquals(1, due.size());
+        assertEquals(3.0, due.get(0).getData().getAltitude());
+        assertEquals(2, due.get(0).getCount());
+        assertFalse(due.get(0).hasAggregate());
+
+        // Both aircraft were sent without newer samples
+        due.clear();
+        conflator.collectDue(5000, due);
+        assertTrue(due.isEmpty());
+    }
+
+    @Test
+    void anomalyChangesAreSentAtOnce() {
+        UpdateConflator conflator = new UpdateConflator(1000, false);
+        conflator.offer(sample("N12345", 1), 0, 0);
+        UpdateConflator.Update raised = conflator.offer(sample("N12345", 2), AnomalyFlags.ENGINE, 100);
+        assertNotNull(raised);
+        assertEquals(2.0, raised.getData().getAltitude());
+        assertNull(conflator.offer(sample("N12345", 3), AnomalyFlags.ENGINE, 200));
+        assertNotNull(conflator.offer(sample("N12345", 4), 0, 300));
+    }
+
+    @Test
+    void aggregatesTheConflatedSamples() {
+        UpdateConflator conflator = new UpdateConflator(1000, true);
+        conflator.offer(sample("N12345", 10), 0, 0);
+        conflator.offer(sample("N12345", 4), 0, 100);
+        conflator.offer(sample("N12345", 8), 0, 200);
+        UpdateConflator.Update update = conflator.offer(sample("N12345", 6), 0, 1000);
+
+        assertTrue(update.hasAggregate());
+        assertEquals(3, update.getCount());
+        int altitude = Sensor.ALTITUDE.ordinal();
+        assertEquals(4.0, update.getMin()[altitude]);
+        assertEquals(8.0, update.getMax()[altitude]);
+        assertEquals(6.0, update.getAvg()[altitude]);
+        assertEquals(6.0, update.getData().getAltitude());
+    }
+
+    @Test
+    void keepsCopiesOfReusedSamples() {
+        UpdateConflator conflator = new UpdateConflator(1000, false);
+        AircraftData reused = sample("N12345", 1);
+        UpdateConflator.Update first = conflator.offer(reused, 0, 0);
+        assertNotSame(reused, first.getData());
+
+        reused.setAltitude(2);
+        conflator.offer(reused, 0, 100);
+        reused.setAltitude(3);
+        assertEquals(1.0, first.getData().getAltitude());
+
+        List<UpdateConflator.Update> due = new ArrayList<>();
+        conflator.collectDue(1000, due);
+        assertEquals(2.0, due.get(0).getData().getAltitude());
+        assertNotSame(first.getData(), due.get(0).getData());
+    }
+
+    private static AircraftData sample(String tailNumber, double altitude) {
+        AircraftData data = new AircraftData(tailNumber, START);
+        data.setAltitude(altitude);
+        return data;
+    }
+}
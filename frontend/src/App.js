@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import './App.css';
 import Dashboard from './components/Dashboard';
 import WebSocketService from './services/WebSocketService';
+import { parseTimestamp } from './services/TelemetryDecoder';
 import AlertPanel from './components/AlertPanel';
 
 /**
@@ -147,7 +148,7 @@ function App() {
               
               <div className="text-sm text-gray-400">
                 {aircraftData ? (
-                  <span>Last Update: {new Date(aircraftData.timestamp).toLocaleTimeString()}</span>
+                  <span>Last Update: {parseTimestamp(aircraftData.timestamp).toLocaleTimeString()}</span>
                 ) : (
                   <span>No data available</span>
                 )}
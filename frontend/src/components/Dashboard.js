@@ -5,6 +5,7 @@ import HydraulicSystem from './HydraulicSystem';
 import FlightData from './FlightData';
 import SystemStatus from './SystemStatus';
 import AnomalyControls from './AnomalyControls';
+import { parseTimestamp } from '../services/TelemetryDecoder';
 
 /**
  * Main Dashboard component for aircraft health monitoring
@@ -123,7 +124,7 @@ const Dashboard = ({ aircraftData, connectionStatus }) => {
       
       {/* Data Timestamp */}
       <div className="text-center text-sm text-gray-400">
-        Last Updated: {new Date(aircraftData.timestamp).toLocaleString()}
+        Last Updated: {parseTimestamp(aircraftData.timestamp).toLocaleString()}
       </div>
     </div>
   );
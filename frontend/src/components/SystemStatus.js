@@ -1,5 +1,6 @@
 import React from 'react';
 import { CheckCircle, AlertTriangle, XCircle, Activity } from 'lucide-react';
+import { parseTimestamp } from '../services/TelemetryDecoder';
 
 /**
  * System Status component for displaying overall aircraft system status
@@ -150,7 +151,7 @@ const SystemStatus = ({ aircraftData }) => {
       <div className="mt-6 pt-4 border-t border-border-color">
         <div className="flex items-center justify-between text-sm text-gray-400">
           <span>Last System Check</span>
-          <span>{new Date(aircraftData.timestamp).toLocaleString()}</span>
+          <span>{parseTimestamp(aircraftData.timestamp).toLocaleString()}</span>
         </div>
       </div>
     </div>
@@ -0,0 +1,179 @@
+/**
+ * Decoder for the binary aircraft telemetry protocol
+ *
+ * Frames are keyframes (all sensor values) or deltas (changed sensors only,
+ * relative to the previous frame of the same aircraft stream). The field
+ * layout and resolutions come from the "binary_schema" message the server
+ * sends on connect. A stream that misses a frame ignores deltas until its
+ * next keyframe.
+ *
+ * @author Aircraft Monitoring Team
+ * @version 1.0.0
+ */
+
+export const TELEMETRY_SUBPROTOCOL = 'aircraft-telemetry-v1';
+
+const KEYFRAME = 1;
+const DELTA = 2;
+
+const FLAG_FIELDS = {
+  engine: 'engineAnomaly',
+  fuel: 'fuelAnomaly',
+  hydraulic: 'hydraulicAnomaly',
+  altitude: 'altitudeAnomaly',
+  airspeed: 'airspeedAnomaly'
+};
+
+class TelemetryDecoder {
+  constructor() {
+    this.schema = null;
+    this.streams = new Map();
+  }
+
+  /**
+   * Sets the field layout announced by the server
+   *
+   * @param {Object} schema The data of the binary_schema message
+   */
+  setSchema(schema) {
+    this.schema = schema;
+    this.streams.clear();
+  }
+
+  /**
+   * Decodes one binary frame
+   *
+   * @param {ArrayBuffer} buffer The frame
+   * @returns {Object|null} Aircraft data in the JSON message shape, or null if the frame cannot be applied yet
+   */
+  decode(buffer) {
+    if (!this.schema) {
+      return null;
+    }
+
+    const view = new DataView(buffer);
+    let offset = 0;
+    const frameType = view.getUint8(offset); offset += 1;
+    const streamId = view.getUint16(offset); offset += 2;
+    const sequence = view.getUint32(offset); offset += 4;
+    const epochMillis = view.getFloat64(offset); offset += 8;
+    const flags = view.getUint8(offset); offset += 1;
+    const fields = this.schema.fields;
+
+    let stream = this.streams.get(streamId);
+
+    if (frameType === KEYFRAME) {
+      const tailNumber = readAscii(view, offset); offset += 1 + tailNumber.length;
+      const aircraftType = readAscii(view, offset); offset += 1 + aircraftType.length;
+      const values = new Array(fields.length);
+      for (let i = 0; i < fields.length; i++) {
+        values[i] = view.getInt32(offset); offset += 4;
+      }
+      stream = { tailNumber, aircraftType, values, sequence };
+      this.streams.set(streamId, stream);
+    } else if (frameType === DELTA) {
+      if (!stream || sequence !== stream.sequence + 1) {
+        // Missed a frame, wait for the next keyframe
+        if (stream) {
+          this.streams.delete(streamId);
+        }
+        return null;
+      }
+      const mask = view.getUint32(offset); offset += 4;
+      for (let i = 0; i < fields.length; i++) {
+        if (mask & (1 << i)) {
+          const [difference, length] = readZigzagVarint(view, offset);
+          offset += length;
+          stream.values[i] += difference;
+        }
+      }
+      stream.sequence = sequence;
+    } else {
+      return null;
+    }
+
+    return this.toAircraftData(stream, epochMillis, flags);
+  }
+
+  /**
+   * Builds an object with the same properties as the JSON aircraft_data payload
+   */
+  toAircraftData(stream, epochMillis, flags) {
+    const data = {
+      tailNumber: stream.tailNumber,
+      aircraftType: stream.aircraftType,
+      timestamp: formatTimestamp(epochMillis)
+    };
+
+    this.schema.fields.forEach((field, i) => {
+      data[field.name] = roundToResolution(stream.values[i] * field.resolution, field.resolution);
+    });
+
+    this.schema.flags.forEach((subsystem, bit) => {
+      data[FLAG_FIELDS[subsystem] || `${subsystem}Anomaly`] = (flags & (1 << bit)) !== 0;
+    });
+    data.systemStatus = flags !== 0 ? 'WARNING' : 'NORMAL';
+
+    return data;
+  }
+}
+
+/**
+ * Reads a length-prefixed ASCII string
+ */
+function readAscii(view, offset) {
+  const length = view.getUint8(offset);
+  let value = '';
+  for (let i = 0; i < length; i++) {
+    value += String.fromCharCode(view.getUint8(offset + 1 + i));
+  }
+  return value;
+}
+
+/**
+ * Reads a zigzag-encoded varint of up to 35 bits
+ *
+ * @returns {Array} The decoded value and the number of bytes read
+ */
+function readZigzagVarint(view, offset) {
+  let value = 0;
+  let multiplier = 1;
+  let length = 0;
+  let byte;
+  do {
+    byte = view.getUint8(offset + length);
+    value += (byte & 0x7f) * multiplier;
+    multiplier *= 128;
+    length++;
+  } while (byte & 0x80);
+  const decoded = value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+  return [decoded, length];
+}
+
+/**
+ * Removes floating point noise from a dequantized value
+ */
+function roundToResolution(value, resolution) {
+  const decimals = Math.max(0, Math.ceil(-Math.log10(resolution)));
+  return Number(value.toFixed(decimals));
+}
+
+/**
+ * Parses a JSON timestamp ("yyyy-MM-dd HH:mm:ss", UTC) into a Date; without the
+ * zone the browser would read it as local time
+ */
+export function parseTimestamp(timestamp) {
+  return timestamp ? new Date(`${timestamp.replace(' ', 'T')}Z`) : new Date(NaN);
+}
+
+/**
+ * Formats epoch millis like the JSON timestamps ("yyyy-MM-dd HH:mm:ss", UTC)
+ */
+function formatTimestamp(epochMillis) {
+  const date = new Date(epochMillis);
+  const pad = (value) => String(value).padStart(2, '0');
+  return `${date.getUTCFullYear()}-${pad(date.getUTCMonth() + 1)}-${pad(date.getUTCDate())} `
+    + `${pad(date.getUTCHours())}:${pad(date.getUTCMinutes())}:${pad(date.getUTCSeconds())}`;
+}
+
+export default TelemetryDecoder;
@@ -0,0 +1,105 @@
+import TelemetryDecoder, { parseTimestamp } from './TelemetryDecoder';
+
+const KEYFRAME = 1;
+const DELTA = 2;
+
+const SCHEMA = {
+  protocol: 'aircraft-telemetry-v1',
+  flags: ['engine', 'fuel', 'hydraulic', 'altitude', 'airspeed'],
+  fields: [
+    { name: 'engineRPM', resolution: 1.0 },
+    { name: 'fuelLevel', resolution: 0.01 },
+    { name: 'machNumber', resolution: 0.001 }
+  ]
+};
+
+const EPOCH_MILLIS = Date.UTC(2024, 4, 1, 6, 0, 0);
+
+/**
+ * Builds a frame the way the server's encoder does
+ */
+function frame(frameType, sequence, body, flags = 0) {
+  const bytes = [];
+  const view = new DataView(new ArrayBuffer(8));
+  bytes.push(frameType, 0, 7);
+  view.setUint32(0, sequence);
+  bytes.push(...new Uint8Array(view.buffer, 0, 4));
+  view.setFloat64(0, EPOCH_MILLIS + sequence * 2000);
+  bytes.push(...new Uint8Array(view.buffer, 0, 8));
+  bytes.push(flags, ...body);
+  return new Uint8Array(bytes).buffer;
+}
+
+function ascii(value) {
+  return [value.length, ...Array.from(value, (c) => c.charCodeAt(0))];
+}
+
+function int32(value) {
+  const view = new DataView(new ArrayBuffer(4));
+  view.setInt32(0, value);
+  return Array.from(new Uint8Array(view.buffer));
+}
+
+function keyframe(sequence, values, flags = 0) {
+  return frame(KEYFRAME, sequence, [...ascii('N12345'), ...ascii('B737'), ...values.flatMap(int32)], flags);
+}
+
+function delta(sequence, mask, varints) {
+  return frame(DELTA, sequence, [...int32(mask), ...varints]);
+}
+
+describe('TelemetryDecoder', () => {
+  let decoder;
+
+  beforeEach(() => {
+    decoder = new TelemetryDecoder();
+    decoder.setSchema(SCHEMA);
+  });
+
+  test('decodes a keyframe into the JSON message shape', () => {
+    const data = decoder.decode(keyframe(1, [2400, 7550, 785], 0b00001));
+
+    expect(data.tailNumber).toBe('N12345');
+    expect(data.aircraftType).toBe('B737');
+    expect(data.timestamp).toBe('2024-05-01 06:00:02');
+    expect(data.engineRPM).toBe(2400);
+    expect(data.fuelLevel).toBe(75.5);
+    expect(data.machNumber).toBe(0.785);
+    expect(data.engineAnomaly).toBe(true);
+    expect(data.fuelAnomaly).toBe(false);
+    expect(data.systemStatus).toBe('WARNING');
+  });
+
+  test('applies zigzag varint deltas to the changed sensors', () => {
+    decoder.decode(keyframe(1, [2400, 7550, 785]));
+    // engineRPM +150 (zigzag 300, two bytes), machNumber -1 (zigzag 1)
+    const data = decoder.decode(delta(2, 0b101, [0xac, 0x02, 0x01]));
+
+    expect(data.engineRPM).toBe(2550);
+    expect(data.fuelLevel).toBe(75.5);
+    expect(data.machNumber).toBe(0.784);
+    expect(data.systemStatus).toBe('NORMAL');
+  });
+
+  test('drops deltas after a missed frame until the next keyframe', () => {
+    decoder.decode(keyframe(1, [2400, 7550, 785]));
+
+    expect(decoder.decode(delta(3, 0b001, [0x02]))).toBeNull();
+    // The stream was discarded, so even the following delta is not applied
+    expect(decoder.decode(delta(4, 0b001, [0x02]))).toBeNull();
+
+    const resynced = decoder.decode(keyframe(5, [2500, 7500, 780]));
+    expect(resynced.engineRPM).toBe(2500);
+    expect(decoder.decode(delta(6, 0b001, [0x02])).engineRPM).toBe(2501);
+  });
+
+  test('ignores frames before the schema and deltas of unknown streams', () => {
+    expect(new TelemetryDecoder().decode(keyframe(1, [2400, 7550, 785]))).toBeNull();
+    expect(decoder.decode(delta(1, 0b001, [0x02]))).toBeNull();
+  });
+
+  test('parses JSON timestamps as UTC', () => {
+    expect(parseTimestamp('2024-05-01 06:00:02').getTime()).toBe(EPOCH_MILLIS + 2000);
+    expect(Number.isNaN(parseTimestamp(null).getTime())).toBe(true);
+  });
+});
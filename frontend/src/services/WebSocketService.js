@@ -1,4 +1,5 @@
 import SockJS from 'sockjs-client';
+import TelemetryDecoder, { TELEMETRY_SUBPROTOCOL } from './TelemetryDecoder';
 
 /**
  * WebSocket service for real-time aircraft data communication
@@ -6,11 +7,21 @@ import SockJS from 'sockjs-client';
  * This service handles WebSocket connections to the backend and provides
  * event-based communication for aircraft sensor data and alerts.
  * 
+ * With the binary option, it connects to the plain WebSocket endpoint and
+ * negotiates the compact binary telemetry protocol; aircraft data then arrives
+ * as binary delta frames while alerts and status messages stay JSON.
+ * 
  * @author Aircraft Monitoring Team
  * @version 1.0.0
  */
 class WebSocketService {
-  constructor() {
+  /**
+   * @param {Object} options Connection options
+   * @param {boolean} options.binary Use the binary telemetry protocol instead of SockJS/JSON
+   */
+  constructor(options = {}) {
+    this.binary = options.binary || false;
+    this.decoder = new TelemetryDecoder();
     this.socket = null;
     this.stompClient = null;
     this.connected = false;
@@ -21,6 +32,7 @@ class WebSocketService {
     // Event callbacks
     this.onAircraftDataCallback = null;
     this.onAlertCallback = null;
+    this.onReplayDataCallback = null;
     this.onConnectionStatusCallback = null;
   }
 
@@ -30,8 +42,14 @@ class WebSocketService {
   async connect() {
     return new Promise((resolve, reject) => {
       try {
-        // Create SockJS connection
-        this.socket = new SockJS('http://localhost:8080/websocket');
+        if (this.binary) {
+          // Plain WebSocket, negotiating the binary sub-protocol
+          this.socket = new WebSocket('ws://localhost:8080/ws', [TELEMETRY_SUBPROTOCOL]);
+          this.socket.binaryType = 'arraybuffer';
+        } else {
+          // Create SockJS connection
+          this.socket = new SockJS('http://localhost:8080/websocket');
+        }
         
         // Set up connection handlers
         this.socket.onopen = () => {
@@ -90,9 +108,14 @@ class WebSocketService {
   /**
    * Handles incoming WebSocket messages
    * 
-   * @param {string} data The message data
+   * @param {string|ArrayBuffer} data The message data
    */
   handleMessage(data) {
+    if (data instanceof ArrayBuffer) {
+      this.handleBinaryMessage(data);
+      return;
+    }
+
     try {
       const message = JSON.parse(data);
       
@@ -109,6 +132,24 @@ class WebSocketService {
           }
           break;
           
+        case 'replay_data':
+          if (this.onReplayDataCallback) {
+            this.onReplayDataCallback(message.data);
+          }
+          break;
+          
+        case 'binary_schema':
+          this.decoder.setSchema(message.data);
+          break;
+          
+        case 'subscription':
+          console.log('Subscription updated:', message.data);
+          break;
+          
+        case 'error':
+          console.warn('WebSocket error message:', message.message);
+          break;
+          
         case 'connection':
           console.log('Connection message:', message.message);
           break;
@@ -125,6 +166,22 @@ class WebSocketService {
     }
   }
 
+  /**
+   * Decodes a binary telemetry frame
+   * 
+   * @param {ArrayBuffer} data The frame
+   */
+  handleBinaryMessage(data) {
+    try {
+      const aircraftData = this.decoder.decode(data);
+      if (aircraftData && this.onAircraftDataCallback) {
+        this.onAircraftDataCallback(aircraftData);
+      }
+    } catch (error) {
+      console.error('Error decoding binary WebSocket message:', error);
+    }
+  }
+
   /**
    * Sends a message to the WebSocket server
    * 
@@ -156,6 +213,15 @@ class WebSocketService {
     this.onAlertCallback = callback;
   }
 
+  /**
+   * Sets the callback for samples of replayed flights, sent after subscribing with replay
+   * 
+   * @param {Function} callback The callback function
+   */
+  onReplayData(callback) {
+    this.onReplayDataCallback = callback;
+  }
+
   /**
    * Sets the callback for connection status updates
    * 
@@ -203,6 +269,32 @@ class WebSocketService {
     this.sendMessage(alertMessage);
   }
 
+  /**
+   * Subscribes to aircraft data. Omitted options keep their current setting.
+   * 
+   * @param {Object} options Subscription options
+   * @param {string[]} options.aircraft Tail numbers to add, or ['*'] for all aircraft
+   * @param {string[]} options.subsystems Groups to add (engine, fuel, hydraulic, flight, systems), or ['*']
+   * @param {boolean} options.anomaliesOnly Only receive samples with anomalies in the subscribed groups
+   * @param {number} options.maxRate Maximum updates per second and aircraft, 0 for every update
+   * @param {boolean} options.aggregate Receive min/max/avg over the conflated samples with each update
+   * @param {boolean} options.replay Receive replay_data messages of replayed flights
+   */
+  subscribe({ aircraft, subsystems, anomaliesOnly, maxRate, aggregate, replay } = {}) {
+    this.sendMessage({ type: 'subscribe', aircraft, subsystems, anomaliesOnly, maxRate, aggregate, replay });
+  }
+
+  /**
+   * Unsubscribes from aircraft or subsystems; without options, stops all aircraft data
+   * 
+   * @param {Object} options Unsubscribe options
+   * @param {string[]} options.aircraft Tail numbers to remove
+   * @param {string[]} options.subsystems Groups to remove
+   */
+  unsubscribe({ aircraft, subsystems } = {}) {
+    this.sendMessage({ type: 'unsubscribe', aircraft, subsystems });
+  }
+
   /**
    * Requests current aircraft data from the server
    */